@@ -0,0 +1,973 @@
+package org.utplsql.maven.plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.utplsql.api.DBHelper;
+import org.utplsql.api.FileMapperOptions;
+import org.utplsql.api.TestRunner;
+import org.utplsql.api.Version;
+import org.utplsql.api.exception.SomeTestsFailedException;
+import org.utplsql.api.reporter.CoreReporters;
+import org.utplsql.api.reporter.Reporter;
+import org.utplsql.api.reporter.ReporterFactory;
+import org.utplsql.maven.plugin.concurrent.NamedThreadFactory;
+import org.utplsql.maven.plugin.concurrent.SchemaScheduler;
+import org.utplsql.maven.plugin.db.CompilerSettings;
+import org.utplsql.maven.plugin.db.ConnectionFactory;
+import org.utplsql.maven.plugin.db.Fixtures;
+import org.utplsql.maven.plugin.db.OutputBufferSource;
+import org.utplsql.maven.plugin.db.ParallelTasks;
+import org.utplsql.maven.plugin.db.PlsqlProfiler;
+import org.utplsql.maven.plugin.db.Recompiler;
+import org.utplsql.maven.plugin.db.SchemaDdl;
+import org.utplsql.maven.plugin.db.SessionId;
+import org.utplsql.maven.plugin.db.SessionStats;
+import org.utplsql.maven.plugin.db.TestSuites;
+import org.utplsql.maven.plugin.event.LiveRun;
+import org.utplsql.maven.plugin.event.ProgressMonitor;
+import org.utplsql.maven.plugin.event.StallWatchdog;
+import org.utplsql.maven.plugin.event.TestEventChannel;
+import org.utplsql.maven.plugin.event.TestResults;
+import org.utplsql.maven.plugin.event.TraceRecorder;
+import org.utplsql.maven.plugin.io.BatchProgress;
+import org.utplsql.maven.plugin.io.ChangedLinesCoverage;
+import org.utplsql.maven.plugin.io.FailureManifest;
+import org.utplsql.maven.plugin.io.FileChecksums;
+import org.utplsql.maven.plugin.io.HistoryOrder;
+import org.utplsql.maven.plugin.io.IncrementalCoverage;
+import org.utplsql.maven.plugin.io.ProfileReport;
+import org.utplsql.maven.plugin.io.ReportManifest;
+import org.utplsql.maven.plugin.io.ReportWriter;
+import org.utplsql.maven.plugin.io.RunCache;
+import org.utplsql.maven.plugin.io.RunTimes;
+import org.utplsql.maven.plugin.io.ScannedFiles;
+import org.utplsql.maven.plugin.io.SessionStatsReport;
+import org.utplsql.maven.plugin.io.TestHistory;
+import org.utplsql.maven.plugin.model.ConnectionInfo;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+import org.utplsql.maven.plugin.model.FileMapping;
+import org.utplsql.maven.plugin.model.ReporterParameter;
+import org.utplsql.maven.plugin.util.StringUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static org.utplsql.maven.plugin.concurrent.Futures.await;
+import static org.utplsql.maven.plugin.util.StringUtil.isNotBlank;
+
+/**
+ * A run of the tests of a {@code test} execution on one database, from the connection to the reports. The
+ * parameters and the database access come from the mojo, the features run through their helpers in the
+ * {@code db}, {@code event} and {@code io} packages.
+ */
+final class TestRun {
+
+    private static final String TRACE_FILE_NAME = "utplsql-trace.json";
+    private static final String ORDER_CHECKSUMS_FILE = "utplsql/test-order-checksums.tsv";
+
+    private final UtPlsqlMojo mojo;
+    private final Log log;
+    private final ConnectionInfo connectionInfo;
+    private final CompilerSettings compilerSettings;
+    private final ConnectionFactory connections;
+    private final TraceRecorder trace = new TraceRecorder();
+    private final ReporterFactory reporterFactory = ReporterFactory.createEmpty();
+    private final TestResults results = new TestResults();
+    private final Map<String, SessionStats> suiteStats = new HashMap<>();
+    private List<String> runPaths;
+
+    private Future<ScannedFiles> sourcesScan;
+    private Future<ScannedFiles> testsScan;
+    private Future<List<String>> fixturesScan;
+    private ScannedFiles sourceFiles;
+    private ScannedFiles testFiles;
+    private List<String> fixtureFiles;
+
+    private RunCache runCache;
+    private String runFingerprint;
+    private Connection connection;
+    private OutputBufferSource outputBuffers;
+    private ReportWriter reportWriter;
+    private LiveRun liveRun;
+    private StallWatchdog watchdog;
+    private SessionId sessionId;
+    private SessionStats statsBefore;
+    private SessionStats statsAfter;
+    private IncrementalCoverage coveragePlan;
+    private ChangedLinesCoverage changedLines;
+    private Map<DatabaseObject, CompilerSettings> recompiled;
+    private BatchProgress batchProgress;
+    private boolean parametersLogged;
+    private Map<String, String> orderChecksums;
+    private boolean testsRan;
+    private boolean allTiersRan;
+    private boolean successful;
+
+    TestRun(UtPlsqlMojo mojo, ConnectionInfo connectionInfo, CompilerSettings compilerSettings,
+            List<String> runPaths) {
+        this.mojo = mojo;
+        this.log = mojo.getLog();
+        this.connectionInfo = connectionInfo;
+        this.compilerSettings = compilerSettings;
+        this.connections = () -> mojo.createConnection(connectionInfo);
+        this.runPaths = runPaths;
+    }
+
+    void execute() throws MojoExecutionException {
+        // Scanning the file system does not depend on the database, it runs while waiting for the schema
+        // and while the connection is established.
+        ExecutorService scanExecutor = Executors.newFixedThreadPool(2, new NamedThreadFactory("scan"));
+        sourcesScan = scanExecutor.submit(mojo::scanSources);
+        testsScan = scanExecutor.submit(mojo::scanTests);
+        fixturesScan = scanExecutor.submit(mojo::scanFixtures);
+        scanExecutor.shutdown();
+
+        try {
+            // Without the database check the cache is checked before connecting, a hit never connects.
+            if (isCacheable() && !mojo.cacheDatabaseCheck) {
+                try {
+                    awaitScans();
+                } catch (IOException e) {
+                    throw new MojoExecutionException(e.getMessage(), e);
+                }
+                if (restoreCachedRun(null)) {
+                    return;
+                }
+            }
+            SchemaScheduler.Lease lease = waitForSchema();
+            try {
+                run();
+            } finally {
+                lease.close();
+            }
+        } finally {
+            scanExecutor.shutdownNow();
+        }
+
+        if (changedLines != null && testsRan) {
+            checkChangedLinesCoverage();
+        }
+    }
+
+    private void run() throws MojoExecutionException {
+        try {
+            Version utlVersion = connect();
+            if (isCacheable() && mojo.cacheDatabaseCheck && restoreCachedRun(connection)) {
+                return;
+            }
+            prepareDatabase();
+
+            TestHistory history = recordsHistory() ? TestHistory.load(mojo.testHistoryFile) : null;
+            if (mojo.historyTestOrder) {
+                runPaths = orderByHistory(history);
+            }
+            List<ReporterParameter> reporterParameters = mojo.resolveReporters();
+            FileMapperOptions sourceMappingOptions = sourceFiles.getMapperOptions();
+            if (mojo.incrementalCoverage) {
+                coveragePlan = planIncrementalCoverage(reporterParameters);
+                if (coveragePlan != null && coveragePlan.isUnchanged()) {
+                    log.info("No source file changed, the coverage reporters are left out of the run");
+                    reporterParameters = reporterParameters.stream()
+                            .filter(reporter -> !reporter.isCoverage())
+                            .collect(Collectors.toList());
+                } else if (coveragePlan != null && coveragePlan.isIncremental()) {
+                    sourceMappingOptions = mojo.createFileMapperOptions(coveragePlan.getChangedSources(),
+                            mojo.sourcesOwner, mojo.sourcesRegexExpression, mojo.sourcesOwnerSubexpression,
+                            mojo.sourcesNameSubexpression, mojo.sourcesTypeSubexpression,
+                            mojo.sourcesCustomTypeMapping);
+                }
+            }
+
+            outputBuffers = mojo.createOutputBufferSource(utlVersion);
+            reportWriter = new ReportWriter(mojo.targetDir, outputBuffers, log);
+            reportWriter.setSourceMappings(sourceFiles.getMappings());
+            if (isNotBlank(mojo.changedLinesBaseRef)) {
+                if (mojo.deferReports) {
+                    log.warn("changedLinesBaseRef is not supported with deferReports, the coverage of the changed"
+                            + " lines is not computed.");
+                } else {
+                    changedLines = ChangedLinesCoverage.track(reportWriter, mojo.project.getBasedir(),
+                            mojo.changedLinesBaseRef, sourceFiles.getMapperOptions().getFilePaths(),
+                            reporterParameters, log);
+                }
+            }
+
+            PlsqlProfiler profiler = mojo.profile ? PlsqlProfiler.start(connection, mojo.profileDirectory,
+                    reporterParameters.stream().anyMatch(ReporterParameter::isCoverage), log) : null;
+            watchSession();
+
+            SomeTestsFailedException failure;
+            try {
+                failure = runTiers(history, reporterParameters, sourceMappingOptions, profiler != null);
+            } finally {
+                // Stopped whatever the outcome, the session would otherwise keep profiling.
+                if (profiler != null) {
+                    try (TraceRecorder.Phase ignored = trace.phase("profile")) {
+                        ProfileReport.write(new File(mojo.targetDir, ProfileReport.FILE_NAME), profiler,
+                                connection, log);
+                    }
+                }
+            }
+            if (statsBefore != null && statsAfter != null) {
+                SessionStatsReport.report(new File(mojo.targetDir, SessionStatsReport.FILE_NAME),
+                        statsAfter.since(statsBefore), suiteStats, log);
+            }
+
+            Set<String> passedOnRerun;
+            try (TraceRecorder.Phase ignored = trace.phase("rerun")) {
+                passedOnRerun = rerunFailingTests();
+            }
+            boolean allFailuresTolerated = tracksTests() && recordResults(history, passedOnRerun);
+            successful = failure == null && results.getFailedTests().isEmpty();
+
+            if (failure != null && !allFailuresTolerated) {
+                throw new MojoExecutionException(failure.getMessage(), failure);
+            }
+        } catch (SQLException | IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Returns whether a feature needs the test history: it is only read and written then.
+     */
+    private boolean recordsHistory() {
+        return mojo.recordTestResults || mojo.rerunFailingTestsCount > 0 || mojo.quarantineFlakyTests
+                || mojo.historyTestOrder || mojo.progressInterval > 0;
+    }
+
+    /**
+     * Returns whether a feature needs the outcome of every test. The test events are only fetched then, they take
+     * a reporter and the fetching of its output. With {@code ignoreFailure} the failures of a tier or batch are only
+     * known from the events.
+     */
+    private boolean tracksTests() {
+        return recordsHistory() || mojo.rerunFailed || mojo.stallTimeout > 0 || mojo.traceOutput
+                || mojo.sessionStats && mojo.sessionStatsPerSuite
+                || mojo.ignoreFailure && (mojo.tagTiers.size() > 1 || mojo.batchSize > 0);
+    }
+
+    /**
+     * Returns whether the results of the run only depend on the fingerprinted inputs, and no output
+     * beyond the reports is requested.
+     */
+    private boolean isCacheable() {
+        return mojo.cache && mojo.cacheDirectory != null && !mojo.rerunFailed
+                && (!mojo.randomTestOrder || mojo.randomTestOrderSeed != null)
+                && !mojo.profile && !mojo.sessionStats && !mojo.traceOutput && !mojo.deferReports
+                && StringUtil.isBlank(mojo.changedLinesBaseRef);
+    }
+
+    /**
+     * Restores the reports of the last successful run if the inputs of this run did not change since.
+     *
+     * @param ddlConnection the test session reading the DDL state of the schemas, {@code null} without
+     *                      {@code cacheDatabaseCheck}
+     * @return true if the reports were restored, nothing is left to run
+     */
+    private boolean restoreCachedRun(Connection ddlConnection) {
+        runCache = new RunCache(mojo.cacheDirectory);
+        try {
+            runFingerprint = fingerprint(ddlConnection);
+            List<File> restored = runCache.restore(runFingerprint, log);
+            if (restored != null) {
+                mojo.reportsWritten(restored);
+                log.info("utPLSQL tests are up to date, the reports of the last successful run were"
+                        + " restored. Use -Dutplsql.cache=false to force a run.");
+                return true;
+            }
+        } catch (IOException | SQLException e) {
+            log.warn("Could not check the run cache: " + e.getMessage());
+            runCache = null;
+        }
+        return false;
+    }
+
+    /**
+     * Fingerprints the inputs of the run: the source and test files, the configuration and, with
+     * {@code cacheDatabaseCheck}, the DDL state of the schemas of the mapped objects read on the test session.
+     */
+    private String fingerprint(Connection ddlConnection) throws IOException, SQLException {
+        List<String> inputs = new ArrayList<>(sourceFiles.getMapperOptions().getFilePaths());
+        inputs.addAll(testFiles.getMapperOptions().getFilePaths());
+        inputs.addAll(fixtureFiles);
+
+        StringBuilder configuration = new StringBuilder(mojo.describeConfiguration(connectionInfo));
+        if (ddlConnection != null) {
+            Set<String> owners = new LinkedHashSet<>();
+            for (ScannedFiles files : Arrays.asList(sourceFiles, testFiles)) {
+                files.getMappings().stream()
+                        .map(FileMapping::getObjectOwner)
+                        .filter(StringUtil::isNotBlank)
+                        .forEach(owners::add);
+            }
+            configuration.append('\n').append(SchemaDdl.describe(ddlConnection, owners));
+        }
+        return RunCache.fingerprint(mojo.project.getBasedir(), inputs, configuration.toString());
+    }
+
+    private SchemaScheduler.Lease waitForSchema() throws MojoExecutionException {
+        try (TraceRecorder.Phase ignored = trace.phase("wait for schema")) {
+            return SchemaScheduler.getInstance().acquire(connectionInfo.getUrl(), connectionInfo.getUser(),
+                    mojo.maxConcurrentExecutionsPerSchema, log);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for schema " + connectionInfo.getUser(), e);
+        }
+    }
+
+    /**
+     * Connects the test session and waits for the files scanned meanwhile.
+     *
+     * @return the version of the utPLSQL framework
+     */
+    private Version connect() throws SQLException, IOException {
+        long start = System.nanoTime();
+        Version utlVersion;
+        try (TraceRecorder.Phase ignored = trace.phase("connect")) {
+            try {
+                connection = mojo.createConnection(connectionInfo);
+            } catch (SQLException e) {
+                // An invalid source or test directory is reported rather than the connection failure.
+                awaitScans();
+                throw e;
+            }
+            setUpTestSession();
+            utlVersion = mojo.getFrameworkVersion(connection);
+        }
+        log.info("utPLSQL Version = " + utlVersion);
+        log.debug(format("Connected in %d ms", elapsedMillis(start)));
+
+        try (TraceRecorder.Phase ignored = trace.phase("scan")) {
+            awaitScans();
+        }
+        log.debug(format("Sources and tests scanned after %d ms", elapsedMillis(start)));
+        return utlVersion;
+    }
+
+    private void awaitScans() throws IOException {
+        sourceFiles = await(sourcesScan);
+        testFiles = await(testsScan);
+        fixtureFiles = await(fixturesScan);
+    }
+
+    /**
+     * Sets the session running the tests up: DBMS_OUTPUT, the compiler settings and the session init statements.
+     * The other connections (live events, statistics, pools, diagnostics) are plain connections.
+     */
+    private void setUpTestSession() throws SQLException {
+        if (mojo.dbmsOutput) {
+            DBHelper.enableDBMSOutput(connection);
+            log.info("Enabled dbms_output.");
+        }
+        List<String> statements = new ArrayList<>(compilerSettings.sessionStatements());
+        statements.addAll(mojo.sessionInitStatements);
+        ParallelTasks.executeAll(connection, statements);
+    }
+
+    /**
+     * Frees the package state of the session between batches, so that the memory used by the session is bounded
+     * by a batch. The session init statements and DBMS_OUTPUT are set up again.
+     */
+    private void resetPackageState(boolean profiling) throws SQLException {
+        if (profiling) {
+            log.debug("The package state is kept between batches while profiling");
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("begin dbms_session.modify_package_state(dbms_session.free_all_resources); end;");
+            for (String sql : mojo.sessionInitStatements) {
+                statement.execute(sql);
+            }
+        }
+        if (mojo.dbmsOutput) {
+            DBHelper.enableDBMSOutput(connection);
+        }
+    }
+
+    /**
+     * Recompiles the invalid objects, recompiles the objects with the compiler settings and loads the fixtures.
+     */
+    private void prepareDatabase() throws SQLException, IOException {
+        List<FileMapping> mappings = new ArrayList<>(sourceFiles.getMappings());
+        mappings.addAll(testFiles.getMappings());
+        Recompiler recompiler = new Recompiler(connections, mojo.recompileThreads, log);
+        if (mojo.preflightCheck) {
+            try (TraceRecorder.Phase ignored = trace.phase("preflight")) {
+                recompiler.recompileInvalidObjects(connection, connectionInfo.getUser(), mappings);
+            }
+        }
+        if (!compilerSettings.isEmpty()) {
+            try (TraceRecorder.Phase ignored = trace.phase("recompile")) {
+                recompiled = recompiler.recompile(connection, connectionInfo.getUser(), mappings, compilerSettings);
+            }
+        }
+        if (!fixtureFiles.isEmpty()) {
+            try (TraceRecorder.Phase ignored = trace.phase("fixtures")) {
+                new Fixtures(mojo.project.getBasedir(), new File(mojo.targetDir, Fixtures.CHECKSUMS_FILE),
+                        connections, mojo.fixtureThreads, mojo.fixtureBatchSize, mojo.sessionInitStatements, log)
+                        .load(connection, connectionInfo.getUser(), fixtureFiles);
+            }
+        }
+    }
+
+    /**
+     * Replaces the run paths by the suites of the test files in scope, ordered from the history and the files
+     * changed since the last run. Paths of procedures or suite paths can't be ordered and are run unchanged.
+     */
+    private List<String> orderByHistory(TestHistory history) throws IOException {
+        if (mojo.randomTestOrder) {
+            log.warn("historyTestOrder is ignored, the tests run in random order");
+            return runPaths;
+        }
+        if (mojo.rerunFailed) {
+            return runPaths;
+        }
+        List<String[]> scopes = new ArrayList<>();
+        for (String path : runPaths) {
+            String[] segments = path.trim().toLowerCase(Locale.ROOT).split("\\.");
+            if (path.trim().startsWith(":") || path.contains(",") || segments.length > 2) {
+                log.warn("historyTestOrder only supports schema and package paths, the tests run in the"
+                        + " default order");
+                return runPaths;
+            }
+            scopes.add(segments);
+        }
+
+        String defaultOwner = isNotBlank(mojo.testsOwner) ? mojo.testsOwner : connectionInfo.getUser();
+        Map<String, String> suites = new LinkedHashMap<>();
+        Set<String> changedSuites = new HashSet<>();
+        List<String> allPaths = new ArrayList<>(sourceFiles.getMapperOptions().getFilePaths());
+        allPaths.addAll(testFiles.getMapperOptions().getFilePaths());
+        Map<String, String> checksums = FileChecksums.compute(mojo.project.getBasedir(), allPaths);
+        Set<String> changedPaths = FileChecksums.changed(
+                FileChecksums.read(new File(mojo.targetDir, ORDER_CHECKSUMS_FILE)), checksums);
+        orderChecksums = checksums;
+        String defaultSourcesOwner = isNotBlank(mojo.sourcesOwner) ? mojo.sourcesOwner : connectionInfo.getUser();
+        String sourcesSchema = defaultSourcesOwner.toLowerCase(Locale.ROOT);
+        Set<String> changedObjects = sourceFiles.getMappings().stream()
+                .filter(mapping -> changedPaths.contains(mapping.getFilePath()))
+                .map(mapping -> (mapping.getObjectOwner() != null ? mapping.getObjectOwner() : defaultSourcesOwner)
+                        + "." + mapping.getObjectName())
+                .map(object -> object.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        for (FileMapping mapping : testFiles.getMappings()) {
+            String owner = mapping.getObjectOwner() != null ? mapping.getObjectOwner() : defaultOwner;
+            String suite = owner + "." + mapping.getObjectName();
+            String[] key = suite.toLowerCase(Locale.ROOT).split("\\.");
+            boolean inScope = scopes.isEmpty()
+                    ? key[0].equalsIgnoreCase(connectionInfo.getUser())
+                    : scopes.stream().anyMatch(scope -> scope[0].equals(key[0])
+                    && (scope.length == 1 || scope[1].equals(key[1])));
+            if (inScope) {
+                suites.putIfAbsent(suite.toLowerCase(Locale.ROOT), suite);
+                // The tested object is in the schema of the test package, or of the sources if the tests have
+                // their own.
+                String testedObject = HistoryOrder.testedObject(key[1]);
+                if (changedPaths.contains(mapping.getFilePath())
+                        || changedObjects.contains(key[0] + "." + testedObject)
+                        || changedObjects.contains(sourcesSchema + "." + testedObject)) {
+                    changedSuites.add(suite);
+                }
+            }
+        }
+        if (suites.isEmpty()) {
+            log.warn("historyTestOrder found no test package in the test files, the tests run in the default"
+                    + " order");
+            return runPaths;
+        }
+
+        HistoryOrder order = new HistoryOrder(history);
+        List<String> ordered = order.order(suites.values(), changedSuites);
+        // Packages configured explicitly but not found in the test files still run, after the others.
+        for (String path : runPaths) {
+            if (path.contains(".") && !suites.containsKey(path.trim().toLowerCase(Locale.ROOT))) {
+                ordered.add(path.trim());
+            }
+        }
+        log.info(format("Ordered %d suites from the test history: %d failed recently, %d changed",
+                suites.size(), suites.values().stream().filter(order::failedRecently).count(),
+                changedSuites.size()));
+        log.debug("Suite order: " + String.join(", ", ordered));
+        return ordered;
+    }
+
+    /**
+     * Plans the incremental coverage, supported when every coverage reporter is a
+     * {@code UT_COVERAGE_SONAR_REPORTER} writing to a file.
+     *
+     * @return the plan, or {@code null} if the coverage can't be incremental
+     */
+    private IncrementalCoverage planIncrementalCoverage(List<ReporterParameter> reporterParameters)
+            throws IOException {
+        if (mojo.rerunFailed) {
+            log.info("incrementalCoverage is not used when rerunning the failed tests, the coverage of all"
+                    + " sources is collected.");
+            return null;
+        }
+        if (mojo.deferReports) {
+            log.warn("incrementalCoverage is not supported with deferReports, the coverage of all sources is"
+                    + " collected.");
+            return null;
+        }
+        List<File> reports = IncrementalCoverage.findReports(mojo.targetDir, reporterParameters, log);
+        if (reports == null) {
+            return null;
+        }
+
+        String typeMappings = mojo.sourcesCustomTypeMapping == null ? "" : mojo.sourcesCustomTypeMapping.stream()
+                .map(mapping -> mapping.getCustomMapping() + "=" + mapping.getType())
+                .collect(Collectors.joining(","));
+        String configuration = String.join("\n", connectionInfo.getUrl(), connectionInfo.getUser(),
+                String.valueOf(mojo.getPaths()), String.valueOf(mojo.tags), String.valueOf(mojo.tagTiers),
+                String.valueOf(mojo.rerunFailed), String.valueOf(mojo.resumeBatches), mojo.includeObject,
+                mojo.excludeObject, mojo.includeSchemaExpr, mojo.excludeSchemaExpr, mojo.includeObjectExpr,
+                mojo.excludeObjectExpr, mojo.sourcesOwner, mojo.sourcesRegexExpression,
+                String.valueOf(mojo.sourcesOwnerSubexpression), String.valueOf(mojo.sourcesNameSubexpression),
+                String.valueOf(mojo.sourcesTypeSubexpression), typeMappings, String.valueOf(mojo.skipUnmappedFiles));
+
+        return IncrementalCoverage.plan(mojo.project.getBasedir(), new File(mojo.targetDir),
+                sourceFiles.getMapperOptions().getFilePaths(), testFiles.getMapperOptions().getFilePaths(),
+                configuration, isNotBlank(mojo.coverageBaseRef) ? mojo.coverageBaseRef : null, reports, log);
+    }
+
+    /**
+     * Captures the statistics of the test session before the run, and sets the stall watchdog up.
+     */
+    private void watchSession() {
+        if (mojo.sessionStats) {
+            try {
+                sessionId = SessionId.of(connection);
+                statsBefore = SessionStats.capture(connection, sessionId);
+            } catch (SQLException e) {
+                log.warn("Could not read the session statistics: " + e.getMessage());
+            }
+        }
+
+        if (mojo.stallTimeout > 0) {
+            watchdog = new StallWatchdog(mojo.stallTimeout);
+            if (sessionId == null) {
+                try {
+                    sessionId = SessionId.of(connection);
+                } catch (SQLException e) {
+                    log.warn("Could not read the session id, a stall is reported without diagnostics: "
+                            + e.getMessage());
+                }
+            }
+        }
+        liveRun = new LiveRun(connections, mojo::cancel, mojo.progressInterval, mojo.stallTimeout, log);
+    }
+
+    /**
+     * Runs the tiers, each in batches. Every tier and batch is a run of its own with new reporters, the report
+     * writer merges their reports. The remaining tiers are skipped once a tier failed.
+     *
+     * @return the first failure of a run
+     */
+    private SomeTestsFailedException runTiers(TestHistory history, List<ReporterParameter> reporterParameters,
+                                              FileMapperOptions sourceMappingOptions, boolean profiling)
+            throws SQLException, IOException, MojoExecutionException {
+        List<Set<String>> tiers = resolveTagTiers();
+        List<List<String>> batches = TestSuites.batches(connection, runPaths, connectionInfo.getUser(),
+                mojo.batchSize, log);
+        if (batches.size() > 1 && !mojo.deferReports) {
+            String plan = FileChecksums.checksum(mojo.describeConfiguration(connectionInfo) + "\n" + tiers + "\n"
+                    + batches);
+            batchProgress = BatchProgress.open(new File(mojo.targetDir, BatchProgress.FILE_NAME), plan,
+                    mojo.resumeBatches, log);
+        }
+        SomeTestsFailedException failure = null;
+        boolean sessionUsed = false;
+        int resumedFailures = 0;
+        long runStart = System.nanoTime();
+        allTiersRan = true;
+        for (int tier = 0; tier < tiers.size(); tier++) {
+            if (tiers.size() > 1) {
+                log.info(format("Running tier %d of %d, tags: %s", tier + 1, tiers.size(),
+                        String.join(",", tiers.get(tier))));
+            }
+            boolean tierFailed = false;
+            for (int batch = 0; batch < batches.size(); batch++) {
+                int run = tier * batches.size() + batch;
+                if (batchProgress != null && batchProgress.isCompleted(run)) {
+                    reportWriter.addFetchedReports(reporterParameters);
+                    if (batchProgress.hasFailed(run)) {
+                        tierFailed = true;
+                        resumedFailures++;
+                    }
+                    continue;
+                }
+                List<String> batchPaths = batches.get(batch);
+                if (batches.size() > 1) {
+                    log.info(format("Running batch %d of %d: %d suites", batch + 1, batches.size(),
+                            batchPaths.size()));
+                    if (sessionUsed) {
+                        resetPackageState(profiling);
+                    }
+                }
+                sessionUsed = true;
+
+                int failedBefore = results.getFailedTests().size();
+                SomeTestsFailedException runFailure = runBatch(batchPaths, tiers.get(tier), history,
+                        reporterParameters, sourceMappingOptions);
+                if (failure == null) {
+                    failure = runFailure;
+                }
+                boolean runFailed = runFailure != null || results.getFailedTests().size() > failedBefore;
+                tierFailed |= runFailed;
+                if (batchProgress != null) {
+                    try (TraceRecorder.Phase ignored = trace.phase("fetch reports")) {
+                        reportWriter.fetchReports(connection);
+                    }
+                    batchProgress.complete(run, runFailed);
+                }
+            }
+            if (tierFailed && tier < tiers.size() - 1) {
+                log.warn(format("Tier %d failed, the remaining %d tiers are skipped", tier + 1,
+                        tiers.size() - tier - 1));
+                allTiersRan = false;
+                break;
+            }
+        }
+        if (resumedFailures > 0 && failure == null && !mojo.ignoreFailure) {
+            failure = new SomeTestsFailedException(format("Tests failed in %d batches of the interrupted run",
+                    resumedFailures), null);
+        }
+        if (batchProgress != null) {
+            batchProgress.delete();
+        }
+        testsRan = true;
+        RunTimes.compare(new File(mojo.targetDir, RunTimes.FILE_NAME),
+                String.join(",", new TreeSet<>(runPaths)) + " " + tiers, compilerSettings,
+                elapsedMillis(runStart), log);
+        return failure;
+    }
+
+    /**
+     * Returns the tags of every run: the tiers if configured, a blank tier selecting the tests of no previous
+     * tier, or a single run of the configured tags.
+     */
+    private List<Set<String>> resolveTagTiers() {
+        if (mojo.tagTiers.isEmpty()) {
+            return Collections.singletonList(mojo.tags);
+        }
+        if (!mojo.tags.isEmpty()) {
+            log.warn("tags are ignored, tagTiers select the tests of every tier");
+        }
+        List<Set<String>> tiers = new ArrayList<>();
+        Set<String> previousTags = new LinkedHashSet<>();
+        for (String tier : mojo.tagTiers) {
+            Set<String> tierTags = new LinkedHashSet<>();
+            if (tier == null || StringUtil.isBlank(tier)) {
+                previousTags.forEach(tag -> tierTags.add("-" + tag));
+            } else {
+                Arrays.stream(tier.split(","))
+                        .map(String::trim)
+                        .filter(StringUtil::isNotBlank)
+                        .forEach(tierTags::add);
+            }
+            tierTags.stream().filter(tag -> !tag.startsWith("-")).forEach(previousTags::add);
+            tiers.add(tierTags);
+        }
+        return tiers;
+    }
+
+    /**
+     * Runs the suites of a batch with the tags of a tier. The events are fetched live when the progress, the
+     * statistics per suite or the stall watchdog need them, after the run otherwise.
+     *
+     * @return the failure of the run, {@code null} if it passed
+     */
+    private SomeTestsFailedException runBatch(List<String> batchPaths, Set<String> tierTags, TestHistory history,
+                                              List<ReporterParameter> reporterParameters,
+                                              FileMapperOptions sourceMappingOptions)
+            throws SQLException, IOException, MojoExecutionException {
+        List<Reporter> reporterList;
+        TestEventChannel events;
+        try (TraceRecorder.Phase ignored = trace.phase("reporter init")) {
+            reporterList = mojo.initReporters(connection, reportWriter, reporterFactory, reporterParameters);
+            events = tracksTests() ? openEventChannel() : null;
+        }
+
+        FileMapperOptions testMappingOptions = testFiles.getMapperOptions();
+        if (!parametersLogged) {
+            mojo.logParameters(sourceMappingOptions, testMappingOptions, reporterList);
+            parametersLogged = true;
+        }
+
+        List<Reporter> runReporters = new ArrayList<>(reporterList);
+        if (events != null) {
+            events.addListener(results);
+            if (mojo.traceOutput) {
+                events.addListener(trace);
+            }
+            runReporters.add(events.getReporter());
+        }
+        TestRunner runner = mojo.createTestRunner(batchPaths, runReporters, tierTags, sourceMappingOptions,
+                testMappingOptions);
+
+        SomeTestsFailedException runFailure;
+        boolean statsPerSuite = statsBefore != null && mojo.sessionStatsPerSuite;
+        if (mojo.progressInterval > 0 || statsPerSuite || watchdog != null) {
+            ProgressMonitor progress = mojo.progressInterval > 0
+                    ? new ProgressMonitor(expectedDurations(history, batchPaths), log)
+                    : null;
+            try (TraceRecorder.Phase ignored = trace.phase("run")) {
+                runFailure = liveRun.run(() -> mojo.runTests(runner, connection), connection, events, progress,
+                        watchdog, sessionId, statsPerSuite ? suiteStats : null);
+            }
+            statsAfter = captureSessionStats();
+        } else {
+            try (TraceRecorder.Phase ignored = trace.phase("run")) {
+                runFailure = run(runner);
+            }
+            statsAfter = captureSessionStats();
+            if (events != null) {
+                try (TraceRecorder.Phase ignored = trace.phase("drain")) {
+                    events.drain(connection);
+                }
+            }
+        }
+        if (watchdog != null && watchdog.isStalled()) {
+            throw new MojoExecutionException(watchdog.getDiagnostic());
+        }
+        return runFailure;
+    }
+
+    private SomeTestsFailedException run(TestRunner runner) throws SQLException {
+        try {
+            mojo.runTests(runner, connection);
+            return null;
+        } catch (SomeTestsFailedException e) {
+            return e;
+        }
+    }
+
+    private TestEventChannel openEventChannel() throws SQLException {
+        Reporter reporter = mojo.createReporter(reporterFactory, CoreReporters.UT_TEAMCITY_REPORTER.name(),
+                connection);
+        return new TestEventChannel(reporter, outputBuffers);
+    }
+
+    private SessionStats captureSessionStats() {
+        if (sessionId == null) {
+            return null;
+        }
+        try {
+            return SessionStats.capture(connection, sessionId);
+        } catch (SQLException e) {
+            log.warn("Could not read the session statistics: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the last known durations of the tests of the history selected by the run paths.
+     * Paths using suite paths can't be resolved on the client and select all the tests of their schema.
+     */
+    private static Map<String, Long> expectedDurations(TestHistory history, List<String> runPaths) {
+        List<String> prefixes = runPaths.stream()
+                .map(path -> path.contains(":") ? path.substring(0, path.indexOf(':')) : path)
+                .map(path -> path.trim().toLowerCase())
+                .collect(Collectors.toList());
+
+        Map<String, Long> durations = new HashMap<>();
+        for (String test : history.getTests()) {
+            String lowerCaseTest = test.toLowerCase();
+            if (prefixes.isEmpty() || prefixes.stream()
+                    .anyMatch(prefix -> lowerCaseTest.equals(prefix) || lowerCaseTest.startsWith(prefix + "."))) {
+                durations.put(test, history.getDuration(test));
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Reruns the failed tests up to {@code rerunFailingTestsCount} times, without reports.
+     *
+     * @return the tests that passed on a rerun
+     */
+    private Set<String> rerunFailingTests() throws SQLException {
+        Set<String> failing = new LinkedHashSet<>(results.getFailedTests());
+        Set<String> passedOnRerun = new LinkedHashSet<>();
+
+        for (int attempt = 1; attempt <= mojo.rerunFailingTestsCount && !failing.isEmpty(); attempt++) {
+            log.info(format("Rerunning %d failing tests, attempt %d of %d",
+                    failing.size(), attempt, mojo.rerunFailingTestsCount));
+
+            TestEventChannel events = openEventChannel();
+            TestResults rerunResults = new TestResults();
+            events.addListener(rerunResults);
+
+            mojo.runTests(mojo.createTestRunner(new ArrayList<>(failing),
+                    Collections.singletonList(events.getReporter()), Collections.emptySet(),
+                    new FileMapperOptions(new ArrayList<>()), new FileMapperOptions(new ArrayList<>()))
+                    .failOnErrors(false), connection);
+            events.drain(connection);
+
+            rerunResults.getOutcomes().forEach((test, outcome) -> {
+                if (outcome == TestResults.Outcome.PASSED && failing.remove(test)) {
+                    passedOnRerun.add(test);
+                }
+            });
+        }
+        return passedOnRerun;
+    }
+
+    /**
+     * Updates the test history when recorded and the failure manifest, and reports the flaky tests.
+     *
+     * @return true if the run had failures and all of them passed on a rerun or belong to quarantined tests
+     */
+    private boolean recordResults(TestHistory history, Set<String> passedOnRerun) throws IOException {
+        if (history != null) {
+            results.getOutcomes().forEach((test, outcome) -> {
+                if (outcome == TestResults.Outcome.PASSED) {
+                    history.record(test, TestHistory.PASSED, results.getDuration(test));
+                } else if (outcome == TestResults.Outcome.FAILED) {
+                    history.record(test, passedOnRerun.contains(test) ? TestHistory.PASSED_ON_RERUN
+                            : TestHistory.FAILED, results.getDuration(test));
+                }
+            });
+            history.save();
+        }
+
+        List<String> failed = results.getFailedTests();
+        List<String> stillFailing = new ArrayList<>();
+        List<String> quarantined = new ArrayList<>();
+        for (String test : failed) {
+            boolean flaky = history != null && history.isFlaky(test);
+            if (flaky) {
+                log.warn(format("Flaky test %s, recent outcomes: %s", test, history.getOutcomes(test)));
+            }
+            if (!passedOnRerun.contains(test)) {
+                stillFailing.add(test);
+                if (mojo.quarantineFlakyTests && flaky) {
+                    quarantined.add(test);
+                }
+            }
+        }
+        FailureManifest.write(new File(mojo.targetDir, FailureManifest.FILE_NAME), stillFailing);
+
+        if (!quarantined.isEmpty()) {
+            log.warn(format("Ignoring the failures of %d quarantined flaky tests: %s",
+                    quarantined.size(), String.join(", ", quarantined)));
+        }
+        return !failed.isEmpty() && stillFailing.size() == quarantined.size();
+    }
+
+    /**
+     * Writes or defers the reports, keeps the coverage baseline, restores the compiler settings, updates the run
+     * cache and closes the test session, whether the run completed or not. Failures are only logged.
+     */
+    private void finish() {
+        try {
+            boolean connectionAborted = false;
+            if (connection != null) {
+                if (reportWriter != null) {
+                    try (TraceRecorder.Phase ignored = trace.phase("write reports")) {
+                        connectionAborted = !writeReports();
+                    }
+                }
+                // The coverage of a run that stopped early is not a baseline for the next runs.
+                if (coveragePlan != null && testsRan && allTiersRan) {
+                    coveragePlan.complete();
+                } else if (coveragePlan != null && testsRan) {
+                    log.info("Not all tiers ran, the coverage of this run is not kept for the next runs");
+                }
+                // The tests of the changed sources keep their priority until a run of all of them completed.
+                if (orderChecksums != null && testsRan && allTiersRan) {
+                    FileChecksums.write(new File(mojo.targetDir, ORDER_CHECKSUMS_FILE), orderChecksums);
+                }
+                if (recompiled != null) {
+                    try (TraceRecorder.Phase ignored = trace.phase("restore compiler settings")) {
+                        new Recompiler(connections, mojo.recompileThreads, log).restore(recompiled);
+                    }
+                }
+                if (runCache != null && reportWriter != null) {
+                    if (successful) {
+                        runCache.store(runFingerprint, reportWriter.getReportFiles());
+                    } else {
+                        runCache.invalidate();
+                    }
+                }
+                if (!connectionAborted) {
+                    DBHelper.disableDBMSOutput(connection);
+                    connection.close();
+                }
+            }
+            if (mojo.traceOutput) {
+                File traceFile = new File(mojo.targetDir, TRACE_FILE_NAME);
+                trace.write(traceFile);
+                log.info("Trace written to " + traceFile);
+            }
+        } catch (SQLException | IOException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the reports: what a stalled run wrote, a manifest of the reports left in the database with
+     * {@code deferReports}, nothing for an interrupted run whose completed batches can be resumed, or all of them.
+     *
+     * @return false if the connection was aborted while writing the reports of a stalled run
+     */
+    private boolean writeReports() throws SQLException, IOException {
+        File manifest = new File(mojo.targetDir, ReportManifest.FILE_NAME);
+        if (watchdog != null && watchdog.isStalled()) {
+            return liveRun.flushReports(reportWriter, connection);
+        } else if (mojo.deferReports && testsRan) {
+            reportWriter.deferReports(connection, manifest);
+        } else if (batchProgress != null && !testsRan && batchProgress.getCompletedCount() > 0) {
+            log.warn(format("The run was interrupted after %d completed batches, their reports are kept to resume"
+                    + " it with -Dutplsql.resumeBatches=true", batchProgress.getCompletedCount()));
+        } else {
+            Files.deleteIfExists(manifest.toPath());
+            reportWriter.writeReports(connection);
+            mojo.reportsWritten(reportWriter.getWrittenFiles());
+        }
+        return true;
+    }
+
+    private void checkChangedLinesCoverage() throws MojoExecutionException {
+        File summary = new File(mojo.targetDir, ChangedLinesCoverage.FILE_NAME);
+        try {
+            changedLines.write(summary);
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+        log.info(changedLines.describe());
+        if (mojo.changedLinesThreshold != null && changedLines.getPercentage() < mojo.changedLinesThreshold) {
+            throw new MojoExecutionException(format("Changed lines coverage %.1f%% is below the threshold of %.1f%%,"
+                    + " see %s", changedLines.getPercentage(), mojo.changedLinesThreshold, summary));
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,269 @@
+package org.utplsql.maven.plugin;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.utplsql.maven.plugin.io.ModuleReportSplitter;
+import org.utplsql.maven.plugin.io.ReportWriter;
+import org.utplsql.maven.plugin.io.ScannedFiles;
+import org.utplsql.maven.plugin.model.ConnectionInfo;
+import org.utplsql.maven.plugin.model.ReporterParameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * Runs the tests of all the reactor modules configuring a {@code test} execution in a single run: one
+ * connection, one test run and one coverage session for the {@code paths}, {@code sources} and {@code tests} of
+ * every module. The Sonar coverage and test reports are then split into a report per module, written to the
+ * same file relative to the build directory of the module. The other reports cover the whole reactor.
+ * <p>
+ * The connection, the reporters and the other parameters are the ones of the {@code aggregate} execution.
+ */
+@Mojo(name = "aggregate", aggregator = true, threadSafe = true)
+public class UtPlsqlAggregateMojo extends UtPlsqlMojo {
+
+    private static final String PLUGIN_KEY = "org.utplsql:utplsql-maven-plugin";
+
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true)
+    List<MavenProject> reactorProjects;
+
+    private List<String> modulePaths;
+
+    private List<Resource> moduleSources;
+
+    private List<Resource> moduleTests;
+
+    private volatile List<File> writtenReports = Collections.emptyList();
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skipUtplsqlTests) {
+            getLog().info("utPLSQLTests are skipped.");
+            return;
+        }
+
+        Map<String, MavenProject> modules = new LinkedHashMap<>();
+        UtPlsqlAggregateMojo run = collectModules(modules);
+        if (modules.isEmpty()) {
+            getLog().info("No module of the reactor configures a utPLSQL test execution.");
+            return;
+        }
+        getLog().info(format("Running the tests of %d modules: %s", modules.size(), String.join(", ",
+                modules.values().stream().map(MavenProject::getArtifactId).toArray(String[]::new))));
+
+        MojoExecutionException failure = null;
+        try {
+            run.runModules();
+        } catch (MojoExecutionException e) {
+            failure = e;
+        }
+
+        if (isFanOut() || deferReports) {
+            getLog().warn("The reports are not split by module with targets or deferReports.");
+        } else {
+            splitReports(modules, run.writtenReports);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Collects the paths, sources and tests of the modules into a copy of this execution, the configuration of
+     * this execution is left as is.
+     *
+     * @param modules filled with the modules by directory relative to the base directory, e.g. {@code module-a/}
+     * @return the execution running the tests of the modules
+     */
+    private UtPlsqlAggregateMojo collectModules(Map<String, MavenProject> modules) throws MojoExecutionException {
+        Set<String> collectedPaths = new LinkedHashSet<>();
+        List<Resource> collectedSources = new ArrayList<>();
+        List<Resource> collectedTests = new ArrayList<>();
+
+        URI baseDir = project.getBasedir().toURI();
+        for (MavenProject module : reactorProjects) {
+            Xpp3Dom configuration = testConfiguration(module);
+            if (configuration == null) {
+                continue;
+            }
+            URI relativeDir = baseDir.relativize(module.getBasedir().toURI());
+            String directory = relativeDir.getPath();
+            if (relativeDir.isAbsolute()) {
+                getLog().warn(format("Module %s is outside of %s, its tests are not run", module.getArtifactId(),
+                        project.getBasedir()));
+                continue;
+            }
+
+            List<String> values = values(configuration.getChild("paths"));
+            if (values.isEmpty()) {
+                collectedPaths.add(ConnectionInfo.resolve(url, user, password).getUser());
+            }
+            collectedPaths.addAll(values);
+            collectedSources.addAll(resources(configuration.getChild("sources"), directory, module.getBasedir(),
+                    Defaults.SOURCE_DIRECTORY));
+            collectedTests.addAll(resources(configuration.getChild("tests"), directory, module.getBasedir(),
+                    Defaults.TEST_DIRECTORY));
+            modules.put(directory, module);
+        }
+
+        UtPlsqlAggregateMojo run;
+        try {
+            run = (UtPlsqlAggregateMojo) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+        run.modulePaths = Collections.unmodifiableList(new ArrayList<>(collectedPaths));
+        run.moduleSources = Collections.unmodifiableList(collectedSources);
+        run.moduleTests = Collections.unmodifiableList(collectedTests);
+        return run;
+    }
+
+    private void runModules() throws MojoExecutionException {
+        super.execute();
+    }
+
+    @Override
+    void reportsWritten(List<File> reports) {
+        writtenReports = reports;
+    }
+
+    @Override
+    List<String> getPaths() {
+        return modulePaths == null ? super.getPaths() : modulePaths;
+    }
+
+    @Override
+    List<Resource> getSources() {
+        return moduleSources == null ? super.getSources() : moduleSources;
+    }
+
+    @Override
+    List<Resource> getTests() {
+        return moduleTests == null ? super.getTests() : moduleTests;
+    }
+
+    // Without resources the scans would fall back to the default directories of the base directory.
+
+    @Override
+    ScannedFiles scanSources() throws IOException {
+        return getSources().isEmpty() ? ScannedFiles.empty() : super.scanSources();
+    }
+
+    @Override
+    ScannedFiles scanTests() throws IOException {
+        return getTests().isEmpty() ? ScannedFiles.empty() : super.scanTests();
+    }
+
+    /**
+     * Returns the configuration of the {@code test} executions of a module, merged with the plugin
+     * configuration.
+     *
+     * @return the configuration, {@code null} if the module has no {@code test} execution
+     */
+    private static Xpp3Dom testConfiguration(MavenProject module) {
+        Plugin plugin = module.getPlugin(PLUGIN_KEY);
+        if (plugin == null) {
+            return null;
+        }
+        Xpp3Dom configuration = null;
+        for (PluginExecution execution : plugin.getExecutions()) {
+            if (execution.getGoals().contains("test")) {
+                Xpp3Dom executionConfiguration = (Xpp3Dom) execution.getConfiguration();
+                configuration = Xpp3Dom.mergeXpp3Dom(
+                        executionConfiguration == null ? new Xpp3Dom("configuration")
+                                : new Xpp3Dom(executionConfiguration),
+                        configuration == null ? (Xpp3Dom) plugin.getConfiguration() : configuration);
+            }
+        }
+        return configuration;
+    }
+
+    private static List<Resource> resources(Xpp3Dom list, String directory, File moduleDir,
+                                            String defaultDirectory) {
+        List<Resource> resources = new ArrayList<>();
+        if (list == null || list.getChildCount() == 0) {
+            if (new File(moduleDir, defaultDirectory).isDirectory()) {
+                Resource resource = new Resource();
+                resource.setDirectory(directory + defaultDirectory);
+                resources.add(resource);
+            }
+            return resources;
+        }
+        for (Xpp3Dom child : list.getChildren()) {
+            Resource resource = new Resource();
+            String resourceDirectory = child.getChild("directory") == null ? defaultDirectory
+                    : child.getChild("directory").getValue().trim();
+            resource.setDirectory(new File(resourceDirectory).isAbsolute() ? resourceDirectory
+                    : directory + resourceDirectory);
+            values(child.getChild("includes")).forEach(resource::addInclude);
+            values(child.getChild("excludes")).forEach(resource::addExclude);
+            resources.add(resource);
+        }
+        return resources;
+    }
+
+    private static List<String> values(Xpp3Dom list) {
+        List<String> values = new ArrayList<>();
+        if (list != null) {
+            for (Xpp3Dom child : list.getChildren()) {
+                if (child.getValue() != null && !child.getValue().trim().isEmpty()) {
+                    values.add(child.getValue().trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Splits the Sonar reports written by the run by module.
+     */
+    private void splitReports(Map<String, MavenProject> modules, List<File> writtenReports) {
+        Set<File> written = new HashSet<>();
+        writtenReports.forEach(report -> written.add(report.getAbsoluteFile()));
+        for (ReporterParameter reporter : resolveReporters()) {
+            if (!reporter.isFileOutput() || reporter.isSplit()
+                    || !ModuleReportSplitter.isSplittable(reporter.getName())) {
+                continue;
+            }
+            File report = ReportWriter.resolveOutputFile(targetDir, reporter.getFileOutput());
+            if (!written.contains(report.getAbsoluteFile()) || new File(reporter.getFileOutput()).isAbsolute()) {
+                getLog().debug(format("%s is not split by module", report));
+                continue;
+            }
+
+            Map<String, File> moduleReports = new LinkedHashMap<>();
+            modules.forEach((directory, module) -> {
+                File moduleReport = ReportWriter.resolveOutputFile(module.getBuild().getDirectory(),
+                        reporter.getFileOutput());
+                if (!moduleReport.getAbsoluteFile().equals(report.getAbsoluteFile())) {
+                    moduleReports.put(directory, moduleReport);
+                }
+            });
+            try {
+                Map<String, Integer> counts = ModuleReportSplitter.split(report, moduleReports);
+                counts.forEach((directory, count) -> getLog().debug(format("%s: %d files", moduleReports.get(directory),
+                        count)));
+                getLog().info(format("%s split into %d module reports", report, moduleReports.size()));
+            } catch (IOException e) {
+                getLog().warn(format("Could not split %s by module: %s", report, e.getMessage()));
+            }
+        }
+    }
+}
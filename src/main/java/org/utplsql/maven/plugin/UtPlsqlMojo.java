@@ -1,5 +1,6 @@
 package org.utplsql.maven.plugin;
 
+import oracle.jdbc.OracleConnection;
 import oracle.jdbc.pool.OracleDataSource;
 import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.AbstractMojo;
@@ -9,35 +10,55 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.utils.logging.MessageUtils;
-import org.utplsql.api.DBHelper;
 import org.utplsql.api.FileMapperOptions;
 import org.utplsql.api.JavaApiVersionInfo;
 import org.utplsql.api.KeyValuePair;
 import org.utplsql.api.TestRunner;
 import org.utplsql.api.Version;
 import org.utplsql.api.db.DefaultDatabaseInformation;
-import org.utplsql.api.exception.SomeTestsFailedException;
 import org.utplsql.api.reporter.CoreReporters;
+import org.utplsql.api.reporter.DefaultReporter;
 import org.utplsql.api.reporter.Reporter;
 import org.utplsql.api.reporter.ReporterFactory;
+import org.utplsql.maven.plugin.concurrent.NamedThreadFactory;
+import org.utplsql.maven.plugin.db.CompilerSettings;
+import org.utplsql.maven.plugin.db.OutputBufferSource;
+import org.utplsql.maven.plugin.io.CoverageReportSplitter;
+import org.utplsql.maven.plugin.io.FailureManifest;
+import org.utplsql.maven.plugin.io.FileObjectMapper;
+import org.utplsql.maven.plugin.io.FixtureReader;
+import org.utplsql.maven.plugin.io.ReportMerger;
 import org.utplsql.maven.plugin.io.ReportWriter;
+import org.utplsql.maven.plugin.io.ScannedFiles;
 import org.utplsql.maven.plugin.io.SqlFileScanner;
+import org.utplsql.maven.plugin.model.ConnectionInfo;
 import org.utplsql.maven.plugin.model.CustomTypeMapping;
+import org.utplsql.maven.plugin.model.DatabaseTarget;
+import org.utplsql.maven.plugin.model.FileMapping;
 import org.utplsql.maven.plugin.model.ReporterParameter;
+import org.utplsql.maven.plugin.util.PrefixedLog;
+import org.utplsql.maven.plugin.util.StringUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
-import static org.utplsql.maven.plugin.util.StringUtil.isEmpty;
+import static java.lang.String.format;
 import static org.utplsql.maven.plugin.util.StringUtil.isNotBlank;
 import static org.utplsql.maven.plugin.util.StringUtil.isNotEmpty;
 
@@ -47,8 +68,8 @@ import static org.utplsql.maven.plugin.util.StringUtil.isNotEmpty;
  * @author Alberto Hernández
  * @author Simon Martinelli
  */
-@Mojo(name = "test", defaultPhase = LifecyclePhase.TEST)
-public class UtPlsqlMojo extends AbstractMojo {
+@Mojo(name = "test", defaultPhase = LifecyclePhase.TEST, threadSafe = true)
+public class UtPlsqlMojo extends AbstractMojo implements Cloneable {
 
     @Parameter(readonly = true, defaultValue = "${project}")
     MavenProject project;
@@ -122,6 +143,9 @@ public class UtPlsqlMojo extends AbstractMojo {
     @Parameter
     Integer randomTestOrderSeed;
 
+    @Parameter(property = "utplsql.historyTestOrder", defaultValue = "false")
+    boolean historyTestOrder;
+
     @Parameter(defaultValue = "${project.build.directory}", readonly = true)
     String targetDir;
 
@@ -137,159 +161,560 @@ public class UtPlsqlMojo extends AbstractMojo {
     @Parameter(defaultValue = "0")
     Integer oraStuckTimeout;
 
+    @Parameter(property = "utplsql.maxConcurrentExecutionsPerSchema", defaultValue = "1")
+    int maxConcurrentExecutionsPerSchema;
+
+    @Parameter(defaultValue = "false")
+    boolean skipUnmappedFiles;
+
+    @Parameter(property = "utplsql.rerunFailed", defaultValue = "false")
+    boolean rerunFailed;
+
+    @Parameter(property = "utplsql.rerunFailingTestsCount", defaultValue = "0")
+    int rerunFailingTestsCount;
+
+    @Parameter(defaultValue = "false")
+    boolean quarantineFlakyTests;
+
+    @Parameter(defaultValue = "${project.build.directory}/utplsql/test-history.tsv")
+    File testHistoryFile;
+
+    @Parameter(property = "utplsql.recordTestResults", defaultValue = "false")
+    boolean recordTestResults;
+
+    @Parameter(property = "utplsql.progressInterval", defaultValue = "0")
+    int progressInterval;
+
+    @Parameter(property = "utplsql.traceOutput", defaultValue = "false")
+    boolean traceOutput;
+
+    @Parameter(property = "utplsql.profile", defaultValue = "false")
+    boolean profile;
+
+    @Parameter
+    String profileDirectory;
+
+    @Parameter(property = "utplsql.sessionStats", defaultValue = "false")
+    boolean sessionStats;
+
+    @Parameter(defaultValue = "false")
+    boolean sessionStatsPerSuite;
+
+    @Parameter(property = "utplsql.incrementalCoverage", defaultValue = "false")
+    boolean incrementalCoverage;
+
+    @Parameter(property = "utplsql.coverageBaseRef")
+    String coverageBaseRef;
+
+    @Parameter(property = "utplsql.cache", defaultValue = "false")
+    boolean cache;
+
+    @Parameter(defaultValue = "${project.build.directory}/utplsql/run-cache")
+    File cacheDirectory;
+
+    @Parameter(defaultValue = "false")
+    boolean cacheDatabaseCheck;
+
+    @Parameter(property = "utplsql.stallTimeout", defaultValue = "0")
+    int stallTimeout;
+
+    @Parameter(property = "utplsql.preflightCheck", defaultValue = "false")
+    boolean preflightCheck;
+
+    @Parameter(defaultValue = "4")
+    int recompileThreads;
+
+    @Parameter
+    final List<DatabaseTarget> targets = new ArrayList<>();
+
+    @Parameter(property = "utplsql.deferReports", defaultValue = "false")
+    boolean deferReports;
+
+    @Parameter
+    final List<String> tagTiers = new ArrayList<>();
+
+    @Parameter(property = "utplsql.changedLinesBaseRef")
+    String changedLinesBaseRef;
+
+    @Parameter(property = "utplsql.changedLinesThreshold")
+    Double changedLinesThreshold;
+
+    @Parameter(property = "utplsql.plsqlCodeType")
+    String plsqlCodeType;
+
+    @Parameter(property = "utplsql.plsqlOptimizeLevel")
+    Integer plsqlOptimizeLevel;
+
+    @Parameter
+    final List<String> sessionInitStatements = new ArrayList<>();
+
+    @Parameter(property = "utplsql.batchSize", defaultValue = "0")
+    int batchSize;
+
+    @Parameter(property = "utplsql.resumeBatches", defaultValue = "false")
+    boolean resumeBatches;
+
+    @Parameter
+    final List<Resource> fixtures = new ArrayList<>();
+
+    @Parameter(property = "utplsql.fixtureBatchSize", defaultValue = "1000")
+    int fixtureBatchSize;
+
+    @Parameter(defaultValue = "4")
+    int fixtureThreads;
+
+    private static final int MAX_LOGGED_UNMAPPED_FILES = 10;
+
     private final SqlFileScanner sqlFileScanner = new SqlFileScanner();
 
+    private DatabaseTarget currentTarget;
+
     @Override
     public void execute() throws MojoExecutionException {
         if (skipUtplsqlTests) {
             getLog().info("utPLSQLTests are skipped.");
+        } else if (isFanOut()) {
+            executeTargets();
         } else {
             getLog().debug("Java API Version = " + JavaApiVersionInfo.getVersion());
 
-            Connection connection = null;
-            ReportWriter reportWriter = null;
-            try {
-                connection = createConnection();
-
-                Version utlVersion = new DefaultDatabaseInformation().getUtPlsqlFrameworkVersion(connection);
-                getLog().info("utPLSQL Version = " + utlVersion);
-
-                FileMapperOptions sourceMappingOptions = buildSourcesOptions();
-                FileMapperOptions testMappingOptions = buildTestsOptions();
-
-                reportWriter = new ReportWriter(targetDir, utlVersion, getLog());
-                List<Reporter> reporterList = initReporters(connection, reportWriter, ReporterFactory.createEmpty());
-
-                logParameters(sourceMappingOptions, testMappingOptions, reporterList);
-
-                TestRunner runner = new TestRunner()
-                        .addPathList(paths)
-                        .addReporterList(reporterList)
-                        .sourceMappingOptions(sourceMappingOptions)
-                        .testMappingOptions(testMappingOptions)
-                        .skipCompatibilityCheck(skipCompatibilityCheck)
-                        .colorConsole(MessageUtils.isColorEnabled())
-                        .addTags(tags)
-                        .randomTestOrder(randomTestOrder)
-                        .randomTestOrderSeed(randomTestOrderSeed)
-                        .failOnErrors(!ignoreFailure)
-                        .oraStuckTimeout(oraStuckTimeout);
-
-                if (isNotBlank(excludeObject)) {
-                    if (excludeObject.contains(",")) {
-                        String[] excludes = excludeObject.split(",");
-                        runner.excludeObjects(Arrays.asList(excludes));
-                    } else {
-                        runner.excludeObject(excludeObject);
-                    }
+            ConnectionInfo connectionInfo = ConnectionInfo.resolve(url, user, password);
+            checkSplitReporters();
+            checkMergeableReporters();
+            CompilerSettings compilerSettings = createCompilerSettings();
+            List<String> runPaths = resolveRunPaths();
+            if (runPaths != null) {
+                new TestRun(this, connectionInfo, compilerSettings, runPaths).execute();
+            }
+        }
+    }
 
+    private void checkSplitReporters() throws MojoExecutionException {
+        for (ReporterParameter reporter : reporters) {
+            if (reporter.isSplit()) {
+                try {
+                    CoverageReportSplitter.SplitBy.parse(reporter.getSplitBy());
+                } catch (IllegalArgumentException e) {
+                    throw new MojoExecutionException(e.getMessage(), e);
                 }
-                if (isNotBlank(includeObject)) {
-                    if (includeObject.contains(",")) {
-                        String[] includes = includeObject.split(",");
-                        runner.includeObjects(Arrays.asList(includes));
-                    } else {
-                        runner.includeObject(includeObject);
-                    }
-                }
+            }
+        }
+    }
 
-                if (isNotBlank(excludeSchemaExpr)) {
-                    runner.excludeSchemaExpr(excludeSchemaExpr);
-                }
-                if (isNotBlank(includeSchemaExpr)) {
-                    runner.includeSchemaExpr(includeSchemaExpr);
-                }
+    /**
+     * The reports of the runs of several tiers or batches are merged: the HTML, Coveralls and Cobertura coverage
+     * reports can't be, each run would only report the coverage of its own tests.
+     */
+    private void checkMergeableReporters() throws MojoExecutionException {
+        if (tagTiers.size() <= 1 && batchSize <= 0) {
+            return;
+        }
+        for (ReporterParameter reporter : reporters) {
+            if (!ReportMerger.isMergeable(reporter.getName())) {
+                throw new MojoExecutionException(format("%s can't be used with tagTiers or batchSize, the reports "
+                        + "of several runs can't be merged into one", reporter.getName()));
+            }
+        }
+    }
 
-                if (isNotBlank(excludeObjectExpr)) {
-                    runner.excludeObjectExpr(excludeObjectExpr);
-                }
-                if (isNotBlank(includeObjectExpr)) {
-                    runner.includeObjectExpr(includeObjectExpr);
-                }
+    /**
+     * Returns the paths to run: the configured paths, or the tests that failed in the last run with
+     * {@code rerunFailed}.
+     *
+     * @return the paths, or {@code null} if there are no failed tests to rerun
+     */
+    private List<String> resolveRunPaths() throws MojoExecutionException {
+        if (!rerunFailed) {
+            return getPaths();
+        }
+        List<String> failed;
+        try {
+            failed = FailureManifest.read(new File(targetDir, FailureManifest.FILE_NAME));
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+        if (failed.isEmpty()) {
+            getLog().info("No failed tests to rerun.");
+            return null;
+        }
+        getLog().info(format("Rerunning %d tests that failed in the last run", failed.size()));
+        return failed;
+    }
 
-                runner.run(connection);
+    TestRunner createTestRunner(List<String> runPaths, List<Reporter> reporterList, Set<String> runTags,
+                                FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions) {
+        TestRunner runner = new TestRunner()
+                .addPathList(runPaths)
+                .addReporterList(reporterList)
+                .sourceMappingOptions(sourceMappingOptions)
+                .testMappingOptions(testMappingOptions)
+                .skipCompatibilityCheck(skipCompatibilityCheck)
+                .colorConsole(MessageUtils.isColorEnabled())
+                .addTags(runTags)
+                .randomTestOrder(randomTestOrder)
+                .randomTestOrderSeed(randomTestOrderSeed)
+                .failOnErrors(!ignoreFailure)
+                .oraStuckTimeout(oraStuckTimeout);
+
+        if (isNotBlank(excludeObject)) {
+            if (excludeObject.contains(",")) {
+                String[] excludes = excludeObject.split(",");
+                runner.excludeObjects(Arrays.asList(excludes));
+            } else {
+                runner.excludeObject(excludeObject);
+            }
 
-            } catch (SomeTestsFailedException e) {
-                if (!ignoreFailure) {
-                    throw new MojoExecutionException(e.getMessage(), e);
-                }
-            } catch (SQLException | IOException e) {
-                throw new MojoExecutionException(e.getMessage(), e);
-            } finally {
+        }
+        if (isNotBlank(includeObject)) {
+            if (includeObject.contains(",")) {
+                String[] includes = includeObject.split(",");
+                runner.includeObjects(Arrays.asList(includes));
+            } else {
+                runner.includeObject(includeObject);
+            }
+        }
+
+        if (isNotBlank(excludeSchemaExpr)) {
+            runner.excludeSchemaExpr(excludeSchemaExpr);
+        }
+        if (isNotBlank(includeSchemaExpr)) {
+            runner.includeSchemaExpr(includeSchemaExpr);
+        }
+
+        if (isNotBlank(excludeObjectExpr)) {
+            runner.excludeObjectExpr(excludeObjectExpr);
+        }
+        if (isNotBlank(includeObjectExpr)) {
+            runner.includeObjectExpr(includeObjectExpr);
+        }
+        return runner;
+    }
+
+    /**
+     * Returns whether this execution runs a copy of itself for every target.
+     *
+     * @return true if targets are configured and this is not the execution of one of them
+     */
+    boolean isFanOut() {
+        return currentTarget == null && !targets.isEmpty();
+    }
+
+    /**
+     * Runs a copy of this execution for every target concurrently and logs the result of each target.
+     *
+     * @throws MojoExecutionException if the configuration of the targets is invalid or a target failed
+     */
+    void executeTargets() throws MojoExecutionException {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < targets.size(); i++) {
+            String name = targets.get(i).getName();
+            name = isNotBlank(name) ? name.trim() : "target-" + (i + 1);
+            if (names.contains(name)) {
+                throw new MojoExecutionException("Duplicate target name: " + name);
+            }
+            if (StringUtil.isBlank(targets.get(i).getUrl())) {
+                throw new MojoExecutionException("No url for target " + name);
+            }
+            names.add(name);
+        }
+
+        getLog().info(format("Running on %d targets: %s", targets.size(), String.join(", ", names)));
+
+        // Every target runs as a copy of this execution with its own connection, output directory and log prefix.
+        ExecutorService executor = Executors.newFixedThreadPool(targets.size(), new NamedThreadFactory("target"));
+        List<Future<TargetResult>> runs = new ArrayList<>();
+        for (int i = 0; i < targets.size(); i++) {
+            UtPlsqlMojo execution = forTarget(targets.get(i), names.get(i));
+            String name = names.get(i);
+            runs.add(executor.submit(() -> {
+                long start = System.nanoTime();
                 try {
-                    if (connection != null) {
-                        if (reportWriter != null) {
-                            reportWriter.writeReports(connection);
-                        }
-                        DBHelper.disableDBMSOutput(connection);
-                        connection.close();
-                    }
-                } catch (SQLException | IOException e) {
-                    getLog().error(e.getMessage(), e);
+                    execution.execute();
+                    return new TargetResult(name, elapsedMillis(start), null);
+                } catch (Exception e) {
+                    execution.getLog().error(e.getMessage());
+                    return new TargetResult(name, elapsedMillis(start),
+                            e.getMessage() == null ? e.getClass().getName() : e.getMessage());
                 }
+            }));
+        }
+        executor.shutdown();
+
+        List<TargetResult> results = new ArrayList<>();
+        try {
+            for (Future<TargetResult> run : runs) {
+                results.add(run.get());
             }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for the targets", e);
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException(e.getCause().getMessage(), e.getCause());
+        }
+
+        int width = names.stream().mapToInt(String::length).max().orElse(0);
+        StringBuilder matrix = new StringBuilder("Results by target:");
+        for (TargetResult result : results) {
+            matrix.append(format("%n  %-" + width + "s  %s  %6.1f s", result.name,
+                    result.failure == null ? "PASSED" : "FAILED", result.millis / 1000.0));
+            if (result.failure != null) {
+                matrix.append("  ").append(result.failure.split("\\R", 2)[0]);
+            }
+        }
+        getLog().info(matrix);
+
+        List<String> failedTargets = results.stream()
+                .filter(result -> result.failure != null)
+                .map(result -> result.name)
+                .collect(Collectors.toList());
+        if (!failedTargets.isEmpty()) {
+            throw new MojoExecutionException(format("utPLSQL failed on %d of %d targets: %s",
+                    failedTargets.size(), results.size(), String.join(", ", failedTargets)));
         }
     }
 
-    private Connection createConnection() throws SQLException {
-        if (isEmpty(url)) {
-            url = System.getProperty("dbUrl");
+    private UtPlsqlMojo forTarget(DatabaseTarget target, String name) throws MojoExecutionException {
+        UtPlsqlMojo execution;
+        try {
+            execution = (UtPlsqlMojo) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
         }
-        if (isEmpty(user)) {
-            user = System.getProperty("dbUser");
+        execution.currentTarget = target;
+        execution.url = target.getUrl();
+        execution.user = isNotBlank(target.getUser()) ? target.getUser() : user;
+        execution.password = isNotBlank(target.getPassword()) ? target.getPassword() : password;
+
+        File targetSubdir = new File(targetDir, name);
+        execution.targetDir = targetSubdir.getPath();
+        execution.testHistoryFile = relocate(testHistoryFile, targetSubdir, name);
+        execution.cacheDirectory = relocate(cacheDirectory, targetSubdir, name);
+        execution.setLog(new PrefixedLog("[" + name + "] ", getLog()));
+        return execution;
+    }
+
+    /**
+     * Moves a file of the build into the output directory of a target: files under the target directory keep
+     * their relative path in the target subdirectory, other files get a subdirectory named after the target.
+     */
+    private File relocate(File file, File targetSubdir, String name) {
+        if (file == null) {
+            return null;
         }
-        if (isEmpty(password)) {
-            password = System.getProperty("dbPass");
+        Path base = Paths.get(targetDir).toAbsolutePath().normalize();
+        Path path = file.toPath().toAbsolutePath().normalize();
+        if (path.startsWith(base)) {
+            return targetSubdir.toPath().resolve(base.relativize(path)).toFile();
         }
+        return new File(new File(file.getParentFile(), name), file.getName());
+    }
 
-        OracleDataSource ds = new OracleDataSource();
-        ds.setURL(url);
-        ds.setUser(user);
-        ds.setPassword(password);
+    private CompilerSettings createCompilerSettings() throws MojoExecutionException {
+        try {
+            return new CompilerSettings(StringUtil.isBlank(plsqlCodeType) ? null : plsqlCodeType.trim(),
+                    plsqlOptimizeLevel);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
 
-        Connection connection = ds.getConnection();
-        if (dbmsOutput) {
-            DBHelper.enableDBMSOutput(connection);
-            getLog().info("Enabled dbms_output.");
+    /**
+     * Describes the configuration the results depend on, with the resolved connection so that the url and user
+     * given as system properties count too.
+     */
+    String describeConfiguration(ConnectionInfo connectionInfo) {
+        List<String> values = new ArrayList<>(Arrays.asList(JavaApiVersionInfo.getVersion(),
+                connectionInfo.getUrl(), connectionInfo.getUser(),
+                String.valueOf(getPaths()), String.valueOf(tags), String.valueOf(tagTiers), includeObject, excludeObject,
+                includeSchemaExpr, excludeSchemaExpr, includeObjectExpr, excludeObjectExpr,
+                String.valueOf(skipCompatibilityCheck),
+                String.valueOf(randomTestOrder), String.valueOf(randomTestOrderSeed), String.valueOf(skipUnmappedFiles),
+                sourcesOwner, sourcesRegexExpression, String.valueOf(sourcesOwnerSubexpression),
+                String.valueOf(sourcesNameSubexpression), String.valueOf(sourcesTypeSubexpression),
+                testsOwner, testsRegexExpression, String.valueOf(testsOwnerSubexpression),
+                String.valueOf(testsNameSubexpression), String.valueOf(testsTypeSubexpression),
+                String.valueOf(incrementalCoverage), coverageBaseRef, plsqlCodeType, String.valueOf(plsqlOptimizeLevel),
+                String.valueOf(sessionInitStatements), String.valueOf(fixtureBatchSize), targetDir));
+        for (List<CustomTypeMapping> mappings : Arrays.asList(sourcesCustomTypeMapping, testsCustomTypeMapping)) {
+            values.add(mappings == null ? "" : mappings.stream()
+                    .map(mapping -> mapping.getCustomMapping() + "=" + mapping.getType())
+                    .collect(Collectors.joining(",")));
+        }
+        for (ReporterParameter reporter : resolveReporters()) {
+            values.add(reporter.getName() + "|" + reporter.getFileOutput() + "|" + reporter.isConsoleOutput()
+                    + "|" + reporter.getSplitBy() + "|" + reporter.getSplitSize());
         }
-        return connection;
+        return String.join("\n", values);
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    // The methods below are the only ones talking to the database directly, the performance tests override
+    // them to run the plugin against a simulated database.
+
+    Connection createConnection(ConnectionInfo connectionInfo) throws SQLException {
+        OracleDataSource ds = new OracleDataSource();
+        ds.setURL(connectionInfo.getUrl());
+        ds.setUser(connectionInfo.getUser());
+        ds.setPassword(connectionInfo.getPassword());
+
+        return ds.getConnection();
+    }
+
+    Version getFrameworkVersion(Connection connection) throws SQLException {
+        return new DefaultDatabaseInformation().getUtPlsqlFrameworkVersion(connection);
+    }
+
+    OutputBufferSource createOutputBufferSource(Version utlVersion) {
+        return OutputBufferSource.forVersion(utlVersion);
+    }
+
+    Reporter createReporter(ReporterFactory reporterFactory, String name, Connection connection) throws SQLException {
+        Reporter reporter = reporterFactory.createReporter(name);
+        reporter.init(connection);
+        return reporter;
+    }
+
+    Reporter restoreReporter(String name, String id) {
+        // The attributes of a reporter object start with its type and id, the id is all its output buffer needs.
+        return new DefaultReporter(name, new Object[]{name, id});
+    }
+
+    void runTests(TestRunner runner, Connection connection) throws SQLException {
+        runner.run(connection);
+    }
+
+    void cancel(Connection connection) throws SQLException {
+        connection.unwrap(OracleConnection.class).cancel();
+    }
+
+    /**
+     * Receives the report files written or restored by the run, the aggregate goal splits them by module.
+     *
+     * @param reports the report files
+     */
+    void reportsWritten(List<File> reports) {
+    }
+
+    /**
+     * Returns the paths of the tests to run.
+     *
+     * @return the configured {@code paths}
+     */
+    List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Returns the resources scanned for source files.
+     *
+     * @return the configured {@code sources}
+     */
+    List<Resource> getSources() {
+        return sources;
+    }
+
+    /**
+     * Returns the resources scanned for test files.
+     *
+     * @return the configured {@code tests}
+     */
+    List<Resource> getTests() {
+        return tests;
     }
 
     FileMapperOptions buildSourcesOptions() throws IOException {
-        if (sources.isEmpty()) {
+        return scanSources().getMapperOptions();
+    }
+
+    FileMapperOptions buildTestsOptions() throws IOException {
+        return scanTests().getMapperOptions();
+    }
+
+    ScannedFiles scanSources() throws IOException {
+        List<Resource> sourceResources = getSources();
+        if (sourceResources.isEmpty()) {
             File defaultSourceDirectory = new File(project.getBasedir(), Defaults.SOURCE_DIRECTORY);
             if (defaultSourceDirectory.exists()) {
-                sources.add(Defaults.buildDefaultSource());
+                sourceResources = Collections.singletonList(Defaults.buildDefaultSource());
             } else {
-                return new FileMapperOptions(new ArrayList<>());
+                return ScannedFiles.empty();
             }
         }
 
-        List<String> scripts = sqlFileScanner.findSqlScripts(project.getBasedir(), sources,
+        List<String> scripts = sqlFileScanner.findSqlScripts(project.getBasedir(), sourceResources,
                 Defaults.SOURCE_DIRECTORY, Defaults.SOURCE_FILE_PATTERN);
-        return createFileMapperOptions(scripts, sourcesOwner, sourcesRegexExpression, sourcesOwnerSubexpression,
+        return mapFiles("source", scripts, sourcesOwner, sourcesRegexExpression, sourcesOwnerSubexpression,
                 sourcesNameSubexpression, sourcesTypeSubexpression, sourcesCustomTypeMapping);
     }
 
-    FileMapperOptions buildTestsOptions() throws IOException {
-        if (tests.isEmpty()) {
+    ScannedFiles scanTests() throws IOException {
+        List<Resource> testResources = getTests();
+        if (testResources.isEmpty()) {
             File defaultTestDirectory = new File(project.getBasedir(), Defaults.TEST_DIRECTORY);
             if (defaultTestDirectory.exists()) {
-                tests.add(Defaults.buildDefaultTest());
+                testResources = Collections.singletonList(Defaults.buildDefaultTest());
             } else {
-                return new FileMapperOptions(new ArrayList<>());
+                return ScannedFiles.empty();
             }
         }
 
-        List<String> scripts = sqlFileScanner.findSqlScripts(project.getBasedir(), tests, Defaults.TEST_DIRECTORY,
+        List<String> scripts = sqlFileScanner.findSqlScripts(project.getBasedir(), testResources, Defaults.TEST_DIRECTORY,
                 Defaults.TEST_FILE_PATTERN);
-        return createFileMapperOptions(scripts, testsOwner, testsRegexExpression, testsOwnerSubexpression,
+        return mapFiles("test", scripts, testsOwner, testsRegexExpression, testsOwnerSubexpression,
                 testsNameSubexpression, testsTypeSubexpression, testsCustomTypeMapping);
     }
 
-    private FileMapperOptions createFileMapperOptions(List<String> scripts, String objectOwner, String regexPattern,
-                                                      Integer ownerSubExpression, Integer nameSubExpression,
-                                                      Integer typeSubExpression, List<CustomTypeMapping> typeMappings) {
+    List<String> scanFixtures() throws IOException {
+        if (fixtures.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return sqlFileScanner.findSqlScripts(project.getBasedir(), fixtures, Defaults.FIXTURE_DIRECTORY,
+                        Defaults.FIXTURE_FILE_PATTERN).stream()
+                .filter(path -> FixtureReader.isFixture(new File(path)))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private ScannedFiles mapFiles(String kind, List<String> scripts, String objectOwner, String regexPattern,
+                                  Integer ownerSubExpression, Integer nameSubExpression,
+                                  Integer typeSubExpression, List<CustomTypeMapping> typeMappings) {
+        FileObjectMapper mapper = new FileObjectMapper(objectOwner, regexPattern, ownerSubExpression,
+                nameSubExpression, typeSubExpression, typeMappings);
+        // The files the expression can't match are dropped before they are mapped or bound into the run call.
+        List<String> mappablePaths = mapper.getFilter().filter(scripts);
+        List<FileMapping> mappings = mapper.mapAll(mappablePaths);
+
+        List<String> unmappedPaths = Collections.emptyList();
+        if (mappablePaths != scripts) {
+            Set<String> mappable = new HashSet<>(mappablePaths);
+            unmappedPaths = scripts.stream().filter(path -> !mappable.contains(path)).collect(Collectors.toList());
+        }
+
+        if (!unmappedPaths.isEmpty()) {
+            getLog().warn(format("%d of %d %s files don't match the mapping regular expression%s",
+                    unmappedPaths.size(), scripts.size(), kind, skipUnmappedFiles ? " and are skipped" : ""));
+            unmappedPaths.stream().limit(MAX_LOGGED_UNMAPPED_FILES).forEach(path -> getLog().warn("  " + path));
+            if (unmappedPaths.size() > MAX_LOGGED_UNMAPPED_FILES) {
+                getLog().warn(format("  ... and %d more", unmappedPaths.size() - MAX_LOGGED_UNMAPPED_FILES));
+            }
+        }
+        if (getLog().isDebugEnabled()) {
+            mappings.forEach(mapping -> getLog().debug(mapping.toString()));
+        }
+
+        List<String> boundScripts = skipUnmappedFiles ? mappablePaths : scripts;
+        FileMapperOptions mapperOptions = createFileMapperOptions(boundScripts, objectOwner, regexPattern,
+                ownerSubExpression, nameSubExpression, typeSubExpression, typeMappings);
+        return new ScannedFiles(mapperOptions, mappings, unmappedPaths);
+    }
+
+    FileMapperOptions createFileMapperOptions(List<String> scripts, String objectOwner, String regexPattern,
+                                              Integer ownerSubExpression, Integer nameSubExpression,
+                                              Integer typeSubExpression, List<CustomTypeMapping> typeMappings) {
         FileMapperOptions fileMapperOptions = new FileMapperOptions(scripts);
 
         if (isNotEmpty(objectOwner)) {
@@ -316,34 +741,60 @@ public class UtPlsqlMojo extends AbstractMojo {
     }
 
     List<Reporter> initReporters(Connection connection, ReportWriter reportWriter, ReporterFactory reporterFactory) throws SQLException {
+        return initReporters(connection, reportWriter, reporterFactory, resolveReporters());
+    }
+
+    List<Reporter> initReporters(Connection connection, ReportWriter reportWriter, ReporterFactory reporterFactory,
+                                 List<ReporterParameter> reporterParameters) throws SQLException {
         List<Reporter> reporterList = new ArrayList<>();
+        for (ReporterParameter reporterParameter : reporterParameters) {
+            Reporter reporter = createReporter(reporterFactory, reporterParameter.getName(), connection);
+            reporterList.add(reporter);
+
+            // Only added the reporter if at least one of the output is required
+            if (isNotBlank(reporterParameter.getFileOutput()) || reporterParameter.isConsoleOutput()) {
+                reportWriter.addReporter(reporterParameter, reporter);
+            }
+        }
+        return reporterList;
+    }
+
+    /**
+     * Returns copies of the configured reporters with their effective output channels,
+     * or the default reporter if none is configured. The configuration itself is left untouched.
+     *
+     * @return the reporters to use for this execution
+     */
+    List<ReporterParameter> resolveReporters() {
+        List<ReporterParameter> resolved = new ArrayList<>();
         if (reporters.isEmpty()) {
             getLog().debug("No reporters configured using default");
 
             ReporterParameter reporterParameter = new ReporterParameter();
             reporterParameter.setConsoleOutput(true);
             reporterParameter.setName(CoreReporters.UT_DOCUMENTATION_REPORTER.name());
-            reporters.add(reporterParameter);
+            resolved.add(reporterParameter);
         }
-        for (ReporterParameter reporterParameter : reporters) {
-            Reporter reporter = reporterFactory.createReporter(reporterParameter.getName());
-            reporter.init(connection);
-            reporterList.add(reporter);
+        for (ReporterParameter configured : reporters) {
+            ReporterParameter reporterParameter = new ReporterParameter();
+            reporterParameter.setName(configured.getName());
+            reporterParameter.setFileOutput(configured.getFileOutput());
+            reporterParameter.setSplitBy(configured.getSplitBy());
+            reporterParameter.setSplitSize(configured.getSplitSize());
 
             // Turns the console output on by default if both file and console output are empty.
-            if (!reporterParameter.isFileOutput() && reporterParameter.getConsoleOutput() == null) {
+            if (configured.getConsoleOutput() != null) {
+                reporterParameter.setConsoleOutput(configured.getConsoleOutput());
+            } else if (!configured.isFileOutput()) {
                 reporterParameter.setConsoleOutput(true);
             }
-
-            // Only added the reporter if at least one of the output is required
-            if (isNotBlank(reporterParameter.getFileOutput()) || reporterParameter.isConsoleOutput()) {
-                reportWriter.addReporter(reporterParameter, reporter);
-            }
+            resolved.add(reporterParameter);
         }
-        return reporterList;
+        return resolved;
     }
 
-    private void logParameters(FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions, List<Reporter> reporterList) {
+    void logParameters(FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions,
+                       List<Reporter> reporterList) {
         getLog().info("Invoking TestRunner with: " + targetDir);
 
         if (getLog().isDebugEnabled()) {
@@ -360,18 +811,32 @@ public class UtPlsqlMojo extends AbstractMojo {
         }
     }
 
+    private static final class TargetResult {
+
+        private final String name;
+        private final long millis;
+        private final String failure;
+
+        TargetResult(String name, long millis, String failure) {
+            this.name = name;
+            this.millis = millis;
+            this.failure = failure;
+        }
+    }
     /**
      * This class provides methods to retrieve the list of resources in the default {@literal <source> and <test>} directories.
      *
      * @author Alberto Hernández
      * @author Simon Martinelli
      */
-    private static class Defaults {
+    static class Defaults {
 
         public static final String SOURCE_DIRECTORY = "src/main/plsql";
         public static final String TEST_DIRECTORY = "src/test/plsql";
+        public static final String FIXTURE_DIRECTORY = "src/test/fixtures";
         public static final String SOURCE_FILE_PATTERN = "**/*.*";
         public static final String TEST_FILE_PATTERN = "**/*.pkg";
+        public static final String FIXTURE_FILE_PATTERN = "**/*.*";
 
         private Defaults() {
         }
@@ -0,0 +1,87 @@
+package org.utplsql.maven.plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.utplsql.api.Version;
+import org.utplsql.maven.plugin.io.ReportManifest;
+import org.utplsql.maven.plugin.io.ReportWriter;
+import org.utplsql.maven.plugin.model.ConnectionInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Writes the reports a {@code test} execution with {@code deferReports} left in the database, fetching them in
+ * parallel over several connections. It shares the configuration of the {@code test} goal.
+ */
+@Mojo(name = "report", threadSafe = true)
+public class UtPlsqlReportMojo extends UtPlsqlMojo {
+
+    @Parameter(property = "utplsql.reportThreads", defaultValue = "4")
+    int reportThreads;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skipUtplsqlTests) {
+            getLog().info("utPLSQLTests are skipped.");
+            return;
+        }
+        if (isFanOut()) {
+            executeTargets();
+            return;
+        }
+
+        File manifest = new File(targetDir, ReportManifest.FILE_NAME);
+        List<ReportManifest.Entry> entries;
+        try {
+            entries = ReportManifest.read(manifest);
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+        if (entries.isEmpty()) {
+            getLog().info("No deferred reports in " + manifest.getAbsolutePath());
+            return;
+        }
+
+        ConnectionInfo connectionInfo = ConnectionInfo.resolve(url, user, password);
+        int threads = Math.max(1, Math.min(reportThreads, entries.size()));
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                connections.add(createConnection(connectionInfo));
+            }
+            Version utlVersion = getFrameworkVersion(connections.get(0));
+
+            ReportWriter reportWriter = new ReportWriter(targetDir, createOutputBufferSource(utlVersion), getLog());
+            if (entries.stream().anyMatch(entry -> ReportWriter.isSplit(entry.getReporterParameter()))) {
+                reportWriter.setSourceMappings(scanSources().getMappings());
+            }
+            for (ReportManifest.Entry entry : entries) {
+                reportWriter.addReporter(entry.getReporterParameter(),
+                        restoreReporter(entry.getReporterParameter().getName(), entry.getReporterId()));
+            }
+
+            getLog().info(format("Writing %d deferred reports over %d connections", entries.size(), threads));
+            reportWriter.writeReports(connections);
+            Files.delete(manifest.toPath());
+        } catch (SQLException | IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    getLog().warn("Could not close a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.utplsql.maven.plugin.concurrent;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Waits for the background tasks of the plugin, which all fail with I/O or unchecked exceptions.
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Waits for a task and returns its result, rethrowing its failure.
+     *
+     * @param future the task
+     * @param <T>    the type of the result
+     * @return the result of the task
+     * @throws IOException if the task failed with a checked exception or the thread was interrupted
+     */
+    public static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a background task");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.utplsql.maven.plugin.concurrent;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates daemon threads named after the plugin task they run, so they show up clearly in thread dumps
+ * and never keep the Maven JVM alive.
+ */
+public class NamedThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    /**
+     * Constructor of the thread factory.
+     *
+     * @param name the name of the task, used as thread name prefix
+     */
+    public NamedThreadFactory(String name) {
+        this.prefix = "utplsql-" + name + "-";
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
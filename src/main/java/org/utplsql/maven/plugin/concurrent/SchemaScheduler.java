@@ -0,0 +1,103 @@
+package org.utplsql.maven.plugin.concurrent;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+import static java.lang.String.format;
+
+/**
+ * Coordinates plugin executions running concurrently in the same JVM, e.g. with {@code mvn -T}.
+ * <p>
+ * Executions targeting different url/user pairs run in parallel, executions sharing a schema are
+ * queued until one of the permits of that schema is released.
+ */
+public class SchemaScheduler {
+
+    private static final SchemaScheduler INSTANCE = new SchemaScheduler();
+
+    private final ConcurrentMap<String, SchemaPermits> permits = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the scheduler shared by all executions of the plugin.
+     *
+     * @return the shared {@link SchemaScheduler}
+     */
+    public static SchemaScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Blocks until the schema identified by the url/user pair can be used by one more execution.
+     * <p>
+     * The concurrency limit of a schema is fixed by the first execution acquiring it, a different limit given by a
+     * later execution is ignored with a warning.
+     *
+     * @param url           the database url
+     * @param user          the database user
+     * @param maxConcurrent the maximum number of executions allowed on the schema, 0 or less for no limit
+     * @param log           the Maven log
+     * @return a {@link Lease} that must be closed once the schema is no longer used
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public Lease acquire(String url, String user, int maxConcurrent, Log log) throws InterruptedException {
+        if (maxConcurrent <= 0) {
+            return new Lease(null);
+        }
+
+        String schema = format("%s@%s", user == null ? "" : user.toUpperCase(Locale.ROOT), url == null ? "" : url);
+        SchemaPermits schemaPermits = permits.computeIfAbsent(schema, key -> new SchemaPermits(maxConcurrent));
+        if (schemaPermits.limit != maxConcurrent) {
+            log.warn(format("Schema %s is limited to %d concurrent executions by the first execution using it,"
+                    + " maxConcurrentExecutionsPerSchema=%d is ignored", schema, schemaPermits.limit, maxConcurrent));
+        }
+        Semaphore semaphore = schemaPermits.semaphore;
+
+        if (!semaphore.tryAcquire()) {
+            log.info(format("Waiting for schema %s, already used by another execution", schema));
+            long start = System.nanoTime();
+            semaphore.acquire();
+            log.info(format("Acquired schema %s after %d ms", schema, (System.nanoTime() - start) / 1_000_000));
+        } else {
+            log.debug(format("Acquired schema %s without waiting", schema));
+        }
+        return new Lease(semaphore);
+    }
+
+    private static class SchemaPermits {
+
+        private final int limit;
+        private final Semaphore semaphore;
+
+        private SchemaPermits(int limit) {
+            this.limit = limit;
+            this.semaphore = new Semaphore(limit, true);
+        }
+    }
+
+    /**
+     * A permit to use a schema.
+     */
+    public static class Lease implements AutoCloseable {
+
+        private Semaphore semaphore;
+
+        private Lease(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        /**
+         * Releases the permit, subsequent calls have no effect.
+         */
+        @Override
+        public synchronized void close() {
+            if (semaphore != null) {
+                semaphore.release();
+                semaphore = null;
+            }
+        }
+    }
+}
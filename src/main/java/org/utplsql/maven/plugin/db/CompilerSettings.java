@@ -0,0 +1,183 @@
+package org.utplsql.maven.plugin.db;
+
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The PL/SQL compiler settings deciding how fast the code runs: {@code PLSQL_CODE_TYPE} and
+ * {@code PLSQL_OPTIMIZE_LEVEL}. A setting left {@code null} is not changed.
+ */
+public final class CompilerSettings {
+
+    private static final int MAX_NAMES_PER_QUERY = 1000;
+
+    private static final String QUERY = "select owner, name, type, plsql_code_type, plsql_optimize_level"
+            + " from all_plsql_object_settings where owner = ? and name in (%s)"
+            + " and type in ('PACKAGE BODY', 'TYPE BODY', 'PROCEDURE', 'FUNCTION', 'TRIGGER')"
+            + " order by name, type";
+
+    private final String codeType;
+    private final Integer optimizeLevel;
+
+    /**
+     * Constructor of the settings.
+     *
+     * @param codeType      {@code NATIVE} or {@code INTERPRETED}, {@code null} to keep the current one
+     * @param optimizeLevel the optimize level from 0 to 3, {@code null} to keep the current one
+     * @throws IllegalArgumentException if a setting is not valid
+     */
+    public CompilerSettings(String codeType, Integer optimizeLevel) {
+        if (codeType != null && !codeType.equalsIgnoreCase("NATIVE") && !codeType.equalsIgnoreCase("INTERPRETED")) {
+            throw new IllegalArgumentException("Invalid PL/SQL code type " + codeType
+                    + ", expected NATIVE or INTERPRETED");
+        }
+        if (optimizeLevel != null && (optimizeLevel < 0 || optimizeLevel > 3)) {
+            throw new IllegalArgumentException("Invalid PL/SQL optimize level " + optimizeLevel
+                    + ", expected 0 to 3");
+        }
+        this.codeType = codeType == null ? null : codeType.toUpperCase(Locale.ROOT);
+        this.optimizeLevel = optimizeLevel;
+    }
+
+    /**
+     * Returns the current settings of the compiled units of objects: package and type bodies, procedures,
+     * functions and triggers. Specifications are left out, recompiling them would invalidate their dependents.
+     *
+     * @param connection the database {@link Connection}
+     * @param owner      the owner of the objects
+     * @param names      the object names
+     * @return the settings by compiled unit, units that don't exist are left out
+     * @throws SQLException if database access fails
+     */
+    public static Map<DatabaseObject, CompilerSettings> find(Connection connection, String owner,
+                                                             Collection<String> names) throws SQLException {
+        List<String> nameList = new ArrayList<>(names);
+        Map<DatabaseObject, CompilerSettings> settings = new LinkedHashMap<>();
+        for (int from = 0; from < nameList.size(); from += MAX_NAMES_PER_QUERY) {
+            List<String> chunk = nameList.subList(from, Math.min(nameList.size(), from + MAX_NAMES_PER_QUERY));
+            String query = String.format(QUERY, String.join(", ", Collections.nCopies(chunk.size(), "?")));
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, owner);
+                for (int i = 0; i < chunk.size(); i++) {
+                    statement.setString(i + 2, chunk.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        settings.put(
+                                new DatabaseObject(resultSet.getString(1), resultSet.getString(2),
+                                        resultSet.getString(3)),
+                                new CompilerSettings(resultSet.getString(4), resultSet.getInt(5)));
+                    }
+                }
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * Returns the code type.
+     *
+     * @return the code type, {@code null} if not changed
+     */
+    public String getCodeType() {
+        return codeType;
+    }
+
+    /**
+     * Returns the optimize level.
+     *
+     * @return the optimize level, {@code null} if not changed
+     */
+    public Integer getOptimizeLevel() {
+        return optimizeLevel;
+    }
+
+    /**
+     * Returns whether no setting is changed.
+     *
+     * @return true if both settings are {@code null}
+     */
+    public boolean isEmpty() {
+        return codeType == null && optimizeLevel == null;
+    }
+
+    /**
+     * Returns the statements applying the settings to the code compiled by a session.
+     *
+     * @return the {@code ALTER SESSION} statements
+     */
+    public List<String> sessionStatements() {
+        List<String> statements = new ArrayList<>();
+        if (codeType != null) {
+            statements.add("alter session set plsql_code_type = " + codeType);
+        }
+        if (optimizeLevel != null) {
+            statements.add("alter session set plsql_optimize_level = " + optimizeLevel);
+        }
+        return statements;
+    }
+
+    /**
+     * Returns the statement recompiling a unit with the settings, its other settings are kept.
+     *
+     * @param object the compiled unit
+     * @return the {@code ALTER ... COMPILE} statement, or {@code null} if the type can't be recompiled
+     */
+    public String compileStatement(DatabaseObject object) {
+        String name = quote(object.getOwner()) + "." + quote(object.getName());
+        String compile;
+        switch (object.getType()) {
+            case "PACKAGE BODY":
+                compile = "alter package " + name + " compile body";
+                break;
+            case "TYPE BODY":
+                compile = "alter type " + name + " compile body";
+                break;
+            case "PROCEDURE":
+            case "FUNCTION":
+            case "TRIGGER":
+                compile = "alter " + object.getType().toLowerCase(Locale.ROOT) + " " + name + " compile";
+                break;
+            default:
+                return null;
+        }
+        StringBuilder statement = new StringBuilder(compile);
+        if (codeType != null) {
+            statement.append(" plsql_code_type = ").append(codeType);
+        }
+        if (optimizeLevel != null) {
+            statement.append(" plsql_optimize_level = ").append(optimizeLevel);
+        }
+        return statement.append(" reuse settings").toString();
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "default compiler settings";
+        }
+        List<String> settings = new ArrayList<>();
+        if (codeType != null) {
+            settings.add("PLSQL_CODE_TYPE=" + codeType);
+        }
+        if (optimizeLevel != null) {
+            settings.add("PLSQL_OPTIMIZE_LEVEL=" + optimizeLevel);
+        }
+        return String.join(", ", settings);
+    }
+}
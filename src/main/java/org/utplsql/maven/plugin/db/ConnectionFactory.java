@@ -0,0 +1,19 @@
+package org.utplsql.maven.plugin.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Opens plain connections to the database of the run, next to the session running the tests.
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+
+    /**
+     * Opens a new connection.
+     *
+     * @return the database {@link Connection}
+     * @throws SQLException if the connection can't be established
+     */
+    Connection connect() throws SQLException;
+}
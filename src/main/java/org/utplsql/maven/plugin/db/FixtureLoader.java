@@ -0,0 +1,208 @@
+package org.utplsql.maven.plugin.db;
+
+import org.utplsql.maven.plugin.io.FixtureReader;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Loads fixture files into tables with JDBC batches: the rows of a batch are bound as arrays and inserted in one
+ * round trip, like the array DML of Oracle.
+ */
+public final class FixtureLoader {
+
+    private static final String TABLE = "TABLE";
+
+    private static final String REFERENCES = "select c.owner, c.table_name, p.owner, p.table_name"
+            + " from all_constraints c join all_constraints p"
+            + " on p.owner = c.r_owner and p.constraint_name = c.r_constraint_name"
+            + " where c.constraint_type = 'R' and c.owner in (%s)";
+
+    private FixtureLoader() {
+    }
+
+    /**
+     * Returns the table a fixture file is loaded into.
+     *
+     * @param file         the fixture file, named {@code [owner.]table.csv} or {@code [owner.]table.jsonl}
+     * @param defaultOwner the owner of the tables without owner
+     * @return the table
+     */
+    public static DatabaseObject table(File file, String defaultOwner) {
+        String name = FixtureReader.tableName(file);
+        int dot = name.indexOf('.');
+        String owner = dot < 0 ? defaultOwner : name.substring(0, dot);
+        return new DatabaseObject(owner.toUpperCase(Locale.ROOT), name.substring(dot + 1).toUpperCase(Locale.ROOT),
+                TABLE);
+    }
+
+    /**
+     * Returns the foreign keys between tables.
+     *
+     * @param connection the database {@link Connection}
+     * @param tables     the tables
+     * @return the tables each table references, only among the given tables
+     * @throws SQLException if database access fails
+     */
+    public static Map<DatabaseObject, Set<DatabaseObject>> findReferences(Connection connection,
+                                                                        Collection<DatabaseObject> tables)
+            throws SQLException {
+        Map<DatabaseObject, Set<DatabaseObject>> references = new HashMap<>();
+        List<String> owners = new ArrayList<>(tables.stream()
+                .map(DatabaseObject::getOwner)
+                .collect(Collectors.toCollection(TreeSet::new)));
+        if (owners.isEmpty()) {
+            return references;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                format(REFERENCES, String.join(", ", Collections.nCopies(owners.size(), "?"))))) {
+            for (int i = 0; i < owners.size(); i++) {
+                statement.setString(i + 1, owners.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    DatabaseObject table = new DatabaseObject(resultSet.getString(1), resultSet.getString(2), TABLE);
+                    DatabaseObject referenced = new DatabaseObject(resultSet.getString(3), resultSet.getString(4),
+                            TABLE);
+                    if (tables.contains(table) && tables.contains(referenced)) {
+                        references.computeIfAbsent(table, key -> new HashSet<>()).add(referenced);
+                    }
+                }
+            }
+        }
+        return references;
+    }
+
+    /**
+     * Counts the rows of a table.
+     *
+     * @param connection the database {@link Connection}
+     * @param table      the table
+     * @return the number of rows
+     * @throws SQLException if database access fails
+     */
+    public static long count(Connection connection, DatabaseObject table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from " + name(table))) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Deletes the rows of a table and commits.
+     *
+     * @param connection the database {@link Connection}
+     * @param table      the table
+     * @throws SQLException if database access fails
+     */
+    public static void delete(Connection connection, DatabaseObject table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("delete from " + name(table));
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    /**
+     * Inserts the rows of fixture files into a table and commits, or rolls back if a row can't be inserted.
+     *
+     * @param connection the database {@link Connection}
+     * @param table      the table
+     * @param files      the fixture files of the table
+     * @param batchSize  the number of rows inserted per round trip
+     * @return the number of rows inserted
+     * @throws SQLException if database access fails
+     * @throws IOException  if a file can't be read
+     */
+    public static long insert(Connection connection, DatabaseObject table, List<File> files, int batchSize)
+            throws SQLException, IOException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        long rows = 0;
+        try {
+            for (File file : files) {
+                try (FixtureReader reader = FixtureReader.open(file);
+                     PreparedStatement statement = connection.prepareStatement(
+                             insertStatement(table, reader.getColumns()))) {
+                    int batched = 0;
+                    Object[] values;
+                    while ((values = reader.next()) != null) {
+                        for (int i = 0; i < values.length; i++) {
+                            if (values[i] == null) {
+                                statement.setNull(i + 1, Types.VARCHAR);
+                            } else {
+                                statement.setObject(i + 1, values[i]);
+                            }
+                        }
+                        statement.addBatch();
+                        rows++;
+                        if (++batched == batchSize) {
+                            statement.executeBatch();
+                            batched = 0;
+                        }
+                    }
+                    if (batched > 0) {
+                        statement.executeBatch();
+                    }
+                } catch (SQLException e) {
+                    throw new SQLException(format("Loading %s into %s.%s failed: %s", file, table.getOwner(),
+                            table.getName(), e.getMessage()), e.getSQLState(), e.getErrorCode(), e);
+                }
+            }
+            connection.commit();
+        } catch (SQLException | IOException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the statement inserting a row into a table. Column names are uppercased like unquoted identifiers,
+     * unless they are quoted.
+     *
+     * @param table   the table
+     * @param columns the column names
+     * @return the {@code INSERT} statement, with one bind variable per column
+     */
+    static String insertStatement(DatabaseObject table, List<String> columns) {
+        return "insert into " + name(table) + " ("
+                + columns.stream()
+                .map(column -> column.length() > 1 && column.startsWith("\"") && column.endsWith("\"")
+                        ? column
+                        : quote(column.toUpperCase(Locale.ROOT)))
+                .collect(Collectors.joining(", "))
+                + ") values (" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+    }
+
+    private static String name(DatabaseObject table) {
+        return quote(table.getOwner()) + "." + quote(table.getName());
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,158 @@
+package org.utplsql.maven.plugin.db;
+
+import org.apache.maven.plugin.logging.Log;
+import org.utplsql.maven.plugin.io.FileChecksums;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Loads the fixture files of a project into their tables. Only the tables whose files or row count changed since
+ * the last load are reloaded, with the tables referencing them: they are emptied children first, then loaded
+ * parents first, the tables of a level in parallel.
+ * <p>
+ * The checksums file stores the checksum of the files of every table and the number of rows loaded.
+ */
+public class Fixtures {
+
+    /**
+     * The checksums file, relative to the build directory.
+     */
+    public static final String CHECKSUMS_FILE = "utplsql/fixture-checksums.tsv";
+
+    private final File baseDir;
+    private final File checksumsFile;
+    private final ParallelTasks tasks;
+    private final int batchSize;
+    private final List<String> sessionStatements;
+    private final Log log;
+
+    /**
+     * Constructor of the fixtures.
+     *
+     * @param baseDir           the directory the fixture paths are relative to
+     * @param checksumsFile     the checksums of the last load
+     * @param connections       the factory of the connections loading the tables
+     * @param threads           the maximum number of connections
+     * @param batchSize         the number of rows inserted per round trip
+     * @param sessionStatements the statements setting up the loading sessions, such as the NLS formats
+     * @param log               the Maven log
+     */
+    public Fixtures(File baseDir, File checksumsFile, ConnectionFactory connections, int threads, int batchSize,
+                    List<String> sessionStatements, Log log) {
+        this.baseDir = baseDir;
+        this.checksumsFile = checksumsFile;
+        this.tasks = new ParallelTasks(connections, threads, "fixtures");
+        this.batchSize = Math.max(1, batchSize);
+        this.sessionStatements = sessionStatements;
+        this.log = log;
+    }
+
+    /**
+     * Loads the changed fixtures.
+     *
+     * @param connection the database {@link Connection}
+     * @param user       the connected user, owner of the tables named without owner
+     * @param paths      the fixture files
+     * @throws SQLException if database access fails or tables could not be loaded
+     * @throws IOException  if a file can't be read
+     */
+    public void load(Connection connection, String user, List<String> paths) throws SQLException, IOException {
+        long start = System.nanoTime();
+        String defaultOwner = user.toUpperCase(Locale.ROOT);
+        Map<String, String> fileChecksums = FileChecksums.compute(baseDir, paths);
+        Map<DatabaseObject, List<File>> filesByTable = new LinkedHashMap<>();
+        Map<DatabaseObject, StringBuilder> contents = new HashMap<>();
+        for (String path : paths) {
+            File file = new File(baseDir, path);
+            DatabaseObject table = FixtureLoader.table(file, defaultOwner);
+            filesByTable.computeIfAbsent(table, key -> new ArrayList<>()).add(file);
+            contents.computeIfAbsent(table, key -> new StringBuilder())
+                    .append(path).append('\t').append(fileChecksums.get(path)).append('\n');
+        }
+
+        Map<String, String> previous = FileChecksums.read(checksumsFile);
+        Map<String, String> loaded = new TreeMap<>();
+        Map<DatabaseObject, String> checksums = new HashMap<>();
+        Set<DatabaseObject> changed = new LinkedHashSet<>();
+        for (DatabaseObject table : filesByTable.keySet()) {
+            String key = table.getOwner() + "." + table.getName();
+            String checksum = FileChecksums.checksum(contents.get(table).toString());
+            checksums.put(table, checksum);
+            String last = previous.get(key);
+            if (last != null && last.startsWith(checksum + " ")
+                    && last.equals(checksum + " " + FixtureLoader.count(connection, table))) {
+                loaded.put(key, last);
+            } else {
+                changed.add(table);
+            }
+        }
+
+        // Emptying a table requires emptying the tables referencing it first, they are reloaded too.
+        Map<DatabaseObject, Set<DatabaseObject>> references = FixtureLoader.findReferences(connection,
+                filesByTable.keySet());
+        boolean added = true;
+        while (added) {
+            added = false;
+            for (Map.Entry<DatabaseObject, Set<DatabaseObject>> entry : references.entrySet()) {
+                if (!changed.contains(entry.getKey()) && entry.getValue().stream().anyMatch(changed::contains)) {
+                    changed.add(entry.getKey());
+                    loaded.remove(entry.getKey().getOwner() + "." + entry.getKey().getName());
+                    added = true;
+                }
+            }
+        }
+        if (changed.isEmpty()) {
+            log.info(format("Fixtures of %d tables are up to date", filesByTable.size()));
+            return;
+        }
+
+        List<List<DatabaseObject>> levels = InvalidObjects.compileOrder(changed, references);
+        List<List<DatabaseObject>> childrenFirst = new ArrayList<>(levels);
+        Collections.reverse(childrenFirst);
+        Map<DatabaseObject, String> errors = tasks.run(childrenFirst, Collections.emptyList(),
+                FixtureLoader::delete);
+        Map<DatabaseObject, Long> rows = new ConcurrentHashMap<>();
+        // The values of CSV files are bound as strings, converted with the NLS formats set by the session statements.
+        errors.putAll(tasks.run(levels, sessionStatements, (loadConnection, table) -> {
+            if (!errors.containsKey(table)) {
+                rows.put(table, FixtureLoader.insert(loadConnection, table, filesByTable.get(table), batchSize));
+            }
+        }));
+
+        rows.forEach((table, count) -> loaded.put(table.getOwner() + "." + table.getName(),
+                checksums.get(table) + " " + count));
+        FileChecksums.write(checksumsFile, loaded);
+        if (!errors.isEmpty()) {
+            throw new SQLException(errors.entrySet().stream()
+                    .map(error -> format("%s.%s: %s", error.getKey().getOwner(), error.getKey().getName(),
+                            error.getValue()))
+                    .collect(Collectors.joining("\n",
+                            format("Loading the fixtures of %d tables failed:%n", errors.size()), "")));
+        }
+        log.info(format("%d fixture rows loaded into %d tables in %d ms, %d tables up to date",
+                rows.values().stream().mapToLong(Long::longValue).sum(), rows.size(), elapsedMillis(start),
+                filesByTable.size() - rows.size()));
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
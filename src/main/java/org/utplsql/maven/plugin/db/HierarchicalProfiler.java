@@ -0,0 +1,86 @@
+package org.utplsql.maven.plugin.db;
+
+import org.utplsql.maven.plugin.model.ProfileEntry;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Profiles with {@code DBMS_HPROF}. The raw profile is written to a file in an Oracle directory and analyzed
+ * into the {@code DBMSHP_*} tables of the connected schema, created with {@code dbmshptab.sql}.
+ */
+public class HierarchicalProfiler implements PlsqlProfiler {
+
+    private static final String FUNCTION_INFO_QUERY = "select owner, module, function, sum(calls),"
+            + " sum(function_elapsed_time), sum(subtree_elapsed_time)"
+            + " from dbmshp_function_info where runid = ?"
+            + " group by owner, module, function";
+
+    private final String directory;
+    private final String fileName;
+
+    /**
+     * Constructor of the profiler.
+     *
+     * @param directory the Oracle directory object the raw profile is written to
+     */
+    public HierarchicalProfiler(String directory) {
+        this.directory = directory;
+        this.fileName = "utplsql_" + System.currentTimeMillis() + ".trc";
+    }
+
+    @Override
+    public String getName() {
+        return "DBMS_HPROF";
+    }
+
+    @Override
+    public String getCountName() {
+        return "calls";
+    }
+
+    @Override
+    public void start(Connection connection) throws SQLException {
+        try (CallableStatement statement = connection.prepareCall(
+                "BEGIN dbms_hprof.start_profiling(location => ?, filename => ?); END;")) {
+            statement.setString(1, directory);
+            statement.setString(2, fileName);
+            statement.execute();
+        }
+    }
+
+    @Override
+    public List<ProfileEntry> stop(Connection connection) throws SQLException {
+        try (CallableStatement statement = connection.prepareCall("BEGIN dbms_hprof.stop_profiling; END;")) {
+            statement.execute();
+        }
+
+        long runId;
+        try (CallableStatement statement = connection.prepareCall(
+                "{? = call dbms_hprof.analyze(location => ?, filename => ?, run_comment => 'utplsql-maven-plugin')}")) {
+            statement.registerOutParameter(1, Types.BIGINT);
+            statement.setString(2, directory);
+            statement.setString(3, fileName);
+            statement.execute();
+            runId = statement.getLong(1);
+        }
+
+        List<ProfileEntry> entries = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(FUNCTION_INFO_QUERY)) {
+            statement.setLong(1, runId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    entries.add(new ProfileEntry(resultSet.getString(1), resultSet.getString(2),
+                            resultSet.getString(3), resultSet.getLong(4), resultSet.getLong(5), resultSet.getLong(6)));
+                }
+            }
+        }
+        return entries;
+    }
+}
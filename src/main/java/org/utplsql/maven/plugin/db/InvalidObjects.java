@@ -0,0 +1,295 @@
+package org.utplsql.maven.plugin.db;
+
+import org.utplsql.maven.plugin.model.DatabaseObject;
+import org.utplsql.maven.plugin.model.FileMapping;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Finds the invalid objects of schemas, orders their recompilation by dependencies like {@code UTL_RECOMP}
+ * and reports their compilation errors.
+ */
+public final class InvalidObjects {
+
+    private static final String INVALID_OBJECTS = "select owner, object_name, object_type from all_objects"
+            + " where status = 'INVALID' and (%s)";
+
+    private static final String DEPENDENCIES = "with invalid as (" + INVALID_OBJECTS + ")"
+            + " select owner, name, type, referenced_owner, referenced_name, referenced_type from all_dependencies"
+            + " where (owner, name, type) in (select owner, object_name, object_type from invalid)"
+            + " and (referenced_owner, referenced_name, referenced_type)"
+            + " in (select owner, object_name, object_type from invalid)";
+
+    private static final String ERRORS = "select owner, name, type, line, position, text from all_errors"
+            + " where attribute = 'ERROR' and (%s) order by owner, name, type, sequence";
+
+    private InvalidObjects() {
+    }
+
+    /**
+     * Returns the invalid objects of schemas.
+     *
+     * @param connection the database {@link Connection}
+     * @param owners     the schema names, the connected schema is always included
+     * @return the invalid objects
+     * @throws SQLException if database access fails
+     */
+    public static List<DatabaseObject> find(Connection connection, Collection<String> owners) throws SQLException {
+        List<String> schemas = schemas(owners);
+        List<DatabaseObject> objects = new ArrayList<>();
+        try (PreparedStatement statement = prepare(connection, INVALID_OBJECTS, schemas);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                objects.add(new DatabaseObject(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3)));
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * Returns the dependencies between the invalid objects of schemas.
+     *
+     * @param connection the database {@link Connection}
+     * @param owners     the schema names, the connected schema is always included
+     * @return the invalid objects each invalid object depends on
+     * @throws SQLException if database access fails
+     */
+    public static Map<DatabaseObject, Set<DatabaseObject>> findDependencies(Connection connection,
+                                                                          Collection<String> owners)
+            throws SQLException {
+        List<String> schemas = schemas(owners);
+        Map<DatabaseObject, Set<DatabaseObject>> dependencies = new HashMap<>();
+        try (PreparedStatement statement = prepare(connection, DEPENDENCIES, schemas);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                dependencies.computeIfAbsent(
+                        new DatabaseObject(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3)),
+                        object -> new HashSet<>())
+                        .add(new DatabaseObject(resultSet.getString(4), resultSet.getString(5), resultSet.getString(6)));
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Orders objects for recompilation: every level only depends on the previous levels, the objects of a
+     * level can be compiled in parallel. Objects in a dependency cycle are compiled together in a last level.
+     *
+     * @param objects      the objects to compile
+     * @param dependencies the objects each object depends on
+     * @return the levels
+     */
+    public static List<List<DatabaseObject>> compileOrder(Collection<DatabaseObject> objects,
+                                                          Map<DatabaseObject, Set<DatabaseObject>> dependencies) {
+        Set<DatabaseObject> remaining = new LinkedHashSet<>(objects);
+        List<List<DatabaseObject>> levels = new ArrayList<>();
+        while (!remaining.isEmpty()) {
+            List<DatabaseObject> level = remaining.stream()
+                    .filter(object -> dependencies.getOrDefault(object, Collections.emptySet()).stream()
+                            .noneMatch(dependency -> !dependency.equals(object) && remaining.contains(dependency)))
+                    .collect(Collectors.toList());
+            if (level.isEmpty()) {
+                level = new ArrayList<>(remaining);
+            }
+            levels.add(level);
+            level.forEach(remaining::remove);
+        }
+        return levels;
+    }
+
+    /**
+     * Returns the statement recompiling an object.
+     *
+     * @param object the object
+     * @return the {@code ALTER ... COMPILE} statement, or {@code null} if the type can't be recompiled
+     */
+    public static String compileStatement(DatabaseObject object) {
+        String name = quote(object.getOwner()) + "." + quote(object.getName());
+        switch (object.getType()) {
+            case "PACKAGE":
+                return "alter package " + name + " compile specification";
+            case "PACKAGE BODY":
+                return "alter package " + name + " compile body";
+            case "TYPE":
+                return "alter type " + name + " compile specification";
+            case "TYPE BODY":
+                return "alter type " + name + " compile body";
+            case "PROCEDURE":
+            case "FUNCTION":
+            case "TRIGGER":
+            case "VIEW":
+            case "SYNONYM":
+            case "MATERIALIZED VIEW":
+                return "alter " + object.getType().toLowerCase(Locale.ROOT) + " " + name + " compile";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the compilation errors of schemas.
+     *
+     * @param connection the database {@link Connection}
+     * @param owners     the schema names, the connected schema is always included
+     * @return the errors, in source order
+     * @throws SQLException if database access fails
+     */
+    public static List<CompileError> findErrors(Connection connection, Collection<String> owners) throws SQLException {
+        List<String> schemas = schemas(owners);
+        List<CompileError> errors = new ArrayList<>();
+        try (PreparedStatement statement = prepare(connection, ERRORS, schemas);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                errors.add(new CompileError(
+                        new DatabaseObject(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3)),
+                        resultSet.getInt(4), resultSet.getInt(5), resultSet.getString(6)));
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Describes invalid objects and their errors, located in the files they are mapped from.
+     *
+     * @param invalid      the invalid objects
+     * @param errors       the compilation errors
+     * @param mappings     the {@link FileMapping}s of the source and test files
+     * @param defaultOwner the owner of the mappings without owner
+     * @return the description, one line per error or invalid object without errors
+     */
+    public static String describe(List<DatabaseObject> invalid, List<CompileError> errors, List<FileMapping> mappings,
+                                  String defaultOwner) {
+        Map<String, String> files = new HashMap<>();
+        for (FileMapping mapping : mappings) {
+            String owner = mapping.getObjectOwner() != null ? mapping.getObjectOwner() : defaultOwner;
+            String key = owner + "." + mapping.getObjectName();
+            files.putIfAbsent(mapping.getObjectType() == null ? key : key + " " + mapping.getObjectType(),
+                    mapping.getFilePath());
+        }
+
+        Map<DatabaseObject, List<CompileError>> errorsByObject = new LinkedHashMap<>();
+        for (DatabaseObject object : invalid) {
+            errorsByObject.put(object, new ArrayList<>());
+        }
+        for (CompileError error : errors) {
+            errorsByObject.computeIfAbsent(error.getObject(), object -> new ArrayList<>()).add(error);
+        }
+
+        StringBuilder description = new StringBuilder(format("%d invalid objects:", errorsByObject.size()));
+        errorsByObject.forEach((object, objectErrors) -> {
+            String key = object.getOwner() + "." + object.getName();
+            String file = files.getOrDefault(key + " " + object.getType(), files.get(key));
+            String location = file != null ? file : object.toString();
+            if (objectErrors.isEmpty()) {
+                description.append(format("%n%s: invalid without compilation errors, check its dependencies",
+                        location));
+            }
+            for (CompileError error : objectErrors) {
+                description.append(format("%n%s:[%d,%d] %s", location, error.getLine(), error.getPosition(),
+                        error.getText() == null ? "" : error.getText().trim().replaceAll("\\s*\\n\\s*", " ")));
+            }
+        });
+        return description.toString();
+    }
+
+    private static List<String> schemas(Collection<String> owners) {
+        return new ArrayList<>(owners.stream()
+                .map(owner -> owner.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toCollection(TreeSet::new)));
+    }
+
+    private static PreparedStatement prepare(Connection connection, String query, List<String> schemas)
+            throws SQLException {
+        String filter = "owner = user" + (schemas.isEmpty() ? ""
+                : " or owner in (" + String.join(", ", Collections.nCopies(schemas.size(), "?")) + ")");
+        PreparedStatement statement = connection.prepareStatement(format(query, filter));
+        for (int i = 0; i < schemas.size(); i++) {
+            statement.setString(i + 1, schemas.get(i));
+        }
+        return statement;
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * A compilation error of an object.
+     */
+    public static final class CompileError {
+
+        private final DatabaseObject object;
+        private final int line;
+        private final int position;
+        private final String text;
+
+        /**
+         * Constructor of the error.
+         *
+         * @param object   the object
+         * @param line     the line of the error
+         * @param position the position of the error in the line
+         * @param text     the error message
+         */
+        public CompileError(DatabaseObject object, int line, int position, String text) {
+            this.object = object;
+            this.line = line;
+            this.position = position;
+            this.text = text;
+        }
+
+        /**
+         * Returns the object.
+         *
+         * @return the object
+         */
+        public DatabaseObject getObject() {
+            return object;
+        }
+
+        /**
+         * Returns the line of the error.
+         *
+         * @return the line
+         */
+        public int getLine() {
+            return line;
+        }
+
+        /**
+         * Returns the position of the error in the line.
+         *
+         * @return the position
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        /**
+         * Returns the error message.
+         *
+         * @return the message
+         */
+        public String getText() {
+            return text;
+        }
+    }
+}
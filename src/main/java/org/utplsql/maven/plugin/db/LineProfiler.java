@@ -0,0 +1,72 @@
+package org.utplsql.maven.plugin.db;
+
+import org.utplsql.maven.plugin.model.ProfileEntry;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Profiles with {@code DBMS_PROFILER}, into the {@code PLSQL_PROFILER_*} tables created with
+ * {@code proftab.sql}. The profiler measures lines, not subprograms: the entries are whole program units
+ * with their executed line count, and self and total time are the same.
+ */
+public class LineProfiler implements PlsqlProfiler {
+
+    private static final String UNIT_DATA_QUERY = "select u.unit_owner, u.unit_name, sum(d.total_occur),"
+            + " sum(d.total_time)"
+            + " from plsql_profiler_units u"
+            + " join plsql_profiler_data d on d.runid = u.runid and d.unit_number = u.unit_number"
+            + " where u.runid = ?"
+            + " group by u.unit_owner, u.unit_name";
+
+    private long runId;
+
+    @Override
+    public String getName() {
+        return "DBMS_PROFILER";
+    }
+
+    @Override
+    public String getCountName() {
+        // total_occur counts the executions of each line, a unit called once counts all its lines.
+        return "line executions";
+    }
+
+    @Override
+    public void start(Connection connection) throws SQLException {
+        try (CallableStatement statement = connection.prepareCall(
+                "BEGIN dbms_profiler.start_profiler(run_comment => 'utplsql-maven-plugin', run_comment1 => NULL,"
+                        + " run_number => ?); END;")) {
+            statement.registerOutParameter(1, Types.BIGINT);
+            statement.execute();
+            runId = statement.getLong(1);
+        }
+    }
+
+    @Override
+    public List<ProfileEntry> stop(Connection connection) throws SQLException {
+        try (CallableStatement statement = connection.prepareCall("BEGIN dbms_profiler.stop_profiler; END;")) {
+            statement.execute();
+        }
+
+        List<ProfileEntry> entries = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(UNIT_DATA_QUERY)) {
+            statement.setLong(1, runId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    // total_time is in nanoseconds
+                    long micros = resultSet.getLong(4) / 1000;
+                    entries.add(new ProfileEntry(resultSet.getString(1), resultSet.getString(2), null,
+                            resultSet.getLong(3), micros, micros));
+                }
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,37 @@
+package org.utplsql.maven.plugin.db;
+
+import org.utplsql.api.Version;
+import org.utplsql.api.outputBuffer.OutputBuffer;
+import org.utplsql.api.outputBuffer.OutputBufferProvider;
+import org.utplsql.api.reporter.Reporter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Provides the {@link OutputBuffer} reporter output is read from.
+ */
+@FunctionalInterface
+public interface OutputBufferSource {
+
+    /**
+     * Returns the output buffer of a reporter.
+     *
+     * @param reporter   the {@link Reporter}
+     * @param connection the database {@link Connection}
+     * @return the {@link OutputBuffer}
+     * @throws SQLException if database access fails
+     */
+    OutputBuffer get(Reporter reporter, Connection connection) throws SQLException;
+
+    /**
+     * Returns the source of the buffers compatible with a utPLSQL framework version.
+     *
+     * @param databaseVersion the utPLSQL framework {@link Version}
+     * @return the source
+     */
+    static OutputBufferSource forVersion(Version databaseVersion) {
+        return (reporter, connection) -> OutputBufferProvider.getCompatibleOutputBuffer(databaseVersion, reporter,
+                connection);
+    }
+}
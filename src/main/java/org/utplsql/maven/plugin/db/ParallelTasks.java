@@ -0,0 +1,129 @@
+package org.utplsql.maven.plugin.db;
+
+import org.utplsql.maven.plugin.concurrent.NamedThreadFactory;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.utplsql.maven.plugin.concurrent.Futures.await;
+
+/**
+ * Runs a task on database objects level by level, the objects of a level in parallel on a pool of connections.
+ * A level only starts once the previous one is done, so that objects can depend on the objects of earlier levels.
+ */
+public class ParallelTasks {
+
+    private final ConnectionFactory connections;
+    private final int maxThreads;
+    private final String threadName;
+
+    /**
+     * Constructor of the tasks.
+     *
+     * @param connections the factory of the pool connections
+     * @param maxThreads  the maximum number of connections
+     * @param threadName  the name of the task, used as thread name prefix
+     */
+    public ParallelTasks(ConnectionFactory connections, int maxThreads, String threadName) {
+        this.connections = connections;
+        this.maxThreads = maxThreads;
+        this.threadName = threadName;
+    }
+
+    /**
+     * Runs a task on every object, on connections set up with {@code sessionStatements}.
+     *
+     * @param levels            the objects, level by level
+     * @param sessionStatements the statements run on every connection of the pool before the tasks
+     * @param task              the task
+     * @return the errors of the failed tasks by object
+     * @throws SQLException if a connection can't be set up
+     * @throws IOException  if the thread is interrupted
+     */
+    public Map<DatabaseObject, String> run(List<List<DatabaseObject>> levels, List<String> sessionStatements,
+                                           Task task) throws SQLException, IOException {
+        Map<DatabaseObject, String> errors = new ConcurrentHashMap<>();
+        int threads = Math.max(1, Math.min(maxThreads, levels.stream().mapToInt(List::size).max().orElse(1)));
+        BlockingQueue<Connection> pool = new ArrayBlockingQueue<>(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new NamedThreadFactory(threadName));
+        try {
+            for (int i = 0; i < threads; i++) {
+                Connection connection = connections.connect();
+                pool.add(connection);
+                executeAll(connection, sessionStatements);
+            }
+            for (List<DatabaseObject> level : levels) {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (DatabaseObject object : level) {
+                    tasks.add(executor.submit(() -> {
+                        Connection taskConnection = pool.take();
+                        try {
+                            task.run(taskConnection, object);
+                        } catch (SQLException | IOException e) {
+                            errors.put(object, e.getMessage());
+                        } finally {
+                            pool.add(taskConnection);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : tasks) {
+                    await(future);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            for (Connection taskConnection : pool) {
+                taskConnection.close();
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Runs statements on a connection.
+     *
+     * @param connection the database {@link Connection}
+     * @param statements the statements
+     * @throws SQLException if a statement fails
+     */
+    public static void executeAll(Connection connection, List<String> statements) throws SQLException {
+        if (statements.isEmpty()) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * A task on a database object, run on one of the connections of the pool.
+     */
+    @FunctionalInterface
+    public interface Task {
+
+        /**
+         * Runs the task.
+         *
+         * @param connection the pool connection
+         * @param object     the object
+         * @throws SQLException if database access fails
+         * @throws IOException  if a file can't be read
+         */
+        void run(Connection connection, DatabaseObject object) throws SQLException, IOException;
+    }
+}
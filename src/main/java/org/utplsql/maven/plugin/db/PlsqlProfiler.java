@@ -0,0 +1,85 @@
+package org.utplsql.maven.plugin.db;
+
+import org.apache.maven.plugin.logging.Log;
+import org.utplsql.maven.plugin.model.ProfileEntry;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.utplsql.maven.plugin.util.StringUtil.isNotBlank;
+
+/**
+ * Profiles the PL/SQL executed by a database session.
+ */
+public interface PlsqlProfiler {
+
+    /**
+     * Returns the name of the profiler, used in logs and reports.
+     *
+     * @return the profiler name
+     */
+    String getName();
+
+    /**
+     * Returns what the count of a profile entry counts, used as column title in the report.
+     *
+     * @return the count name
+     */
+    String getCountName();
+
+    /**
+     * Starts profiling the session of the connection.
+     *
+     * @param connection the database {@link Connection}
+     * @throws SQLException if the profiler can't be started
+     */
+    void start(Connection connection) throws SQLException;
+
+    /**
+     * Stops profiling and fetches the profile.
+     *
+     * @param connection the database {@link Connection} the profiler was started on
+     * @return the profile entries
+     * @throws SQLException if database access fails
+     */
+    List<ProfileEntry> stop(Connection connection) throws SQLException;
+
+    /**
+     * Starts {@code DBMS_HPROF} when a profile directory is given, falling back to {@code DBMS_PROFILER}.
+     * Without a profile directory {@code DBMS_PROFILER} is the only candidate, and nothing is profiled with
+     * coverage reporters, which rely on it.
+     *
+     * @param connection       the database {@link Connection}
+     * @param profileDirectory the database directory of the {@code DBMS_HPROF} trace files, may be blank
+     * @param coverage         whether the run has coverage reporters
+     * @param log              the Maven log
+     * @return the started profiler, or {@code null} if none could be started
+     */
+    static PlsqlProfiler start(Connection connection, String profileDirectory, boolean coverage, Log log) {
+        List<PlsqlProfiler> profilers = new ArrayList<>();
+        if (isNotBlank(profileDirectory)) {
+            profilers.add(new HierarchicalProfiler(profileDirectory));
+        }
+        if (coverage) {
+            log.warn("DBMS_PROFILER is used by the coverage reporters, set profileDirectory to profile with"
+                    + " DBMS_HPROF.");
+        } else {
+            profilers.add(new LineProfiler());
+        }
+
+        for (PlsqlProfiler profiler : profilers) {
+            try {
+                profiler.start(connection);
+                log.info("Profiling PL/SQL with " + profiler.getName());
+                return profiler;
+            } catch (SQLException e) {
+                log.warn(format("Could not start %s: %s", profiler.getName(), e.getMessage()));
+            }
+        }
+        log.warn("PL/SQL profiling is disabled.");
+        return null;
+    }
+}
@@ -0,0 +1,155 @@
+package org.utplsql.maven.plugin.db;
+
+import org.apache.maven.plugin.logging.Log;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+import org.utplsql.maven.plugin.model.FileMapping;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Recompiles the objects of the mapped source and test files: the invalid objects before the run, and all of
+ * them with the compiler settings of the run, the objects of a level in parallel on several connections.
+ */
+public class Recompiler {
+
+    private final ParallelTasks tasks;
+    private final Log log;
+
+    /**
+     * Constructor of the recompiler.
+     *
+     * @param connections the factory of the connections compiling the objects
+     * @param threads     the maximum number of connections
+     * @param log         the Maven log
+     */
+    public Recompiler(ConnectionFactory connections, int threads, Log log) {
+        this.tasks = new ParallelTasks(connections, threads, "recompile");
+        this.log = log;
+    }
+
+    /**
+     * Recompiles the invalid objects of the schemas of the mapped objects, and fails with the compilation errors
+     * of the objects still invalid.
+     *
+     * @param connection the database {@link Connection}
+     * @param user       the connected user
+     * @param mappings   the mapped source and test files
+     * @throws SQLException if database access fails or objects are still invalid
+     * @throws IOException  if the thread is interrupted
+     */
+    public void recompileInvalidObjects(Connection connection, String user, List<FileMapping> mappings)
+            throws SQLException, IOException {
+        long start = System.nanoTime();
+        Set<String> owners = mappings.stream()
+                .map(FileMapping::getObjectOwner)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        List<DatabaseObject> invalid = InvalidObjects.find(connection, owners);
+        if (invalid.isEmpty()) {
+            log.debug(format("No invalid objects, checked in %d ms", elapsedMillis(start)));
+            return;
+        }
+        log.info(format("Recompiling %d invalid objects", invalid.size()));
+        compile(InvalidObjects.compileOrder(invalid, InvalidObjects.findDependencies(connection, owners)),
+                InvalidObjects::compileStatement)
+                .forEach((object, error) -> log.debug(format("Compiling %s failed: %s", object, error)));
+
+        invalid = InvalidObjects.find(connection, owners);
+        if (!invalid.isEmpty()) {
+            throw new SQLException(InvalidObjects.describe(invalid, InvalidObjects.findErrors(connection, owners),
+                    mappings, user.toUpperCase(Locale.ROOT)));
+        }
+        log.info(format("Invalid objects recompiled in %d ms", elapsedMillis(start)));
+    }
+
+    /**
+     * Recompiles the mapped objects with compiler settings.
+     *
+     * @param connection the database {@link Connection}
+     * @param user       the connected user, owner of the objects mapped without owner
+     * @param mappings   the mapped source and test files
+     * @param settings   the compiler settings
+     * @return the original settings of the recompiled objects
+     * @throws SQLException if database access fails
+     * @throws IOException  if the thread is interrupted
+     */
+    public Map<DatabaseObject, CompilerSettings> recompile(Connection connection, String user,
+                                                           List<FileMapping> mappings, CompilerSettings settings)
+            throws SQLException, IOException {
+        long start = System.nanoTime();
+        Map<String, Set<String>> namesByOwner = new TreeMap<>();
+        for (FileMapping mapping : mappings) {
+            String owner = mapping.getObjectOwner() != null ? mapping.getObjectOwner() : user;
+            namesByOwner.computeIfAbsent(owner.toUpperCase(Locale.ROOT), key -> new TreeSet<>())
+                    .add(mapping.getObjectName().toUpperCase(Locale.ROOT));
+        }
+        Map<DatabaseObject, CompilerSettings> original = new LinkedHashMap<>();
+        for (Map.Entry<String, Set<String>> owner : namesByOwner.entrySet()) {
+            original.putAll(CompilerSettings.find(connection, owner.getKey(), owner.getValue()));
+        }
+
+        // Bodies and standalone units don't depend on each other's compilation, they all compile in parallel.
+        Map<DatabaseObject, String> errors = compile(Collections.singletonList(new ArrayList<>(original.keySet())),
+                settings::compileStatement);
+        errors.forEach((object, error) -> log.warn(format("Compiling %s with %s failed: %s", object, settings,
+                error)));
+        log.info(format("%d objects recompiled with %s in %d ms", original.size() - errors.size(), settings,
+                elapsedMillis(start)));
+        return original;
+    }
+
+    /**
+     * Recompiles objects back with their original compiler settings, failures are only logged.
+     *
+     * @param original the original settings of the objects
+     */
+    public void restore(Map<DatabaseObject, CompilerSettings> original) {
+        long start = System.nanoTime();
+        try {
+            Map<DatabaseObject, String> errors = compile(
+                    Collections.singletonList(new ArrayList<>(original.keySet())),
+                    object -> original.get(object).compileStatement(object));
+            errors.forEach((object, error) -> log.warn(format("Restoring the compiler settings of %s failed: %s",
+                    object, error)));
+            log.info(format("Compiler settings of %d objects restored in %d ms", original.size() - errors.size(),
+                    elapsedMillis(start)));
+        } catch (SQLException | IOException e) {
+            log.warn("Could not restore the compiler settings: " + e.getMessage());
+        }
+    }
+
+    private Map<DatabaseObject, String> compile(List<List<DatabaseObject>> levels,
+                                                Function<DatabaseObject, String> statements)
+            throws SQLException, IOException {
+        return tasks.run(levels, Collections.emptyList(), (connection, object) -> {
+            String ddl = statements.apply(object);
+            if (ddl != null) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(ddl);
+                }
+            }
+        });
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,48 @@
+package org.utplsql.maven.plugin.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Summarizes the DDL state of schemas, to detect objects changed outside of the build.
+ */
+public final class SchemaDdl {
+
+    private SchemaDdl() {
+    }
+
+    /**
+     * Returns the last DDL time and the object count of schemas. Any DDL in the schemas changes the result.
+     *
+     * @param connection the database {@link Connection}
+     * @param owners     the schema names, the connected schema is always included
+     * @return the DDL state, e.g. {@code APP,CODE:2021-10-01T12:00:00:152}
+     * @throws SQLException if database access fails
+     */
+    public static String describe(Connection connection, Collection<String> owners) throws SQLException {
+        List<String> schemas = new ArrayList<>(owners.stream()
+                .map(String::toUpperCase)
+                .collect(Collectors.toCollection(TreeSet::new)));
+        String placeholders = String.join(", ", Collections.nCopies(schemas.size(), "?"));
+
+        String query = "select to_char(max(last_ddl_time), 'YYYY-MM-DD\"T\"HH24:MI:SS'), count(*) from all_objects"
+                + " where owner = user" + (schemas.isEmpty() ? "" : " or owner in (" + placeholders + ")");
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (int i = 0; i < schemas.size(); i++) {
+                statement.setString(i + 1, schemas.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return String.join(",", schemas) + ":" + resultSet.getString(1) + ":" + resultSet.getLong(2);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.utplsql.maven.plugin.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static java.lang.String.format;
+
+/**
+ * Describes what a database session is doing from {@code GV$SESSION} and {@code GV$SQL}: its current SQL, its
+ * wait event and the session blocking it, possibly on another instance. The connected user needs {@code SELECT} on
+ * these views.
+ */
+public final class SessionDiagnostics {
+
+    private static final int MAX_SQL_LENGTH = 1000;
+
+    private static final String QUERY = "select s.status, s.state, s.event, s.wait_class, s.seconds_in_wait,"
+            + " s.sql_id, dbms_lob.substr(q.sql_fulltext, " + MAX_SQL_LENGTH + ", 1),"
+            + " s.blocking_session, b.username, b.machine, b.program, b.sql_id"
+            + " from gv$session s"
+            + " left join gv$sql q on q.inst_id = s.inst_id and q.sql_id = s.sql_id"
+            + " and q.child_number = s.sql_child_number"
+            + " left join gv$session b on b.inst_id = s.blocking_instance and b.sid = s.blocking_session"
+            + " where s.inst_id = ? and s.sid = ? and s.serial# = ?";
+
+    private SessionDiagnostics() {
+    }
+
+    /**
+     * Describes a session.
+     *
+     * @param connection the database {@link Connection} to read the views with, not the one of the session
+     * @param sessionId  the id of the session
+     * @return the description, one item per line
+     * @throws SQLException if database access fails
+     */
+    public static String describe(Connection connection, SessionId sessionId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(QUERY)) {
+            sessionId.bind(statement, 1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return format("Session %s not found", sessionId);
+                }
+                StringBuilder description = new StringBuilder()
+                        .append(format("Session %s: %s, %s on '%s' (%s) for %d s", sessionId, resultSet.getString(1),
+                                resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
+                                resultSet.getLong(5)));
+                if (resultSet.getString(6) != null) {
+                    description.append(format("%nCurrent SQL %s: %s", resultSet.getString(6),
+                            resultSet.getString(7) == null ? "" : resultSet.getString(7).trim()));
+                }
+                long blockingSession = resultSet.getLong(8);
+                if (!resultSet.wasNull()) {
+                    description.append(format("%nBlocked by session %d: user %s, machine %s, program %s, SQL %s",
+                            blockingSession, resultSet.getString(9), resultSet.getString(10),
+                            resultSet.getString(11), resultSet.getString(12)));
+                }
+                return description.toString();
+            }
+        }
+    }
+}
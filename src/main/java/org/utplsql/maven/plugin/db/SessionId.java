@@ -0,0 +1,73 @@
+package org.utplsql.maven.plugin.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static java.lang.String.format;
+
+/**
+ * Identifies a database session across a RAC cluster: its SID, which is only unique within an instance and is
+ * reused once the session ends, its serial number and its instance.
+ * <p>
+ * The {@code GV$} views are queried with all three, so a side connection landing on another instance, or a new
+ * session that got the SID of the test session, is never read instead of the test session.
+ */
+public final class SessionId {
+
+    private static final String QUERY = "select s.sid, s.serial#, s.inst_id from gv$session s"
+            + " where s.inst_id = sys_context('USERENV', 'INSTANCE') and s.sid = sys_context('USERENV', 'SID')";
+
+    private final long sid;
+    private final long serial;
+    private final int instance;
+
+    /**
+     * Constructor of the session id.
+     *
+     * @param sid      the SID
+     * @param serial   the serial number
+     * @param instance the instance number
+     */
+    public SessionId(long sid, long serial, int instance) {
+        this.sid = sid;
+        this.serial = serial;
+        this.instance = instance;
+    }
+
+    /**
+     * Returns the id of the session of a connection.
+     *
+     * @param connection the database {@link Connection}
+     * @return the session id
+     * @throws SQLException if database access fails or the session is not found
+     */
+    public static SessionId of(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(QUERY);
+             ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                throw new SQLException("The session of the connection is not found in GV$SESSION");
+            }
+            return new SessionId(resultSet.getLong(1), resultSet.getLong(2), resultSet.getInt(3));
+        }
+    }
+
+    /**
+     * Binds the instance, SID and serial number, in this order, from a parameter of a statement.
+     *
+     * @param statement the statement
+     * @param index     the index of the instance parameter
+     * @throws SQLException if a parameter can't be set
+     */
+    void bind(PreparedStatement statement, int index) throws SQLException {
+        statement.setInt(index, instance);
+        statement.setLong(index + 1, sid);
+        statement.setLong(index + 2, serial);
+    }
+
+    @Override
+    public String toString() {
+        return format("%d,%d@%d", sid, serial, instance);
+    }
+}
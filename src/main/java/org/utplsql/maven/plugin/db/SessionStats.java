@@ -0,0 +1,188 @@
+package org.utplsql.maven.plugin.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of the resource statistics and wait events of a database session, read from
+ * {@code GV$SESSTAT} and {@code GV$SESSION_EVENT}. The connected user needs {@code SELECT} on these views and
+ * {@code GV$SESSION}.
+ * <p>
+ * Snapshots can be taken from any session, so the statistics of the test session can be read
+ * through a side connection while the tests run.
+ */
+public final class SessionStats {
+
+    public static final String CPU = "CPU used by this session";
+    public static final String LOGICAL_READS = "session logical reads";
+    public static final String PHYSICAL_READS = "physical reads";
+    public static final String REDO_SIZE = "redo size";
+    public static final String LONG_TABLE_SCANS = "table scans (long tables)";
+    public static final String SORTS_DISK = "sorts (disk)";
+    public static final String PGA_MAX = "session pga memory max";
+
+    /**
+     * The statistics read, in report order.
+     */
+    public static final List<String> STATISTICS = Collections.unmodifiableList(Arrays.asList(
+            CPU, LOGICAL_READS, PHYSICAL_READS, REDO_SIZE, LONG_TABLE_SCANS, SORTS_DISK, PGA_MAX));
+
+    private static final String STATISTICS_QUERY = "select n.name, s.value"
+            + " from gv$sesstat s"
+            + " join gv$statname n on n.inst_id = s.inst_id and n.statistic# = s.statistic#"
+            + " join gv$session x on x.inst_id = s.inst_id and x.sid = s.sid"
+            + " where s.inst_id = ? and s.sid = ? and x.serial# = ? and n.name in (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String WAITS_QUERY = "select e.event, e.total_waits, e.time_waited_micro"
+            + " from gv$session_event e join gv$session x on x.inst_id = e.inst_id and x.sid = e.sid"
+            + " where e.inst_id = ? and e.sid = ? and x.serial# = ? and e.wait_class <> 'Idle'";
+
+    private final Map<String, Long> statistics;
+    private final Map<String, Wait> waits;
+
+    private SessionStats(Map<String, Long> statistics, Map<String, Wait> waits) {
+        this.statistics = Collections.unmodifiableMap(statistics);
+        this.waits = Collections.unmodifiableMap(waits);
+    }
+
+    /**
+     * Takes a snapshot of a session.
+     *
+     * @param connection the database {@link Connection} to read the statistics with
+     * @param sessionId  the id of the session
+     * @return the snapshot
+     * @throws SQLException if database access fails
+     */
+    public static SessionStats capture(Connection connection, SessionId sessionId) throws SQLException {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(STATISTICS_QUERY)) {
+            sessionId.bind(statement, 1);
+            for (int i = 0; i < STATISTICS.size(); i++) {
+                statement.setString(i + 4, STATISTICS.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    statistics.put(resultSet.getString(1), resultSet.getLong(2));
+                }
+            }
+        }
+
+        Map<String, Wait> waits = new LinkedHashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(WAITS_QUERY)) {
+            sessionId.bind(statement, 1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    waits.put(resultSet.getString(1), new Wait(resultSet.getLong(2), resultSet.getLong(3)));
+                }
+            }
+        }
+        return new SessionStats(statistics, waits);
+    }
+
+    /**
+     * Creates a snapshot from known values.
+     *
+     * @param statistics the statistic values by name
+     * @param waits      the wait events by name
+     * @return the snapshot
+     */
+    public static SessionStats of(Map<String, Long> statistics, Map<String, Wait> waits) {
+        return new SessionStats(new LinkedHashMap<>(statistics), new LinkedHashMap<>(waits));
+    }
+
+    /**
+     * Returns what the session consumed since an earlier snapshot. {@link #PGA_MAX} is a high-water
+     * mark and keeps the value of this snapshot.
+     *
+     * @param before the earlier snapshot
+     * @return the difference
+     */
+    public SessionStats since(SessionStats before) {
+        Map<String, Long> deltaStatistics = new LinkedHashMap<>();
+        statistics.forEach((name, value) -> deltaStatistics.put(name,
+                PGA_MAX.equals(name) ? value : value - before.statistics.getOrDefault(name, 0L)));
+
+        Map<String, Wait> deltaWaits = new LinkedHashMap<>();
+        waits.forEach((event, wait) -> {
+            Wait previous = before.waits.get(event);
+            Wait delta = previous == null ? wait : new Wait(wait.count - previous.count, wait.micros - previous.micros);
+            if (delta.count > 0) {
+                deltaWaits.put(event, delta);
+            }
+        });
+        return new SessionStats(deltaStatistics, deltaWaits);
+    }
+
+    /**
+     * Returns a statistic.
+     *
+     * @param name the statistic name, one of {@link #STATISTICS}
+     * @return the value, 0 if not read
+     */
+    public long get(String name) {
+        return statistics.getOrDefault(name, 0L);
+    }
+
+    /**
+     * Returns the statistics.
+     *
+     * @return the values by statistic name
+     */
+    public Map<String, Long> getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the non-idle wait events.
+     *
+     * @return the waits by event name
+     */
+    public Map<String, Wait> getWaits() {
+        return waits;
+    }
+
+    /**
+     * Number of waits and time waited for a wait event.
+     */
+    public static final class Wait {
+
+        private final long count;
+        private final long micros;
+
+        /**
+         * Constructor of the wait.
+         *
+         * @param count  the number of waits
+         * @param micros the time waited in microseconds
+         */
+        public Wait(long count, long micros) {
+            this.count = count;
+            this.micros = micros;
+        }
+
+        /**
+         * Returns the number of waits.
+         *
+         * @return the number of waits
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the time waited.
+         *
+         * @return the time in microseconds
+         */
+        public long getMicros() {
+            return micros;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.utplsql.maven.plugin.db;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * Lists the test suites of a schema from {@code UT_RUNNER.GET_SUITES_INFO}, available since utPLSQL 3.1.4.
+ */
+public final class TestSuites {
+
+    private static final String QUERY = "select object_owner || '.' || object_name, min(path)"
+            + " from table(ut_runner.get_suites_info(?)) where item_type = 'UT_SUITE'"
+            + " group by object_owner, object_name order by 2, 1";
+
+    private TestSuites() {
+    }
+
+    /**
+     * Returns the test packages of a schema.
+     *
+     * @param connection the database {@link Connection}
+     * @param owner      the schema name
+     * @return the packages as {@code owner.package}, in suite path order
+     * @throws SQLException if database access fails
+     */
+    public static List<String> find(Connection connection, String owner) throws SQLException {
+        List<String> packages = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(QUERY)) {
+            statement.setString(1, owner);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    packages.add(resultSet.getString(1));
+                }
+            }
+        }
+        return packages;
+    }
+
+    /**
+     * Splits run paths into batches of suites: schema paths are expanded to their test packages, the other paths
+     * are a suite each. A schema whose suites can't be listed is a suite of its own.
+     *
+     * @param connection the database {@link Connection}
+     * @param paths      the run paths, empty for the schema of the user
+     * @param user       the connected user
+     * @param batchSize  the maximum number of suites of a batch, 0 for a single batch
+     * @param log        the Maven log
+     * @return the batches, a single batch of the run paths if they fit in one
+     */
+    public static List<List<String>> batches(Connection connection, List<String> paths, String user, int batchSize,
+                                             Log log) {
+        if (batchSize <= 0) {
+            return Collections.singletonList(paths);
+        }
+        Set<String> suites = new LinkedHashSet<>();
+        for (String path : paths.isEmpty() ? Collections.singletonList(user) : paths) {
+            String trimmed = path.trim();
+            if (!trimmed.contains(".") && !trimmed.contains(":") && !trimmed.contains(",")) {
+                try {
+                    List<String> packages = find(connection, trimmed.toUpperCase(Locale.ROOT));
+                    if (!packages.isEmpty()) {
+                        suites.addAll(packages);
+                        continue;
+                    }
+                } catch (SQLException e) {
+                    log.warn(format("Could not list the suites of %s, it runs in a single batch: %s", trimmed,
+                            e.getMessage()));
+                }
+            }
+            suites.add(trimmed);
+        }
+        if (suites.size() <= batchSize) {
+            return Collections.singletonList(paths);
+        }
+
+        List<String> suiteList = new ArrayList<>(suites);
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < suiteList.size(); from += batchSize) {
+            batches.add(suiteList.subList(from, Math.min(suiteList.size(), from + batchSize)));
+        }
+        log.info(format("Running %d suites in %d batches of up to %d", suiteList.size(), batches.size(), batchSize));
+        return batches;
+    }
+}
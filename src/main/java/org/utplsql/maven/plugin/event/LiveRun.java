@@ -0,0 +1,247 @@
+package org.utplsql.maven.plugin.event;
+
+import org.apache.maven.plugin.logging.Log;
+import org.utplsql.api.exception.SomeTestsFailedException;
+import org.utplsql.maven.plugin.concurrent.NamedThreadFactory;
+import org.utplsql.maven.plugin.db.ConnectionFactory;
+import org.utplsql.maven.plugin.db.SessionDiagnostics;
+import org.utplsql.maven.plugin.db.SessionId;
+import org.utplsql.maven.plugin.db.SessionStats;
+import org.utplsql.maven.plugin.io.ReportWriter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.utplsql.maven.plugin.concurrent.Futures.await;
+
+/**
+ * Runs the tests while their events are fetched on a second connection, so that the listeners see them during
+ * the run: the progress is logged periodically, the statistics of every suite are captured as it ends and a
+ * stalled run is cancelled with a diagnostic of the test session.
+ */
+public class LiveRun {
+
+    private final ConnectionFactory connections;
+    private final Cancellation cancellation;
+    private final int progressInterval;
+    private final int stallTimeout;
+    private final Log log;
+
+    /**
+     * Constructor of the run.
+     *
+     * @param connections      the factory of the connections fetching the events, statistics and diagnostics
+     * @param cancellation     cancels the call running on a connection
+     * @param progressInterval the interval between two progress logs, in seconds
+     * @param stallTimeout     the time a stalled run is given to stop or to write its reports, in seconds
+     * @param log              the Maven log
+     */
+    public LiveRun(ConnectionFactory connections, Cancellation cancellation, int progressInterval, int stallTimeout,
+                   Log log) {
+        this.connections = connections;
+        this.cancellation = cancellation;
+        this.progressInterval = progressInterval;
+        this.stallTimeout = stallTimeout;
+        this.log = log;
+    }
+
+    /**
+     * Runs the tests.
+     *
+     * @param tests      the test run
+     * @param connection the database {@link Connection} of the test run
+     * @param events     the event channel of the run
+     * @param progress   the progress monitor, or {@code null}
+     * @param watchdog   the stall watchdog, or {@code null}
+     * @param sessionId  the id of the test session, or {@code null} if unknown
+     * @param suiteStats the map collecting the statistics of every suite, or {@code null}
+     * @return the failure of the run, {@code null} if it passed or was cancelled as stalled
+     * @throws SQLException if database access fails
+     * @throws IOException  if the thread is interrupted
+     */
+    public SomeTestsFailedException run(TestCall tests, Connection connection, TestEventChannel events,
+                                        ProgressMonitor progress, StallWatchdog watchdog, SessionId sessionId,
+                                        Map<String, SessionStats> suiteStats) throws SQLException, IOException {
+        Connection statsConnection = suiteStats != null ? connections.connect() : null;
+        try {
+            SuiteSessionStats suiteSessionStats = null;
+            if (statsConnection != null) {
+                suiteSessionStats = new SuiteSessionStats(statsConnection, sessionId, log);
+                events.addListener(suiteSessionStats);
+            }
+            SomeTestsFailedException failure = run(tests, connection, events, progress, watchdog, sessionId);
+            if (suiteSessionStats != null) {
+                suiteStats.putAll(suiteSessionStats.getSuites());
+            }
+            return failure;
+        } finally {
+            if (statsConnection != null) {
+                statsConnection.close();
+            }
+        }
+    }
+
+    private SomeTestsFailedException run(TestCall tests, Connection connection, TestEventChannel events,
+                                         ProgressMonitor progress, StallWatchdog watchdog, SessionId sessionId)
+            throws SQLException, IOException {
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(2, new NamedThreadFactory("events"));
+        Connection eventConnection = connections.connect();
+        boolean drained = false;
+        try {
+            if (watchdog != null) {
+                watchdog.start();
+            }
+            Future<?> liveEvents = executor.submit(() -> {
+                events.drain(eventConnection);
+                return null;
+            });
+            if (progress != null) {
+                events.addListener(progress);
+                executor.scheduleAtFixedRate(progress::report, progressInterval, progressInterval, TimeUnit.SECONDS);
+            }
+            if (watchdog != null) {
+                events.addListener(watchdog);
+                executor.scheduleWithFixedDelay(() -> {
+                    if (watchdog.check()) {
+                        cancelStalledRun(connection, sessionId, watchdog, executor);
+                    }
+                }, 1, 1, TimeUnit.SECONDS);
+            }
+
+            SomeTestsFailedException failure = null;
+            try {
+                tests.run();
+            } catch (SomeTestsFailedException e) {
+                failure = e;
+            } catch (SQLException e) {
+                if (watchdog == null || !watchdog.isStalled()) {
+                    throw e;
+                }
+                log.debug("Stalled run cancelled: " + e.getMessage());
+                return null;
+            }
+            await(liveEvents);
+            drained = true;
+            if (progress != null) {
+                progress.report();
+            }
+            return failure;
+        } finally {
+            executor.shutdownNow();
+            if (drained) {
+                eventConnection.close();
+            } else {
+                // The fetch may still wait for the end of a run that failed, closing would wait for it.
+                eventConnection.abort(Runnable::run);
+            }
+        }
+    }
+
+    /**
+     * Captures what the test session is doing through a new connection, then cancels the running call. If the
+     * run does not return within {@code stallTimeout} seconds, the connection is aborted.
+     */
+    private void cancelStalledRun(Connection connection, SessionId sessionId, StallWatchdog watchdog,
+                                  ScheduledExecutorService executor) {
+        StringBuilder diagnostic = new StringBuilder("The run stalled. ").append(watchdog.describeLastActivity());
+        if (sessionId != null) {
+            try (Connection diagnosticConnection = connections.connect()) {
+                diagnostic.append(System.lineSeparator())
+                        .append(SessionDiagnostics.describe(diagnosticConnection, sessionId));
+            } catch (SQLException e) {
+                diagnostic.append(System.lineSeparator())
+                        .append("Could not read the session diagnostics: ").append(e.getMessage());
+            }
+        }
+        watchdog.setDiagnostic(diagnostic.toString());
+        log.error(diagnostic + System.lineSeparator() + "Cancelling the run.");
+
+        try {
+            cancellation.cancel(connection);
+        } catch (SQLException e) {
+            log.warn("Could not cancel the run: " + e.getMessage());
+        }
+        executor.schedule(() -> {
+            log.warn("The run did not stop after the cancellation, aborting the connection.");
+            connection.abort(Runnable::run);
+            return null;
+        }, stallTimeout, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes the reports of a stalled run. The reporters never complete their output, so what they wrote is
+     * fetched for up to {@code stallTimeout} seconds, then the connection is aborted.
+     *
+     * @param reportWriter the writer of the reports of the run
+     * @param connection   the database {@link Connection} of the test run
+     * @return true if the reports were complete, false if the connection was aborted
+     * @throws SQLException if database access fails
+     * @throws IOException  if a report can't be written or the thread is interrupted
+     */
+    public boolean flushReports(ReportWriter reportWriter, Connection connection) throws SQLException, IOException {
+        ExecutorService executor = Executors.newSingleThreadExecutor(new NamedThreadFactory("flush"));
+        try {
+            Future<?> writing = executor.submit(() -> {
+                reportWriter.writeReports(connection);
+                return null;
+            });
+            try {
+                writing.get(stallTimeout, TimeUnit.SECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                log.warn("The reports of the stalled run are incomplete.");
+                connection.abort(Runnable::run);
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing the reports");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SQLException) {
+                    throw (SQLException) e.getCause();
+                }
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The call running the tests on the test session.
+     */
+    @FunctionalInterface
+    public interface TestCall {
+
+        /**
+         * Runs the tests.
+         *
+         * @throws SQLException if the run fails, {@link SomeTestsFailedException} if tests failed
+         */
+        void run() throws SQLException;
+    }
+
+    /**
+     * Cancels the call running on a connection, from another thread.
+     */
+    @FunctionalInterface
+    public interface Cancellation {
+
+        /**
+         * Cancels the running call.
+         *
+         * @param connection the database {@link Connection} of the call
+         * @throws SQLException if the cancellation fails
+         */
+        void cancel(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,110 @@
+package org.utplsql.maven.plugin.event;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Follows the test events of a run while it executes and logs its progress on demand: completed and
+ * expected test counts, throughput, current suite and an estimated time to completion.
+ * <p>
+ * The expected tests and their durations come from previous runs; without them only the completed count
+ * and the throughput are logged.
+ */
+public class ProgressMonitor implements TestEventListener {
+
+    private final Map<String, Long> expectedDurations;
+    private final long expectedTotalDuration;
+    private final Log log;
+    private final long start = System.nanoTime();
+
+    private int completed;
+    private int failed;
+    private long completedExpectedDuration;
+    private long completedActualDuration;
+    private String currentSuite;
+
+    /**
+     * Constructor of the monitor.
+     *
+     * @param expectedDurations the duration in milliseconds of the tests expected in the run, by test path
+     * @param log               the Maven log
+     */
+    public ProgressMonitor(Map<String, Long> expectedDurations, Log log) {
+        this.expectedDurations = new HashMap<>(expectedDurations);
+        this.expectedTotalDuration = expectedDurations.values().stream().mapToLong(Long::longValue).sum();
+        this.log = log;
+    }
+
+    @Override
+    public synchronized void onMessage(TeamcityMessage message) {
+        if (message.is(TeamcityMessage.TEST_SUITE_STARTED)) {
+            currentSuite = message.getSubject();
+        } else if (message.is(TeamcityMessage.TEST_FAILED)) {
+            failed++;
+        } else if (message.is(TeamcityMessage.TEST_FINISHED)) {
+            completed++;
+            Long expected = expectedDurations.get(message.getSubject());
+            if (expected != null) {
+                completedExpectedDuration += expected;
+                Long duration = message.getDuration();
+                completedActualDuration += duration != null ? duration : expected;
+            }
+        }
+    }
+
+    /**
+     * Logs the current progress of the run.
+     */
+    public synchronized void report() {
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        double throughput = elapsed > 0 ? completed * 1000.0 / elapsed : 0;
+
+        StringBuilder progress = new StringBuilder("Progress: ").append(completed);
+        int expectedCount = expectedDurations.size();
+        if (expectedCount > 0) {
+            progress.append('/').append(Math.max(expectedCount, completed));
+        }
+        progress.append(format(" tests, %d failed, %.1f tests/s, elapsed %s", failed, throughput, formatDuration(elapsed)));
+
+        Long remaining = estimateRemaining();
+        if (remaining != null) {
+            progress.append(", ETA ").append(formatDuration(remaining));
+        }
+        if (currentSuite != null) {
+            progress.append(", suite ").append(currentSuite);
+        }
+        log.info(progress.toString());
+    }
+
+    /**
+     * Estimates the remaining time from the historical durations of the tests still to run, corrected by
+     * how much faster or slower the completed tests ran compared to their history.
+     *
+     * @return the remaining time in milliseconds, or {@code null} if there is no history
+     */
+    Long estimateRemaining() {
+        if (expectedTotalDuration <= 0) {
+            return null;
+        }
+        long remaining = Math.max(0, expectedTotalDuration - completedExpectedDuration);
+        if (completedExpectedDuration > 0) {
+            remaining = Math.round(remaining * ((double) completedActualDuration / completedExpectedDuration));
+        }
+        return remaining;
+    }
+
+    static String formatDuration(long millis) {
+        long seconds = millis / 1000;
+        if (seconds < 60) {
+            return seconds + "s";
+        }
+        if (seconds < 3600) {
+            return format("%dm %02ds", seconds / 60, seconds % 60);
+        }
+        return format("%dh %02dm", seconds / 3600, seconds / 60 % 60);
+    }
+}
@@ -0,0 +1,95 @@
+package org.utplsql.maven.plugin.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.String.format;
+
+/**
+ * Detects a run that stopped making progress: no test event was received for longer than the timeout.
+ * <p>
+ * Tests are only reported when they end, so the timeout must be longer than the longest test.
+ */
+public class StallWatchdog implements TestEventListener {
+
+    private final long timeoutNanos;
+    private final AtomicBoolean stalled = new AtomicBoolean();
+    private volatile long lastActivity;
+    private volatile String lastEvent;
+    private volatile String diagnostic;
+
+    /**
+     * Constructor of the watchdog, the run is considered active from now on.
+     *
+     * @param timeoutSeconds the time without events after which the run is stalled
+     */
+    public StallWatchdog(int timeoutSeconds) {
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        start();
+    }
+
+    /**
+     * Starts watching a new run: the run is considered active from now on, the time spent since the previous run
+     * doesn't count against the timeout.
+     */
+    public void start() {
+        lastActivity = System.nanoTime();
+        lastEvent = null;
+    }
+
+    @Override
+    public void onMessage(TeamcityMessage message) {
+        lastActivity = System.nanoTime();
+        lastEvent = message.getSubject() == null
+                ? message.getName()
+                : message.getName() + " " + message.getSubject();
+    }
+
+    /**
+     * Checks the activity, to be called periodically.
+     *
+     * @return true the first time the run is found stalled
+     */
+    public boolean check() {
+        return System.nanoTime() - lastActivity > timeoutNanos && stalled.compareAndSet(false, true);
+    }
+
+    /**
+     * Returns whether the run was found stalled.
+     *
+     * @return true if stalled
+     */
+    public boolean isStalled() {
+        return stalled.get();
+    }
+
+    /**
+     * Returns the diagnostic of the stall.
+     *
+     * @return the diagnostic, or {@code null} if not stalled
+     */
+    public String getDiagnostic() {
+        return diagnostic;
+    }
+
+    /**
+     * Sets the diagnostic of the stall.
+     *
+     * @param diagnostic the diagnostic
+     */
+    public void setDiagnostic(String diagnostic) {
+        this.diagnostic = diagnostic;
+    }
+
+    /**
+     * Describes the last progress of the run.
+     *
+     * @return the idle time and the last event received
+     */
+    public String describeLastActivity() {
+        long idleSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - lastActivity);
+        return lastEvent == null
+                ? format("No test event received in %d s", idleSeconds)
+                : format("No test event received in %d s, the last one was %s", idleSeconds, lastEvent);
+    }
+}
@@ -0,0 +1,84 @@
+package org.utplsql.maven.plugin.event;
+
+import org.apache.maven.plugin.logging.Log;
+import org.utplsql.maven.plugin.db.SessionId;
+import org.utplsql.maven.plugin.db.SessionStats;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Snapshots the statistics of the test session at every suite start and end, through a side connection.
+ * <p>
+ * The events are fetched from the output buffer with a small delay, so the statistics of a suite may
+ * include a part of its neighbours; nested suites and contexts include their children.
+ */
+public class SuiteSessionStats implements TestEventListener {
+
+    private final Connection connection;
+    private final SessionId sessionId;
+    private final Log log;
+    private final Deque<Snapshot> running = new ArrayDeque<>();
+    private final Map<String, SessionStats> suites = new LinkedHashMap<>();
+    private boolean disabled;
+
+    /**
+     * Constructor of the listener.
+     *
+     * @param connection the side {@link Connection} to read the statistics with
+     * @param sessionId  the id of the test session
+     * @param log        the Maven log
+     */
+    public SuiteSessionStats(Connection connection, SessionId sessionId, Log log) {
+        this.connection = connection;
+        this.sessionId = sessionId;
+        this.log = log;
+    }
+
+    @Override
+    public synchronized void onMessage(TeamcityMessage message) {
+        if (disabled || message.getSubject() == null) {
+            return;
+        }
+        boolean started = message.is(TeamcityMessage.TEST_SUITE_STARTED);
+        if (!started && !message.is(TeamcityMessage.TEST_SUITE_FINISHED)) {
+            return;
+        }
+        try {
+            SessionStats stats = SessionStats.capture(connection, sessionId);
+            if (started) {
+                running.push(new Snapshot(message.getSubject(), stats));
+            } else if (!running.isEmpty()) {
+                Snapshot suite = running.pop();
+                suites.put(suite.name, stats.since(suite.stats));
+            }
+        } catch (SQLException e) {
+            disabled = true;
+            log.warn("Could not read the session statistics of the suites: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the statistics of the finished suites.
+     *
+     * @return the statistics by suite name, in completion order
+     */
+    public synchronized Map<String, SessionStats> getSuites() {
+        return new LinkedHashMap<>(suites);
+    }
+
+    private static class Snapshot {
+
+        private final String name;
+        private final SessionStats stats;
+
+        private Snapshot(String name, SessionStats stats) {
+            this.name = name;
+            this.stats = stats;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.utplsql.maven.plugin.event;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A service message printed by {@code UT_TEAMCITY_REPORTER}, e.g.
+ * {@code ##teamcity[testFinished timestamp='2021-10-01T12:00:00.123+0000' duration='12' name='app.test_pkg.test']}.
+ * <p>
+ * The plugin uses these messages as a stream of test events: test paths, outcomes, durations and timestamps.
+ */
+public final class TeamcityMessage {
+
+    public static final String TEST_SUITE_STARTED = "testSuiteStarted";
+    public static final String TEST_SUITE_FINISHED = "testSuiteFinished";
+    public static final String TEST_STARTED = "testStarted";
+    public static final String TEST_FINISHED = "testFinished";
+    public static final String TEST_FAILED = "testFailed";
+    public static final String TEST_IGNORED = "testIgnored";
+
+    private static final String PREFIX = "##teamcity[";
+    private static final Pattern MESSAGE = Pattern.compile("##teamcity\\[(\\w+)(.*)]\\s*");
+    private static final Pattern ATTRIBUTE = Pattern.compile("(\\w+)='((?:[^'|]|\\|.)*)'");
+    private static final DateTimeFormatter TIMESTAMP = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd'T'HH:mm:ss")
+            .optionalStart().appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true).optionalEnd()
+            .appendPattern("xx")
+            .toFormatter();
+
+    private final String name;
+    private final Map<String, String> attributes;
+
+    private TeamcityMessage(String name, Map<String, String> attributes) {
+        this.name = name;
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * Parses a line of the reporter output.
+     *
+     * @param line the output line
+     * @return the message, or {@code null} if the line is not a service message
+     */
+    public static TeamcityMessage parse(String line) {
+        if (line == null || !line.startsWith(PREFIX)) {
+            return null;
+        }
+        Matcher matcher = MESSAGE.matcher(line);
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        Map<String, String> attributes = new LinkedHashMap<>();
+        Matcher attribute = ATTRIBUTE.matcher(matcher.group(2));
+        while (attribute.find()) {
+            attributes.put(attribute.group(1), unescape(attribute.group(2)));
+        }
+        return new TeamcityMessage(matcher.group(1), attributes);
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('|') < 0) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '|' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                switch (escaped) {
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    default:
+                        builder.append(escaped);
+                }
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the message name, e.g. {@code testStarted}.
+     *
+     * @return the message name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns an attribute of the message.
+     *
+     * @param key the attribute name
+     * @return the unescaped attribute value, or {@code null}
+     */
+    public String getAttribute(String key) {
+        return attributes.get(key);
+    }
+
+    /**
+     * Returns the name of the test or suite the message is about. For tests this is the test path,
+     * {@code owner.package.procedure}.
+     *
+     * @return the test or suite name
+     */
+    public String getSubject() {
+        return attributes.get("name");
+    }
+
+    /**
+     * Returns the time the message was printed by the database.
+     *
+     * @return the timestamp in milliseconds since the epoch, or {@code null} if absent
+     */
+    public Long getTimestamp() {
+        String timestamp = attributes.get("timestamp");
+        if (timestamp == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(timestamp, TIMESTAMP).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the duration reported by {@code testFinished} messages.
+     *
+     * @return the duration in milliseconds, or {@code null} if absent
+     */
+    public Long getDuration() {
+        String duration = attributes.get("duration");
+        if (duration == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(duration.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the message has the given name.
+     *
+     * @param messageName the message name
+     * @return true if the names are equal
+     */
+    public boolean is(String messageName) {
+        return name.equals(messageName);
+    }
+}
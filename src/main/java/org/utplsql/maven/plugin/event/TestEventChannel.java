@@ -0,0 +1,70 @@
+package org.utplsql.maven.plugin.event;
+
+import org.utplsql.api.reporter.Reporter;
+import org.utplsql.maven.plugin.db.OutputBufferSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * An internal {@code UT_TEAMCITY_REPORTER} added to the run, whose output is parsed into test events
+ * and dispatched to {@link TestEventListener}s instead of being written to a report.
+ */
+public class TestEventChannel {
+
+    private final Reporter reporter;
+    private final OutputBufferSource outputBuffers;
+    private final List<TestEventListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor of the channel.
+     *
+     * @param reporter      the initialized {@code UT_TEAMCITY_REPORTER}
+     * @param outputBuffers the source of the reporter output buffer
+     */
+    public TestEventChannel(Reporter reporter, OutputBufferSource outputBuffers) {
+        this.reporter = reporter;
+        this.outputBuffers = outputBuffers;
+    }
+
+    /**
+     * Returns the reporter to add to the {@link org.utplsql.api.TestRunner}.
+     *
+     * @return the {@link Reporter}
+     */
+    public Reporter getReporter() {
+        return reporter;
+    }
+
+    /**
+     * Adds a listener, called for every event fetched from now on.
+     *
+     * @param listener the {@link TestEventListener}
+     * @return this channel
+     */
+    public TestEventChannel addListener(TestEventListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Fetches the output of the reporter and dispatches the events until the run is finished.
+     *
+     * @param connection the database {@link Connection} to fetch with
+     * @throws SQLException if database access fails
+     */
+    public void drain(Connection connection) throws SQLException {
+        outputBuffers.get(reporter, connection).fetchAvailable(connection, this::dispatch);
+    }
+
+    void dispatch(String line) {
+        TeamcityMessage message = TeamcityMessage.parse(line);
+        if (message != null) {
+            for (TestEventListener listener : listeners) {
+                listener.onMessage(message);
+            }
+        }
+    }
+}
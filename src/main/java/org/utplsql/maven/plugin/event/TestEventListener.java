@@ -0,0 +1,14 @@
+package org.utplsql.maven.plugin.event;
+
+/**
+ * Receives the test events of a run.
+ */
+public interface TestEventListener {
+
+    /**
+     * Called for every service message of the run, in the order they were printed.
+     *
+     * @param message the {@link TeamcityMessage}
+     */
+    void onMessage(TeamcityMessage message);
+}
@@ -0,0 +1,73 @@
+package org.utplsql.maven.plugin.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the outcome and duration of every test of a run.
+ */
+public class TestResults implements TestEventListener {
+
+    /**
+     * The outcome of a test.
+     */
+    public enum Outcome {
+        PASSED, FAILED, IGNORED
+    }
+
+    private final Map<String, Outcome> outcomes = new LinkedHashMap<>();
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    @Override
+    public synchronized void onMessage(TeamcityMessage message) {
+        String test = message.getSubject();
+        if (test == null) {
+            return;
+        }
+        if (message.is(TeamcityMessage.TEST_STARTED)) {
+            outcomes.put(test, Outcome.PASSED);
+        } else if (message.is(TeamcityMessage.TEST_FAILED)) {
+            outcomes.put(test, Outcome.FAILED);
+        } else if (message.is(TeamcityMessage.TEST_IGNORED)) {
+            outcomes.put(test, Outcome.IGNORED);
+        } else if (message.is(TeamcityMessage.TEST_FINISHED) && message.getDuration() != null) {
+            durations.put(test, message.getDuration());
+        }
+    }
+
+    /**
+     * Returns the outcome of every test, in execution order.
+     *
+     * @return the outcomes by test path
+     */
+    public synchronized Map<String, Outcome> getOutcomes() {
+        return new LinkedHashMap<>(outcomes);
+    }
+
+    /**
+     * Returns the tests that failed or errored, in execution order.
+     *
+     * @return the failed test paths
+     */
+    public synchronized List<String> getFailedTests() {
+        List<String> failed = new ArrayList<>();
+        outcomes.forEach((test, outcome) -> {
+            if (outcome == Outcome.FAILED) {
+                failed.add(test);
+            }
+        });
+        return failed;
+    }
+
+    /**
+     * Returns the duration of a test.
+     *
+     * @param test the test path
+     * @return the duration in milliseconds, or {@code null} if unknown
+     */
+    public synchronized Long getDuration(String test) {
+        return durations.get(test);
+    }
+}
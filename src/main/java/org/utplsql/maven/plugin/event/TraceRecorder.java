@@ -0,0 +1,153 @@
+package org.utplsql.maven.plugin.event;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.utplsql.maven.plugin.util.StringUtil.toJsonString;
+
+/**
+ * Records a timeline of the execution in the Chrome trace-event format, viewable in Perfetto or
+ * {@code chrome://tracing}.
+ * <p>
+ * The plugin phases are recorded on a "maven" track with the client clock, the suites, contexts and tests
+ * on a "database" track with the timestamps printed by the database. {@code UT_TEAMCITY_REPORTER} does
+ * not report before/after procedures, so their time is derived: the time between the start of a suite and
+ * its first child is recorded as {@code before}, the time between its last child and its end as
+ * {@code after}.
+ */
+public class TraceRecorder implements TestEventListener {
+
+    private static final int PROCESS_ID = 1;
+    private static final int MAVEN_TRACK = 1;
+    private static final int DATABASE_TRACK = 2;
+
+    private final List<String> events = new ArrayList<>();
+    private final Deque<Frame> suites = new ArrayDeque<>();
+    private Long testStart;
+
+    /**
+     * Starts a plugin phase, ended by closing the returned {@link Phase}.
+     *
+     * @param name the phase name
+     * @return the started phase
+     */
+    public Phase phase(String name) {
+        return new Phase(name, System.currentTimeMillis());
+    }
+
+    @Override
+    public synchronized void onMessage(TeamcityMessage message) {
+        String name = message.getSubject();
+        if (name == null) {
+            return;
+        }
+        Long timestamp = message.getTimestamp();
+        long time = timestamp != null ? timestamp : System.currentTimeMillis();
+
+        if (message.is(TeamcityMessage.TEST_SUITE_STARTED)) {
+            childStarted(time);
+            suites.push(new Frame(name, time));
+        } else if (message.is(TeamcityMessage.TEST_SUITE_FINISHED) && !suites.isEmpty()) {
+            Frame suite = suites.pop();
+            if (suite.lastChildEnd != null && time > suite.lastChildEnd) {
+                span("after", "hook", DATABASE_TRACK, suite.lastChildEnd, time);
+            }
+            span(suite.name, "suite", DATABASE_TRACK, suite.start, time);
+            childFinished(time);
+        } else if (message.is(TeamcityMessage.TEST_STARTED)) {
+            childStarted(time);
+            testStart = time;
+        } else if (message.is(TeamcityMessage.TEST_FINISHED)) {
+            Long duration = message.getDuration();
+            long start = testStart != null ? testStart : duration != null ? time - duration : time;
+            span(name, "test", DATABASE_TRACK, start, Math.max(time, start + (duration != null ? duration : 0)));
+            testStart = null;
+            childFinished(time);
+        }
+    }
+
+    private void childStarted(long time) {
+        Frame parent = suites.peek();
+        if (parent != null && parent.lastChildEnd == null && time > parent.start) {
+            span("before", "hook", DATABASE_TRACK, parent.start, time);
+        }
+    }
+
+    private void childFinished(long time) {
+        Frame parent = suites.peek();
+        if (parent != null) {
+            parent.lastChildEnd = time;
+        }
+    }
+
+    private synchronized void span(String name, String category, int track, long startMillis, long endMillis) {
+        events.add(format("{\"name\":%s,\"cat\":\"%s\",\"ph\":\"X\",\"pid\":%d,\"tid\":%d,\"ts\":%d,\"dur\":%d}",
+                toJsonString(name), category, PROCESS_ID, track, startMillis * 1000, (endMillis - startMillis) * 1000));
+    }
+
+    /**
+     * Writes the trace file.
+     *
+     * @param file the trace file
+     * @throws IOException if the file can't be written
+     */
+    public synchronized void write(File file) throws IOException {
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("{\"traceEvents\":[\n");
+            writer.write(threadName(MAVEN_TRACK, "maven"));
+            writer.write(",\n");
+            writer.write(threadName(DATABASE_TRACK, "database"));
+            for (String event : events) {
+                writer.write(",\n");
+                writer.write(event);
+            }
+            writer.write("\n],\"displayTimeUnit\":\"ms\"}\n");
+        }
+    }
+
+    private static String threadName(int track, String name) {
+        return format("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":%d,\"tid\":%d,\"args\":{\"name\":\"%s\"}}",
+                PROCESS_ID, track, name);
+    }
+
+    /**
+     * A plugin phase being recorded.
+     */
+    public class Phase implements AutoCloseable {
+
+        private final String name;
+        private final long start;
+
+        private Phase(String name, long start) {
+            this.name = name;
+            this.start = start;
+        }
+
+        @Override
+        public void close() {
+            span(name, "phase", MAVEN_TRACK, start, System.currentTimeMillis());
+        }
+    }
+
+    private static class Frame {
+
+        private final String name;
+        private final long start;
+        private Long lastChildEnd;
+
+        private Frame(String name, long start) {
+            this.name = name;
+            this.start = start;
+        }
+    }
+}
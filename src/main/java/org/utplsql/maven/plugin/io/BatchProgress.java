@@ -0,0 +1,154 @@
+package org.utplsql.maven.plugin.io;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+
+/**
+ * Records the batches completed by a run, so that an interrupted run can be resumed from the first batch it did
+ * not complete. The file starts with the plan of the run, a checksum of its configuration and batches, followed
+ * by one tab separated line per completed batch: {@code index, failed}.
+ */
+public class BatchProgress {
+
+    /**
+     * The progress file, relative to the build directory.
+     */
+    public static final String FILE_NAME = "utplsql/batch-progress.tsv";
+
+    private static final String PLAN_PREFIX = "plan\t";
+
+    private final File file;
+    private final String plan;
+    private final Map<Integer, Boolean> completed = new TreeMap<>();
+
+    private BatchProgress(File file, String plan) {
+        this.file = file;
+        this.plan = plan;
+    }
+
+    /**
+     * Loads the progress of a plan.
+     *
+     * @param file the progress file
+     * @param plan the plan of the run
+     * @return the progress, without completed batches if the file does not exist or has another plan
+     * @throws IOException if the file can't be read
+     */
+    public static BatchProgress load(File file, String plan) throws IOException {
+        BatchProgress progress = new BatchProgress(file, plan);
+        if (file.isFile()) {
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.get(0).equals(PLAN_PREFIX + plan)) {
+                for (String line : lines.subList(1, lines.size())) {
+                    String[] fields = line.split("\t");
+                    if (fields.length == 2 && fields[0].matches("\\d+")) {
+                        progress.completed.put(Integer.parseInt(fields[0]), Boolean.parseBoolean(fields[1]));
+                    }
+                }
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Starts the progress of a plan, ignoring the progress of a previous run.
+     *
+     * @param file the progress file
+     * @param plan the plan of the run
+     * @return the progress, without completed batches
+     */
+    public static BatchProgress start(File file, String plan) {
+        return new BatchProgress(file, plan);
+    }
+
+    /**
+     * Loads the progress of an interrupted run with the same plan when resuming, or starts a new one.
+     *
+     * @param file   the progress file
+     * @param plan   the plan of the run
+     * @param resume whether the interrupted run is resumed
+     * @param log    the Maven log
+     * @return the progress
+     * @throws IOException if the file can't be read
+     */
+    public static BatchProgress open(File file, String plan, boolean resume, Log log) throws IOException {
+        if (!resume) {
+            if (file.isFile()) {
+                log.info("Running all batches, use -Dutplsql.resumeBatches=true to resume the interrupted run");
+            }
+            return start(file, plan);
+        }
+        BatchProgress progress = load(file, plan);
+        if (progress.getCompletedCount() > 0) {
+            log.info(format("Resuming the interrupted run after %d completed batches", progress.getCompletedCount()));
+        } else if (file.isFile()) {
+            log.warn("The interrupted run had another configuration or other suites, all batches run");
+        }
+        return progress;
+    }
+
+    /**
+     * Returns whether a batch was completed.
+     *
+     * @param batch the batch index
+     * @return true if completed
+     */
+    public boolean isCompleted(int batch) {
+        return completed.containsKey(batch);
+    }
+
+    /**
+     * Returns whether a completed batch had failures.
+     *
+     * @param batch the batch index
+     * @return true if the batch is completed with failures
+     */
+    public boolean hasFailed(int batch) {
+        return Boolean.TRUE.equals(completed.get(batch));
+    }
+
+    /**
+     * Returns the number of completed batches.
+     *
+     * @return the count
+     */
+    public int getCompletedCount() {
+        return completed.size();
+    }
+
+    /**
+     * Records a completed batch, replacing the file.
+     *
+     * @param batch  the batch index
+     * @param failed whether the batch had failures
+     * @throws IOException if the file can't be written
+     */
+    public void complete(int batch, boolean failed) throws IOException {
+        completed.put(batch, failed);
+        List<String> lines = new ArrayList<>();
+        lines.add(PLAN_PREFIX + plan);
+        completed.forEach((index, indexFailed) -> lines.add(index + "\t" + indexFailed));
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Deletes the progress, once the run is complete.
+     *
+     * @throws IOException if the file can't be deleted
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+}
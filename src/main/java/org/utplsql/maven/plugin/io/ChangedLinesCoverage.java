@@ -0,0 +1,195 @@
+package org.utplsql.maven.plugin.io;
+
+import org.apache.maven.plugin.logging.Log;
+import org.utplsql.api.reporter.CoreReporters;
+import org.utplsql.maven.plugin.model.ReporterParameter;
+import org.utplsql.maven.plugin.util.GitDiff;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Computes the coverage of the changed lines from the lines of a {@code UT_COVERAGE_SONAR_REPORTER} report, as
+ * they are written: only the changed lines are kept, never the report.
+ */
+public class ChangedLinesCoverage implements Consumer<String> {
+
+    /**
+     * Location of the summary, relative to the build directory.
+     */
+    public static final String FILE_NAME = "utplsql/changed-lines-coverage.txt";
+
+    private static final Pattern FILE_PATH = Pattern.compile("<file path=\"([^\"]*)\"");
+    private static final Pattern LINE_NUMBER = Pattern.compile("lineNumber=\"(\\d+)\"");
+
+    private final Map<String, BitSet> changedLines;
+    private final Map<String, FileCoverage> files = new TreeMap<>();
+    private FileCoverage current;
+
+    /**
+     * Constructor of the coverage.
+     *
+     * @param changedLines the changed line numbers by file path, as the paths appear in the report
+     */
+    public ChangedLinesCoverage(Map<String, BitSet> changedLines) {
+        this.changedLines = changedLines;
+    }
+
+    /**
+     * Computes the coverage of the source lines changed since a git ref from the coverage report of a run.
+     *
+     * @param reportWriter the writer of the reports of the run
+     * @param baseDir      the project base directory, the paths are relative to
+     * @param baseRef      the git ref
+     * @param sourcePaths  the source file paths
+     * @param reporters    the reporters of the run
+     * @param log          the Maven log
+     * @return the coverage, filled in as the report is written, or {@code null} if the run has no
+     * {@code UT_COVERAGE_SONAR_REPORTER}
+     * @throws IOException if git fails
+     */
+    public static ChangedLinesCoverage track(ReportWriter reportWriter, File baseDir, String baseRef,
+                                             List<String> sourcePaths, List<ReporterParameter> reporters, Log log)
+            throws IOException {
+        String coverageReporter = CoreReporters.UT_COVERAGE_SONAR_REPORTER.name();
+        if (reporters.stream().noneMatch(reporter -> coverageReporter.equalsIgnoreCase(reporter.getName()))) {
+            log.warn(format("changedLinesBaseRef needs a %s in the run, the coverage of the changed lines is not"
+                    + " computed.", coverageReporter));
+            return null;
+        }
+
+        Set<String> sources = sourcePaths.stream()
+                .map(path -> path.replace('\\', '/'))
+                .collect(Collectors.toSet());
+        Map<String, BitSet> changed = new HashMap<>();
+        GitDiff.changedLines(baseDir, baseRef).forEach((path, lines) -> {
+            if (sources.contains(path)) {
+                changed.put(path, lines);
+            }
+        });
+        log.debug(format("%d source files changed since %s", changed.size(), baseRef));
+
+        ChangedLinesCoverage coverage = new ChangedLinesCoverage(changed);
+        reportWriter.addLineListener(coverageReporter, coverage);
+        return coverage;
+    }
+
+    @Override
+    public void accept(String line) {
+        String element = line.trim();
+        if (element.startsWith("<file ")) {
+            Matcher path = FILE_PATH.matcher(element);
+            BitSet lines = path.lookingAt() ? changedLines.get(path.group(1).replace('\\', '/')) : null;
+            current = lines == null ? null : files.computeIfAbsent(path.group(1), key -> new FileCoverage(lines));
+        } else if (current != null && element.startsWith("<lineToCover")) {
+            Matcher lineNumber = LINE_NUMBER.matcher(element);
+            if (lineNumber.find()) {
+                int number = Integer.parseInt(lineNumber.group(1));
+                if (current.changed.get(number)) {
+                    current.coverable++;
+                    if (element.contains("covered=\"true\"")) {
+                        current.covered++;
+                    } else {
+                        current.uncovered.set(number);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of changed lines that can be covered.
+     *
+     * @return the number of lines
+     */
+    public int getCoverableLines() {
+        return files.values().stream().mapToInt(file -> file.coverable).sum();
+    }
+
+    /**
+     * Returns the number of changed lines that are covered.
+     *
+     * @return the number of lines
+     */
+    public int getCoveredLines() {
+        return files.values().stream().mapToInt(file -> file.covered).sum();
+    }
+
+    /**
+     * Returns the coverage of the changed lines.
+     *
+     * @return the percentage of the coverable changed lines that are covered, 100 if there are none
+     */
+    public double getPercentage() {
+        int coverable = getCoverableLines();
+        return coverable == 0 ? 100 : 100.0 * getCoveredLines() / coverable;
+    }
+
+    /**
+     * Describes the coverage of the changed lines.
+     *
+     * @return the description, a total line and a line per file with coverable changed lines
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder(format("Changed lines coverage: %.1f%% (%d of %d lines)",
+                getPercentage(), getCoveredLines(), getCoverableLines()));
+        files.forEach((path, file) -> {
+            if (file.coverable > 0) {
+                description.append(format("%n%s: %d of %d lines", path, file.covered, file.coverable));
+                if (!file.uncovered.isEmpty()) {
+                    description.append(", not covered: ").append(ranges(file.uncovered));
+                }
+            }
+        });
+        return description.toString();
+    }
+
+    /**
+     * Writes the description to a file.
+     *
+     * @param file the summary file
+     * @throws IOException if the file can't be written
+     */
+    public void write(File file) throws IOException {
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), (describe() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String ranges(BitSet lines) {
+        List<String> ranges = new ArrayList<>();
+        for (int start = lines.nextSetBit(0); start >= 0; ) {
+            int end = lines.nextClearBit(start) - 1;
+            ranges.add(start == end ? String.valueOf(start) : start + "-" + end);
+            start = lines.nextSetBit(end + 1);
+        }
+        return String.join(", ", ranges);
+    }
+
+    private static final class FileCoverage {
+
+        private final BitSet changed;
+        private final BitSet uncovered = new BitSet();
+        private int coverable;
+        private int covered;
+
+        private FileCoverage(BitSet changed) {
+            this.changed = changed;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package org.utplsql.maven.plugin.io;
+
+import org.utplsql.maven.plugin.model.FileMapping;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Splits a {@code UT_COVERAGE_SONAR_REPORTER} report into several reports while it is fetched:
+ * {@code <coverage version="1"><file path="..."><lineToCover .../></file></coverage>}, one element per line.
+ * <p>
+ * Each part is a complete report with the {@code file} elements of one schema, of one object, or up to a size.
+ * The lines are written through and at most {@value #MAX_OPEN_PARTS} parts are open at a time, so the memory
+ * used does not depend on the size of the report. The parts are listed in an index file next to the report,
+ * one file name per line.
+ */
+public class CoverageReportSplitter implements Closeable {
+
+    /**
+     * How the report is split.
+     */
+    public enum SplitBy {
+        SCHEMA, OBJECT, SIZE;
+
+        /**
+         * Parses a {@code splitBy} value.
+         *
+         * @param value the value, case insensitive
+         * @return the split mode
+         * @throws IllegalArgumentException if the value is unknown
+         */
+        public static SplitBy parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(format("Invalid splitBy '%s', expected schema, object or size",
+                        value), e);
+            }
+        }
+    }
+
+    private static final int MAX_OPEN_PARTS = 16;
+    private static final String FILE_START = "<file ";
+    private static final String PATH_ATTRIBUTE = "path=\"";
+    private static final String UNMAPPED = "unmapped";
+
+    private final File report;
+    private final SplitBy splitBy;
+    private final long maxBytes;
+    private final Function<String, FileMapping> mappings;
+
+    private final List<String> header = new ArrayList<>();
+    private final List<String> footer = new ArrayList<>();
+    private final Map<String, Part> parts = new LinkedHashMap<>();
+    private final Set<String> fileNames = new HashSet<>();
+    private final Map<String, Part> openParts = new LinkedHashMap<>(MAX_OPEN_PARTS, 0.75f, true);
+    private Part current;
+    private boolean finished;
+
+    /**
+     * Constructor of the splitter.
+     *
+     * @param report   the report file, the parts and the index are written next to it
+     * @param splitBy  how the report is split
+     * @param maxBytes the approximate maximum size of a part when split by size
+     * @param mappings the objects of the source file paths, returning {@code null} for unknown paths
+     * @throws IOException if the parts of a previous split can't be deleted
+     */
+    public CoverageReportSplitter(File report, SplitBy splitBy, long maxBytes, Function<String, FileMapping> mappings)
+            throws IOException {
+        this.report = report;
+        this.splitBy = splitBy;
+        this.maxBytes = maxBytes;
+        this.mappings = mappings;
+        for (File file : listFiles(report)) {
+            Files.deleteIfExists(file.toPath());
+        }
+        Files.deleteIfExists(report.toPath());
+    }
+
+    /**
+     * Returns the index and the parts written by the last split of a report.
+     *
+     * @param report the report file
+     * @return the files, empty if the report was not split
+     * @throws IOException if the index can't be read
+     */
+    public static List<File> listFiles(File report) throws IOException {
+        File index = indexFile(report);
+        if (!index.isFile()) {
+            return Collections.emptyList();
+        }
+        List<File> files = new ArrayList<>();
+        files.add(index);
+        for (String name : Files.readAllLines(index.toPath(), StandardCharsets.UTF_8)) {
+            if (!name.isEmpty()) {
+                files.add(new File(report.getParentFile(), name));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Returns the index file of a report.
+     *
+     * @param report the report file
+     * @return the index file
+     */
+    public static File indexFile(File report) {
+        return new File(report.getParentFile(), baseName(report) + "-index.txt");
+    }
+
+    /**
+     * Writes the fetched report output, which can hold several lines.
+     *
+     * @param output the output
+     * @throws IOException if a part can't be written
+     */
+    public void write(String output) throws IOException {
+        for (String line : output.split("\r?\n")) {
+            writeLine(line);
+        }
+    }
+
+    private void writeLine(String line) throws IOException {
+        String element = line.trim();
+        if (element.startsWith(FILE_START)) {
+            current = partFor(path(element));
+        } else if (element.startsWith("</coverage")) {
+            finished = true;
+        }
+
+        if (finished) {
+            footer.add(line);
+        } else if (current == null) {
+            header.add(line);
+        } else {
+            current.write(line);
+        }
+    }
+
+    private Part partFor(String path) {
+        String key;
+        if (splitBy == SplitBy.SIZE) {
+            key = current == null || current.bytes >= maxBytes
+                    ? format("%03d", parts.size() + 1)
+                    : current.key;
+        } else {
+            FileMapping mapping = path == null ? null : mappings.apply(path);
+            if (mapping == null || mapping.getObjectOwner() == null && splitBy == SplitBy.SCHEMA) {
+                key = UNMAPPED;
+            } else {
+                key = splitBy == SplitBy.SCHEMA ? mapping.getObjectOwner() : mapping.getQualifiedName();
+            }
+        }
+
+        Part part = parts.get(key);
+        if (part == null) {
+            part = new Part(key, new File(report.getParentFile(), partName(key)));
+            parts.put(key, part);
+        }
+        return part;
+    }
+
+    private String partName(String key) {
+        String name = baseName(report) + "-" + key.replaceAll("[^\\w.$#-]", "_");
+        String extension = report.getName().substring(baseName(report).length());
+        String unique = name;
+        for (int i = 2; !fileNames.add(unique.toLowerCase(Locale.ROOT)); i++) {
+            unique = name + "-" + i;
+        }
+        return unique + extension;
+    }
+
+    private static String baseName(File report) {
+        String name = report.getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static String path(String element) {
+        int start = element.indexOf(PATH_ATTRIBUTE);
+        if (start < 0) {
+            return null;
+        }
+        start += PATH_ATTRIBUTE.length();
+        int end = element.indexOf('"', start);
+        if (end < 0) {
+            return null;
+        }
+        return element.substring(start, end)
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&amp;", "&");
+    }
+
+    /**
+     * Completes the parts and writes the index. A report without any {@code file} element is written as a
+     * single part.
+     *
+     * @throws IOException if a part or the index can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (parts.isEmpty()) {
+            String key = format("%03d", 1);
+            parts.put(key, new Part(key, new File(report.getParentFile(), partName(key))));
+        }
+        List<String> names = new ArrayList<>();
+        for (Part part : parts.values()) {
+            for (String line : footer) {
+                part.write(line);
+            }
+            part.close();
+            names.add(part.file.getName());
+        }
+        openParts.clear();
+        Files.write(indexFile(report).toPath(), names, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the parts written, once closed.
+     *
+     * @return the part files
+     */
+    public List<File> getParts() {
+        List<File> files = new ArrayList<>();
+        for (Part part : parts.values()) {
+            files.add(part.file);
+        }
+        return files;
+    }
+
+    private class Part {
+
+        private final String key;
+        private final File file;
+        private BufferedWriter writer;
+        private boolean created;
+        private long bytes;
+
+        private Part(String key, File file) {
+            this.key = key;
+            this.file = file;
+        }
+
+        private void write(String line) throws IOException {
+            open();
+            writer.write(line);
+            writer.newLine();
+            bytes += line.length() + 1;
+        }
+
+        private void open() throws IOException {
+            if (writer != null) {
+                // Marks the part as the most recently used
+                openParts.get(key);
+                return;
+            }
+            if (openParts.size() >= MAX_OPEN_PARTS) {
+                Part eldest = openParts.values().iterator().next();
+                eldest.close();
+            }
+            if (created) {
+                writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            } else {
+                writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+                created = true;
+                for (String line : header) {
+                    writer.write(line);
+                    writer.newLine();
+                    bytes += line.length() + 1;
+                }
+            }
+            openParts.put(key, this);
+        }
+
+        private void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+                openParts.remove(key);
+            }
+        }
+    }
+}
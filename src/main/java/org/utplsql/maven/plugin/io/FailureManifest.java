@@ -0,0 +1,59 @@
+package org.utplsql.maven.plugin.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.utplsql.maven.plugin.util.StringUtil.isBlank;
+
+/**
+ * Reads and writes the list of the tests that failed in the last run, one test path per line.
+ */
+public class FailureManifest {
+
+    /**
+     * Location of the manifest, relative to the build directory.
+     */
+    public static final String FILE_NAME = "utplsql/failed-tests.txt";
+
+    private FailureManifest() {
+    }
+
+    /**
+     * Reads the failed test paths.
+     *
+     * @param file the manifest file
+     * @return the test paths, empty if the file does not exist
+     * @throws IOException if the file can't be read
+     */
+    public static List<String> read(File file) throws IOException {
+        if (!file.isFile()) {
+            return Collections.emptyList();
+        }
+        List<String> tests = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!isBlank(line) && !line.startsWith("#")) {
+                tests.add(line.trim());
+            }
+        }
+        return tests;
+    }
+
+    /**
+     * Writes the failed test paths, replacing the previous manifest.
+     *
+     * @param file  the manifest file
+     * @param tests the failed test paths
+     * @throws IOException if the file can't be written
+     */
+    public static void write(File file, Collection<String> tests) throws IOException {
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), tests, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,148 @@
+package org.utplsql.maven.plugin.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes, stores and compares SHA-256 checksums of files, to find the files changed between two builds.
+ * The checksums are stored as a tab separated file: {@code path, checksum}.
+ */
+public final class FileChecksums {
+
+    private FileChecksums() {
+    }
+
+    /**
+     * Computes the checksums of files, in parallel.
+     *
+     * @param baseDir the directory the paths are relative to
+     * @param paths   the file paths
+     * @return the checksums by path
+     * @throws IOException if a file can't be read
+     */
+    public static Map<String, String> compute(File baseDir, Collection<String> paths) throws IOException {
+        Map<String, String> checksums = new ConcurrentHashMap<>();
+        try {
+            paths.parallelStream().forEach(path -> checksums.put(path, checksum(new File(baseDir, path))));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new TreeMap<>(checksums);
+    }
+
+    /**
+     * Computes the checksum of a file.
+     *
+     * @param file the file
+     * @return the hexadecimal SHA-256 of its content
+     * @throws UncheckedIOException if the file can't be read
+     */
+    public static String checksum(File file) {
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return toHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Computes the checksum of a text.
+     *
+     * @param text the text
+     * @return the hexadecimal SHA-256 of its UTF-8 bytes
+     */
+    public static String checksum(String text) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Returns the paths whose checksum is new or different, and the paths that disappeared.
+     *
+     * @param previous the previous checksums
+     * @param current  the current checksums
+     * @return the changed paths
+     */
+    public static Set<String> changed(Map<String, String> previous, Map<String, String> current) {
+        Set<String> changed = new TreeSet<>();
+        current.forEach((path, checksum) -> {
+            if (!checksum.equals(previous.get(path))) {
+                changed.add(path);
+            }
+        });
+        for (String path : previous.keySet()) {
+            if (!current.containsKey(path)) {
+                changed.add(path);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Reads stored checksums.
+     *
+     * @param file the checksums file
+     * @return the checksums by path, empty if the file does not exist
+     * @throws IOException if the file can't be read
+     */
+    public static Map<String, String> read(File file) throws IOException {
+        Map<String, String> checksums = new TreeMap<>();
+        if (file.isFile()) {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                int tab = line.lastIndexOf('\t');
+                if (tab > 0) {
+                    checksums.put(line.substring(0, tab), line.substring(tab + 1));
+                }
+            }
+        }
+        return checksums;
+    }
+
+    /**
+     * Stores checksums, replacing the file.
+     *
+     * @param file      the checksums file
+     * @param checksums the checksums by path
+     * @throws IOException if the file can't be written
+     */
+    public static void write(File file, Map<String, String> checksums) throws IOException {
+        List<String> lines = new ArrayList<>(checksums.size());
+        checksums.forEach((path, checksum) -> lines.add(path + '\t' + checksum));
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,105 @@
+package org.utplsql.maven.plugin.io;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.utplsql.maven.plugin.util.StringUtil.isEmpty;
+
+/**
+ * Drops the scanned files that can't be mapped to a database object before they are bound into the run call.
+ * <p>
+ * utPLSQL matches every file path against the mapping regular expression on the database side, case-insensitively.
+ * The same expression is compiled once here, so the files it can't match are neither transferred nor mapped.
+ */
+public class FileMappingFilter {
+
+    /**
+     * The regular expression utPLSQL uses when none is configured, see {@code ut_file_mapper.gc_file_mapping_regex}.
+     */
+    public static final String DEFAULT_REGEX_PATTERN = ".*(\\\\|\\/)(((\\w|[$#])+)\\.)?((\\w|[$#])+)\\.(\\w{3})";
+
+    private final Pattern pattern;
+
+    private final boolean leadingWildcard;
+
+    /**
+     * Constructor of the filter.
+     *
+     * @param regexPattern the configured mapping regular expression, or {@code null} to use utPLSQL's default
+     */
+    public FileMappingFilter(String regexPattern) {
+        String regex = isEmpty(regexPattern) ? DEFAULT_REGEX_PATTERN : regexPattern;
+        this.pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        this.leadingWildcard = regex.startsWith(".*") && !hasTopLevelAlternation(regex);
+    }
+
+    /**
+     * Returns the compiled mapping regular expression.
+     *
+     * @return the {@link Pattern}
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns the paths that can be mapped to a database object, in their original order.
+     *
+     * @param paths the scanned file paths
+     * @return the mappable file paths, {@code paths} itself if every path is mappable
+     */
+    public List<String> filter(List<String> paths) {
+        // A single matcher is reset for every path to avoid allocating one per file.
+        Matcher matcher = pattern.matcher("");
+        int first = 0;
+        while (first < paths.size() && matches(matcher.reset(paths.get(first)))) {
+            first++;
+        }
+        if (first == paths.size()) {
+            // Nothing to drop: the bind would not get smaller, so the list isn't copied.
+            return paths;
+        }
+        List<String> mappable = new ArrayList<>(paths.subList(0, first));
+        for (String path : paths.subList(first + 1, paths.size())) {
+            if (matches(matcher.reset(path))) {
+                mappable.add(path);
+            }
+        }
+        return mappable;
+    }
+
+    /**
+     * Searches the pattern like the database does. A pattern starting with {@code .*} matches somewhere in the path
+     * only if it matches at its start, which saves retrying every other start position for the unmappable files.
+     *
+     * @param matcher a {@link Matcher} of the pattern, reset to the path to check
+     * @return true if the pattern is found in the path
+     */
+    boolean matches(Matcher matcher) {
+        return leadingWildcard ? matcher.lookingAt() : matcher.find();
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
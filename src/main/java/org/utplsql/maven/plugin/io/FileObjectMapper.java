@@ -0,0 +1,133 @@
+package org.utplsql.maven.plugin.io;
+
+import org.utplsql.maven.plugin.model.CustomTypeMapping;
+import org.utplsql.maven.plugin.model.FileMapping;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.stream.Collectors;
+
+import static org.utplsql.maven.plugin.util.StringUtil.isEmpty;
+
+/**
+ * Maps file paths to database objects on the client side, following the rules of utPLSQL's {@code ut_file_mapper}:
+ * the owner, name and type are extracted with the sub-expressions of the mapping regular expression, the owner
+ * falls back to the configured object owner and the type is looked up in the type mappings.
+ */
+public class FileObjectMapper {
+
+    private static final int DEFAULT_OWNER_SUBEXPRESSION = 3;
+    private static final int DEFAULT_NAME_SUBEXPRESSION = 5;
+    private static final int DEFAULT_TYPE_SUBEXPRESSION = 7;
+
+    private static final Map<String, String> DEFAULT_TYPE_MAPPINGS = new HashMap<>();
+
+    static {
+        DEFAULT_TYPE_MAPPINGS.put("tpb", "TYPE BODY");
+        DEFAULT_TYPE_MAPPINGS.put("pkb", "PACKAGE BODY");
+        DEFAULT_TYPE_MAPPINGS.put("bdy", "PACKAGE BODY");
+        DEFAULT_TYPE_MAPPINGS.put("trg", "TRIGGER");
+        DEFAULT_TYPE_MAPPINGS.put("fnc", "FUNCTION");
+        DEFAULT_TYPE_MAPPINGS.put("prc", "PROCEDURE");
+        DEFAULT_TYPE_MAPPINGS.put("tps", "TYPE");
+        DEFAULT_TYPE_MAPPINGS.put("pks", "PACKAGE");
+        DEFAULT_TYPE_MAPPINGS.put("spc", "PACKAGE");
+    }
+
+    private final FileMappingFilter filter;
+    private final String objectOwner;
+    private final int ownerSubexpression;
+    private final int nameSubexpression;
+    private final int typeSubexpression;
+    private final Map<String, String> typeMappings;
+
+    /**
+     * Constructor of the mapper, unset parameters take the utPLSQL defaults.
+     *
+     * @param objectOwner        the owner of the objects whose owner is not part of the path
+     * @param regexPattern       the mapping regular expression
+     * @param ownerSubexpression the sub-expression of the owner
+     * @param nameSubexpression  the sub-expression of the name
+     * @param typeSubexpression  the sub-expression of the type
+     * @param customTypeMappings the custom type mappings, replacing the default ones
+     */
+    public FileObjectMapper(String objectOwner, String regexPattern, Integer ownerSubexpression,
+                            Integer nameSubexpression, Integer typeSubexpression,
+                            List<CustomTypeMapping> customTypeMappings) {
+        this.filter = new FileMappingFilter(regexPattern);
+        this.objectOwner = isEmpty(objectOwner) ? null : objectOwner.toUpperCase(Locale.ROOT);
+        this.ownerSubexpression = ownerSubexpression == null ? DEFAULT_OWNER_SUBEXPRESSION : ownerSubexpression;
+        this.nameSubexpression = nameSubexpression == null ? DEFAULT_NAME_SUBEXPRESSION : nameSubexpression;
+        this.typeSubexpression = typeSubexpression == null ? DEFAULT_TYPE_SUBEXPRESSION : typeSubexpression;
+
+        if (customTypeMappings == null || customTypeMappings.isEmpty()) {
+            this.typeMappings = DEFAULT_TYPE_MAPPINGS;
+        } else {
+            this.typeMappings = new HashMap<>();
+            for (CustomTypeMapping mapping : customTypeMappings) {
+                this.typeMappings.put(mapping.getCustomMapping().toLowerCase(Locale.ROOT),
+                        mapping.getType().toUpperCase(Locale.ROOT));
+            }
+        }
+    }
+
+    /**
+     * Returns the filter of the paths the mapping regular expression can match.
+     *
+     * @return the {@link FileMappingFilter}
+     */
+    public FileMappingFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Maps the paths in parallel.
+     *
+     * @param paths the file paths
+     * @return the mappings of the paths that could be mapped, in the order of the paths
+     */
+    public List<FileMapping> mapAll(List<String> paths) {
+        return paths.parallelStream()
+                .map(this::map)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Maps a single path.
+     *
+     * @param path the file path
+     * @return the {@link FileMapping}, or {@code null} if the path can't be mapped
+     */
+    public FileMapping map(String path) {
+        Matcher matcher = filter.getPattern().matcher(path);
+        if (!filter.matches(matcher)) {
+            return null;
+        }
+
+        String name = group(matcher, nameSubexpression);
+        if (name == null) {
+            return null;
+        }
+        String owner = group(matcher, ownerSubexpression);
+        String type = group(matcher, typeSubexpression);
+
+        return new FileMapping(path,
+                owner == null ? objectOwner : owner.toUpperCase(Locale.ROOT),
+                name.toUpperCase(Locale.ROOT),
+                type == null ? null : typeMappings.get(type.toLowerCase(Locale.ROOT)));
+    }
+
+    private static String group(Matcher matcher, int subexpression) {
+        // Like regexp_substr, a sub-expression that does not exist or did not participate in the match is null.
+        if (subexpression < 1 || subexpression > matcher.groupCount()) {
+            return null;
+        }
+        String value = matcher.group(subexpression);
+        return isEmpty(value) ? null : value;
+    }
+}
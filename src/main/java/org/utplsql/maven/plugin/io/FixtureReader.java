@@ -0,0 +1,396 @@
+package org.utplsql.maven.plugin.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Reads the rows of a fixture file one at a time, so that the memory used does not depend on its size:
+ * <ul>
+ * <li>{@code .csv}: a header line with the column names, then one record per row. Fields may be quoted with
+ * {@code "}, an empty unquoted field is {@code NULL}.</li>
+ * <li>{@code .jsonl}: one flat JSON object per line, its keys are the column names. The columns are the keys of
+ * the first object, a missing key is {@code NULL}.</li>
+ * </ul>
+ * The values are strings, except JSON numbers as {@link BigDecimal} and JSON booleans as {@link Boolean}.
+ */
+public abstract class FixtureReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final File file;
+    private List<String> columns = Collections.emptyList();
+    private int line;
+
+    private FixtureReader(BufferedReader reader, File file) {
+        this.reader = reader;
+        this.file = file;
+    }
+
+    /**
+     * Returns whether a file is a fixture file.
+     *
+     * @param file the file
+     * @return true for {@code .csv} and {@code .jsonl} files
+     */
+    public static boolean isFixture(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") || name.endsWith(".jsonl");
+    }
+
+    /**
+     * Returns the table a fixture file is loaded into: its name without extension, {@code [owner.]table}.
+     *
+     * @param file the fixture file
+     * @return the table name
+     */
+    public static String tableName(File file) {
+        String name = file.getName();
+        return name.substring(0, name.lastIndexOf('.'));
+    }
+
+    /**
+     * Opens a fixture file and reads its columns.
+     *
+     * @param file the fixture file
+     * @return the reader
+     * @throws IOException if the file can't be read or has no columns
+     */
+    public static FixtureReader open(File file) throws IOException {
+        if (!isFixture(file)) {
+            throw new IOException(format("Unsupported fixture file %s, expected .csv or .jsonl", file));
+        }
+        BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+        FixtureReader fixtureReader = file.getName().toLowerCase(Locale.ROOT).endsWith(".csv")
+                ? new Csv(reader, file)
+                : new JsonLines(reader, file);
+        try {
+            fixtureReader.columns = fixtureReader.readColumns();
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+        if (fixtureReader.columns.isEmpty()) {
+            reader.close();
+            throw new IOException(format("Fixture file %s has no columns", file));
+        }
+        return fixtureReader;
+    }
+
+    /**
+     * Returns the column names.
+     *
+     * @return the columns, as in the file
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return the values in the order of the columns, {@code null} at the end of the file
+     * @throws IOException if the file can't be read or the row is malformed
+     */
+    public abstract Object[] next() throws IOException;
+
+    abstract List<String> readColumns() throws IOException;
+
+    String readLine() throws IOException {
+        String text = reader.readLine();
+        if (text != null) {
+            line++;
+            if (line == 1 && text.startsWith("\uFEFF")) {
+                text = text.substring(1);
+            }
+        }
+        return text;
+    }
+
+    IOException error(String message) {
+        return new IOException(format("%s:%d: %s", file, line, message));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static final class Csv extends FixtureReader {
+
+        private Csv(BufferedReader reader, File file) {
+            super(reader, file);
+        }
+
+        @Override
+        List<String> readColumns() throws IOException {
+            List<Object> header = readRecord();
+            List<String> names = new ArrayList<>();
+            if (header != null) {
+                for (Object name : header) {
+                    if (name == null || name.toString().trim().isEmpty()) {
+                        throw error("empty column name");
+                    }
+                    names.add(name.toString().trim());
+                }
+            }
+            return names;
+        }
+
+        @Override
+        public Object[] next() throws IOException {
+            List<Object> record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            if (record.size() != getColumns().size()) {
+                throw error(format("%d fields, expected %d", record.size(), getColumns().size()));
+            }
+            return record.toArray();
+        }
+
+        private List<Object> readRecord() throws IOException {
+            String text = readLine();
+            while (text != null && text.isEmpty()) {
+                text = readLine();
+            }
+            if (text == null) {
+                return null;
+            }
+            List<Object> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean inQuotes = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!inQuotes) {
+                        break;
+                    }
+                    // A quoted field goes on on the next line.
+                    text = readLine();
+                    if (text == null) {
+                        throw error("unterminated quoted field");
+                    }
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (inQuotes) {
+                    if (c == '"' && i < text.length() && text.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        inQuotes = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"' && field.length() == 0 && !quoted) {
+                    inQuotes = true;
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(quoted || field.length() > 0 ? field.toString() : null);
+                    field.setLength(0);
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(quoted || field.length() > 0 ? field.toString() : null);
+            return fields;
+        }
+    }
+
+    private static final class JsonLines extends FixtureReader {
+
+        private Map<String, Object> first;
+
+        private JsonLines(BufferedReader reader, File file) {
+            super(reader, file);
+        }
+
+        @Override
+        List<String> readColumns() throws IOException {
+            first = readObject();
+            return first == null ? Collections.emptyList() : new ArrayList<>(first.keySet());
+        }
+
+        @Override
+        public Object[] next() throws IOException {
+            Map<String, Object> object;
+            if (first != null) {
+                object = first;
+                first = null;
+            } else {
+                object = readObject();
+            }
+            if (object == null) {
+                return null;
+            }
+            Object[] values = new Object[getColumns().size()];
+            for (Map.Entry<String, Object> entry : object.entrySet()) {
+                int index = getColumns().indexOf(entry.getKey());
+                if (index < 0) {
+                    throw error(format("column %s is not in the first object", entry.getKey()));
+                }
+                values[index] = entry.getValue();
+            }
+            return values;
+        }
+
+        private Map<String, Object> readObject() throws IOException {
+            String text = readLine();
+            while (text != null && text.trim().isEmpty()) {
+                text = readLine();
+            }
+            if (text == null) {
+                return null;
+            }
+            JsonParser parser = new JsonParser(text);
+            Map<String, Object> object = new LinkedHashMap<>();
+            try {
+                parser.expect('{');
+                if (!parser.consume('}')) {
+                    do {
+                        String key = parser.string();
+                        parser.expect(':');
+                        object.put(key, parser.value());
+                    } while (parser.consume(','));
+                    parser.expect('}');
+                }
+                parser.end();
+            } catch (IllegalArgumentException e) {
+                throw error(e.getMessage());
+            }
+            return object;
+        }
+    }
+
+    /**
+     * Parses the flat JSON object of a line: nested objects and arrays are not supported.
+     */
+    private static final class JsonParser {
+
+        private final String text;
+        private int position;
+
+        private JsonParser(String text) {
+            this.text = text;
+        }
+
+        void expect(char c) {
+            if (!consume(c)) {
+                throw new IllegalArgumentException(format("expected '%c' at position %d", c, position + 1));
+            }
+        }
+
+        boolean consume(char c) {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void end() {
+            skipWhitespace();
+            if (position < text.length()) {
+                throw new IllegalArgumentException(format("unexpected content at position %d", position + 1));
+            }
+        }
+
+        Object value() {
+            skipWhitespace();
+            if (position >= text.length()) {
+                throw new IllegalArgumentException("missing value");
+            }
+            char c = text.charAt(position);
+            if (c == '"') {
+                return string();
+            } else if (text.startsWith("null", position)) {
+                position += 4;
+                return null;
+            } else if (text.startsWith("true", position)) {
+                position += 4;
+                return Boolean.TRUE;
+            } else if (text.startsWith("false", position)) {
+                position += 5;
+                return Boolean.FALSE;
+            } else if (c == '-' || Character.isDigit(c)) {
+                int start = position;
+                while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+                    position++;
+                }
+                try {
+                    return new BigDecimal(text.substring(start, position));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(format("invalid number at position %d", start + 1), e);
+                }
+            }
+            throw new IllegalArgumentException(format("unsupported value at position %d, only strings, numbers,"
+                    + " booleans and null are supported", position + 1));
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                } else if (position < text.length()) {
+                    char escaped = text.charAt(position++);
+                    switch (escaped) {
+                        case 'n':
+                            value.append('\n');
+                            break;
+                        case 'r':
+                            value.append('\r');
+                            break;
+                        case 't':
+                            value.append('\t');
+                            break;
+                        case 'b':
+                            value.append('\b');
+                            break;
+                        case 'f':
+                            value.append('\f');
+                            break;
+                        case 'u':
+                            if (position + 4 > text.length()) {
+                                throw new IllegalArgumentException("invalid unicode escape");
+                            }
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                            position += 4;
+                            break;
+                        default:
+                            value.append(escaped);
+                    }
+                }
+            }
+            throw new IllegalArgumentException("unterminated string");
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.utplsql.maven.plugin.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Orders test suites to find failures early, from the {@link TestHistory}: first the suites that failed in the
+ * last {@value #RECENT_RUNS} runs, the most recent failure first, then the changed suites, then the others.
+ * Within each group the fastest suites run first.
+ * <p>
+ * The suite of a test is its path without the test name, suites are compared ignoring case.
+ */
+public class HistoryOrder {
+
+    /**
+     * Number of runs a failure makes a suite run first.
+     */
+    public static final int RECENT_RUNS = 3;
+
+    private static final List<String> TEST_PREFIXES = Arrays.asList("test_", "ut_");
+    private static final List<String> TEST_SUFFIXES = Arrays.asList("_tests", "_test", "_ut");
+
+    private final Map<String, Long> durations = new HashMap<>();
+    private final Map<String, Integer> failureAges = new HashMap<>();
+
+    /**
+     * Constructor of the order.
+     *
+     * @param history the history of the tests
+     */
+    public HistoryOrder(TestHistory history) {
+        for (String test : history.getTests()) {
+            int lastDot = test.lastIndexOf('.');
+            if (lastDot < 0) {
+                continue;
+            }
+            String suite = key(test.substring(0, lastDot));
+            Long duration = history.getDuration(test);
+            durations.merge(suite, duration == null ? 0L : duration, Long::sum);
+
+            String outcomes = history.getOutcomes(test);
+            int lastFailure = outcomes.lastIndexOf(TestHistory.FAILED);
+            if (lastFailure >= 0 && outcomes.length() - 1 - lastFailure < RECENT_RUNS) {
+                failureAges.merge(suite, outcomes.length() - 1 - lastFailure, Math::min);
+            }
+        }
+    }
+
+    /**
+     * Orders suites.
+     *
+     * @param suites  the suite paths
+     * @param changed the changed suite paths
+     * @return the suite paths in run order
+     */
+    public List<String> order(Collection<String> suites, Set<String> changed) {
+        Set<String> changedKeys = changed.stream().map(HistoryOrder::key).collect(Collectors.toSet());
+        List<String> ordered = new ArrayList<>(suites);
+        ordered.sort(Comparator
+                .comparingInt((String suite) -> failureAges.containsKey(key(suite)) ? 0
+                        : changedKeys.contains(key(suite)) ? 1 : 2)
+                .thenComparingInt(suite -> failureAges.getOrDefault(key(suite), 0))
+                .thenComparingLong(this::getDuration)
+                .thenComparing(HistoryOrder::key));
+        return ordered;
+    }
+
+    /**
+     * Returns whether a suite failed in the last {@value #RECENT_RUNS} runs.
+     *
+     * @param suite the suite path
+     * @return true if the suite failed recently
+     */
+    public boolean failedRecently(String suite) {
+        return failureAges.containsKey(key(suite));
+    }
+
+    /**
+     * Returns the duration of a suite in its last run.
+     *
+     * @param suite the suite path
+     * @return the sum of the last durations of its tests in milliseconds, 0 if the suite is unknown
+     */
+    public long getDuration(String suite) {
+        return durations.getOrDefault(key(suite), 0L);
+    }
+
+    /**
+     * Returns the name of the object a test package tests: its name without a {@code test_} or {@code ut_} prefix,
+     * or else without a {@code _test}, {@code _tests} or {@code _ut} suffix.
+     *
+     * @param testPackage the name of the test package
+     * @return the tested object name, lower case
+     */
+    public static String testedObject(String testPackage) {
+        String name = key(testPackage);
+        for (String prefix : TEST_PREFIXES) {
+            if (name.length() > prefix.length() && name.startsWith(prefix)) {
+                return name.substring(prefix.length());
+            }
+        }
+        for (String suffix : TEST_SUFFIXES) {
+            if (name.length() > suffix.length() && name.endsWith(suffix)) {
+                return name.substring(0, name.length() - suffix.length());
+            }
+        }
+        return name;
+    }
+
+    private static String key(String suite) {
+        return suite.toLowerCase(Locale.ROOT);
+    }
+}
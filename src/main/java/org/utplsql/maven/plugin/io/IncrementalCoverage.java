@@ -0,0 +1,205 @@
+package org.utplsql.maven.plugin.io;
+
+import org.apache.maven.plugin.logging.Log;
+import org.utplsql.api.reporter.CoreReporters;
+import org.utplsql.maven.plugin.model.ReporterParameter;
+import org.utplsql.maven.plugin.util.GitDiff;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Restricts coverage to the source files changed since the previous run, and completes the coverage reports
+ * with the previous results of the unchanged files.
+ * <p>
+ * The checksums of the source and test files, a checksum of the configuration and a copy of the coverage
+ * reports are kept in {@value #CACHE_DIRECTORY}. The run is incremental when the cache is complete and
+ * neither the configuration nor any test file changed, since a test change can change the coverage of any
+ * source. When a git base ref is given, the files changed compared to it are measured again too.
+ */
+public class IncrementalCoverage {
+
+    /**
+     * Location of the cache, relative to the build directory.
+     */
+    public static final String CACHE_DIRECTORY = "utplsql/coverage-cache";
+
+    private static final String CHECKSUMS_FILE = "checksums.tsv";
+    private static final String CONFIGURATION_KEY = "#configuration";
+
+    private final File cacheDirectory;
+    private final Map<String, String> checksums;
+    private final List<File> reports;
+    private final Set<String> sourcePaths;
+    private final List<String> changedSources;
+    private final Log log;
+
+    private IncrementalCoverage(File cacheDirectory, Map<String, String> checksums, List<File> reports,
+                                Set<String> sourcePaths, List<String> changedSources, Log log) {
+        this.cacheDirectory = cacheDirectory;
+        this.checksums = checksums;
+        this.reports = reports;
+        this.sourcePaths = sourcePaths;
+        this.changedSources = changedSources;
+        this.log = log;
+    }
+
+    /**
+     * Compares the files with the previous run and decides whether the coverage can be incremental.
+     *
+     * @param baseDir       the project base directory, the paths are relative to
+     * @param buildDir      the build directory
+     * @param sourcePaths   the source file paths
+     * @param testPaths     the test file paths
+     * @param configuration the configuration affecting coverage, as a text
+     * @param baseRef       a git ref whose changes are always measured, or {@code null}
+     * @param reports       the coverage report files
+     * @param log           the Maven log
+     * @return the plan
+     * @throws IOException if a file can't be read or git fails
+     */
+    public static IncrementalCoverage plan(File baseDir, File buildDir, List<String> sourcePaths,
+                                           List<String> testPaths, String configuration, String baseRef,
+                                           List<File> reports, Log log) throws IOException {
+        File cacheDirectory = new File(buildDir, CACHE_DIRECTORY);
+        Set<String> sources = new LinkedHashSet<>(sourcePaths);
+        Set<String> allPaths = new LinkedHashSet<>(sourcePaths);
+        allPaths.addAll(testPaths);
+
+        Map<String, String> checksums = FileChecksums.compute(baseDir, allPaths);
+        checksums.put(CONFIGURATION_KEY, FileChecksums.checksum(configuration));
+        Map<String, String> previous = FileChecksums.read(new File(cacheDirectory, CHECKSUMS_FILE));
+
+        String fullReason = null;
+        Set<String> changed = FileChecksums.changed(previous, checksums);
+        if (previous.isEmpty()) {
+            fullReason = "there is no previous run";
+        } else if (!reports.stream().allMatch(report -> cacheFile(cacheDirectory, report).isFile())) {
+            fullReason = "the previous coverage reports are missing";
+        } else if (changed.contains(CONFIGURATION_KEY)) {
+            fullReason = "the configuration changed";
+        } else {
+            if (baseRef != null) {
+                changed.addAll(GitDiff.changedFiles(baseDir, baseRef));
+            }
+            if (testPaths.stream().anyMatch(changed::contains)) {
+                fullReason = "test files changed";
+            }
+        }
+
+        List<String> changedSources = null;
+        if (fullReason != null) {
+            log.info("Coverage of all sources: " + fullReason);
+        } else {
+            changedSources = sourcePaths.stream().filter(changed::contains).collect(Collectors.toList());
+            log.info(format("Incremental coverage of %d changed source files out of %d",
+                    changedSources.size(), sourcePaths.size()));
+        }
+        return new IncrementalCoverage(cacheDirectory, checksums, reports, sources, changedSources, log);
+    }
+
+    /**
+     * Returns the coverage reports of a run, if its coverage can be incremental: every coverage reporter must be
+     * a {@code UT_COVERAGE_SONAR_REPORTER} writing to a file that is not split.
+     *
+     * @param buildDir  the build directory
+     * @param reporters the reporters of the run
+     * @param log       the Maven log
+     * @return the coverage report files, or {@code null} if the coverage can't be incremental
+     */
+    public static List<File> findReports(String buildDir, List<ReporterParameter> reporters, Log log) {
+        List<ReporterParameter> coverageReporters = reporters.stream()
+                .filter(ReporterParameter::isCoverage)
+                .collect(Collectors.toList());
+        if (coverageReporters.isEmpty()) {
+            log.warn("incrementalCoverage is enabled but no coverage reporter is configured.");
+            return null;
+        }
+        if (!coverageReporters.stream().allMatch(reporter -> reporter.isFileOutput() && !reporter.isSplit()
+                && CoreReporters.UT_COVERAGE_SONAR_REPORTER.name().equalsIgnoreCase(reporter.getName()))) {
+            log.warn("incrementalCoverage only supports UT_COVERAGE_SONAR_REPORTER file reports that are not"
+                    + " split, the coverage of all sources is collected.");
+            return null;
+        }
+        return coverageReporters.stream()
+                .map(reporter -> ReportWriter.resolveOutputFile(buildDir, reporter.getFileOutput()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns whether the coverage is restricted to the changed sources.
+     *
+     * @return true if incremental
+     */
+    public boolean isIncremental() {
+        return changedSources != null;
+    }
+
+    /**
+     * Returns the source files to measure.
+     *
+     * @return the changed source paths, empty if incremental and nothing changed
+     * @throws IllegalStateException if the coverage is not incremental
+     */
+    public List<String> getChangedSources() {
+        if (changedSources == null) {
+            throw new IllegalStateException("The coverage is not incremental");
+        }
+        return Collections.unmodifiableList(changedSources);
+    }
+
+    /**
+     * Returns whether the coverage reporters can be left out of the run, because nothing changed.
+     *
+     * @return true if the previous reports are reused as they are
+     */
+    public boolean isUnchanged() {
+        return changedSources != null && changedSources.isEmpty();
+    }
+
+    /**
+     * Completes the coverage reports written by the run with the previous results of the unchanged sources,
+     * then stores the reports and the checksums for the next run.
+     *
+     * @throws IOException if a report can't be merged or the cache can't be written
+     */
+    public void complete() throws IOException {
+        //noinspection ResultOfMethodCallIgnored
+        cacheDirectory.mkdirs();
+        for (File report : reports) {
+            File cached = cacheFile(cacheDirectory, report);
+            if (isUnchanged()) {
+                //noinspection ResultOfMethodCallIgnored
+                report.getParentFile().mkdirs();
+                Files.copy(cached.toPath(), report.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                log.info(format("Coverage report %s reused from the previous run", report));
+            } else if (isIncremental()) {
+                Set<String> unchanged = new HashSet<>(sourcePaths);
+                unchanged.removeAll(changedSources);
+                int carried = SonarCoverageMerger.carryOver(report, cached, unchanged);
+                log.info(format("Coverage report %s completed with %d unchanged files from the previous run",
+                        report, carried));
+            }
+            if (report.isFile()) {
+                Files.copy(report.toPath(), cached.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        FileChecksums.write(new File(cacheDirectory, CHECKSUMS_FILE), checksums);
+    }
+
+    private static File cacheFile(File cacheDirectory, File report) {
+        String key = FileChecksums.checksum(report.getAbsolutePath()).substring(0, 12);
+        return new File(cacheDirectory, key + "-" + report.getName());
+    }
+}
@@ -0,0 +1,142 @@
+package org.utplsql.maven.plugin.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits a report of several modules into one report per module, by the path of its {@code file} elements:
+ * {@code <coverage version="1"><file path="...">...</file></coverage>} for {@code UT_COVERAGE_SONAR_REPORTER},
+ * {@code <testExecutions version="1"><file path="...">...</file></testExecutions>} for
+ * {@code UT_SONAR_TEST_REPORTER}.
+ * <p>
+ * The report is read line by line, the {@code file} elements of a module are written to its report with their
+ * path made relative to the module directory. Every module report gets the header and the footer of the report.
+ */
+public final class ModuleReportSplitter {
+
+    private static final String FILE_START = "<file ";
+    private static final String FILE_END = "</file>";
+    private static final String PATH_ATTRIBUTE = "path=\"";
+
+    private ModuleReportSplitter() {
+    }
+
+    /**
+     * Returns whether a report can be split by module.
+     *
+     * @param reporterName the reporter name
+     * @return true for the Sonar coverage and test reports
+     */
+    public static boolean isSplittable(String reporterName) {
+        return "UT_COVERAGE_SONAR_REPORTER".equalsIgnoreCase(reporterName)
+                || "UT_SONAR_TEST_REPORTER".equalsIgnoreCase(reporterName);
+    }
+
+    /**
+     * Splits a report by module.
+     *
+     * @param report  the report of all the modules
+     * @param modules the report file of every module by module directory, relative to the directory of the paths
+     *                of the report, e.g. {@code module-a/}; the {@code file} elements go to the longest matching
+     *                directory, those of no module are left out
+     * @return the number of {@code file} elements written by module directory
+     * @throws IOException if the report can't be read or a module report can't be written
+     */
+    public static Map<String, Integer> split(File report, Map<String, File> modules) throws IOException {
+        List<String> directories = new ArrayList<>(modules.keySet());
+        directories.sort(Comparator.comparingInt(String::length).reversed());
+
+        Map<String, BufferedWriter> writers = new LinkedHashMap<>();
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String directory : modules.keySet()) {
+            counts.put(directory, 0);
+        }
+        try (BufferedReader reader = Files.newBufferedReader(report.toPath(), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, File> module : modules.entrySet()) {
+                //noinspection ResultOfMethodCallIgnored
+                module.getValue().getParentFile().mkdirs();
+                writers.put(module.getKey(), Files.newBufferedWriter(module.getValue().toPath(),
+                        StandardCharsets.UTF_8));
+            }
+
+            boolean inFile = false;
+            String currentModule = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String element = line.trim();
+                if (element.startsWith(FILE_START)) {
+                    String path = path(element);
+                    currentModule = path == null ? null : moduleOf(path, directories);
+                    if (currentModule != null) {
+                        counts.merge(currentModule, 1, Integer::sum);
+                        line = line.replace(PATH_ATTRIBUTE + path,
+                                PATH_ATTRIBUTE + path.substring(currentModule.length()));
+                    }
+                    write(writers, currentModule, line);
+                    inFile = !element.endsWith("/>") && !element.contains(FILE_END);
+                } else if (inFile) {
+                    write(writers, currentModule, line);
+                    inFile = !element.startsWith(FILE_END);
+                } else {
+                    writeAll(writers, line);
+                }
+            }
+        } finally {
+            IOException failure = null;
+            for (BufferedWriter writer : writers.values()) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        return counts;
+    }
+
+    private static String moduleOf(String path, List<String> directories) {
+        for (String directory : directories) {
+            if (path.startsWith(directory)) {
+                return directory;
+            }
+        }
+        return null;
+    }
+
+    private static void write(Map<String, BufferedWriter> writers, String module, String line) throws IOException {
+        if (module != null) {
+            BufferedWriter writer = writers.get(module);
+            writer.write(line);
+            writer.newLine();
+        }
+    }
+
+    private static void writeAll(Map<String, BufferedWriter> writers, String line) throws IOException {
+        for (BufferedWriter writer : writers.values()) {
+            writer.write(line);
+            writer.newLine();
+        }
+    }
+
+    private static String path(String element) {
+        int start = element.indexOf(PATH_ATTRIBUTE);
+        if (start < 0) {
+            return null;
+        }
+        start += PATH_ATTRIBUTE.length();
+        int end = element.indexOf('"', start);
+        return end < 0 ? null : element.substring(start, end);
+    }
+}
@@ -0,0 +1,92 @@
+package org.utplsql.maven.plugin.io;
+
+import org.apache.maven.plugin.logging.Log;
+import org.utplsql.maven.plugin.db.PlsqlProfiler;
+import org.utplsql.maven.plugin.model.ProfileEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import static java.lang.String.format;
+
+/**
+ * Writes the PL/SQL profile of a run as a text report of the top subprograms by self and total time.
+ */
+public class ProfileReport {
+
+    /**
+     * Name of the report file, in the report output directory.
+     */
+    public static final String FILE_NAME = "utplsql-profile.txt";
+
+    private static final int TOP_COUNT = 50;
+    private static final int COUNT_WIDTH = 12;
+
+    private ProfileReport() {
+    }
+
+    /**
+     * Writes the report.
+     *
+     * @param file         the report file
+     * @param profilerName the name of the profiler that collected the entries
+     * @param countName    what the counts of the entries count: calls, or line executions for whole units
+     * @param entries      the profile entries
+     * @throws IOException if the file can't be written
+     */
+    public static void write(File file, String profilerName, String countName, List<ProfileEntry> entries)
+            throws IOException {
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+            long totalSelf = entries.stream().mapToLong(ProfileEntry::getSelfMicros).sum();
+            writer.printf("PL/SQL profile collected with %s: %d entries, %.3f ms%n", profilerName, entries.size(),
+                    totalSelf / 1000.0);
+
+            writeTop(writer, "self", countName, entries, ProfileEntry::getSelfMicros);
+            writeTop(writer, "total", countName, entries, ProfileEntry::getTotalMicros);
+        }
+    }
+
+    /**
+     * Stops a profiler and writes its profile, failures are only logged.
+     *
+     * @param file       the report file
+     * @param profiler   the started profiler
+     * @param connection the database {@link Connection} the profiler was started on
+     * @param log        the Maven log
+     */
+    public static void write(File file, PlsqlProfiler profiler, Connection connection, Log log) {
+        try {
+            List<ProfileEntry> entries = profiler.stop(connection);
+            write(file, profiler.getName(), profiler.getCountName(), entries);
+            log.info(format("Writing PL/SQL profile to %s", file.getAbsolutePath()));
+        } catch (SQLException | IOException e) {
+            log.warn("Could not write the PL/SQL profile: " + e.getMessage());
+        }
+    }
+
+    private static void writeTop(PrintWriter writer, String title, String countName, List<ProfileEntry> entries,
+                                 ToLongFunction<ProfileEntry> time) {
+        int countWidth = Math.max(COUNT_WIDTH, countName.length());
+        List<ProfileEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(time).reversed());
+
+        writer.println();
+        writer.printf("Top %d by %s time%n", Math.min(TOP_COUNT, sorted.size()), title);
+        writer.printf("%14s %14s %" + countWidth + "s  %s%n", "self ms", "total ms", countName, "subprogram");
+        for (ProfileEntry entry : sorted.subList(0, Math.min(TOP_COUNT, sorted.size()))) {
+            writer.printf("%14.3f %14.3f %" + countWidth + "d  %s%n", entry.getSelfMicros() / 1000.0,
+                    entry.getTotalMicros() / 1000.0, entry.getCalls(), entry.getQualifiedName());
+        }
+    }
+}
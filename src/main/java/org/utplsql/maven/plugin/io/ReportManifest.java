@@ -0,0 +1,133 @@
+package org.utplsql.maven.plugin.io;
+
+import org.utplsql.maven.plugin.model.ReporterParameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.utplsql.maven.plugin.util.StringUtil.isBlank;
+import static org.utplsql.maven.plugin.util.StringUtil.isEmpty;
+
+/**
+ * Reads and writes the list of the reports of a run that are left in the database output buffers, one reporter
+ * per line: its id, name, output file, console output and split options, separated by tabs.
+ */
+public class ReportManifest {
+
+    /**
+     * Location of the manifest, relative to the build directory.
+     */
+    public static final String FILE_NAME = "utplsql/deferred-reports.tsv";
+
+    private static final String HEADER = "# reporter id\tname\tfile output\tconsole output\tsplit by\tsplit size";
+
+    private ReportManifest() {
+    }
+
+    /**
+     * Writes the deferred reporters, replacing the previous manifest.
+     *
+     * @param file      the manifest file
+     * @param reporters the reporters, they must have been run
+     * @throws IOException if the file can't be written
+     */
+    public static void write(File file, List<ReporterAndReporterParameter> reporters) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        for (ReporterAndReporterParameter pair : reporters) {
+            ReporterParameter parameter = pair.getReporterParameter();
+            lines.add(String.join("\t", value(pair.getReporter().getId()), value(parameter.getName()),
+                    value(parameter.getFileOutput()), String.valueOf(parameter.isConsoleOutput()),
+                    value(parameter.getSplitBy()), value(parameter.getSplitSize())));
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the deferred reporters.
+     *
+     * @param file the manifest file
+     * @return the reporters, empty if the file does not exist
+     * @throws IOException if the file can't be read or is malformed
+     */
+    public static List<Entry> read(File file) throws IOException {
+        if (!file.isFile()) {
+            return Collections.emptyList();
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            if (isBlank(line) || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 6) {
+                throw new IOException("Malformed report manifest line in " + file + ": " + line);
+            }
+            ReporterParameter parameter = new ReporterParameter();
+            parameter.setName(fields[1]);
+            parameter.setFileOutput(emptyToNull(fields[2]));
+            parameter.setConsoleOutput(Boolean.parseBoolean(fields[3]));
+            parameter.setSplitBy(emptyToNull(fields[4]));
+            try {
+                parameter.setSplitSize(isEmpty(fields[5]) ? null : Integer.valueOf(fields[5]));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed report manifest line in " + file + ": " + line, e);
+            }
+            entries.add(new Entry(emptyToNull(fields[0]), parameter));
+        }
+        return entries;
+    }
+
+    private static String value(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String emptyToNull(String value) {
+        return isEmpty(value) ? null : value;
+    }
+
+    /**
+     * A deferred reporter.
+     */
+    public static final class Entry {
+
+        private final String reporterId;
+        private final ReporterParameter reporterParameter;
+
+        /**
+         * Constructor of the entry.
+         *
+         * @param reporterId        the id of the reporter in the database
+         * @param reporterParameter the {@link ReporterParameter} the reporter was run with
+         */
+        public Entry(String reporterId, ReporterParameter reporterParameter) {
+            this.reporterId = reporterId;
+            this.reporterParameter = reporterParameter;
+        }
+
+        /**
+         * Returns the id of the reporter in the database.
+         *
+         * @return the reporter id
+         */
+        public String getReporterId() {
+            return reporterId;
+        }
+
+        /**
+         * Returns the {@link ReporterParameter} the reporter was run with.
+         *
+         * @return the reporter parameter
+         */
+        public ReporterParameter getReporterParameter() {
+            return reporterParameter;
+        }
+    }
+}
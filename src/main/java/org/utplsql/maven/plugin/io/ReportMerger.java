@@ -0,0 +1,225 @@
+package org.utplsql.maven.plugin.io;
+
+import org.utplsql.api.reporter.CoreReporters;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Merges the reports of several runs of a reporter into one report:
+ * <ul>
+ *     <li>{@code UT_COVERAGE_SONAR_REPORTER} reports by covered line, see {@link SonarCoverageMerger}</li>
+ *     <li>the XML test reports by appending the suites of each run, their totals are added up</li>
+ *     <li>the HTML, Coveralls and Cobertura coverage reports can't be merged</li>
+ *     <li>the other reports, in text, are concatenated</li>
+ * </ul>
+ * The XML reports are streamed part by part, none of them is held in memory as a whole.
+ */
+public final class ReportMerger {
+
+    private static final Set<String> XML_TEST_REPORTERS = new HashSet<>(Arrays.asList(
+            CoreReporters.UT_JUNIT_REPORTER.name(), CoreReporters.UT_TFS_JUNIT_REPORTER.name(),
+            CoreReporters.UT_XUNIT_REPORTER.name(), CoreReporters.UT_SONAR_TEST_REPORTER.name()));
+
+    private static final Set<String> UNMERGEABLE_REPORTERS = new HashSet<>(Arrays.asList(
+            CoreReporters.UT_COVERAGE_HTML_REPORTER.name(), CoreReporters.UT_COVERALLS_REPORTER.name(),
+            CoreReporters.UT_COVERAGE_COBERTURA_REPORTER.name()));
+
+    private static final Set<String> TOTAL_ATTRIBUTES = new HashSet<>(Arrays.asList(
+            "tests", "failures", "errors", "skipped", "disabled", "time"));
+
+    private ReportMerger() {
+    }
+
+    /**
+     * Returns whether the reports of a reporter can be merged.
+     *
+     * @param reporterName the name of the reporter
+     * @return false for the HTML, Coveralls and Cobertura coverage reporters
+     */
+    public static boolean isMergeable(String reporterName) {
+        return reporterName == null || !UNMERGEABLE_REPORTERS.contains(reporterName.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Merges reports.
+     *
+     * @param reporterName the name of the reporter that produced the reports
+     * @param reports      the reports, in run order
+     * @param output       the merged report
+     * @throws IOException if a report can't be read or written, or the reports can't be merged
+     */
+    public static void merge(String reporterName, List<File> reports, File output) throws IOException {
+        String name = reporterName.toUpperCase(Locale.ROOT);
+        //noinspection ResultOfMethodCallIgnored
+        output.getAbsoluteFile().getParentFile().mkdirs();
+        if (CoreReporters.UT_COVERAGE_SONAR_REPORTER.name().equals(name)) {
+            SonarCoverageMerger.merge(reports, output);
+        } else if (XML_TEST_REPORTERS.contains(name)) {
+            mergeXml(reports, output);
+        } else if (UNMERGEABLE_REPORTERS.contains(name)) {
+            throw new IOException(reporterName + " reports can't be merged");
+        } else {
+            try (OutputStream out = Files.newOutputStream(output.toPath())) {
+                for (File report : reports) {
+                    Files.copy(report.toPath(), out);
+                }
+            }
+        }
+    }
+
+    private static void mergeXml(List<File> reports, File output) throws IOException {
+        List<File> parts = reports.stream().filter(report -> report.length() > 0).collect(Collectors.toList());
+
+        // A first pass adds up the totals of the root elements and finds the paths in each part, the second pass
+        // streams the parts one after the other, reading the later parts only for the elements of the same path.
+        StartElement root = null;
+        Map<String, String> totals = new LinkedHashMap<>();
+        List<Set<String>> keys = new ArrayList<>();
+        for (File part : parts) {
+            Set<String> partKeys = new HashSet<>();
+            try (XmlStreams.EventReader reader = XmlStreams.read(part)) {
+                StartElement partRoot = reader.root();
+                if (root == null) {
+                    root = partRoot;
+                    readTotals(totals, partRoot);
+                } else if (partRoot != null) {
+                    addTotals(totals, partRoot);
+                }
+                for (XMLEvent event = partRoot == null ? null : reader.nextChild(); event != null;
+                     event = reader.nextChild()) {
+                    if (event.isStartElement()) {
+                        String key = XmlStreams.pathKey(event.asStartElement());
+                        if (key != null) {
+                            partKeys.add(key);
+                        }
+                        reader.skip();
+                    }
+                }
+            } catch (XMLStreamException e) {
+                throw XmlStreams.failure(part, e);
+            }
+            keys.add(partKeys);
+        }
+        if (root == null) {
+            Files.write(output.toPath(), new byte[0]);
+            return;
+        }
+
+        XMLEventFactory events = XMLEventFactory.newInstance();
+        Map<Integer, XmlStreams.PathCursor> cursors = new HashMap<>();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output.toPath()))) {
+            XMLEventWriter writer = XmlStreams.write(out);
+            writer.add(events.createStartDocument("UTF-8", "1.0"));
+            writer.add(events.createStartElement(root.getName(), totalAttributes(events, root, totals),
+                    root.getNamespaces()));
+            Set<String> written = new HashSet<>();
+            for (int i = 0; i < parts.size(); i++) {
+                close(cursors.remove(i));
+                try (XmlStreams.EventReader reader = XmlStreams.read(parts.get(i))) {
+                    if (reader.root() == null) {
+                        continue;
+                    }
+                    for (XMLEvent event = reader.nextChild(); event != null; event = reader.nextChild()) {
+                        if (!event.isStartElement()) {
+                            writer.add(event);
+                            continue;
+                        }
+                        StartElement element = event.asStartElement();
+                        String key = XmlStreams.pathKey(element);
+                        if (key == null) {
+                            reader.copy(element, writer);
+                        } else if (!written.add(key)) {
+                            reader.skip();
+                        } else {
+                            // Elements with a path, the files of the Sonar test report, are merged with the
+                            // elements of the same path of the later parts.
+                            writer.add(element);
+                            reader.copyContent(writer);
+                            for (int j = i + 1; j < parts.size(); j++) {
+                                if (keys.get(j).contains(key)) {
+                                    XmlStreams.EventReader later = cursors
+                                            .computeIfAbsent(j, index -> new XmlStreams.PathCursor(parts.get(index)))
+                                            .find(key);
+                                    later.copyContent(writer);
+                                    later.next();
+                                }
+                            }
+                            writer.add(reader.next());
+                        }
+                    }
+                }
+            }
+            writer.add(events.createEndElement(root.getName(), null));
+            writer.add(events.createEndDocument());
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not merge the report " + output + ": " + e.getMessage(), e);
+        } finally {
+            for (XmlStreams.PathCursor cursor : cursors.values()) {
+                close(cursor);
+            }
+        }
+    }
+
+    private static void readTotals(Map<String, String> totals, StartElement root) {
+        for (String attribute : TOTAL_ATTRIBUTES) {
+            Attribute value = root.getAttributeByName(new QName(attribute));
+            if (value != null) {
+                totals.put(attribute, value.getValue());
+            }
+        }
+    }
+
+    private static void addTotals(Map<String, String> totals, StartElement root) {
+        for (Map.Entry<String, String> total : totals.entrySet()) {
+            Attribute value = root.getAttributeByName(new QName(total.getKey()));
+            if (value != null) {
+                try {
+                    total.setValue(new BigDecimal(total.getValue().trim())
+                            .add(new BigDecimal(value.getValue().trim())).toPlainString());
+                } catch (NumberFormatException e) {
+                    // Not a total, the value of the first report is kept
+                }
+            }
+        }
+    }
+
+    private static Iterator<Attribute> totalAttributes(XMLEventFactory events, StartElement root, Map<String, String> totals) {
+        List<Attribute> attributes = new ArrayList<>();
+        for (Iterator<?> iterator = root.getAttributes(); iterator.hasNext(); ) {
+            Attribute attribute = (Attribute) iterator.next();
+            String total = totals.get(attribute.getName().getLocalPart());
+            attributes.add(total == null ? attribute : events.createAttribute(attribute.getName(), total));
+        }
+        return attributes.iterator();
+    }
+
+    private static void close(XmlStreams.PathCursor cursor) throws IOException {
+        if (cursor != null) {
+            cursor.close();
+        }
+    }
+}
@@ -3,18 +3,41 @@ package org.utplsql.maven.plugin.io;
 import org.apache.maven.plugin.logging.Log;
 import org.utplsql.api.Version;
 import org.utplsql.api.outputBuffer.OutputBuffer;
-import org.utplsql.api.outputBuffer.OutputBufferProvider;
+import org.utplsql.api.reporter.CoreReporters;
 import org.utplsql.api.reporter.Reporter;
+import org.utplsql.maven.plugin.concurrent.NamedThreadFactory;
+import org.utplsql.maven.plugin.db.OutputBufferSource;
+import org.utplsql.maven.plugin.model.FileMapping;
 import org.utplsql.maven.plugin.model.ReporterParameter;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 
@@ -26,14 +49,29 @@ import static java.lang.String.format;
  */
 public class ReportWriter {
 
+    /**
+     * Default maximum size of a report file split by size, in megabytes.
+     */
+    public static final int DEFAULT_SPLIT_SIZE = 100;
+
     private final List<ReporterAndReporterParameter> reporters;
 
     private final String outputDirectory;
 
-    private final Version databaseVersion;
+    private final OutputBufferSource outputBuffers;
 
     private final Log log;
 
+    private Map<String, FileMapping> sourceMappings = Collections.emptyMap();
+
+    private final Map<String, Consumer<String>> lineListeners = new HashMap<>();
+
+    // The report files written, in the order they were written, the split reports excluded.
+    private final List<File> writtenFiles = Collections.synchronizedList(new ArrayList<>());
+
+    // The reporters whose output was already fetched, with the part file of their report, null for the console.
+    private final Map<ReporterAndReporterParameter, File> fetched = new IdentityHashMap<>();
+
     /**
      * Constructor of the reporter writer.
      *
@@ -42,9 +80,20 @@ public class ReportWriter {
      * @param log             the Maven log
      */
     public ReportWriter(String outputDirectory, Version databaseVersion, Log log) {
+        this(outputDirectory, OutputBufferSource.forVersion(databaseVersion), log);
+    }
+
+    /**
+     * Constructor of the reporter writer.
+     *
+     * @param outputDirectory the report output directory
+     * @param outputBuffers   the source of the reporter {@link OutputBuffer}s
+     * @param log             the Maven log
+     */
+    public ReportWriter(String outputDirectory, OutputBufferSource outputBuffers, Log log) {
         this.reporters = new ArrayList<>();
         this.outputDirectory = outputDirectory;
-        this.databaseVersion = databaseVersion;
+        this.outputBuffers = outputBuffers;
         this.log = log;
     }
 
@@ -55,9 +104,53 @@ public class ReportWriter {
      * @param reporter  the {@link Reporter}
      */
     public void addReporter(ReporterParameter parameter, Reporter reporter) {
+        if (parameter.isSplit() && !isSplit(parameter)
+                && reporters.stream().noneMatch(pair -> pair.getReporterParameter() == parameter)) {
+            log.warn(format("splitBy is only supported by %s, the %s report is written to a single file",
+                    CoreReporters.UT_COVERAGE_SONAR_REPORTER.name(), parameter.getName()));
+        }
         reporters.add(new ReporterAndReporterParameter(reporter, parameter));
     }
 
+    /**
+     * Adds the report of a run written to its part file by a previous, interrupted execution, to be merged with
+     * the reports of the other runs. Reporters only writing to the console are ignored.
+     *
+     * @param parameters the {@link ReporterParameter}s of the run
+     */
+    public void addFetchedReports(List<ReporterParameter> parameters) {
+        for (ReporterParameter parameter : parameters) {
+            if (parameter.isFileOutput()) {
+                ReporterAndReporterParameter pair = new ReporterAndReporterParameter(null, parameter);
+                reporters.add(pair);
+                fetched.put(pair, partFile(pair));
+            }
+        }
+    }
+
+    /**
+     * Adds a listener receiving every line of the output of a reporter while it is written.
+     *
+     * @param reporterName the name of the reporter
+     * @param listener     the listener
+     */
+    public void addLineListener(String reporterName, Consumer<String> listener) {
+        lineListeners.put(reporterName.toUpperCase(Locale.ROOT), listener);
+    }
+
+    /**
+     * Sets the objects of the source files, used to split the coverage reports by schema or object.
+     *
+     * @param mappings the {@link FileMapping}s of the source files
+     */
+    public void setSourceMappings(List<FileMapping> mappings) {
+        Map<String, FileMapping> byPath = new HashMap<>();
+        for (FileMapping mapping : mappings) {
+            byPath.put(mapping.getFilePath(), mapping);
+        }
+        this.sourceMappings = byPath;
+    }
+
     /**
      * Writes the reports to the output.
      *
@@ -66,22 +159,291 @@ public class ReportWriter {
      * @throws IOException  if files can't be written
      */
     public void writeReports(Connection connection) throws SQLException, IOException {
+        for (List<ReporterAndReporterParameter> group : groupByOutput()) {
+            writeReports(connection, group);
+        }
+    }
+
+    /**
+     * Fetches the output of the reporters added since the last fetch, so that the database and the plugin only
+     * hold the output of one run at a time: the file reports are written to part files, merged by
+     * {@link #writeReports(Connection)}, and the console reports are printed.
+     *
+     * @param connection the database {@link Connection}
+     * @throws SQLException if database access fails
+     * @throws IOException  if files can't be written
+     */
+    public void fetchReports(Connection connection) throws SQLException, IOException {
+        for (ReporterAndReporterParameter pair : reporters) {
+            if (fetched.containsKey(pair)) {
+                continue;
+            }
+            ReporterParameter parameter = pair.getReporterParameter();
+            if (parameter.isFileOutput()) {
+                File part = partFile(pair);
+                writeReports(connection, pair.getReporter(), partParameter(parameter, part), null);
+                fetched.put(pair, part);
+            } else {
+                writeReports(connection, pair.getReporter(), parameter, listenerFor(parameter));
+                fetched.put(pair, null);
+            }
+        }
+    }
+
+    /**
+     * Writes the reports over several connections in parallel, one report per connection at a time.
+     *
+     * @param connections the database {@link Connection}s
+     * @throws SQLException if database access fails
+     * @throws IOException  if files can't be written
+     */
+    public void writeReports(List<Connection> connections) throws SQLException, IOException {
+        if (connections.size() == 1) {
+            writeReports(connections.get(0));
+            return;
+        }
+        BlockingQueue<Connection> pool = new ArrayBlockingQueue<>(connections.size(), false, connections);
+        ExecutorService executor = Executors.newFixedThreadPool(connections.size(), new NamedThreadFactory("report"));
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (List<ReporterAndReporterParameter> group : groupByOutput()) {
+                writes.add(executor.submit(() -> {
+                    Connection connection = pool.take();
+                    try {
+                        writeReports(connection, group);
+                    } finally {
+                        pool.add(connection);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing the reports");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Defers the file reports: their reporters are listed in a manifest and their output is left in the database
+     * for the {@code report} goal. The reports only written to the console are written now.
+     *
+     * @param connection the database {@link Connection}
+     * @param manifest   the manifest file
+     * @throws SQLException if database access fails
+     * @throws IOException  if files can't be written
+     */
+    public void deferReports(Connection connection, File manifest) throws SQLException, IOException {
+        List<ReporterAndReporterParameter> deferred = new ArrayList<>();
         for (ReporterAndReporterParameter pair : reporters) {
-            writeReports(connection, pair.getReporter(), pair.getReporterParameter());
+            if (pair.getReporterParameter().isFileOutput()) {
+                deferred.add(pair);
+            } else {
+                writeReports(connection, pair.getReporter(), pair.getReporterParameter(),
+                        listenerFor(pair.getReporterParameter()));
+            }
         }
+        ReportManifest.write(manifest, deferred);
+        log.info(format("%d reports left in the database for the report goal, listed in %s", deferred.size(),
+                manifest.getAbsolutePath()));
     }
 
-    private void writeReports(Connection connection, Reporter reporter, ReporterParameter reporterParameter) throws IOException, SQLException {
+    /**
+     * Returns the files the reports are written to.
+     *
+     * @return the report files, the index and the parts of the split reports
+     * @throws IOException if the index of a split report can't be read
+     */
+    public List<File> getReportFiles() throws IOException {
+        List<File> files = new ArrayList<>();
+        for (List<ReporterAndReporterParameter> group : groupByOutput()) {
+            ReporterParameter parameter = group.get(0).getReporterParameter();
+            if (isSplit(parameter)) {
+                files.addAll(CoverageReportSplitter.listFiles(resolveOutputFile(outputDirectory, parameter.getFileOutput())));
+            } else if (parameter.isFileOutput()) {
+                files.add(resolveOutputFile(outputDirectory, parameter.getFileOutput()));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Returns the report files written by {@link #writeReports(Connection)}, the split reports excluded.
+     *
+     * @return the written report files
+     */
+    public List<File> getWrittenFiles() {
+        synchronized (writtenFiles) {
+            return new ArrayList<>(writtenFiles);
+        }
+    }
+
+    /**
+     * Returns whether the file output of a reporter is split.
+     *
+     * @param parameter the {@link ReporterParameter}
+     * @return true if the reporter supports splitting and a split is configured
+     */
+    public static boolean isSplit(ReporterParameter parameter) {
+        return parameter.isSplit()
+                && CoreReporters.UT_COVERAGE_SONAR_REPORTER.name().equalsIgnoreCase(parameter.getName());
+    }
+
+    /**
+     * Resolves the file of a report.
+     *
+     * @param outputDirectory the report output directory
+     * @param fileOutput      the configured file, absolute or relative to the output directory
+     * @return the report file
+     */
+    public static File resolveOutputFile(String outputDirectory, String fileOutput) {
+        File file = new File(fileOutput);
+        return file.isAbsolute() ? file : new File(outputDirectory, fileOutput);
+    }
+
+    /**
+     * Groups the reporters by output file: the reporters of several runs writing to the same file are merged.
+     */
+    private Collection<List<ReporterAndReporterParameter>> groupByOutput() {
+        Map<Object, List<ReporterAndReporterParameter>> groups = new LinkedHashMap<>();
+        for (ReporterAndReporterParameter pair : reporters) {
+            ReporterParameter parameter = pair.getReporterParameter();
+            Object key = parameter.isFileOutput()
+                    ? resolveOutputFile(outputDirectory, parameter.getFileOutput()).getAbsolutePath()
+                    : pair;
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(pair);
+        }
+        return groups.values();
+    }
+
+    private Consumer<String> listenerFor(ReporterParameter parameter) {
+        return parameter.getName() == null ? null : lineListeners.get(parameter.getName().toUpperCase(Locale.ROOT));
+    }
+
+    private void writeReports(Connection connection, List<ReporterAndReporterParameter> group)
+            throws IOException, SQLException {
+        if (group.size() == 1 && fetched.containsKey(group.get(0)) && fetched.get(group.get(0)) == null) {
+            return;
+        }
+        ReporterParameter parameter = group.get(0).getReporterParameter();
+        if (group.size() == 1 && !fetched.containsKey(group.get(0))) {
+            writeReports(connection, group.get(0).getReporter(), parameter, listenerFor(parameter));
+        } else {
+            writeMergedReport(connection, group);
+        }
+        File file = parameter.isFileOutput() ? resolveOutputFile(outputDirectory, parameter.getFileOutput()) : null;
+        if (file != null && !isSplit(parameter) && file.isFile()) {
+            writtenFiles.add(file);
+        }
+    }
+
+    private void writeMergedReport(Connection connection, List<ReporterAndReporterParameter> group)
+            throws IOException, SQLException {
+        ReporterParameter parameter = group.get(0).getReporterParameter();
+        File file = resolveOutputFile(outputDirectory, parameter.getFileOutput());
+        List<File> parts = new ArrayList<>();
+        for (ReporterAndReporterParameter pair : group) {
+            File part = partFile(pair);
+            if (!fetched.containsKey(pair)) {
+                writeReports(connection, pair.getReporter(), partParameter(parameter, part), null);
+            } else if (!part.isFile()) {
+                log.warn(format("The part %s of the %s report is missing", part, parameter.getName()));
+                continue;
+            }
+            parts.add(part);
+        }
+        if (parts.isEmpty()) {
+            return;
+        }
+
+        try {
+            File merged = isSplit(parameter) ? new File(file.getAbsolutePath() + ".merged") : file;
+            if (parts.size() == 1) {
+                Files.move(parts.get(0).toPath(), merged.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                ReportMerger.merge(parameter.getName(), parts, merged);
+                log.info(format("Merged %d %s reports into %s", parts.size(), parameter.getName(), merged));
+            }
+            Consumer<String> listener = listenerFor(parameter);
+            if (merged != file) {
+                try {
+                    writeSplitReport(parameter.getName(), parameter, null, listener, lines -> {
+                        try (Stream<String> mergedLines = Files.lines(merged.toPath(), StandardCharsets.UTF_8)) {
+                            mergedLines.forEach(lines);
+                        }
+                    });
+                } finally {
+                    Files.deleteIfExists(merged.toPath());
+                }
+            } else if (listener != null) {
+                try (Stream<String> mergedLines = Files.lines(merged.toPath(), StandardCharsets.UTF_8)) {
+                    mergedLines.forEach(listener);
+                }
+            }
+        } finally {
+            for (File part : parts) {
+                Files.deleteIfExists(part.toPath());
+            }
+        }
+    }
+
+    /**
+     * Returns the part file of a report: the reports of several runs to the same file are written to numbered
+     * parts, in the order of the runs, before being merged.
+     */
+    private File partFile(ReporterAndReporterParameter pair) {
+        File file = resolveOutputFile(outputDirectory, pair.getReporterParameter().getFileOutput());
+        int index = 0;
+        for (ReporterAndReporterParameter other : reporters) {
+            if (other == pair) {
+                break;
+            }
+            if (other.getReporterParameter().isFileOutput() && file.equals(
+                    resolveOutputFile(outputDirectory, other.getReporterParameter().getFileOutput()))) {
+                index++;
+            }
+        }
+        return new File(file.getAbsolutePath() + ".part" + (index + 1));
+    }
+
+    private static ReporterParameter partParameter(ReporterParameter parameter, File part) {
+        ReporterParameter partParameter = new ReporterParameter();
+        partParameter.setName(parameter.getName());
+        partParameter.setFileOutput(part.getAbsolutePath());
+        partParameter.setConsoleOutput(parameter.isConsoleOutput());
+        return partParameter;
+    }
+
+    private void writeReports(Connection connection, Reporter reporter, ReporterParameter reporterParameter,
+                              Consumer<String> listener) throws IOException, SQLException {
+        if (isSplit(reporterParameter)) {
+            writeSplitReport(connection, reporter, reporterParameter, listener);
+            return;
+        }
+
         FileOutputStream fileOutputStream = null;
         try {
-            OutputBuffer buffer = OutputBufferProvider.getCompatibleOutputBuffer(databaseVersion, reporter, connection);
+            OutputBuffer buffer = outputBuffers.get(reporter, connection);
             List<PrintStream> printStreams = new ArrayList<>();
 
             if (reporterParameter.isFileOutput()) {
-                File file = new File(reporterParameter.getFileOutput());
-                if (!file.isAbsolute()) {
-                    file = new File(outputDirectory, reporterParameter.getFileOutput());
-                }
+                File file = resolveOutputFile(outputDirectory, reporterParameter.getFileOutput());
 
                 if (!file.getParentFile().exists()) {
                     log.debug("Creating directory for report file " + file.getAbsolutePath());
@@ -100,7 +462,16 @@ public class ReportWriter {
                 printStreams.add(System.out);
             }
 
-            buffer.printAvailable(connection, printStreams);
+            if (listener == null) {
+                buffer.printAvailable(connection, printStreams);
+            } else {
+                buffer.fetchAvailable(connection, line -> {
+                    for (PrintStream printStream : printStreams) {
+                        printStream.println(line);
+                    }
+                    listener.accept(line);
+                });
+            }
 
         } finally {
             if (fileOutputStream != null) {
@@ -108,4 +479,54 @@ public class ReportWriter {
             }
         }
     }
+
+    private void writeSplitReport(Connection connection, Reporter reporter, ReporterParameter reporterParameter,
+                                  Consumer<String> listener) throws IOException, SQLException {
+        writeSplitReport(reporter.getTypeName(), reporterParameter,
+                reporterParameter.isConsoleOutput() ? System.out : null, listener,
+                lines -> outputBuffers.get(reporter, connection).fetchAvailable(connection, lines));
+    }
+
+    private void writeSplitReport(String reportName, ReporterParameter reporterParameter, PrintStream console,
+                                  Consumer<String> listener, LineSource source) throws IOException, SQLException {
+        File file = resolveOutputFile(outputDirectory, reporterParameter.getFileOutput());
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        CoverageReportSplitter.SplitBy splitBy = CoverageReportSplitter.SplitBy.parse(reporterParameter.getSplitBy());
+        long maxBytes = (reporterParameter.getSplitSize() != null ? reporterParameter.getSplitSize() : DEFAULT_SPLIT_SIZE)
+                * 1024L * 1024L;
+        log.info(format("Writing report %s split by %s, listed in %s", reportName,
+                splitBy.name().toLowerCase(Locale.ROOT), CoverageReportSplitter.indexFile(file).getAbsolutePath()));
+
+        CoverageReportSplitter splitter = new CoverageReportSplitter(file, splitBy, maxBytes, sourceMappings::get);
+        try {
+            source.fetch(line -> {
+                try {
+                    splitter.write(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (console != null) {
+                    console.println(line);
+                }
+                if (listener != null) {
+                    listener.accept(line);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            splitter.close();
+        }
+        log.info(format("Report %s split into %d files", file.getName(), splitter.getParts().size()));
+    }
+
+    /**
+     * A source of report lines.
+     */
+    @FunctionalInterface
+    private interface LineSource {
+
+        void fetch(Consumer<String> lines) throws IOException, SQLException;
+    }
 }
@@ -0,0 +1,129 @@
+package org.utplsql.maven.plugin.io;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Keeps the reports of the last successful run together with the fingerprint of its inputs, so that a run
+ * with the same fingerprint can restore them instead of connecting to the database.
+ * <p>
+ * The cache directory contains a copy of every report and a manifest: the fingerprint on the first line,
+ * then one {@code cached file name, report path} line per report.
+ */
+public class RunCache {
+
+    private static final String MANIFEST_FILE = "manifest.tsv";
+    private static final String FINGERPRINT_PREFIX = "#fingerprint\t";
+
+    private final File directory;
+
+    /**
+     * Constructor of the cache.
+     *
+     * @param directory the cache directory
+     */
+    public RunCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Computes the fingerprint of a run.
+     *
+     * @param baseDir       the directory the paths are relative to
+     * @param paths         the input files
+     * @param configuration the configuration and any other input, as a text
+     * @return the fingerprint
+     * @throws IOException if a file can't be read
+     */
+    public static String fingerprint(File baseDir, Collection<String> paths, String configuration) throws IOException {
+        StringBuilder inputs = new StringBuilder(configuration).append('\n');
+        for (Map.Entry<String, String> checksum : FileChecksums.compute(baseDir, paths).entrySet()) {
+            inputs.append(checksum.getKey()).append('\t').append(checksum.getValue()).append('\n');
+        }
+        return FileChecksums.checksum(inputs.toString());
+    }
+
+    /**
+     * Restores the reports of the last successful run if its fingerprint matches.
+     *
+     * @param fingerprint the fingerprint of the current run
+     * @param log         the Maven log
+     * @return the restored report files, {@code null} if the reports were not restored
+     * @throws IOException if the reports can't be copied
+     */
+    public List<File> restore(String fingerprint, Log log) throws IOException {
+        File manifest = new File(directory, MANIFEST_FILE);
+        if (!manifest.isFile()) {
+            return null;
+        }
+        List<String> lines = Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !lines.get(0).equals(FINGERPRINT_PREFIX + fingerprint)) {
+            return null;
+        }
+
+        List<File[]> copies = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            int tab = line.indexOf('\t');
+            File cached = new File(directory, line.substring(0, tab));
+            if (!cached.isFile()) {
+                return null;
+            }
+            copies.add(new File[]{cached, new File(line.substring(tab + 1))});
+        }
+        List<File> restored = new ArrayList<>();
+        for (File[] copy : copies) {
+            //noinspection ResultOfMethodCallIgnored
+            copy[1].getParentFile().mkdirs();
+            Files.copy(copy[0].toPath(), copy[1].toPath(), StandardCopyOption.REPLACE_EXISTING);
+            log.info(format("Restored report %s", copy[1].getAbsolutePath()));
+            restored.add(copy[1]);
+        }
+        return restored;
+    }
+
+    /**
+     * Stores the reports of a successful run, replacing the previous ones.
+     *
+     * @param fingerprint the fingerprint of the run
+     * @param reports     the report files
+     * @throws IOException if the reports can't be copied
+     */
+    public void store(String fingerprint, List<File> reports) throws IOException {
+        invalidate();
+        //noinspection ResultOfMethodCallIgnored
+        directory.mkdirs();
+
+        List<String> lines = new ArrayList<>();
+        lines.add(FINGERPRINT_PREFIX + fingerprint);
+        for (int i = 0; i < reports.size(); i++) {
+            File report = reports.get(i);
+            if (report.isFile()) {
+                String name = i + "-" + report.getName();
+                Files.copy(report.toPath(), new File(directory, name).toPath(), StandardCopyOption.REPLACE_EXISTING);
+                lines.add(name + '\t' + report.getAbsolutePath());
+            }
+        }
+        // The manifest is written last, an interrupted store leaves no usable entry.
+        Files.write(new File(directory, MANIFEST_FILE).toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Removes the stored run, so that the next run executes the tests.
+     *
+     * @throws IOException if the manifest can't be deleted
+     */
+    public void invalidate() throws IOException {
+        Files.deleteIfExists(new File(directory, MANIFEST_FILE).toPath());
+    }
+}
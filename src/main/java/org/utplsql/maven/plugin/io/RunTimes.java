@@ -0,0 +1,115 @@
+package org.utplsql.maven.plugin.io;
+
+import org.apache.maven.plugin.logging.Log;
+import org.utplsql.maven.plugin.db.CompilerSettings;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Stores the last run time of the tests by compiler settings, to compare the settings on the same tests.
+ * The times are stored as a tab separated file: {@code scope, settings, milliseconds}, the scope describing
+ * the tests that ran.
+ */
+public final class RunTimes {
+
+    /**
+     * The run times file, relative to the build directory.
+     */
+    public static final String FILE_NAME = "utplsql/run-times.tsv";
+
+    private RunTimes() {
+    }
+
+    /**
+     * Reads the last run times of a scope.
+     *
+     * @param file  the run times file
+     * @param scope the description of the tests that ran
+     * @return the run times in milliseconds by settings, empty if the file does not exist
+     * @throws IOException if the file can't be read
+     */
+    public static Map<String, Long> read(File file, String scope) throws IOException {
+        Map<String, Long> times = new LinkedHashMap<>();
+        for (String[] entry : readEntries(file)) {
+            if (entry[0].equals(sanitize(scope))) {
+                times.put(entry[1], Long.parseLong(entry[2]));
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Records the run time of a scope and settings, replacing the previous one.
+     *
+     * @param file     the run times file
+     * @param scope    the description of the tests that ran
+     * @param settings the description of the settings
+     * @param millis   the run time in milliseconds
+     * @throws IOException if the file can't be read or written
+     */
+    public static void record(File file, String scope, String settings, long millis) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (String[] entry : readEntries(file)) {
+            if (!entry[0].equals(sanitize(scope)) || !entry[1].equals(sanitize(settings))) {
+                lines.add(String.join("\t", entry));
+            }
+        }
+        lines.add(sanitize(scope) + '\t' + sanitize(settings) + '\t' + millis);
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Logs a run time next to the last run times of the same scope with other settings, and records it.
+     * Failures are only logged.
+     *
+     * @param file     the run times file
+     * @param scope    the description of the tests that ran
+     * @param settings the compiler settings of the run
+     * @param millis   the run time in milliseconds
+     * @param log      the Maven log
+     */
+    public static void compare(File file, String scope, CompilerSettings settings, long millis, Log log) {
+        String current = settings.toString();
+        try {
+            Map<String, Long> previous = read(file, scope);
+            previous.remove(current);
+            if (!settings.isEmpty() || !previous.isEmpty()) {
+                log.info(format("Tests ran in %d ms with %s", millis, current));
+                previous.forEach((other, otherMillis) -> log.info(format(
+                        "The last run with %s took %d ms (%+.1f%%)", other, otherMillis,
+                        otherMillis == 0 ? 0.0 : 100.0 * (otherMillis - millis) / millis)));
+            }
+            record(file, scope, current, millis);
+        } catch (IOException e) {
+            log.warn("Could not record the run time: " + e.getMessage());
+        }
+    }
+
+    private static List<String[]> readEntries(File file) throws IOException {
+        List<String[]> entries = new ArrayList<>();
+        if (file.isFile()) {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                String[] entry = line.split("\t", -1);
+                if (entry.length == 3 && entry[2].matches("\\d+")) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static String sanitize(String value) {
+        return value.replaceAll("[\t\r\n]", " ");
+    }
+}
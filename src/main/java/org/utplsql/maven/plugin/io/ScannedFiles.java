@@ -0,0 +1,69 @@
+package org.utplsql.maven.plugin.io;
+
+import org.utplsql.api.FileMapperOptions;
+import org.utplsql.maven.plugin.model.FileMapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of scanning the sources or the tests: the options handed to utPLSQL together with the database
+ * objects the files were mapped to on the client side.
+ */
+public class ScannedFiles {
+
+    private final FileMapperOptions mapperOptions;
+    private final List<FileMapping> mappings;
+    private final List<String> unmappedPaths;
+
+    /**
+     * Constructor of the scan result.
+     *
+     * @param mapperOptions the {@link FileMapperOptions} to hand to utPLSQL
+     * @param mappings      the files mapped to a database object
+     * @param unmappedPaths the files that could not be mapped
+     */
+    public ScannedFiles(FileMapperOptions mapperOptions, List<FileMapping> mappings, List<String> unmappedPaths) {
+        this.mapperOptions = mapperOptions;
+        this.mappings = Collections.unmodifiableList(mappings);
+        this.unmappedPaths = Collections.unmodifiableList(unmappedPaths);
+    }
+
+    /**
+     * Returns the result of a scan without files.
+     *
+     * @return the empty scan result
+     */
+    public static ScannedFiles empty() {
+        return new ScannedFiles(new FileMapperOptions(new ArrayList<>()), Collections.emptyList(),
+                Collections.emptyList());
+    }
+
+    /**
+     * Returns the options to hand to utPLSQL.
+     *
+     * @return the {@link FileMapperOptions}
+     */
+    public FileMapperOptions getMapperOptions() {
+        return mapperOptions;
+    }
+
+    /**
+     * Returns the files mapped to a database object.
+     *
+     * @return the {@link FileMapping}s, in scan order
+     */
+    public List<FileMapping> getMappings() {
+        return mappings;
+    }
+
+    /**
+     * Returns the files that could not be mapped to a database object.
+     *
+     * @return the unmapped file paths
+     */
+    public List<String> getUnmappedPaths() {
+        return unmappedPaths;
+    }
+}
@@ -0,0 +1,125 @@
+package org.utplsql.maven.plugin.io;
+
+import org.apache.maven.plugin.logging.Log;
+import org.utplsql.maven.plugin.db.SessionStats;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static org.utplsql.maven.plugin.util.StringUtil.toJsonString;
+
+/**
+ * Writes the session statistics of a run as JSON and summarizes them for the log.
+ */
+public class SessionStatsReport {
+
+    /**
+     * Name of the metrics file, in the report output directory.
+     */
+    public static final String FILE_NAME = "utplsql-session-stats.json";
+
+    private static final int TOP_WAITS = 3;
+    private static final int MAX_LOGGED_SUITES = 5;
+
+    private SessionStatsReport() {
+    }
+
+    /**
+     * Logs the statistics of the run and of the suites with the most logical reads, and writes the metrics file.
+     *
+     * @param file   the metrics file
+     * @param run    the statistics of the whole run
+     * @param suites the statistics by suite name, may be empty
+     * @param log    the Maven log
+     * @throws IOException if the file can't be written
+     */
+    public static void report(File file, SessionStats run, Map<String, SessionStats> suites, Log log)
+            throws IOException {
+        log.info("Session statistics: " + summarize(run));
+        suites.entrySet().stream()
+                .sorted(Collections.reverseOrder(Comparator.comparingLong(
+                        (Map.Entry<String, SessionStats> suite) -> suite.getValue().get(SessionStats.LOGICAL_READS))))
+                .limit(MAX_LOGGED_SUITES)
+                .forEach(suite -> log.info(format("Suite %s: %s", suite.getKey(), summarize(suite.getValue()))));
+
+        write(file, run, suites);
+        log.debug("Session statistics written to " + file.getAbsolutePath());
+    }
+
+    /**
+     * Writes the metrics file: {@code {"run": {...}, "suites": [{"name": ..., ...}]}}, each entry with
+     * its {@code statistics} and {@code waits}.
+     *
+     * @param file   the metrics file
+     * @param run    the statistics of the whole run
+     * @param suites the statistics by suite name, may be empty
+     * @throws IOException if the file can't be written
+     */
+    public static void write(File file, SessionStats run, Map<String, SessionStats> suites) throws IOException {
+        StringBuilder json = new StringBuilder("{\n\"run\": ");
+        appendStats(json, run);
+        json.append(",\n\"suites\": [");
+        Iterator<Map.Entry<String, SessionStats>> iterator = suites.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, SessionStats> suite = iterator.next();
+            json.append("\n  {\"name\": ").append(toJsonString(suite.getKey())).append(", \"stats\": ");
+            appendStats(json, suite.getValue());
+            json.append('}').append(iterator.hasNext() ? "," : "\n");
+        }
+        json.append("]\n}\n");
+
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendStats(StringBuilder json, SessionStats stats) {
+        json.append("{\"statistics\": {");
+        json.append(stats.getStatistics().entrySet().stream()
+                .map(statistic -> toJsonString(statistic.getKey()) + ": " + statistic.getValue())
+                .collect(Collectors.joining(", ")));
+        json.append("}, \"waits\": {");
+        json.append(stats.getWaits().entrySet().stream()
+                .map(wait -> format("%s: {\"count\": %d, \"micros\": %d}", toJsonString(wait.getKey()),
+                        wait.getValue().getCount(), wait.getValue().getMicros()))
+                .collect(Collectors.joining(", ")));
+        json.append("}}");
+    }
+
+    /**
+     * Summarizes statistics in one line.
+     *
+     * @param stats the statistics
+     * @return the summary
+     */
+    public static String summarize(SessionStats stats) {
+        StringBuilder summary = new StringBuilder(format(
+                "CPU %.2f s, logical reads %d, physical reads %d, redo %d KB, long table scans %d, disk sorts %d,"
+                        + " PGA max %d MB",
+                stats.get(SessionStats.CPU) / 100.0, stats.get(SessionStats.LOGICAL_READS),
+                stats.get(SessionStats.PHYSICAL_READS), stats.get(SessionStats.REDO_SIZE) / 1024,
+                stats.get(SessionStats.LONG_TABLE_SCANS), stats.get(SessionStats.SORTS_DISK),
+                stats.get(SessionStats.PGA_MAX) / (1024 * 1024)));
+
+        List<Map.Entry<String, SessionStats.Wait>> waits = stats.getWaits().entrySet().stream()
+                .sorted(Collections.reverseOrder(Comparator.comparingLong(wait -> wait.getValue().getMicros())))
+                .limit(TOP_WAITS)
+                .collect(Collectors.toList());
+        if (!waits.isEmpty()) {
+            summary.append(", top waits: ").append(waits.stream()
+                    .map(wait -> format("%s %.2f s (%d)", wait.getKey(), wait.getValue().getMicros() / 1_000_000.0,
+                            wait.getValue().getCount()))
+                    .collect(Collectors.joining(", ")));
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,258 @@
+package org.utplsql.maven.plugin.io;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Merges {@code UT_COVERAGE_SONAR_REPORTER} reports:
+ * {@code <coverage version="1"><file path="..."><lineToCover .../></file></coverage>}.
+ * The reports are streamed, only the lines of one file are held in memory at a time.
+ */
+public final class SonarCoverageMerger {
+
+    private static final String FILE = "file";
+    private static final String LINE_TO_COVER = "lineToCover";
+    private static final QName PATH = new QName(XmlStreams.PATH);
+    private static final QName LINE_NUMBER = new QName("lineNumber");
+    private static final QName COVERED = new QName("covered");
+    private static final List<String> LINE_ATTRIBUTES = Arrays.asList(
+            "lineNumber", "covered", "branchesToCover", "coveredBranches");
+
+    private SonarCoverageMerger() {
+    }
+
+    /**
+     * Copies into a report the {@code file} elements of a previous report, for the given paths that the
+     * report does not contain.
+     *
+     * @param report   the report to complete, rewritten in place
+     * @param previous the previous report
+     * @param paths    the paths to carry over
+     * @return the number of files carried over
+     * @throws IOException if a report can't be read or written
+     */
+    public static int carryOver(File report, File previous, Set<String> paths) throws IOException {
+        File merged = new File(report.getPath() + ".merged");
+        int carried = 0;
+        try {
+            try (XmlStreams.EventReader reader = XmlStreams.read(report);
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(merged.toPath()))) {
+                XMLEventWriter writer = XmlStreams.write(out);
+                Set<String> present = new HashSet<>();
+                int depth = 0;
+                for (XMLEvent event = reader.next(); event != null; event = reader.next()) {
+                    if (event.isStartElement()) {
+                        String path = filePath(event.asStartElement());
+                        if (++depth == 2 && path != null) {
+                            present.add(path);
+                        }
+                    } else if (event.isEndElement() && --depth == 0) {
+                        // The files of the report are all known at the end of its root element
+                        carried = copyFiles(previous, paths, present, writer);
+                    }
+                    writer.add(event);
+                }
+                writer.close();
+            } catch (XMLStreamException e) {
+                throw new IOException("Could not merge the coverage report " + report + ": " + e.getMessage(), e);
+            }
+            Files.move(merged.toPath(), report.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(merged.toPath());
+        }
+        return carried;
+    }
+
+    private static int copyFiles(File previous, Set<String> paths, Set<String> present, XMLEventWriter writer)
+            throws IOException, XMLStreamException {
+        XMLEventFactory events = XMLEventFactory.newInstance();
+        int carried = 0;
+        try (XmlStreams.EventReader reader = XmlStreams.read(previous)) {
+            for (XMLEvent event = reader.root() == null ? null : reader.nextChild(); event != null;
+                 event = reader.nextChild()) {
+                if (!event.isStartElement()) {
+                    continue;
+                }
+                String path = filePath(event.asStartElement());
+                if (path != null && paths.contains(path) && present.add(path)) {
+                    reader.copy(event.asStartElement(), writer);
+                    writer.add(events.createCharacters("\n"));
+                    carried++;
+                } else {
+                    reader.skip();
+                }
+            }
+        }
+        return carried;
+    }
+
+    /**
+     * Merges reports of runs covering different tests into one: a line is covered if it is covered in any report.
+     * The files are written in the order they first appear, each file is merged with the same file of the later
+     * reports before the next one is read.
+     *
+     * @param reports the reports to merge
+     * @param output  the merged report
+     * @throws IOException if a report can't be read or written
+     */
+    public static void merge(List<File> reports, File output) throws IOException {
+        List<Set<String>> paths = new ArrayList<>();
+        for (File report : reports) {
+            paths.add(readPaths(report));
+        }
+
+        //noinspection ResultOfMethodCallIgnored
+        output.getAbsoluteFile().getParentFile().mkdirs();
+        Map<Integer, XmlStreams.PathCursor> cursors = new HashMap<>();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output.toPath()))) {
+            XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartElement("coverage");
+            writer.writeAttribute("version", "1");
+            writer.writeCharacters("\n");
+            Set<String> written = new HashSet<>();
+            for (int i = 0; i < reports.size(); i++) {
+                close(cursors.remove(i));
+                if (paths.get(i).isEmpty()) {
+                    continue;
+                }
+                try (XmlStreams.EventReader reader = XmlStreams.read(reports.get(i))) {
+                    reader.root();
+                    for (XMLEvent event = reader.nextChild(); event != null; event = reader.nextChild()) {
+                        if (!event.isStartElement()) {
+                            continue;
+                        }
+                        StartElement file = event.asStartElement();
+                        String path = filePath(file);
+                        if (path == null || !written.add(path)) {
+                            reader.skip();
+                            continue;
+                        }
+                        Map<Integer, StartElement> lines = new TreeMap<>();
+                        readLines(reader, lines);
+                        String key = XmlStreams.pathKey(file);
+                        for (int j = i + 1; j < reports.size(); j++) {
+                            if (paths.get(j).contains(path)) {
+                                File later = reports.get(j);
+                                readLines(cursors.computeIfAbsent(j, index -> new XmlStreams.PathCursor(later))
+                                        .find(key), lines);
+                            }
+                        }
+                        writeFile(writer, path, lines);
+                    }
+                }
+            }
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not merge the coverage report " + output + ": " + e.getMessage(), e);
+        } finally {
+            for (XmlStreams.PathCursor cursor : cursors.values()) {
+                close(cursor);
+            }
+        }
+    }
+
+    private static Set<String> readPaths(File report) throws IOException {
+        Set<String> paths = new HashSet<>();
+        if (report.length() == 0) {
+            return paths;
+        }
+        try (XmlStreams.EventReader reader = XmlStreams.read(report)) {
+            for (XMLEvent event = reader.root() == null ? null : reader.nextChild(); event != null;
+                 event = reader.nextChild()) {
+                if (event.isStartElement()) {
+                    String path = filePath(event.asStartElement());
+                    if (path != null) {
+                        paths.add(path);
+                    }
+                    reader.skip();
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw XmlStreams.failure(report, e);
+        }
+        return paths;
+    }
+
+    private static void readLines(XmlStreams.EventReader reader, Map<Integer, StartElement> lines)
+            throws XMLStreamException {
+        for (XMLEvent event = reader.nextChild(); event != null; event = reader.nextChild()) {
+            if (!event.isStartElement()) {
+                continue;
+            }
+            StartElement line = event.asStartElement();
+            Attribute lineNumber = line.getAttributeByName(LINE_NUMBER);
+            if (LINE_TO_COVER.equals(line.getName().getLocalPart()) && lineNumber != null) {
+                lines.merge(Integer.valueOf(lineNumber.getValue().trim()), line,
+                        (previous, current) -> isCovered(previous) || !isCovered(current) ? previous : current);
+            }
+            reader.skip();
+        }
+    }
+
+    private static void writeFile(XMLStreamWriter writer, String path, Map<Integer, StartElement> lines)
+            throws XMLStreamException {
+        writer.writeStartElement(FILE);
+        writer.writeAttribute(XmlStreams.PATH, path);
+        writer.writeCharacters("\n");
+        for (StartElement line : lines.values()) {
+            // The attributes of an event are not ordered, they are written in the order of the Sonar format
+            writer.writeEmptyElement(LINE_TO_COVER);
+            for (String name : LINE_ATTRIBUTES) {
+                Attribute attribute = line.getAttributeByName(new QName(name));
+                if (attribute != null) {
+                    writer.writeAttribute(name, attribute.getValue());
+                }
+            }
+            for (Iterator<?> iterator = line.getAttributes(); iterator.hasNext(); ) {
+                Attribute attribute = (Attribute) iterator.next();
+                if (!LINE_ATTRIBUTES.contains(attribute.getName().getLocalPart())) {
+                    writer.writeAttribute(attribute.getName().getLocalPart(), attribute.getValue());
+                }
+            }
+            writer.writeCharacters("\n");
+        }
+        writer.writeEndElement();
+        writer.writeCharacters("\n");
+    }
+
+    private static String filePath(StartElement element) {
+        Attribute path = element.getAttributeByName(PATH);
+        return FILE.equals(element.getName().getLocalPart()) && path != null ? path.getValue() : null;
+    }
+
+    private static boolean isCovered(StartElement lineToCover) {
+        Attribute covered = lineToCover.getAttributeByName(COVERED);
+        return covered != null && "true".equals(covered.getValue());
+    }
+
+    private static void close(XmlStreams.PathCursor cursor) throws IOException {
+        if (cursor != null) {
+            cursor.close();
+        }
+    }
+}
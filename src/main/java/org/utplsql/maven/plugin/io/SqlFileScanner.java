@@ -32,36 +32,34 @@ public class SqlFileScanner {
         List<String> founds = new ArrayList<>();
 
         for (Resource resource : resources) {
-            if (resource.getDirectory() == null) {
-                resource.setDirectory(defaultDirectory);
-            }
-
-            if (resource.getIncludes().isEmpty()) {
-                resource.getIncludes().add(defaultFilePattern);
-            }
+            // The resources are part of the plugin configuration, the defaults are applied without modifying them.
+            String directory = resource.getDirectory() == null ? defaultDirectory : resource.getDirectory();
+            List<String> includes = resource.getIncludes().isEmpty()
+                    ? Collections.singletonList(defaultFilePattern)
+                    : resource.getIncludes();
 
-            DirectoryScanner scanner = buildScanner(baseDir.getPath(), resource);
+            DirectoryScanner scanner = buildScanner(baseDir.getPath(), directory, includes, resource.getExcludes());
             scanner.scan();
 
             for (String basename : scanner.getIncludedFiles()) {
                 founds.add(baseDir.toURI().relativize(new File(scanner.getBasedir(), basename).toURI()).getPath());
             }
-            founds.addAll(Collections.emptyList());
         }
 
         return founds;
     }
 
-    private DirectoryScanner buildScanner(String baseDir, Resource resource) throws IOException {
-        File fileBaseDir = new File(baseDir, resource.getDirectory());
+    private DirectoryScanner buildScanner(String baseDir, String directory, List<String> includes, List<String> excludes)
+            throws IOException {
+        File fileBaseDir = new File(baseDir, directory);
         if (!fileBaseDir.exists() || !fileBaseDir.isDirectory() || !fileBaseDir.canRead()) {
-            throw new IOException(format("Directory %s does not exist!", resource.getDirectory()));
+            throw new IOException(format("Directory %s does not exist!", directory));
         }
 
         DirectoryScanner scanner = new DirectoryScanner();
         scanner.setBasedir(fileBaseDir.getPath());
-        scanner.setIncludes(resource.getIncludes().toArray(new String[0]));
-        scanner.setExcludes(resource.getExcludes().toArray(new String[0]));
+        scanner.setIncludes(includes.toArray(new String[0]));
+        scanner.setExcludes(excludes.toArray(new String[0]));
         return scanner;
     }
 }
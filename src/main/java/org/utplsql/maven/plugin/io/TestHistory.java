@@ -0,0 +1,158 @@
+package org.utplsql.maven.plugin.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+
+/**
+ * Pass/fail history of every test over its last runs, stored as a tab separated file:
+ * {@code test path, last duration in milliseconds, outcomes}. The outcomes are one character per run,
+ * the most recent last: {@code P} passed, {@code F} failed, {@code R} passed when rerun after failing.
+ * <p>
+ * A test is considered flaky when, within the recorded runs, it passed on a rerun or switched between
+ * passing and failing at least {@value #FLAKY_TRANSITIONS} times.
+ */
+public class TestHistory {
+
+    public static final char PASSED = 'P';
+    public static final char FAILED = 'F';
+    public static final char PASSED_ON_RERUN = 'R';
+
+    private static final int MAX_RUNS = 20;
+    private static final int FLAKY_TRANSITIONS = 3;
+
+    private final File file;
+    private final Map<String, Entry> entries = new TreeMap<>();
+
+    private TestHistory(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the history.
+     *
+     * @param file the history file
+     * @return the history, empty if the file does not exist
+     * @throws IOException if the file can't be read
+     */
+    public static TestHistory load(File file) throws IOException {
+        TestHistory history = new TestHistory(file);
+        if (file.isFile()) {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                String[] columns = line.split("\t");
+                if (columns.length == 3) {
+                    try {
+                        history.entries.put(columns[0], new Entry(Long.parseLong(columns[1]), columns[2]));
+                    } catch (NumberFormatException e) {
+                        // Skips corrupted lines, the history is rebuilt by the next runs.
+                    }
+                }
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Records the outcome of a test in the current run.
+     *
+     * @param test     the test path
+     * @param outcome  one of {@link #PASSED}, {@link #FAILED} or {@link #PASSED_ON_RERUN}
+     * @param duration the duration in milliseconds, or {@code null} to keep the last known one
+     */
+    public synchronized void record(String test, char outcome, Long duration) {
+        Entry previous = entries.get(test);
+        String outcomes = (previous == null ? "" : previous.outcomes) + outcome;
+        if (outcomes.length() > MAX_RUNS) {
+            outcomes = outcomes.substring(outcomes.length() - MAX_RUNS);
+        }
+        long lastDuration = duration != null ? duration : previous == null ? 0 : previous.duration;
+        entries.put(test, new Entry(lastDuration, outcomes));
+    }
+
+    /**
+     * Returns whether a test is flaky according to its recorded runs.
+     *
+     * @param test the test path
+     * @return true if the test is flaky
+     */
+    public synchronized boolean isFlaky(String test) {
+        Entry entry = entries.get(test);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.outcomes.indexOf(PASSED_ON_RERUN) >= 0) {
+            return true;
+        }
+        int transitions = 0;
+        for (int i = 1; i < entry.outcomes.length(); i++) {
+            if (entry.outcomes.charAt(i) != entry.outcomes.charAt(i - 1)) {
+                transitions++;
+            }
+        }
+        return transitions >= FLAKY_TRANSITIONS;
+    }
+
+    /**
+     * Returns the last known duration of a test.
+     *
+     * @param test the test path
+     * @return the duration in milliseconds, or {@code null} if the test is unknown
+     */
+    public synchronized Long getDuration(String test) {
+        Entry entry = entries.get(test);
+        return entry == null ? null : entry.duration;
+    }
+
+    /**
+     * Returns the recorded outcomes of a test.
+     *
+     * @param test the test path
+     * @return the outcomes, the most recent last, empty if the test is unknown
+     */
+    public synchronized String getOutcomes(String test) {
+        Entry entry = entries.get(test);
+        return entry == null ? "" : entry.outcomes;
+    }
+
+    /**
+     * Returns all the tests of the history.
+     *
+     * @return the test paths
+     */
+    public synchronized Set<String> getTests() {
+        return Collections.unmodifiableSet(new TreeMap<>(entries).keySet());
+    }
+
+    /**
+     * Writes the history back to its file.
+     *
+     * @throws IOException if the file can't be written
+     */
+    public synchronized void save() throws IOException {
+        List<String> lines = new ArrayList<>(entries.size());
+        entries.forEach((test, entry) -> lines.add(format("%s\t%d\t%s", test, entry.duration, entry.outcomes)));
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    private static class Entry {
+
+        private final long duration;
+        private final String outcomes;
+
+        private Entry(long duration, String outcomes) {
+            this.duration = duration;
+            this.outcomes = outcomes;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.utplsql.maven.plugin.io;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+/**
+ * Reads and writes XML reports as streams of events, so that a report is never held in memory as a whole.
+ * DTDs and external entities are not processed.
+ */
+final class XmlStreams {
+
+    static final String PATH = "path";
+
+    private XmlStreams() {
+    }
+
+    /**
+     * Opens a report for reading.
+     *
+     * @param file the report
+     * @return the reader, to close
+     * @throws IOException if the report can't be read
+     */
+    static EventReader read(File file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()));
+        try {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            return new EventReader(file, in, factory.createXMLEventReader(in));
+        } catch (XMLStreamException e) {
+            in.close();
+            throw failure(file, e);
+        }
+    }
+
+    /**
+     * Creates an UTF-8 event writer.
+     *
+     * @param out the output stream, closed by the caller
+     * @return the writer
+     * @throws XMLStreamException if the writer can't be created
+     */
+    static XMLEventWriter write(OutputStream out) throws XMLStreamException {
+        return XMLOutputFactory.newInstance().createXMLEventWriter(out, "UTF-8");
+    }
+
+    /**
+     * Returns the key of an element with a {@code path} attribute: its name and path.
+     *
+     * @param element the element
+     * @return the key, or {@code null} if the element has no path
+     */
+    static String pathKey(StartElement element) {
+        Attribute path = element.getAttributeByName(new QName(PATH));
+        return path == null ? null : element.getName().getLocalPart() + '/' + path.getValue();
+    }
+
+    static IOException failure(File file, XMLStreamException e) {
+        return new IOException("Could not read the report " + file + ": " + e.getMessage(), e);
+    }
+
+    /**
+     * An event reader over a report, reading the children of an element one at a time.
+     * Each child element returned by {@link #nextChild()} must be consumed by {@link #copy(StartElement,
+     * XMLEventWriter)}, {@link #skip()} or by reading its own children to the end.
+     */
+    static final class EventReader implements Closeable {
+
+        private final File file;
+        private final InputStream in;
+        private final XMLEventReader events;
+
+        private EventReader(File file, InputStream in, XMLEventReader events) {
+            this.file = file;
+            this.in = in;
+            this.events = events;
+        }
+
+        /**
+         * Returns the next event, whatever its level.
+         *
+         * @return the event, or {@code null} at the end of the document
+         * @throws XMLStreamException if the report is not well-formed
+         */
+        XMLEvent next() throws XMLStreamException {
+            return events.hasNext() ? events.nextEvent() : null;
+        }
+
+        /**
+         * Reads up to the root element.
+         *
+         * @return the root element, or {@code null} if the report has none
+         * @throws XMLStreamException if the report is not well-formed
+         */
+        StartElement root() throws XMLStreamException {
+            for (XMLEvent event = next(); event != null; event = next()) {
+                if (event.isStartElement()) {
+                    return event.asStartElement();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the next child of the current element.
+         *
+         * @return the child element, text or comment, or {@code null} once the end of the current element is read
+         * @throws XMLStreamException if the report is not well-formed
+         */
+        XMLEvent nextChild() throws XMLStreamException {
+            XMLEvent event = next();
+            return event == null || event.isEndElement() ? null : event;
+        }
+
+        /**
+         * Copies an element and its content.
+         *
+         * @param start  the start of the element, just read
+         * @param writer the writer
+         * @throws XMLStreamException if the report is not well-formed or can't be written
+         */
+        void copy(StartElement start, XMLEventWriter writer) throws XMLStreamException {
+            writer.add(start);
+            copyContent(writer);
+            writer.add(events.nextEvent());
+        }
+
+        /**
+         * Copies the content of the current element, leaving its end to read.
+         *
+         * @param writer the writer
+         * @throws XMLStreamException if the report is not well-formed or can't be written
+         */
+        void copyContent(XMLEventWriter writer) throws XMLStreamException {
+            int depth = 0;
+            while (depth > 0 || !events.peek().isEndElement()) {
+                XMLEvent event = events.nextEvent();
+                if (event.isStartElement()) {
+                    depth++;
+                } else if (event.isEndElement()) {
+                    depth--;
+                }
+                writer.add(event);
+            }
+        }
+
+        /**
+         * Skips the content and the end of the current element.
+         *
+         * @throws XMLStreamException if the report is not well-formed
+         */
+        void skip() throws XMLStreamException {
+            int depth = 1;
+            while (depth > 0) {
+                XMLEvent event = events.nextEvent();
+                if (event.isStartElement()) {
+                    depth++;
+                } else if (event.isEndElement()) {
+                    depth--;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                events.close();
+            } catch (XMLStreamException e) {
+                throw failure(file, e);
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * Finds the elements of a report by path, in any order. The report is read forward and read again from its start
+     * when the element is before the current position: the elements of the reports of several runs are usually in
+     * the same order, so each report is read about once.
+     */
+    static final class PathCursor implements Closeable {
+
+        private final File file;
+        private EventReader reader;
+
+        PathCursor(File file) {
+            this.file = file;
+        }
+
+        /**
+         * Reads up to the start of the child of the root element with the given key.
+         *
+         * @param key the key, see {@link #pathKey(StartElement)}
+         * @return the reader, positioned on the content of the element
+         * @throws IOException if the report can't be read or has no such element
+         */
+        EventReader find(String key) throws IOException {
+            try {
+                for (int pass = 0; pass < 2; pass++) {
+                    if (reader == null) {
+                        reader = read(file);
+                        reader.root();
+                    }
+                    for (XMLEvent event = reader.nextChild(); event != null; event = reader.nextChild()) {
+                        if (event.isStartElement()) {
+                            if (key.equals(pathKey(event.asStartElement()))) {
+                                return reader;
+                            }
+                            reader.skip();
+                        }
+                    }
+                    close();
+                }
+            } catch (XMLStreamException e) {
+                throw failure(file, e);
+            }
+            throw new IOException("No element " + key + " in the report " + file);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (reader != null) {
+                reader.close();
+                reader = null;
+            }
+        }
+    }
+}
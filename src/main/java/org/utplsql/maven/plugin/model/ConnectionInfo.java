@@ -0,0 +1,69 @@
+package org.utplsql.maven.plugin.model;
+
+import static org.utplsql.maven.plugin.util.StringUtil.isEmpty;
+
+/**
+ * Immutable database connection parameters of one execution.
+ */
+public final class ConnectionInfo {
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    /**
+     * Creates the connection parameters.
+     *
+     * @param url      the database url
+     * @param user     the database user
+     * @param password the database password
+     */
+    public ConnectionInfo(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    /**
+     * Creates the connection parameters, falling back to the {@code dbUrl}, {@code dbUser} and {@code dbPass}
+     * system properties for the ones that are not set.
+     *
+     * @param url      the database url
+     * @param user     the database user
+     * @param password the database password
+     * @return the resolved {@link ConnectionInfo}
+     */
+    public static ConnectionInfo resolve(String url, String user, String password) {
+        return new ConnectionInfo(
+                isEmpty(url) ? System.getProperty("dbUrl") : url,
+                isEmpty(user) ? System.getProperty("dbUser") : user,
+                isEmpty(password) ? System.getProperty("dbPass") : password);
+    }
+
+    /**
+     * Returns the database url.
+     *
+     * @return the database url
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Returns the database user.
+     *
+     * @return the database user
+     */
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * Returns the database password.
+     *
+     * @return the database password
+     */
+    public String getPassword() {
+        return password;
+    }
+}
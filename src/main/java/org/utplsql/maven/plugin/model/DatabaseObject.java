@@ -0,0 +1,76 @@
+package org.utplsql.maven.plugin.model;
+
+import java.util.Objects;
+
+/**
+ * A database object, identified by its owner, name and type.
+ */
+public final class DatabaseObject {
+
+    private final String owner;
+    private final String name;
+    private final String type;
+
+    /**
+     * Constructor of the object.
+     *
+     * @param owner the object owner
+     * @param name  the object name
+     * @param type  the object type, e.g. {@code PACKAGE BODY}
+     */
+    public DatabaseObject(String owner, String name, String type) {
+        this.owner = owner;
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * Returns the object owner.
+     *
+     * @return the owner
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Returns the object name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the object type.
+     *
+     * @return the type
+     */
+    public String getType() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DatabaseObject)) {
+            return false;
+        }
+        DatabaseObject other = (DatabaseObject) o;
+        return Objects.equals(owner, other.owner) && Objects.equals(name, other.name)
+                && Objects.equals(type, other.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(owner, name, type);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + owner + "." + name;
+    }
+}
@@ -0,0 +1,93 @@
+package org.utplsql.maven.plugin.model;
+
+/**
+ * Represents a database target in the pom file, the tests run against every target.
+ *
+ * {@code
+ * <target>
+ *     <name>...</name>
+ *     <url>...</url>
+ *     <user>...</user>
+ *     <password>...</password>
+ * </target>
+ * }
+ */
+public class DatabaseTarget {
+
+    private String name;
+    private String url;
+    private String user;
+    private String password;
+
+    /**
+     * Returns the target name, used in the log and as output subdirectory.
+     *
+     * @return the target name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the target name.
+     *
+     * @param name the target name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the database url.
+     *
+     * @return the database url
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Sets the database url.
+     *
+     * @param url the database url
+     */
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    /**
+     * Returns the database user.
+     *
+     * @return the database user, or {@code null} to use the plugin one
+     */
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * Sets the database user.
+     *
+     * @param user the database user
+     */
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+    /**
+     * Returns the database password.
+     *
+     * @return the database password, or {@code null} to use the plugin one
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Sets the database password.
+     *
+     * @param password the database password
+     */
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
@@ -0,0 +1,77 @@
+package org.utplsql.maven.plugin.model;
+
+/**
+ * The database object a source or test file is mapped to.
+ */
+public final class FileMapping {
+
+    private final String filePath;
+    private final String objectOwner;
+    private final String objectName;
+    private final String objectType;
+
+    /**
+     * Creates the mapping.
+     *
+     * @param filePath    the file path, relative to the project base directory
+     * @param objectOwner the object owner, {@code null} for the schema of the connection
+     * @param objectName  the object name
+     * @param objectType  the object type, e.g. {@code PACKAGE BODY}, {@code null} if unknown
+     */
+    public FileMapping(String filePath, String objectOwner, String objectName, String objectType) {
+        this.filePath = filePath;
+        this.objectOwner = objectOwner;
+        this.objectName = objectName;
+        this.objectType = objectType;
+    }
+
+    /**
+     * Returns the file path.
+     *
+     * @return the file path
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Returns the object owner.
+     *
+     * @return the object owner, {@code null} for the schema of the connection
+     */
+    public String getObjectOwner() {
+        return objectOwner;
+    }
+
+    /**
+     * Returns the object name.
+     *
+     * @return the object name
+     */
+    public String getObjectName() {
+        return objectName;
+    }
+
+    /**
+     * Returns the object type.
+     *
+     * @return the object type, {@code null} if unknown
+     */
+    public String getObjectType() {
+        return objectType;
+    }
+
+    /**
+     * Returns the object name, qualified with its owner when known.
+     *
+     * @return {@code [owner.]name}
+     */
+    public String getQualifiedName() {
+        return objectOwner == null ? objectName : objectOwner + "." + objectName;
+    }
+
+    @Override
+    public String toString() {
+        return filePath + " -> " + (objectType == null ? "" : objectType + " ") + getQualifiedName();
+    }
+}
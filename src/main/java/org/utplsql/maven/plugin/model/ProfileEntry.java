@@ -0,0 +1,105 @@
+package org.utplsql.maven.plugin.model;
+
+/**
+ * Time spent in a PL/SQL subprogram, or in a whole program unit when the profiler has no subprogram
+ * information.
+ */
+public final class ProfileEntry {
+
+    private final String owner;
+    private final String unit;
+    private final String subprogram;
+    private final long calls;
+    private final long selfMicros;
+    private final long totalMicros;
+
+    /**
+     * Constructor of the entry.
+     *
+     * @param owner       the unit owner
+     * @param unit        the program unit name
+     * @param subprogram  the subprogram name, or {@code null} for a whole unit
+     * @param calls       the number of calls, or of executed lines for a whole unit
+     * @param selfMicros  the time spent in the subprogram itself, in microseconds
+     * @param totalMicros the time spent in the subprogram and its callees, in microseconds
+     */
+    public ProfileEntry(String owner, String unit, String subprogram, long calls, long selfMicros, long totalMicros) {
+        this.owner = owner;
+        this.unit = unit;
+        this.subprogram = subprogram;
+        this.calls = calls;
+        this.selfMicros = selfMicros;
+        this.totalMicros = totalMicros;
+    }
+
+    /**
+     * Returns the unit owner.
+     *
+     * @return the unit owner
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Returns the program unit name.
+     *
+     * @return the unit name
+     */
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Returns the subprogram name.
+     *
+     * @return the subprogram name, {@code null} for a whole unit
+     */
+    public String getSubprogram() {
+        return subprogram;
+    }
+
+    /**
+     * Returns the number of calls.
+     *
+     * @return the number of calls, or of executed lines for a whole unit
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Returns the time spent in the subprogram itself.
+     *
+     * @return the time in microseconds
+     */
+    public long getSelfMicros() {
+        return selfMicros;
+    }
+
+    /**
+     * Returns the time spent in the subprogram and its callees.
+     *
+     * @return the time in microseconds
+     */
+    public long getTotalMicros() {
+        return totalMicros;
+    }
+
+    /**
+     * Returns the qualified name, e.g. {@code APP.PKG.PROC}.
+     *
+     * @return the qualified name
+     */
+    public String getQualifiedName() {
+        StringBuilder name = new StringBuilder();
+        if (owner != null) {
+            name.append(owner).append('.');
+        }
+        name.append(unit);
+        if (subprogram != null && !subprogram.equals(unit)) {
+            name.append('.').append(subprogram);
+        }
+        return name.toString();
+    }
+}
@@ -10,6 +10,8 @@ import static org.utplsql.maven.plugin.util.StringUtil.isNotBlank;
  *     <name>...</name>
  *     <fileOutput>...</fileOutput>
  *     <consoleOutput>...</consoleOutput>
+ *     <splitBy>...</splitBy>
+ *     <splitSize>...</splitSize>
  * </reporter>
  * }
  *
@@ -20,6 +22,8 @@ public class ReporterParameter {
     private String name;
     private String fileOutput;
     private Boolean consoleOutput;
+    private String splitBy;
+    private Integer splitSize;
 
     /**
      * Returns the reporter name.
@@ -57,6 +61,15 @@ public class ReporterParameter {
         return isNotBlank(fileOutput);
     }
 
+    /**
+     * Returns whether the reporter is a coverage reporter.
+     *
+     * @return true if the reporter name contains {@code COVERAGE}, false otherwise
+     */
+    public boolean isCoverage() {
+        return name != null && name.toUpperCase().contains("COVERAGE");
+    }
+
     /**
      * Sets the output file.
      *
@@ -92,4 +105,49 @@ public class ReporterParameter {
     public void setConsoleOutput(boolean consoleOutput) {
         this.consoleOutput = consoleOutput;
     }
+
+    /**
+     * Returns how the file output is split: {@code schema}, {@code object} or {@code size}.
+     *
+     * @return the split mode, or {@code null} if the output is a single file
+     */
+    public String getSplitBy() {
+        return splitBy;
+    }
+
+    /**
+     * Returns whether the file output is split.
+     *
+     * @return true if the file output is split, false otherwise
+     */
+    public boolean isSplit() {
+        return isFileOutput() && isNotBlank(splitBy);
+    }
+
+    /**
+     * Sets how the file output is split.
+     *
+     * @param splitBy the split mode
+     */
+    public void setSplitBy(String splitBy) {
+        this.splitBy = splitBy;
+    }
+
+    /**
+     * Returns the maximum size of a file when the output is split by size.
+     *
+     * @return the size in megabytes, or {@code null} for the default
+     */
+    public Integer getSplitSize() {
+        return splitSize;
+    }
+
+    /**
+     * Sets the maximum size of a file when the output is split by size.
+     *
+     * @param splitSize the size in megabytes
+     */
+    public void setSplitSize(Integer splitSize) {
+        this.splitSize = splitSize;
+    }
 }
@@ -0,0 +1,142 @@
+package org.utplsql.maven.plugin.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Lists the files changed in a git working tree compared to a base ref, by running the {@code git} command.
+ */
+public final class GitDiff {
+
+    private static final Pattern HUNK = Pattern.compile("@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@");
+
+    private GitDiff() {
+    }
+
+    /**
+     * Returns the files changed since a base ref: committed, staged and unstaged changes, and untracked files.
+     *
+     * @param directory the directory to list the changes of
+     * @param baseRef   the base ref, e.g. {@code origin/main}
+     * @return the changed file paths, relative to the directory
+     * @throws IOException if git can't be run or fails
+     */
+    public static Set<String> changedFiles(File directory, String baseRef) throws IOException {
+        Set<String> changed = new LinkedHashSet<>(git(directory, "diff", "--name-only", "--relative", baseRef, "--"));
+        changed.addAll(git(directory, "ls-files", "--others", "--exclude-standard"));
+        return changed;
+    }
+
+    /**
+     * Returns the lines changed since a base ref: committed, staged and unstaged changes, and all the lines of
+     * untracked files. Deleted lines are not reported.
+     *
+     * @param directory the directory to list the changes of
+     * @param baseRef   the base ref, e.g. {@code origin/main}
+     * @return the changed line numbers, starting at 1, by file path relative to the directory
+     * @throws IOException if git can't be run or fails
+     */
+    public static Map<String, BitSet> changedLines(File directory, String baseRef) throws IOException {
+        Map<String, BitSet> changed = new LinkedHashMap<>();
+        BitSet lines = null;
+        boolean header = false;
+        for (String line : git(directory, "-c", "core.quotePath=false", "diff", "-U0", "--no-color",
+                "--no-ext-diff", "--relative", baseRef, "--")) {
+            // Content lines can look like headers, e.g. a deleted SQL comment, headers are only read before hunks.
+            if (line.startsWith("diff --git ")) {
+                header = true;
+                lines = null;
+            } else if (header && line.startsWith("+++ ")) {
+                String path = line.substring(4);
+                lines = "/dev/null".equals(path) ? null
+                        : changed.computeIfAbsent(path.startsWith("b/") ? path.substring(2) : path, key -> new BitSet());
+            } else if (line.startsWith("@@")) {
+                header = false;
+                Matcher hunk = HUNK.matcher(line);
+                if (lines != null && hunk.lookingAt()) {
+                    int start = Integer.parseInt(hunk.group(1));
+                    int count = hunk.group(2) == null ? 1 : Integer.parseInt(hunk.group(2));
+                    lines.set(start, start + count);
+                }
+            }
+        }
+        for (String path : git(directory, "ls-files", "--others", "--exclude-standard")) {
+            File file = new File(directory, path);
+            if (file.isFile()) {
+                BitSet all = new BitSet();
+                try (Stream<String> fileLines = Files.lines(file.toPath(), StandardCharsets.ISO_8859_1)) {
+                    all.set(1, (int) fileLines.count() + 1);
+                }
+                changed.put(path, all);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Runs a git command.
+     *
+     * @param directory the working directory
+     * @param arguments the git arguments
+     * @return the output lines
+     * @throws IOException if git can't be run or exits with an error
+     */
+    public static List<String> git(File directory, String... arguments) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(arguments));
+
+        Process process = new ProcessBuilder(command)
+                .directory(directory)
+                .redirectErrorStream(true)
+                .start();
+        String output;
+        try (InputStream inputStream = process.getInputStream()) {
+            output = read(inputStream);
+        }
+        try {
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IOException(String.format("%s failed with exit code %d: %s",
+                        String.join(" ", command), exitCode, output.trim()));
+            }
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running " + String.join(" ", command), e);
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (String line : output.split("\\R")) {
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,107 @@
+package org.utplsql.maven.plugin.util;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * A {@link Log} prefixing every message, to tell apart the output of executions running concurrently.
+ */
+public class PrefixedLog implements Log {
+
+    private final String prefix;
+    private final Log log;
+
+    /**
+     * Constructor of the log.
+     *
+     * @param prefix the prefix of the messages
+     * @param log    the log to write to
+     */
+    public PrefixedLog(String prefix, Log log) {
+        this.prefix = prefix;
+        this.log = log;
+    }
+
+    private CharSequence prefix(CharSequence content) {
+        return prefix + content;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return log.isDebugEnabled();
+    }
+
+    @Override
+    public void debug(CharSequence content) {
+        log.debug(prefix(content));
+    }
+
+    @Override
+    public void debug(CharSequence content, Throwable error) {
+        log.debug(prefix(content), error);
+    }
+
+    @Override
+    public void debug(Throwable error) {
+        log.debug(prefix(String.valueOf(error)), error);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return log.isInfoEnabled();
+    }
+
+    @Override
+    public void info(CharSequence content) {
+        log.info(prefix(content));
+    }
+
+    @Override
+    public void info(CharSequence content, Throwable error) {
+        log.info(prefix(content), error);
+    }
+
+    @Override
+    public void info(Throwable error) {
+        log.info(prefix(String.valueOf(error)), error);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return log.isWarnEnabled();
+    }
+
+    @Override
+    public void warn(CharSequence content) {
+        log.warn(prefix(content));
+    }
+
+    @Override
+    public void warn(CharSequence content, Throwable error) {
+        log.warn(prefix(content), error);
+    }
+
+    @Override
+    public void warn(Throwable error) {
+        log.warn(prefix(String.valueOf(error)), error);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return log.isErrorEnabled();
+    }
+
+    @Override
+    public void error(CharSequence content) {
+        log.error(prefix(content));
+    }
+
+    @Override
+    public void error(CharSequence content, Throwable error) {
+        log.error(prefix(content), error);
+    }
+
+    @Override
+    public void error(Throwable error) {
+        log.error(prefix(String.valueOf(error)), error);
+    }
+}
@@ -0,0 +1,363 @@
+package org.utplsql.maven.plugin;
+
+import org.utplsql.api.outputBuffer.OutputBuffer;
+import org.utplsql.api.reporter.CoreReporters;
+import org.utplsql.api.reporter.DefaultReporter;
+import org.utplsql.api.reporter.Reporter;
+import org.utplsql.maven.plugin.db.OutputBufferSource;
+
+import java.io.PrintStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+
+/**
+ * A stand-in for the database in the plugin tests. Its connections accept any statement and return empty
+ * results, its reporters produce output of the volume of a real run: {@code suites} suites of
+ * {@code testsPerSuite} tests, and coverage of every covered file. The output is fetched in chunks of
+ * {@code fetchSize} lines, each chunk taking {@code fetchLatencyMillis}.
+ */
+class SimulatedDatabase {
+
+    private static final int LINES_TO_COVER = 40;
+
+    private final int suites;
+    private final int testsPerSuite;
+    private final int fetchSize;
+    private final long fetchLatencyMillis;
+    private final List<String> coveredFiles = new ArrayList<>();
+    private final Map<Reporter, String> reporterNames = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private volatile String lastDdlTime = "2021-10-01T12:00:00";
+    private volatile List<String> lastRunSuites = Collections.emptyList();
+    private volatile boolean failRuns;
+    private final Map<String, Long> fetchDelays = new ConcurrentHashMap<>();
+
+    SimulatedDatabase(int suites, int testsPerSuite, int fetchSize, long fetchLatencyMillis) {
+        this.suites = suites;
+        this.testsPerSuite = testsPerSuite;
+        this.fetchSize = fetchSize;
+        this.fetchLatencyMillis = fetchLatencyMillis;
+    }
+
+    /**
+     * Sets the files reported by the coverage reporters.
+     */
+    SimulatedDatabase coverFiles(List<String> paths) {
+        coveredFiles.addAll(paths);
+        return this;
+    }
+
+    /**
+     * Delays the output of a reporter: its first line is only fetched after {@code delayMillis}.
+     */
+    SimulatedDatabase delayOutput(CoreReporters reporter, long delayMillis) {
+        fetchDelays.put(reporter.name(), delayMillis);
+        return this;
+    }
+
+    /**
+     * Sets the last DDL time of the schemas, as if an object was changed outside of the build.
+     */
+    void setLastDdlTime(String lastDdlTime) {
+        this.lastDdlTime = lastDdlTime;
+    }
+
+    /**
+     * Makes the runs fail, as if the session was killed.
+     */
+    void failRuns(boolean fail) {
+        this.failRuns = fail;
+    }
+
+    /**
+     * Runs the tests of the paths: the suites of a schema in their natural order, the packages in the given order.
+     * Without paths, the tests of the {@code app} schema run.
+     */
+    void run(List<String> paths) throws SQLException {
+        if (failRuns) {
+            throw new SQLException("ORA-00028: your session has been killed");
+        }
+        List<String> runSuites = new ArrayList<>();
+        for (String path : paths.isEmpty() ? Collections.singletonList("app") : paths) {
+            String name = path.trim().toLowerCase(Locale.ROOT);
+            if (name.contains(".")) {
+                runSuites.add(name);
+            } else {
+                for (int suite = 0; suite < suites; suite++) {
+                    runSuites.add(name + ".test_pkg_" + suite);
+                }
+            }
+        }
+        lastRunSuites = runSuites;
+    }
+
+    /**
+     * Returns the suites of the last run, in the order they ran.
+     */
+    List<String> getLastRunSuites() {
+        return lastRunSuites;
+    }
+
+    Connection connect() {
+        connections.incrementAndGet();
+        return proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "createStatement":
+                    return statement(Statement.class);
+                case "prepareStatement":
+                    String sql = (String) args[0];
+                    if (sql.contains("last_ddl_time")) {
+                        return singleRow(lastDdlTime, suites);
+                    } else if (sql.contains("sys_context('USERENV', 'SID')")) {
+                        return singleRow(null, 1);
+                    }
+                    return statement(PreparedStatement.class);
+                case "prepareCall":
+                    return statement(CallableStatement.class);
+                case "isValid":
+                    return true;
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy);
+                case "unwrap":
+                    return proxy;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Returns how many times a statement was executed, over all connections.
+     */
+    int countExecutions(String sql) {
+        synchronized (executed) {
+            return (int) executed.stream().filter(sql::equals).count();
+        }
+    }
+
+    /**
+     * Returns whether a reporter of the given name was created.
+     */
+    boolean hasReporter(String name) {
+        return reporterNames.containsValue(name);
+    }
+
+    Reporter createReporter(String name) {
+        Reporter reporter = new DefaultReporter(name, null);
+        reporterNames.put(reporter, name);
+        return reporter;
+    }
+
+    OutputBufferSource outputBuffers() {
+        return (reporter, connection) -> new SimulatedOutputBuffer(reporter);
+    }
+
+    private void produce(String reporterName, Consumer<String> output) {
+        if (CoreReporters.UT_TEAMCITY_REPORTER.name().equals(reporterName)) {
+            forEachTest(suite -> output.accept(format("##teamcity[testSuiteStarted timestamp='2021-10-01T12:00:00.000+0000' name='%s']", suite)),
+                    test -> {
+                        output.accept(format("##teamcity[testStarted timestamp='2021-10-01T12:00:00.000+0000' captureStandardOutput='true' name='%s']", test));
+                        output.accept(format("##teamcity[testFinished timestamp='2021-10-01T12:00:00.002+0000' duration='2' name='%s']", test));
+                    },
+                    suite -> output.accept(format("##teamcity[testSuiteFinished timestamp='2021-10-01T12:00:00.100+0000' name='%s']", suite)));
+        } else if (CoreReporters.UT_COVERAGE_SONAR_REPORTER.name().equals(reporterName)) {
+            output.accept("<coverage version=\"1\">");
+            for (String file : coveredFiles) {
+                output.accept(format("<file path=\"%s\">", file));
+                for (int line = 1; line <= LINES_TO_COVER; line++) {
+                    output.accept(format("<lineToCover lineNumber=\"%d\" covered=\"%b\"/>", line, line % 4 != 0));
+                }
+                output.accept("</file>");
+            }
+            output.accept("</coverage>");
+        } else if (CoreReporters.UT_SONAR_TEST_REPORTER.name().equals(reporterName)) {
+            output.accept("<testExecutions version=\"1\">");
+            forEachTest(suite -> output.accept(format("<file path=\"%s\">", suite)),
+                    test -> output.accept(format("<testCase name=\"%s\" duration=\"2\"/>", test)),
+                    suite -> output.accept("</file>"));
+            output.accept("</testExecutions>");
+        } else {
+            output.accept("<testsuites tests=\"" + suites * testsPerSuite + "\">");
+            forEachTest(suite -> output.accept(format("<testsuite tests=\"%d\" name=\"%s\">", testsPerSuite, suite)),
+                    test -> output.accept(format("<testcase name=\"%s\" time=\".002\" status=\"Success\"/>", test)),
+                    suite -> output.accept("</testsuite>"));
+            output.accept("</testsuites>");
+        }
+    }
+
+    private void forEachTest(Consumer<String> suiteStarted, Consumer<String> test, Consumer<String> suiteFinished) {
+        for (int suite = 0; suite < suites; suite++) {
+            String suitePath = "app.test_pkg_" + suite;
+            suiteStarted.accept(suitePath);
+            for (int i = 0; i < testsPerSuite; i++) {
+                test.accept(suitePath + ".test_" + i);
+            }
+            suiteFinished.accept(suitePath);
+        }
+    }
+
+    private <T> T statement(Class<T> type) {
+        return proxy(type, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "execute":
+                    if (args != null && args.length > 0 && args[0] instanceof String) {
+                        executed.add((String) args[0]);
+                    }
+                    return false;
+                case "executeQuery":
+                case "getResultSet":
+                    return proxy(ResultSet.class, (resultSet, resultSetMethod, resultSetArgs) ->
+                            defaultValue(resultSetMethod.getReturnType()));
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    /**
+     * Returns a query of one row, whose string columns are {@code text} and number columns {@code number}: the
+     * last DDL time and the object count of the schemas, or the id of the session.
+     */
+    private PreparedStatement singleRow(String text, long number) {
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            if (!"executeQuery".equals(method.getName())) {
+                return defaultValue(method.getReturnType());
+            }
+            AtomicInteger rows = new AtomicInteger(1);
+            return proxy(ResultSet.class, (resultSet, resultSetMethod, resultSetArgs) -> {
+                switch (resultSetMethod.getName()) {
+                    case "next":
+                        return rows.getAndDecrement() > 0;
+                    case "getString":
+                        return text;
+                    case "getLong":
+                        return number;
+                    case "getInt":
+                        return (int) number;
+                    default:
+                        return defaultValue(resultSetMethod.getReturnType());
+                }
+            });
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SimulatedDatabase.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        switch (method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                        }
+                    }
+                    return handler.invoke(proxy, method, args);
+                }));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == double.class) {
+            return 0d;
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == char.class) {
+            return '\0';
+        }
+        return null;
+    }
+
+    private class SimulatedOutputBuffer implements OutputBuffer {
+
+        private final Reporter reporter;
+
+        private SimulatedOutputBuffer(Reporter reporter) {
+            this.reporter = reporter;
+        }
+
+        @Override
+        public Reporter getReporter() {
+            return reporter;
+        }
+
+        @Override
+        public OutputBuffer setFetchSize(int fetchSize) {
+            return this;
+        }
+
+        @Override
+        public void printAvailable(Connection connection, PrintStream printStream) {
+            printAvailable(connection, Collections.singletonList(printStream));
+        }
+
+        @Override
+        public void printAvailable(Connection connection, List<PrintStream> printStreams) {
+            fetchAvailable(connection, line -> printStreams.forEach(printStream -> printStream.println(line)));
+        }
+
+        @Override
+        public void fetchAvailable(Connection connection, Consumer<String> onLineFetched) {
+            String reporterName = reporterNames.get(reporter);
+            sleep(fetchDelays.getOrDefault(reporterName, 0L));
+            int[] fetched = {0};
+            produce(reporterName, line -> {
+                if (fetched[0]++ % fetchSize == 0) {
+                    sleep(fetchLatencyMillis);
+                }
+                onLineFetched.accept(line);
+            });
+        }
+
+        @Override
+        public List<String> fetchAll(Connection connection) {
+            List<String> lines = new ArrayList<>();
+            fetchAvailable(connection, lines::add);
+            return lines;
+        }
+
+        private void sleep(long millis) {
+            if (millis == 0) {
+                return;
+            }
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.utplsql.maven.plugin;
+
+import org.utplsql.api.FileMapperOptions;
+import org.utplsql.api.TestRunner;
+import org.utplsql.api.Version;
+import org.utplsql.api.reporter.Reporter;
+import org.utplsql.api.reporter.ReporterFactory;
+import org.utplsql.maven.plugin.db.OutputBufferSource;
+import org.utplsql.maven.plugin.model.ConnectionInfo;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The plugin running against a {@link SimulatedDatabase}, the tests take {@code runLatencyMillis} unless the run
+ * is cancelled.
+ */
+class SimulatedDatabaseMojo extends UtPlsqlMojo {
+
+    private final SimulatedDatabase database;
+    private final long runLatencyMillis;
+    private final AtomicInteger runs = new AtomicInteger();
+    private final Map<TestRunner, List<String>> runnerPaths = Collections.synchronizedMap(new IdentityHashMap<>());
+    private volatile Thread runThread;
+    private volatile List<File> writtenReports = Collections.emptyList();
+
+    SimulatedDatabaseMojo(SimulatedDatabase database, long runLatencyMillis) {
+        this.database = database;
+        this.runLatencyMillis = runLatencyMillis;
+    }
+
+    int getRunCount() {
+        return runs.get();
+    }
+
+    List<File> getWrittenReports() {
+        return writtenReports;
+    }
+
+    @Override
+    void reportsWritten(List<File> reports) {
+        writtenReports = reports;
+    }
+
+    @Override
+    Connection createConnection(ConnectionInfo connectionInfo) {
+        return database.connect();
+    }
+
+    @Override
+    Version getFrameworkVersion(Connection connection) {
+        return Version.create("3.1.11");
+    }
+
+    @Override
+    OutputBufferSource createOutputBufferSource(Version utlVersion) {
+        return database.outputBuffers();
+    }
+
+    @Override
+    Reporter createReporter(ReporterFactory reporterFactory, String name, Connection connection) {
+        return database.createReporter(name);
+    }
+
+    @Override
+    TestRunner createTestRunner(List<String> runPaths, List<Reporter> reporterList, Set<String> runTags,
+                                FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions) {
+        TestRunner runner = super.createTestRunner(runPaths, reporterList, runTags, sourceMappingOptions,
+                testMappingOptions);
+        runnerPaths.put(runner, new ArrayList<>(runPaths));
+        return runner;
+    }
+
+    @Override
+    void runTests(TestRunner runner, Connection connection) throws SQLException {
+        runs.incrementAndGet();
+        database.run(runnerPaths.remove(runner));
+        runThread = Thread.currentThread();
+        try {
+            Thread.sleep(runLatencyMillis);
+        } catch (InterruptedException e) {
+            throw new SQLException("ORA-01013: user requested cancel of current operation");
+        } finally {
+            runThread = null;
+        }
+    }
+
+    @Override
+    void cancel(Connection connection) {
+        Thread thread = runThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
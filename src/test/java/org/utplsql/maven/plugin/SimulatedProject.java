@@ -0,0 +1,132 @@
+package org.utplsql.maven.plugin;
+
+import org.apache.maven.project.MavenProject;
+import org.utplsql.api.reporter.CoreReporters;
+import org.utplsql.maven.plugin.model.DatabaseTarget;
+import org.utplsql.maven.plugin.model.ReporterParameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * A project of {@code sourceFiles} package bodies and {@code testPackages} test packages in a directory, whose
+ * tests run against a {@link SimulatedDatabase} of {@code testPackages} suites of {@code testsPerPackage} tests.
+ */
+final class SimulatedProject {
+
+    private final File projectDir;
+    private final int testCount;
+    private final List<String> sourcePaths = new ArrayList<>();
+    private final SimulatedDatabase database;
+
+    SimulatedProject(File projectDir, int sourceFiles, int testPackages, int testsPerPackage) throws IOException {
+        this.projectDir = projectDir;
+        this.testCount = testPackages * testsPerPackage;
+        String body = String.join("\n", "create or replace package body pkg as",
+                "  procedure run is", "  begin", "    null;", "  end;", "end;", "/");
+        for (int i = 0; i < sourceFiles; i++) {
+            String path = format("src/main/plsql/app/pkg_%d.pkb", i);
+            write(path, body.replace("pkg", "pkg_" + i));
+            sourcePaths.add(path);
+        }
+        for (int i = 0; i < testPackages; i++) {
+            write(format("src/test/plsql/app/test_pkg_%d.pkg", i), body.replace("pkg", "test_pkg_" + i));
+        }
+        write("pom.xml", "<project/>");
+
+        database = new SimulatedDatabase(testPackages, testsPerPackage, 1000, 1).coverFiles(sourcePaths);
+    }
+
+    SimulatedDatabase getDatabase() {
+        return database;
+    }
+
+    /**
+     * Returns the number of tests of a run.
+     */
+    int getTestCount() {
+        return testCount;
+    }
+
+    SimulatedDatabaseMojo createMojo(long runLatencyMillis) {
+        return configure(new SimulatedDatabaseMojo(database, runLatencyMillis));
+    }
+
+    /**
+     * Configures a mojo with the project, the connection and the JUnit, Sonar test and Sonar coverage reporters.
+     */
+    <T extends UtPlsqlMojo> T configure(T mojo) {
+        mojo.project = new MavenProject();
+        mojo.project.setFile(new File(projectDir, "pom.xml"));
+        mojo.targetDir = new File(projectDir, "target").getAbsolutePath();
+        mojo.url = "jdbc:oracle:thin:@simulated:1521/" + projectDir.getName();
+        mojo.user = "APP";
+        mojo.password = "app";
+        mojo.oraStuckTimeout = 0;
+        mojo.maxConcurrentExecutionsPerSchema = 1;
+        mojo.preflightCheck = true;
+        mojo.testHistoryFile = new File(projectDir, "target/utplsql/test-history.tsv");
+        mojo.cacheDirectory = new File(projectDir, "target/utplsql/run-cache");
+        mojo.reporters.addAll(Arrays.asList(
+                reporter(CoreReporters.UT_JUNIT_REPORTER, "junit-report.xml"),
+                reporter(CoreReporters.UT_SONAR_TEST_REPORTER, "sonar-test-report.xml"),
+                reporter(CoreReporters.UT_COVERAGE_SONAR_REPORTER, "coverage-sonar-report.xml")));
+        return mojo;
+    }
+
+    /**
+     * Returns the paths of the first test packages.
+     */
+    List<String> testPackages(int count) {
+        List<String> packages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            packages.add("app.test_pkg_" + i);
+        }
+        return packages;
+    }
+
+    DatabaseTarget target(String name) {
+        DatabaseTarget target = new DatabaseTarget();
+        target.setName(name);
+        target.setUrl("jdbc:oracle:thin:@" + name + ":1521/" + projectDir.getName());
+        return target;
+    }
+
+    File file(String path) {
+        return new File(projectDir, path);
+    }
+
+    String read(String path) throws IOException {
+        return new String(Files.readAllBytes(file(path).toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the number of report parts left in the target directory.
+     */
+    int countReportParts() {
+        File[] parts = file("target").listFiles((dir, name) -> name.contains(".part"));
+        return parts == null ? 0 : parts.length;
+    }
+
+    void write(String path, String content) throws IOException {
+        File file = file(path);
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ReporterParameter reporter(CoreReporters name, String fileOutput) {
+        ReporterParameter reporter = new ReporterParameter();
+        reporter.setName(name.name());
+        reporter.setFileOutput(fileOutput);
+        reporter.setConsoleOutput(false);
+        return reporter;
+    }
+}
@@ -0,0 +1,51 @@
+package org.utplsql.maven.plugin;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Base of the tests running the plugin against a {@link SimulatedProject}, created for each test in a temporary
+ * directory. Each test class sizes the project to what it checks.
+ */
+abstract class SimulatedProjectTest {
+
+    @TempDir
+    File tempDir;
+
+    SimulatedProject project;
+
+    private final int sourceFiles;
+    private final int testPackages;
+    private final int testsPerPackage;
+
+    /**
+     * Constructor of the SimulatedProjectTest.
+     *
+     * @param sourceFiles     the number of package bodies of the project
+     * @param testPackages    the number of test packages, and suites of the database
+     * @param testsPerPackage the number of tests of each suite
+     */
+    SimulatedProjectTest(int sourceFiles, int testPackages, int testsPerPackage) {
+        this.sourceFiles = sourceFiles;
+        this.testPackages = testPackages;
+        this.testsPerPackage = testsPerPackage;
+    }
+
+    @BeforeEach
+    void createProject() throws IOException {
+        project = createProject("project");
+    }
+
+    /**
+     * Creates a project of the size of the test class in a directory of the temporary directory.
+     *
+     * @param name the name of the directory, also the service name of the connection url
+     * @return the project
+     */
+    SimulatedProject createProject(String name) throws IOException {
+        return new SimulatedProject(new File(tempDir, name), sourceFiles, testPackages, testsPerPackage);
+    }
+}
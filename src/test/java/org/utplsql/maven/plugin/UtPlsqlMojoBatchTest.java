@@ -0,0 +1,68 @@
+package org.utplsql.maven.plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Test;
+import org.utplsql.api.TestRunner;
+import org.utplsql.maven.plugin.io.BatchProgress;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the suites in batches against a {@link SimulatedDatabase}.
+ */
+class UtPlsqlMojoBatchTest extends SimulatedProjectTest {
+
+    UtPlsqlMojoBatchTest() {
+        super(2, 10, 2);
+    }
+
+    @Test
+    void batches_run_in_sequence_and_their_reports_are_merged() throws Exception {
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.paths.addAll(project.testPackages(10));
+        mojo.batchSize = 4;
+        mojo.execute();
+
+        assertEquals(3, mojo.getRunCount());
+        assertTrue(project.read("target/junit-report.xml")
+                .contains(format("tests=\"%d\"", 3 * project.getTestCount())));
+        assertEquals(0, project.countReportParts());
+        assertFalse(project.file("target/" + BatchProgress.FILE_NAME).exists());
+    }
+
+    @Test
+    void interrupted_batches_are_resumed() throws Exception {
+        SimulatedDatabaseMojo crashing = project.configure(new SimulatedDatabaseMojo(project.getDatabase(), 0) {
+            @Override
+            void runTests(TestRunner runner, Connection connection) throws SQLException {
+                if (getRunCount() == 2) {
+                    throw new SQLException("ORA-04030: out of process memory");
+                }
+                super.runTests(runner, connection);
+            }
+        });
+        crashing.paths.addAll(project.testPackages(10));
+        crashing.batchSize = 4;
+        assertThrows(MojoExecutionException.class, crashing::execute);
+        assertTrue(project.file("target/" + BatchProgress.FILE_NAME).isFile());
+
+        SimulatedDatabaseMojo resumed = project.createMojo(0);
+        resumed.paths.addAll(project.testPackages(10));
+        resumed.batchSize = 4;
+        resumed.resumeBatches = true;
+        resumed.execute();
+
+        assertEquals(1, resumed.getRunCount());
+        assertTrue(project.read("target/junit-report.xml")
+                .contains(format("tests=\"%d\"", 3 * project.getTestCount())));
+        assertEquals(0, project.countReportParts());
+        assertFalse(project.file("target/" + BatchProgress.FILE_NAME).exists());
+    }
+}
@@ -0,0 +1,94 @@
+package org.utplsql.maven.plugin;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Restores or invalidates the run cache against a {@link SimulatedDatabase}.
+ */
+class UtPlsqlMojoCacheTest extends SimulatedProjectTest {
+
+    UtPlsqlMojoCacheTest() {
+        super(2, 2, 2);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        createMojo(false).execute();
+    }
+
+    @Test
+    void unchanged_run_is_restored_without_connecting() throws Exception {
+        File report = project.file("target/junit-report.xml");
+        assertTrue(report.delete());
+        int connections = project.getDatabase().getConnectionCount();
+
+        SimulatedDatabaseMojo mojo = createMojo(false);
+        mojo.execute();
+
+        assertEquals(0, mojo.getRunCount());
+        assertEquals(connections, project.getDatabase().getConnectionCount());
+        assertTrue(report.isFile());
+    }
+
+    @Test
+    void cache_is_off_by_default() throws Exception {
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.execute();
+
+        assertEquals(1, mojo.getRunCount());
+    }
+
+    @Test
+    void database_check_reads_the_ddl_on_the_test_session() throws Exception {
+        createMojo(true).execute();
+        int connections = project.getDatabase().getConnectionCount();
+
+        SimulatedDatabaseMojo mojo = createMojo(true);
+        mojo.execute();
+
+        assertEquals(0, mojo.getRunCount());
+        assertEquals(connections + 1, project.getDatabase().getConnectionCount());
+    }
+
+    @Test
+    void objects_changed_in_the_database_force_a_run() throws Exception {
+        createMojo(true).execute();
+        project.getDatabase().setLastDdlTime("2021-10-02T08:30:00");
+
+        SimulatedDatabaseMojo mojo = createMojo(true);
+        mojo.execute();
+
+        assertEquals(1, mojo.getRunCount());
+    }
+
+    @Test
+    void user_given_as_system_property_is_part_of_the_fingerprint() throws Exception {
+        SimulatedDatabaseMojo mojo = createMojo(false);
+        mojo.user = null;
+        String previous = System.setProperty("dbUser", "OTHER");
+        try {
+            mojo.execute();
+        } finally {
+            if (previous == null) {
+                System.clearProperty("dbUser");
+            } else {
+                System.setProperty("dbUser", previous);
+            }
+        }
+
+        assertEquals(1, mojo.getRunCount());
+    }
+
+    private SimulatedDatabaseMojo createMojo(boolean databaseCheck) {
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.cache = true;
+        mojo.cacheDatabaseCheck = databaseCheck;
+        return mojo;
+    }
+}
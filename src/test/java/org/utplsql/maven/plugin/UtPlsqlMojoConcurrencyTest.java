@@ -0,0 +1,133 @@
+package org.utplsql.maven.plugin;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.utplsql.api.TestRunner;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs two executions of the plugin at the same time, like {@code mvn -T} on two modules, against a
+ * {@link SimulatedDatabase}.
+ */
+class UtPlsqlMojoConcurrencyTest extends SimulatedProjectTest {
+
+    private SimulatedProject first;
+    private SimulatedProject second;
+
+    UtPlsqlMojoConcurrencyTest() {
+        super(2, 2, 2);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        first = project;
+        second = createProject("second");
+    }
+
+    @Test
+    void executions_on_different_schemas_run_at_the_same_time() throws Exception {
+        // Each run waits for the other one to start: queued executions never get past the first run.
+        CountDownLatch started = new CountDownLatch(2);
+        SimulatedDatabaseMojo firstMojo = first.configure(new WaitingMojo(first.getDatabase(), started));
+        SimulatedDatabaseMojo secondMojo = second.configure(new WaitingMojo(second.getDatabase(), started));
+
+        executeConcurrently(firstMojo, secondMojo);
+
+        assertEquals(1, firstMojo.getRunCount());
+        assertEquals(1, secondMojo.getRunCount());
+    }
+
+    @Test
+    void executions_on_the_same_schema_are_queued() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        SimulatedDatabaseMojo firstMojo = first.configure(new CountingMojo(first.getDatabase(), running, maxRunning));
+        SimulatedDatabaseMojo secondMojo = second.configure(
+                new CountingMojo(second.getDatabase(), running, maxRunning));
+        secondMojo.url = firstMojo.url;
+
+        executeConcurrently(firstMojo, secondMojo);
+
+        assertEquals(1, maxRunning.get());
+        assertTrue(first.file("target/junit-report.xml").length() > 0);
+        assertTrue(second.file("target/junit-report.xml").length() > 0);
+    }
+
+    private static void executeConcurrently(UtPlsqlMojo... mojos) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(mojos.length);
+        try {
+            List<Future<?>> executions = new ArrayList<>();
+            for (UtPlsqlMojo mojo : mojos) {
+                executions.add(executor.submit(() -> {
+                    mojo.execute();
+                    return null;
+                }));
+            }
+            for (Future<?> execution : executions) {
+                execution.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class WaitingMojo extends SimulatedDatabaseMojo {
+
+        private final CountDownLatch started;
+
+        WaitingMojo(SimulatedDatabase database, CountDownLatch started) {
+            super(database, 0);
+            this.started = started;
+        }
+
+        @Override
+        void runTests(TestRunner runner, Connection connection) throws SQLException {
+            started.countDown();
+            try {
+                if (!started.await(30, TimeUnit.SECONDS)) {
+                    throw new SQLException("The run of the other execution did not start");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException(e);
+            }
+            super.runTests(runner, connection);
+        }
+    }
+
+    private static class CountingMojo extends SimulatedDatabaseMojo {
+
+        private final AtomicInteger running;
+        private final AtomicInteger maxRunning;
+
+        CountingMojo(SimulatedDatabase database, AtomicInteger running, AtomicInteger maxRunning) {
+            super(database, 200);
+            this.running = running;
+            this.maxRunning = maxRunning;
+        }
+
+        @Override
+        void runTests(TestRunner runner, Connection connection) throws SQLException {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                super.runTests(runner, connection);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+}
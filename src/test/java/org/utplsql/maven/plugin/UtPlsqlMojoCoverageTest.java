@@ -0,0 +1,70 @@
+package org.utplsql.maven.plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Test;
+import org.utplsql.api.TestRunner;
+import org.utplsql.api.exception.SomeTestsFailedException;
+import org.utplsql.maven.plugin.io.FailureManifest;
+import org.utplsql.maven.plugin.io.IncrementalCoverage;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the incremental coverage against a {@link SimulatedDatabase}.
+ */
+class UtPlsqlMojoCoverageTest extends SimulatedProjectTest {
+
+    private static final String CHECKSUMS = "target/" + IncrementalCoverage.CACHE_DIRECTORY + "/checksums.tsv";
+
+    UtPlsqlMojoCoverageTest() {
+        super(2, 2, 2);
+    }
+
+    @Test
+    void coverage_of_all_tiers_is_kept_for_the_next_run() throws Exception {
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.incrementalCoverage = true;
+        mojo.tagTiers.addAll(Arrays.asList("smoke", ""));
+        mojo.execute();
+
+        assertEquals(2, mojo.getRunCount());
+        assertTrue(project.file(CHECKSUMS).isFile());
+    }
+
+    @Test
+    void coverage_of_a_run_stopped_by_a_failed_tier_is_not_kept() {
+        SimulatedDatabaseMojo mojo = project.configure(new SimulatedDatabaseMojo(project.getDatabase(), 0) {
+            @Override
+            void runTests(TestRunner runner, Connection connection) throws SQLException {
+                super.runTests(runner, connection);
+                throw new SomeTestsFailedException("1 test failed", null);
+            }
+        });
+        mojo.incrementalCoverage = true;
+        mojo.tagTiers.addAll(Arrays.asList("smoke", ""));
+
+        assertThrows(MojoExecutionException.class, mojo::execute);
+
+        assertEquals(1, mojo.getRunCount());
+        assertFalse(project.file(CHECKSUMS).exists());
+    }
+
+    @Test
+    void coverage_of_a_rerun_of_failed_tests_is_not_kept() throws Exception {
+        project.write("target/" + FailureManifest.FILE_NAME, "app.test_pkg_0.test_0\n");
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.incrementalCoverage = true;
+        mojo.rerunFailed = true;
+        mojo.execute();
+
+        assertEquals(1, mojo.getRunCount());
+        assertFalse(project.file(CHECKSUMS).exists());
+    }
+}
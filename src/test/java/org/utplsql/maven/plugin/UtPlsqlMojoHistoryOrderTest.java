@@ -0,0 +1,64 @@
+package org.utplsql.maven.plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@code historyTestOrder} against a {@link SimulatedDatabase}.
+ */
+class UtPlsqlMojoHistoryOrderTest extends SimulatedProjectTest {
+
+    UtPlsqlMojoHistoryOrderTest() {
+        super(2, 12, 1);
+    }
+
+    @Test
+    void changed_source_only_moves_its_own_test_package_first() throws Exception {
+        run();
+        project.write("src/main/plsql/app/pkg_1.pkb", "create or replace package body pkg_1 as end;\n/");
+
+        List<String> log = run();
+
+        // test_pkg_10 and test_pkg_11 contain pkg_1 in their name, but don't test it.
+        assertTrue(log.contains("Ordered 12 suites from the test history: 0 failed recently, 1 changed"),
+                String.valueOf(log));
+        assertEquals("app.test_pkg_1", project.getDatabase().getLastRunSuites().get(0));
+    }
+
+    @Test
+    void changed_source_keeps_its_priority_after_a_failed_run() throws Exception {
+        run();
+        project.write("src/main/plsql/app/pkg_1.pkb", "create or replace package body pkg_1 as end;\n/");
+        project.getDatabase().failRuns(true);
+        assertThrows(MojoExecutionException.class, this::run);
+        project.getDatabase().failRuns(false);
+
+        List<String> log = run();
+
+        assertTrue(log.contains("Ordered 12 suites from the test history: 0 failed recently, 1 changed"),
+                String.valueOf(log));
+        assertEquals("app.test_pkg_1", project.getDatabase().getLastRunSuites().get(0));
+    }
+
+    private List<String> run() throws Exception {
+        List<String> log = new ArrayList<>();
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.historyTestOrder = true;
+        mojo.setLog(new SystemStreamLog() {
+            @Override
+            public void info(CharSequence content) {
+                log.add(content.toString());
+            }
+        });
+        mojo.execute();
+        return log;
+    }
+}
@@ -0,0 +1,87 @@
+package org.utplsql.maven.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the plugin end to end against a {@link SimulatedDatabase}, so that regressions in scanning, startup and
+ * report writing are caught without an Oracle instance. The budgets are several times the values measured on
+ * a developer machine, they catch regressions by an order of magnitude, not noise.
+ */
+class UtPlsqlMojoPerformanceTest extends SimulatedProjectTest {
+
+    private static final int SOURCE_FILES = 2000;
+    private static final int TEST_PACKAGES = 500;
+    private static final int TESTS_PER_PACKAGE = 10;
+
+    // Measured: 2 s and 115 MB for a run, 0.2 s to restore it.
+    private static final long TIME_BUDGET_MILLIS = 10_000;
+    private static final long ALLOCATION_BUDGET_BYTES = 600_000_000L;
+    private static final long RESTORE_BUDGET_MILLIS = 2_000;
+
+    UtPlsqlMojoPerformanceTest() {
+        super(SOURCE_FILES, TEST_PACKAGES, TESTS_PER_PACKAGE);
+    }
+
+    @Test
+    void run_within_time_budget() throws Exception {
+        SimulatedDatabaseMojo mojo = createMojo();
+
+        long start = System.nanoTime();
+        mojo.execute();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(1, mojo.getRunCount());
+        assertTrue(elapsed < TIME_BUDGET_MILLIS, format("Run took %d ms, budget %d ms", elapsed, TIME_BUDGET_MILLIS));
+        assertTrue(project.file("target/coverage-sonar-report.xml").length() > 0);
+    }
+
+    @Test
+    void run_within_allocation_budget() throws Exception {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        SimulatedDatabaseMojo mojo = createMojo();
+
+        // Only the allocations of the thread running the mojo are counted, the file scan runs in the background.
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        mojo.execute();
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+
+        assertTrue(allocated < ALLOCATION_BUDGET_BYTES,
+                format("Run allocated %d bytes, budget %d bytes", allocated, ALLOCATION_BUDGET_BYTES));
+    }
+
+    @Test
+    void unchanged_run_is_restored_within_time_budget() throws Exception {
+        SimulatedDatabaseMojo first = createMojo();
+        first.cache = true;
+        first.execute();
+        File report = project.file("target/junit-report.xml");
+        int connections = project.getDatabase().getConnectionCount();
+        assertTrue(report.delete());
+
+        SimulatedDatabaseMojo mojo = createMojo();
+        mojo.cache = true;
+        long start = System.nanoTime();
+        mojo.execute();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(0, mojo.getRunCount());
+        assertEquals(connections, project.getDatabase().getConnectionCount());
+        assertTrue(report.isFile());
+        assertTrue(elapsed < RESTORE_BUDGET_MILLIS,
+                format("Restore took %d ms, budget %d ms", elapsed, RESTORE_BUDGET_MILLIS));
+    }
+
+    private SimulatedDatabaseMojo createMojo() {
+        return project.createMojo(200);
+    }
+}
@@ -0,0 +1,47 @@
+package org.utplsql.maven.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks against a {@link SimulatedDatabase} which connections are set up for the tests.
+ */
+class UtPlsqlMojoSessionTest extends SimulatedProjectTest {
+
+    private static final String INIT_STATEMENT = "alter session set plsql_warnings = 'DISABLE:ALL'";
+
+    UtPlsqlMojoSessionTest() {
+        super(2, 10, 1);
+    }
+
+    @Test
+    void only_the_test_session_is_set_up() throws Exception {
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.sessionInitStatements.add(INIT_STATEMENT);
+        mojo.plsqlOptimizeLevel = 3;
+        mojo.stallTimeout = 60;
+        mojo.sessionStats = true;
+        mojo.sessionStatsPerSuite = true;
+
+        mojo.execute();
+
+        // Besides the test session, the run used connections for the events, the statistics and the recompilation.
+        assertTrue(project.getDatabase().getConnectionCount() > 3);
+        assertEquals(1, project.getDatabase().countExecutions(INIT_STATEMENT));
+        assertEquals(1, project.getDatabase().countExecutions("alter session set plsql_optimize_level = 3"));
+    }
+
+    @Test
+    void test_session_is_set_up_again_after_each_batch() throws Exception {
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.sessionInitStatements.add(INIT_STATEMENT);
+        mojo.paths.addAll(project.testPackages(10));
+        mojo.batchSize = 4;
+
+        mojo.execute();
+
+        assertEquals(3, project.getDatabase().countExecutions(INIT_STATEMENT));
+    }
+}
@@ -0,0 +1,53 @@
+package org.utplsql.maven.plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Test;
+import org.utplsql.api.reporter.CoreReporters;
+
+import java.io.IOException;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the {@code stallTimeout} watchdog against a {@link SimulatedDatabase}.
+ */
+class UtPlsqlMojoStallTest extends SimulatedProjectTest {
+
+    UtPlsqlMojoStallTest() {
+        super(2, 10, 2);
+    }
+
+    @Test
+    void stalled_run_is_cancelled_and_its_reports_written() {
+        // The run would take a minute, it only ends before when it is cancelled.
+        SimulatedDatabaseMojo mojo = project.createMojo(60_000);
+        mojo.stallTimeout = 1;
+
+        MojoExecutionException e = assertThrows(MojoExecutionException.class, mojo::execute);
+
+        assertTrue(e.getMessage().startsWith("The run stalled."), e.getMessage());
+        assertTrue(e.getMessage().contains("the last one was testSuiteFinished app.test_pkg_9"), e.getMessage());
+        assertTrue(project.file("target/junit-report.xml").length() > 0);
+    }
+
+    @Test
+    void time_spent_between_batches_is_not_counted() throws MojoExecutionException, IOException {
+        // The events of a batch come after 1.5 s, but the reports of the first batch are fetched for 2 s in between.
+        project.getDatabase()
+                .delayOutput(CoreReporters.UT_TEAMCITY_REPORTER, 1500)
+                .delayOutput(CoreReporters.UT_JUNIT_REPORTER, 2000);
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.stallTimeout = 2;
+        mojo.paths.addAll(project.testPackages(10));
+        mojo.batchSize = 5;
+
+        mojo.execute();
+
+        assertEquals(2, mojo.getRunCount());
+        assertTrue(project.read("target/junit-report.xml")
+                .contains(format("tests=\"%d\"", 2 * project.getTestCount())));
+    }
+}
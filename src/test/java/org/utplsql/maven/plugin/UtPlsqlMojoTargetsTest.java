@@ -0,0 +1,54 @@
+package org.utplsql.maven.plugin;
+
+import org.junit.jupiter.api.Test;
+import org.utplsql.api.TestRunner;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the tests against several {@code targets} of a {@link SimulatedDatabase}.
+ */
+class UtPlsqlMojoTargetsTest extends SimulatedProjectTest {
+
+    UtPlsqlMojoTargetsTest() {
+        super(2, 2, 2);
+    }
+
+    @Test
+    void targets_run_concurrently() throws Exception {
+        // Every run waits for the runs of the other targets to start: serial runs never get past the first one.
+        CountDownLatch started = new CountDownLatch(3);
+        SimulatedDatabaseMojo mojo = project.configure(new SimulatedDatabaseMojo(project.getDatabase(), 0) {
+            @Override
+            void runTests(TestRunner runner, Connection connection) throws SQLException {
+                started.countDown();
+                try {
+                    if (!started.await(30, TimeUnit.SECONDS)) {
+                        throw new SQLException("The runs of the other targets did not start");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException(e);
+                }
+                super.runTests(runner, connection);
+            }
+        });
+        mojo.recordTestResults = true;
+        mojo.targets.addAll(Arrays.asList(project.target("19c"), project.target("21c"), project.target("23ai")));
+
+        mojo.execute();
+
+        assertEquals(3, mojo.getRunCount());
+        for (String name : Arrays.asList("19c", "21c", "23ai")) {
+            assertTrue(project.file("target/" + name + "/junit-report.xml").length() > 0, name);
+            assertTrue(project.file("target/" + name + "/utplsql/test-history.tsv").isFile(), name);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package org.utplsql.maven.plugin;
 
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.testing.MojoRule;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.junit.Rule;
 import org.junit.Test;
 import org.utplsql.api.FileMapperOptions;
@@ -10,11 +14,17 @@ import org.utplsql.maven.plugin.model.ReporterParameter;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
@@ -99,6 +109,26 @@ public class UtPlsqlMojoTest {
         assertEquals("abc", tests.getTypeMappings().get(0).getValue());
     }
 
+    /**
+     * Skip Unmapped Files
+     * <p>
+     * Given : a pom.xml with tests that don't all match the tests mapping regular expression
+     * When : skipUnmappedFiles is set and buildTestsOptions is run
+     * Then : only the files matching the expression should be bound
+     */
+    @Test
+    public void skip_unmapped_files() throws Exception {
+        UtPlsqlMojo utPlsqlMojo = createUtPlsqlMojo("sources_tests_parameters");
+        assertNotNull(utPlsqlMojo);
+        utPlsqlMojo.testsRegexExpression = ".*/(\\w+)\\.pkb";
+        assertEquals(2, utPlsqlMojo.buildTestsOptions().getFilePaths().size());
+
+        utPlsqlMojo.skipUnmappedFiles = true;
+
+        FileMapperOptions tests = utPlsqlMojo.buildTestsOptions();
+        assertEquals(Collections.singletonList("te/st/file.pkb"), tests.getFilePaths());
+    }
+
     /**
      * Sources and Tests Parameter does not exist
      * <p>
@@ -211,7 +241,7 @@ public class UtPlsqlMojoTest {
         utPlsqlMojo.execute();
 
         // Assert that we added only the necessary reporters to the writer.
-        List<ReporterParameter> reporters = utPlsqlMojo.reporters;
+        List<ReporterParameter> reporters = utPlsqlMojo.resolveReporters();
         assertEquals(3, reporters.size());
 
         ReporterParameter reporterParameter1 = reporters.get(0);
@@ -241,8 +271,85 @@ public class UtPlsqlMojoTest {
 
         utPlsqlMojo.execute();
 
-        assertEquals(1, utPlsqlMojo.reporters.size());
-        assertEquals("UT_DOCUMENTATION_REPORTER", utPlsqlMojo.reporters.get(0).getName());
+        assertTrue(utPlsqlMojo.reporters.isEmpty());
+
+        List<ReporterParameter> reporters = utPlsqlMojo.resolveReporters();
+        assertEquals(1, reporters.size());
+        assertEquals("UT_DOCUMENTATION_REPORTER", reporters.get(0).getName());
+        assertTrue(reporters.get(0).isConsoleOutput());
+    }
+
+    /**
+     * Concurrent Executions
+     * <p>
+     * Given : a pom.xml with source and test tags relying on default directories and includes
+     * When : buildSourcesOptions / buildTestsOptions / resolveReporters are run by many threads at the same time
+     * Then : every thread should get the same result and the configuration should be left untouched
+     */
+    @Test
+    public void concurrent_executions_do_not_mutate_configuration() throws Exception {
+        UtPlsqlMojo utPlsqlMojo = createUtPlsqlMojo("sources_and_tests_parameter_have_not_directory_tag");
+        assertNotNull(utPlsqlMojo);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> utPlsqlMojo.buildSourcesOptions().getFilePaths().size()
+                        + 10 * utPlsqlMojo.buildTestsOptions().getFilePaths().size()
+                        + 100 * utPlsqlMojo.resolveReporters().size()));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(Integer.valueOf(2 + 10 * 3 + 100 * 2), result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, utPlsqlMojo.sources.size());
+        assertNull(utPlsqlMojo.sources.get(0).getDirectory());
+        assertEquals(2, utPlsqlMojo.tests.size());
+        assertNull(utPlsqlMojo.tests.get(0).getDirectory());
+        assertEquals(2, utPlsqlMojo.reporters.size());
+    }
+
+    /**
+     * Aggregate does not mutate the configuration
+     * <p>
+     * Given : a reactor module with a test execution
+     * When : the aggregate goal is run
+     * Then : the paths, sources and tests of the module are run without changing the configured ones
+     */
+    @Test
+    public void aggregate_does_not_mutate_configuration() throws Exception {
+        File baseDir = new File("src/test/resources/unit-tests/sources_and_tests_parameter_have_not_directory_tag");
+        UtPlsqlAggregateMojo utPlsqlMojo = (UtPlsqlAggregateMojo) rule.lookupConfiguredMojo(baseDir, "aggregate");
+        assertNotNull(utPlsqlMojo);
+
+        Xpp3Dom configuration = new Xpp3Dom("configuration");
+        Xpp3Dom paths = new Xpp3Dom("paths");
+        Xpp3Dom path = new Xpp3Dom("path");
+        path.setValue("module_a");
+        paths.addChild(path);
+        configuration.addChild(paths);
+        PluginExecution execution = new PluginExecution();
+        execution.addGoal("test");
+        execution.setConfiguration(configuration);
+        Plugin plugin = new Plugin();
+        plugin.setGroupId("org.utplsql");
+        plugin.setArtifactId("utplsql-maven-plugin");
+        plugin.addExecution(execution);
+        MavenProject module = new MavenProject();
+        module.setFile(new File(baseDir, "module-a/pom.xml").getAbsoluteFile());
+        module.getBuild().addPlugin(plugin);
+        utPlsqlMojo.reactorProjects = Collections.singletonList(module);
+
+        // No database to connect to, the run fails after the modules are collected.
+        assertThrows(MojoExecutionException.class, utPlsqlMojo::execute);
+
+        assertEquals(Collections.singletonList(":plsql"), utPlsqlMojo.paths);
+        assertEquals(1, utPlsqlMojo.sources.size());
+        assertEquals(2, utPlsqlMojo.tests.size());
     }
 
     /**
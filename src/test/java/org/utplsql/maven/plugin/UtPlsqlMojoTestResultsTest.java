@@ -0,0 +1,52 @@
+package org.utplsql.maven.plugin;
+
+import org.junit.jupiter.api.Test;
+import org.utplsql.api.reporter.CoreReporters;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks against a {@link SimulatedDatabase} that the outcome of every test is only fetched and recorded when a
+ * feature needs it.
+ */
+class UtPlsqlMojoTestResultsTest extends SimulatedProjectTest {
+
+    private static final String TEAMCITY_REPORTER = CoreReporters.UT_TEAMCITY_REPORTER.name();
+
+    UtPlsqlMojoTestResultsTest() {
+        super(2, 2, 2);
+    }
+
+    @Test
+    void plain_run_does_not_record_the_tests() throws Exception {
+        project.createMojo(0).execute();
+
+        assertFalse(project.getDatabase().hasReporter(TEAMCITY_REPORTER));
+        assertFalse(project.file("target/utplsql/test-history.tsv").exists());
+        assertFalse(project.file("target/utplsql/failed-tests.txt").exists());
+    }
+
+    @Test
+    void recorded_run_writes_the_history_and_the_failed_tests() throws Exception {
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.recordTestResults = true;
+
+        mojo.execute();
+
+        assertTrue(project.getDatabase().hasReporter(TEAMCITY_REPORTER));
+        assertTrue(project.file("target/utplsql/test-history.tsv").isFile());
+        assertTrue(project.file("target/utplsql/failed-tests.txt").isFile());
+    }
+
+    @Test
+    void trace_fetches_the_events_without_writing_the_history() throws Exception {
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.traceOutput = true;
+
+        mojo.execute();
+
+        assertTrue(project.getDatabase().hasReporter(TEAMCITY_REPORTER));
+        assertFalse(project.file("target/utplsql/test-history.tsv").exists());
+    }
+}
@@ -0,0 +1,51 @@
+package org.utplsql.maven.plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Test;
+import org.utplsql.api.reporter.CoreReporters;
+import org.utplsql.maven.plugin.model.ReporterParameter;
+
+import java.util.Arrays;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@code tagTiers} against a {@link SimulatedDatabase}.
+ */
+class UtPlsqlMojoTiersTest extends SimulatedProjectTest {
+
+    UtPlsqlMojoTiersTest() {
+        super(2, 2, 2);
+    }
+
+    @Test
+    void tier_reports_are_merged_into_the_configured_outputs() throws Exception {
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.tagTiers.addAll(Arrays.asList("smoke", ""));
+        mojo.execute();
+
+        assertEquals(2, mojo.getRunCount());
+        assertTrue(project.read("target/junit-report.xml")
+                .contains(format("tests=\"%d\"", 2 * project.getTestCount())));
+        assertEquals(0, project.countReportParts());
+        assertTrue(mojo.getWrittenReports().contains(project.file("target/junit-report.xml")));
+    }
+
+    @Test
+    void html_coverage_reporter_fails_with_tiers() {
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.tagTiers.addAll(Arrays.asList("smoke", ""));
+        ReporterParameter html = new ReporterParameter();
+        html.setName(CoreReporters.UT_COVERAGE_HTML_REPORTER.name());
+        html.setFileOutput("coverage.html");
+        mojo.reporters.add(html);
+
+        MojoExecutionException e = assertThrows(MojoExecutionException.class, mojo::execute);
+
+        assertTrue(e.getMessage().contains("UT_COVERAGE_HTML_REPORTER"), e.getMessage());
+        assertEquals(0, mojo.getRunCount());
+    }
+}
@@ -0,0 +1,70 @@
+package org.utplsql.maven.plugin;
+
+import org.junit.jupiter.api.Test;
+import org.utplsql.api.Version;
+import org.utplsql.api.reporter.Reporter;
+import org.utplsql.maven.plugin.db.OutputBufferSource;
+import org.utplsql.maven.plugin.io.ReportManifest;
+import org.utplsql.maven.plugin.model.ConnectionInfo;
+
+import java.io.File;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes the reports deferred by the {@code test} goal against a {@link SimulatedDatabase}.
+ */
+class UtPlsqlReportMojoTest extends SimulatedProjectTest {
+
+    UtPlsqlReportMojoTest() {
+        super(2, 2, 2);
+    }
+
+    @Test
+    void deferred_reports_are_written_by_the_report_goal() throws Exception {
+        SimulatedDatabaseMojo mojo = project.createMojo(0);
+        mojo.deferReports = true;
+        mojo.execute();
+
+        File report = project.file("target/junit-report.xml");
+        File manifest = project.file("target/" + ReportManifest.FILE_NAME);
+        assertFalse(report.exists());
+        assertTrue(manifest.isFile());
+
+        SimulatedDatabase database = project.getDatabase();
+        UtPlsqlReportMojo reportMojo = new UtPlsqlReportMojo() {
+            @Override
+            Connection createConnection(ConnectionInfo connectionInfo) {
+                return database.connect();
+            }
+
+            @Override
+            Version getFrameworkVersion(Connection connection) {
+                return Version.create("3.1.11");
+            }
+
+            @Override
+            OutputBufferSource createOutputBufferSource(Version utlVersion) {
+                return database.outputBuffers();
+            }
+
+            @Override
+            Reporter restoreReporter(String name, String id) {
+                return database.createReporter(name);
+            }
+        };
+        reportMojo.project = mojo.project;
+        reportMojo.targetDir = mojo.targetDir;
+        reportMojo.reportThreads = 3;
+        int connections = database.getConnectionCount();
+        reportMojo.execute();
+
+        assertEquals(connections + 3, database.getConnectionCount());
+        assertTrue(report.length() > 0);
+        assertTrue(project.file("target/coverage-sonar-report.xml").length() > 0);
+        assertFalse(manifest.exists());
+    }
+}
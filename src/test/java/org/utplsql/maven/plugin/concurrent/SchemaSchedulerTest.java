@@ -0,0 +1,123 @@
+package org.utplsql.maven.plugin.concurrent;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaSchedulerTest {
+
+    private final Log log = new SystemStreamLog();
+
+    @Test
+    void different_schemas_run_concurrently() throws Exception {
+        SchemaScheduler scheduler = new SchemaScheduler();
+
+        try (SchemaScheduler.Lease ignored = scheduler.acquire("jdbc:oracle:thin:@db", "APP", 1, log)) {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<?> other = executor.submit(() -> {
+                    scheduler.acquire("jdbc:oracle:thin:@db", "OTHER", 1, log).close();
+                    return null;
+                });
+                other.get(5, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    void same_schema_is_queued() throws Exception {
+        SchemaScheduler scheduler = new SchemaScheduler();
+        CountDownLatch acquired = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> waiting;
+            try (SchemaScheduler.Lease ignored = scheduler.acquire("jdbc:oracle:thin:@db", "app", 1, log)) {
+                waiting = executor.submit(() -> {
+                    try (SchemaScheduler.Lease lease = scheduler.acquire("jdbc:oracle:thin:@db", "APP", 1, log)) {
+                        acquired.countDown();
+                    }
+                    return null;
+                });
+                assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+            }
+            assertTrue(acquired.await(5, TimeUnit.SECONDS));
+            waiting.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrency_limit_is_respected() throws Exception {
+        SchemaScheduler scheduler = new SchemaScheduler();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 32; i++) {
+                executor.submit(() -> {
+                    try (SchemaScheduler.Lease lease = scheduler.acquire("jdbc:oracle:thin:@db", "APP", 2, log)) {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        Thread.sleep(5);
+                        running.decrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    void later_limit_is_ignored_with_a_warning() throws Exception {
+        SchemaScheduler scheduler = new SchemaScheduler();
+        List<String> warnings = new ArrayList<>();
+        Log recording = new SystemStreamLog() {
+            @Override
+            public void warn(CharSequence content) {
+                warnings.add(content.toString());
+            }
+        };
+
+        try (SchemaScheduler.Lease first = scheduler.acquire("jdbc:oracle:thin:@db", "APP", 2, recording);
+             SchemaScheduler.Lease second = scheduler.acquire("jdbc:oracle:thin:@db", "APP", 2, recording)) {
+            assertTrue(warnings.isEmpty());
+        }
+        scheduler.acquire("jdbc:oracle:thin:@db", "APP", 1, recording).close();
+
+        assertEquals(Collections.singletonList("Schema APP@jdbc:oracle:thin:@db is limited to 2 concurrent executions"
+                + " by the first execution using it, maxConcurrentExecutionsPerSchema=1 is ignored"), warnings);
+    }
+
+    @Test
+    void no_limit_never_blocks() throws Exception {
+        SchemaScheduler scheduler = new SchemaScheduler();
+
+        SchemaScheduler.Lease first = scheduler.acquire("jdbc:oracle:thin:@db", "APP", 0, log);
+        SchemaScheduler.Lease second = scheduler.acquire("jdbc:oracle:thin:@db", "APP", 0, log);
+
+        first.close();
+        second.close();
+    }
+}
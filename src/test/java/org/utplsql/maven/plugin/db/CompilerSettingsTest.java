@@ -0,0 +1,41 @@
+package org.utplsql.maven.plugin.db;
+
+import org.junit.jupiter.api.Test;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompilerSettingsTest {
+
+    @Test
+    void compile_statements_keep_the_other_settings() {
+        CompilerSettings settings = new CompilerSettings("native", 3);
+
+        assertEquals("alter package \"APP\".\"PKG\" compile body plsql_code_type = NATIVE plsql_optimize_level = 3"
+                        + " reuse settings",
+                settings.compileStatement(new DatabaseObject("APP", "PKG", "PACKAGE BODY")));
+        assertEquals("alter procedure \"APP\".\"PROC\" compile plsql_optimize_level = 1 reuse settings",
+                new CompilerSettings(null, 1).compileStatement(new DatabaseObject("APP", "PROC", "PROCEDURE")));
+        assertNull(settings.compileStatement(new DatabaseObject("APP", "PKG", "PACKAGE")));
+    }
+
+    @Test
+    void session_statements_only_change_the_set_settings() {
+        assertEquals(Arrays.asList("alter session set plsql_code_type = NATIVE",
+                "alter session set plsql_optimize_level = 3"), new CompilerSettings("NATIVE", 3).sessionStatements());
+        assertEquals(Collections.singletonList("alter session set plsql_code_type = INTERPRETED"),
+                new CompilerSettings("interpreted", null).sessionStatements());
+        assertEquals("default compiler settings", new CompilerSettings(null, null).toString());
+    }
+
+    @Test
+    void invalid_settings_are_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CompilerSettings("NATIVE; drop table t", null));
+        assertThrows(IllegalArgumentException.class, () -> new CompilerSettings(null, 4));
+    }
+}
@@ -0,0 +1,27 @@
+package org.utplsql.maven.plugin.db;
+
+import org.junit.jupiter.api.Test;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FixtureLoaderTest {
+
+    @Test
+    void tables_are_named_after_the_files() {
+        assertEquals(new DatabaseObject("APP", "CUSTOMERS", "TABLE"),
+                FixtureLoader.table(new File("src/test/fixtures/customers.csv"), "APP"));
+        assertEquals(new DatabaseObject("SALES", "ORDERS", "TABLE"),
+                FixtureLoader.table(new File("src/test/fixtures/sales.orders.jsonl"), "APP"));
+    }
+
+    @Test
+    void insert_statements_bind_every_column() {
+        assertEquals("insert into \"APP\".\"ORDERS\" (\"ID\", \"AMOUNT\", \"MixedCase\") values (?, ?, ?)",
+                FixtureLoader.insertStatement(new DatabaseObject("APP", "ORDERS", "TABLE"),
+                        Arrays.asList("id", "Amount", "\"MixedCase\"")));
+    }
+}
@@ -0,0 +1,70 @@
+package org.utplsql.maven.plugin.db;
+
+import org.junit.jupiter.api.Test;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+import org.utplsql.maven.plugin.model.FileMapping;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InvalidObjectsTest {
+
+    private static final DatabaseObject SPEC = new DatabaseObject("APP", "PKG", "PACKAGE");
+    private static final DatabaseObject BODY = new DatabaseObject("APP", "PKG", "PACKAGE BODY");
+    private static final DatabaseObject VIEW = new DatabaseObject("APP", "V", "VIEW");
+    private static final DatabaseObject OTHER = new DatabaseObject("APP", "OTHER", "PROCEDURE");
+
+    @Test
+    void levels_follow_dependencies() {
+        Map<DatabaseObject, Set<DatabaseObject>> dependencies = new HashMap<>();
+        dependencies.put(BODY, new HashSet<>(Arrays.asList(SPEC, BODY)));
+        dependencies.put(VIEW, Collections.singleton(SPEC));
+        dependencies.put(OTHER, Collections.singleton(BODY));
+
+        List<List<DatabaseObject>> levels = InvalidObjects.compileOrder(Arrays.asList(OTHER, VIEW, BODY, SPEC),
+                dependencies);
+
+        assertEquals(Arrays.asList(Collections.singletonList(SPEC), Arrays.asList(VIEW, BODY),
+                Collections.singletonList(OTHER)), levels);
+    }
+
+    @Test
+    void cycles_are_compiled_last() {
+        Map<DatabaseObject, Set<DatabaseObject>> dependencies = new HashMap<>();
+        dependencies.put(VIEW, Collections.singleton(OTHER));
+        dependencies.put(OTHER, Collections.singleton(VIEW));
+
+        assertEquals(Arrays.asList(Collections.singletonList(SPEC), Arrays.asList(VIEW, OTHER)),
+                InvalidObjects.compileOrder(Arrays.asList(VIEW, OTHER, SPEC), dependencies));
+    }
+
+    @Test
+    void compile_statements() {
+        assertEquals("alter package \"APP\".\"PKG\" compile specification", InvalidObjects.compileStatement(SPEC));
+        assertEquals("alter package \"APP\".\"PKG\" compile body", InvalidObjects.compileStatement(BODY));
+        assertEquals("alter view \"APP\".\"V\" compile", InvalidObjects.compileStatement(VIEW));
+        assertNull(InvalidObjects.compileStatement(new DatabaseObject("APP", "T", "TABLE")));
+    }
+
+    @Test
+    void errors_are_located_in_the_mapped_files() {
+        List<FileMapping> mappings = Arrays.asList(
+                new FileMapping("src/main/plsql/pkg.pkb", null, "PKG", "PACKAGE BODY"),
+                new FileMapping("src/main/plsql/pkg.pks", null, "PKG", "PACKAGE"));
+        List<InvalidObjects.CompileError> errors = Collections.singletonList(new InvalidObjects.CompileError(BODY,
+                12, 5, "PLS-00201: identifier 'X' must be\n declared"));
+
+        assertEquals(String.format("2 invalid objects:%n"
+                        + "src/main/plsql/pkg.pkb:[12,5] PLS-00201: identifier 'X' must be declared%n"
+                        + "VIEW APP.V: invalid without compilation errors, check its dependencies"),
+                InvalidObjects.describe(Arrays.asList(BODY, VIEW), errors, mappings, "APP"));
+    }
+}
@@ -0,0 +1,46 @@
+package org.utplsql.maven.plugin.event;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProgressMonitorTest {
+
+    @Test
+    void eta_from_history() {
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("app.t.a", 1000L);
+        expected.put("app.t.b", 1000L);
+        expected.put("app.t.c", 2000L);
+        ProgressMonitor monitor = new ProgressMonitor(expected, new SystemStreamLog());
+        assertEquals(Long.valueOf(4000), monitor.estimateRemaining());
+
+        // Completed tests run twice as slow as in the history.
+        monitor.onMessage(TeamcityMessage.parse("##teamcity[testFinished duration='2000' name='app.t.a']"));
+        assertEquals(Long.valueOf(6000), monitor.estimateRemaining());
+
+        monitor.report();
+    }
+
+    @Test
+    void no_eta_without_history() {
+        ProgressMonitor monitor = new ProgressMonitor(Collections.emptyMap(), new SystemStreamLog());
+        monitor.onMessage(TeamcityMessage.parse("##teamcity[testFinished duration='20' name='app.t.a']"));
+
+        assertNull(monitor.estimateRemaining());
+        monitor.report();
+    }
+
+    @Test
+    void format_duration() {
+        assertEquals("42s", ProgressMonitor.formatDuration(42_999));
+        assertEquals("2m 05s", ProgressMonitor.formatDuration(125_000));
+        assertEquals("1h 01m", ProgressMonitor.formatDuration(3_660_000));
+    }
+}
@@ -0,0 +1,43 @@
+package org.utplsql.maven.plugin.event;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StallWatchdogTest {
+
+    @Test
+    void stall_is_reported_once() throws InterruptedException {
+        StallWatchdog watchdog = new StallWatchdog(0);
+        watchdog.onMessage(TeamcityMessage.parse("##teamcity[testStarted name='app.test_pkg.test_it']"));
+        Thread.sleep(5);
+
+        assertTrue(watchdog.check());
+        assertFalse(watchdog.check());
+        assertTrue(watchdog.isStalled());
+        assertEquals("No test event received in 0 s, the last one was testStarted app.test_pkg.test_it",
+                watchdog.describeLastActivity());
+    }
+
+    @Test
+    void events_keep_the_run_active() {
+        StallWatchdog watchdog = new StallWatchdog(60);
+        watchdog.onMessage(TeamcityMessage.parse("##teamcity[testFinished duration='3' name='app.test_pkg.test_it']"));
+
+        assertFalse(watchdog.check());
+        assertFalse(watchdog.isStalled());
+    }
+
+    @Test
+    void time_between_runs_is_not_counted() throws InterruptedException {
+        StallWatchdog watchdog = new StallWatchdog(0);
+        watchdog.onMessage(TeamcityMessage.parse("##teamcity[testSuiteFinished name='app.test_pkg']"));
+        Thread.sleep(5);
+        watchdog.start();
+
+        assertEquals("No test event received in 0 s", watchdog.describeLastActivity());
+        assertFalse(watchdog.isStalled());
+    }
+}
@@ -0,0 +1,52 @@
+package org.utplsql.maven.plugin.event;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TeamcityMessageTest {
+
+    @Test
+    void parse_test_finished() {
+        TeamcityMessage message = TeamcityMessage.parse("##teamcity[testFinished timestamp='2021-10-01T12:00:00.123+0000'"
+                + " duration='42' name='app.test_pkg.test_it']");
+
+        assertTrue(message.is(TeamcityMessage.TEST_FINISHED));
+        assertEquals("app.test_pkg.test_it", message.getSubject());
+        assertEquals(Long.valueOf(42), message.getDuration());
+        assertEquals(Long.valueOf(1633089600123L), message.getTimestamp());
+    }
+
+    @Test
+    void parse_escaped_values() {
+        TeamcityMessage message = TeamcityMessage.parse("##teamcity[testFailed name='app.test_pkg.test_it'"
+                + " message='Expected |'1|' |[x|]|nActual 2']");
+
+        assertEquals("Expected '1' [x]\nActual 2", message.getAttribute("message"));
+    }
+
+    @Test
+    void other_lines_are_ignored() {
+        assertNull(TeamcityMessage.parse("Finished in .12 seconds"));
+        assertNull(TeamcityMessage.parse(""));
+        assertNull(TeamcityMessage.parse(null));
+    }
+
+    @Test
+    void results_collect_outcomes() {
+        TestResults results = new TestResults();
+        TestEventChannel channel = new TestEventChannel(null, null).addListener(results);
+
+        channel.dispatch("##teamcity[testStarted name='app.t.ok']");
+        channel.dispatch("##teamcity[testFinished duration='3' name='app.t.ok']");
+        channel.dispatch("##teamcity[testStarted name='app.t.ko']");
+        channel.dispatch("##teamcity[testFailed message='x' name='app.t.ko']");
+        channel.dispatch("##teamcity[testFinished duration='5' name='app.t.ko']");
+
+        assertEquals(TestResults.Outcome.PASSED, results.getOutcomes().get("app.t.ok"));
+        assertEquals(Long.valueOf(5), results.getDuration("app.t.ko"));
+        assertEquals("[app.t.ko]", results.getFailedTests().toString());
+    }
+}
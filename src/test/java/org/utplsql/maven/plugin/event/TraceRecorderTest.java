@@ -0,0 +1,44 @@
+package org.utplsql.maven.plugin.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceRecorderTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void suites_tests_and_derived_hooks() throws IOException {
+        TraceRecorder recorder = new TraceRecorder();
+        try (TraceRecorder.Phase ignored = recorder.phase("run")) {
+            recorder.onMessage(message("testSuiteStarted", "00.000", "app.test_pkg"));
+            recorder.onMessage(message("testStarted", "00.250", "app.test_pkg.test_it"));
+            recorder.onMessage(message("testFinished", "00.300", "app.test_pkg.test_it"));
+            recorder.onMessage(message("testSuiteFinished", "01.000", "app.test_pkg"));
+        }
+
+        File file = new File(tempDir, "trace.json");
+        recorder.write(file);
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"name\":\"before\"") && line.contains("\"dur\":250000")));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"name\":\"app.test_pkg.test_it\"") && line.contains("\"dur\":50000")));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"name\":\"after\"") && line.contains("\"dur\":700000")));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"name\":\"app.test_pkg\"") && line.contains("\"dur\":1000000")));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"name\":\"run\"") && line.contains("\"cat\":\"phase\"")));
+    }
+
+    private static TeamcityMessage message(String name, String seconds, String subject) {
+        return TeamcityMessage.parse("##teamcity[" + name + " timestamp='2021-10-01T12:00:" + seconds + "+0000'"
+                + " name='" + subject + "']");
+    }
+}
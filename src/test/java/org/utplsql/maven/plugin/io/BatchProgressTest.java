@@ -0,0 +1,66 @@
+package org.utplsql.maven.plugin.io;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchProgressTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void completed_batches_are_loaded_for_the_same_plan() throws IOException {
+        File file = new File(tempDir, BatchProgress.FILE_NAME);
+        BatchProgress progress = BatchProgress.start(file, "plan-1");
+        progress.complete(0, false);
+        progress.complete(1, true);
+
+        BatchProgress loaded = BatchProgress.load(file, "plan-1");
+        assertEquals(2, loaded.getCompletedCount());
+        assertTrue(loaded.isCompleted(1));
+        assertTrue(loaded.hasFailed(1));
+        assertFalse(loaded.hasFailed(0));
+        assertFalse(loaded.isCompleted(2));
+
+        assertEquals(0, BatchProgress.load(file, "plan-2").getCompletedCount());
+
+        loaded.delete();
+        assertFalse(file.exists());
+    }
+
+    @Test
+    void interrupted_run_is_only_resumed_on_request() throws IOException {
+        File file = new File(tempDir, BatchProgress.FILE_NAME);
+        BatchProgress.start(file, "plan").complete(0, true);
+
+        assertEquals(0, BatchProgress.open(file, "plan", false, new SystemStreamLog()).getCompletedCount());
+        BatchProgress resumed = BatchProgress.open(file, "plan", true, new SystemStreamLog());
+        assertEquals(1, resumed.getCompletedCount());
+        assertTrue(resumed.hasFailed(0));
+    }
+
+    @Test
+    void malformed_lines_are_ignored() throws IOException {
+        File file = new File(tempDir, "progress.tsv");
+        Files.write(file.toPath(), Arrays.asList("plan\tplan", "0\tfalse", "x\ttrue", "1", "2\ttrue"),
+                StandardCharsets.UTF_8);
+
+        BatchProgress progress = BatchProgress.load(file, "plan");
+
+        assertEquals(2, progress.getCompletedCount());
+        assertTrue(progress.isCompleted(0));
+        assertTrue(progress.hasFailed(2));
+        assertFalse(progress.isCompleted(1));
+    }
+}
@@ -0,0 +1,45 @@
+package org.utplsql.maven.plugin.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChangedLinesCoverageTest {
+
+    @Test
+    void only_changed_lines_are_counted() {
+        Map<String, BitSet> changed = new HashMap<>();
+        BitSet lines = new BitSet();
+        lines.set(2, 6);
+        changed.put("src/a.pkb", lines);
+        ChangedLinesCoverage coverage = new ChangedLinesCoverage(changed);
+
+        for (String line : new String[]{"<coverage version=\"1\">", "<file path=\"src/a.pkb\">",
+                "<lineToCover lineNumber=\"1\" covered=\"false\"/>", "<lineToCover lineNumber=\"2\" covered=\"true\"/>",
+                "<lineToCover lineNumber=\"3\" covered=\"false\"/>", "<lineToCover lineNumber=\"4\" covered=\"false\"/>",
+                "<lineToCover lineNumber=\"5\" covered=\"true\"/>", "</file>", "<file path=\"src/b.pkb\">",
+                "<lineToCover lineNumber=\"3\" covered=\"false\"/>", "</file>", "</coverage>"}) {
+            coverage.accept(line);
+        }
+
+        assertEquals(4, coverage.getCoverableLines());
+        assertEquals(2, coverage.getCoveredLines());
+        assertEquals(50.0, coverage.getPercentage());
+        assertEquals(String.format("Changed lines coverage: %.1f%% (2 of 4 lines)%nsrc/a.pkb: 2 of 4 lines,"
+                + " not covered: 3-4", 50.0), coverage.describe());
+    }
+
+    @Test
+    void no_changed_lines_are_fully_covered() {
+        ChangedLinesCoverage coverage = new ChangedLinesCoverage(new HashMap<>());
+        coverage.accept("<file path=\"src/a.pkb\">");
+        coverage.accept("<lineToCover lineNumber=\"1\" covered=\"false\"/>");
+
+        assertEquals(0, coverage.getCoverableLines());
+        assertEquals(100.0, coverage.getPercentage());
+    }
+}
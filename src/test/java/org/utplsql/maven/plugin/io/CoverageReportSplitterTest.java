@@ -0,0 +1,153 @@
+package org.utplsql.maven.plugin.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.utplsql.maven.plugin.model.FileMapping;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoverageReportSplitterTest {
+
+    @TempDir
+    File tempDir;
+
+    private final Map<String, FileMapping> mappings = new HashMap<>();
+
+    @Test
+    void split_by_schema() throws IOException {
+        mappings.put("src/app/a.pkb", new FileMapping("src/app/a.pkb", "APP", "A", "PACKAGE BODY"));
+        mappings.put("src/app/b.pkb", new FileMapping("src/app/b.pkb", "APP", "B", "PACKAGE BODY"));
+        mappings.put("src/hr/c.pkb", new FileMapping("src/hr/c.pkb", "HR", "C", "PACKAGE BODY"));
+        File report = new File(tempDir, "coverage.xml");
+
+        try (CoverageReportSplitter splitter = new CoverageReportSplitter(report, CoverageReportSplitter.SplitBy.SCHEMA,
+                Long.MAX_VALUE, mappings::get)) {
+            splitter.write("<coverage version=\"1\">");
+            writeFile(splitter, "src/app/a.pkb");
+            writeFile(splitter, "src/hr/c.pkb");
+            writeFile(splitter, "src/app/b.pkb");
+            writeFile(splitter, "other.pkb");
+            splitter.write("</coverage>");
+        }
+
+        assertEquals("coverage-APP.xml\ncoverage-HR.xml\ncoverage-unmapped.xml", read(new File(tempDir, "coverage-index.txt")));
+        assertEquals("<coverage version=\"1\">\n"
+                + "<file path=\"src/app/a.pkb\">\n<lineToCover lineNumber=\"1\" covered=\"true\"/>\n</file>\n"
+                + "<file path=\"src/app/b.pkb\">\n<lineToCover lineNumber=\"1\" covered=\"true\"/>\n</file>\n"
+                + "</coverage>", read(new File(tempDir, "coverage-APP.xml")));
+        assertFalse(report.exists());
+    }
+
+    @Test
+    void split_by_object_keeps_few_files_open() throws IOException {
+        File report = new File(tempDir, "coverage.xml");
+        try (CoverageReportSplitter splitter = new CoverageReportSplitter(report, CoverageReportSplitter.SplitBy.OBJECT,
+                Long.MAX_VALUE, mappings::get)) {
+            splitter.write("<coverage version=\"1\">");
+            for (int i = 0; i < 40; i++) {
+                String path = "src/pkg_" + i % 20 + ".pkb";
+                mappings.put(path, new FileMapping(path, "APP", "PKG_" + i % 20, "PACKAGE BODY"));
+                writeFile(splitter, path);
+            }
+            splitter.write("</coverage>");
+        }
+
+        List<File> files = CoverageReportSplitter.listFiles(report);
+        assertEquals(21, files.size());
+        String part = read(new File(tempDir, "coverage-APP.PKG_3.xml"));
+        assertEquals(2, part.split("<file ").length - 1);
+        assertEquals(1, part.split("<coverage").length - 1);
+    }
+
+    @Test
+    void split_by_size_at_file_boundaries() throws IOException {
+        File report = new File(tempDir, "coverage.xml");
+        try (CoverageReportSplitter splitter = new CoverageReportSplitter(report, CoverageReportSplitter.SplitBy.SIZE,
+                150, mappings::get)) {
+            splitter.write("<coverage version=\"1\">\n");
+            for (int i = 0; i < 5; i++) {
+                writeFile(splitter, "src/pkg_" + i + ".pkb");
+            }
+            splitter.write("</coverage>\n");
+        }
+
+        assertEquals("coverage-001.xml\ncoverage-002.xml\ncoverage-003.xml",
+                read(new File(tempDir, "coverage-index.txt")));
+        assertEquals("<coverage version=\"1\">\n"
+                + "<file path=\"src/pkg_4.pkb\">\n<lineToCover lineNumber=\"1\" covered=\"true\"/>\n</file>\n"
+                + "</coverage>", read(new File(tempDir, "coverage-003.xml")));
+    }
+
+    @Test
+    void previous_parts_are_removed() throws IOException {
+        File report = new File(tempDir, "coverage.xml");
+        try (CoverageReportSplitter splitter = new CoverageReportSplitter(report, CoverageReportSplitter.SplitBy.SIZE,
+                1, mappings::get)) {
+            writeFile(splitter, "a.pkb");
+            writeFile(splitter, "b.pkb");
+        }
+        assertEquals(3, CoverageReportSplitter.listFiles(report).size());
+
+        new CoverageReportSplitter(report, CoverageReportSplitter.SplitBy.SIZE, 1, mappings::get).close();
+
+        assertFalse(new File(tempDir, "coverage-002.xml").exists());
+        assertEquals("coverage-001.xml", read(new File(tempDir, "coverage-index.txt")));
+    }
+
+    @Test
+    void parts_of_objects_differing_by_case_get_distinct_names() throws IOException {
+        mappings.put("src/a&b.pkb", new FileMapping("src/a&b.pkb", "APP", "A", "PACKAGE BODY"));
+        mappings.put("src/lower.pkb", new FileMapping("src/lower.pkb", "app", "a", "PACKAGE BODY"));
+        File report = new File(tempDir, "coverage.xml");
+
+        CoverageReportSplitter splitter = new CoverageReportSplitter(report, CoverageReportSplitter.SplitBy.OBJECT,
+                Long.MAX_VALUE, mappings::get);
+        splitter.write("<coverage version=\"1\">\n<file path=\"src/a&amp;b.pkb\">\n</file>\n"
+                + "<file path=\"src/lower.pkb\">\n</file>\n</coverage>");
+        splitter.close();
+
+        assertEquals(Arrays.asList(new File(tempDir, "coverage-APP.A.xml"), new File(tempDir, "coverage-app.a-2.xml")),
+                splitter.getParts());
+    }
+
+    @Test
+    void report_without_files_is_a_single_part() throws IOException {
+        File report = new File(tempDir, "coverage.xml");
+        try (CoverageReportSplitter splitter = new CoverageReportSplitter(report, CoverageReportSplitter.SplitBy.SCHEMA,
+                Long.MAX_VALUE, mappings::get)) {
+            splitter.write("<coverage version=\"1\">\n</coverage>");
+        }
+
+        assertEquals("coverage-001.xml", read(new File(tempDir, "coverage-index.txt")));
+        assertEquals("<coverage version=\"1\">\n</coverage>", read(new File(tempDir, "coverage-001.xml")));
+        assertTrue(CoverageReportSplitter.listFiles(new File(tempDir, "other.xml")).isEmpty());
+    }
+
+    @Test
+    void invalid_split_mode() {
+        assertEquals(CoverageReportSplitter.SplitBy.SCHEMA, CoverageReportSplitter.SplitBy.parse(" Schema"));
+        assertThrows(IllegalArgumentException.class, () -> CoverageReportSplitter.SplitBy.parse("package"));
+    }
+
+    private static void writeFile(CoverageReportSplitter splitter, String path) throws IOException {
+        splitter.write("<file path=\"" + path + "\">");
+        splitter.write("<lineToCover lineNumber=\"1\" covered=\"true\"/>\n</file>");
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim()
+                .replace(System.lineSeparator(), "\n");
+    }
+}
@@ -0,0 +1,108 @@
+package org.utplsql.maven.plugin.io;
+
+import org.junit.jupiter.api.Test;
+import org.utplsql.maven.plugin.model.FileMapping;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileMappingFilterTest {
+
+    @Test
+    void default_pattern_keeps_plsql_files() {
+        FileMappingFilter filter = new FileMappingFilter(null);
+
+        List<String> mappable = filter.filter(Arrays.asList(
+                "src/main/plsql/app.pkg_test_me.pkb",
+                "src/main/plsql/PKG_TEST_ME.PKS",
+                "src/main/plsql/README.md",
+                "src/main/plsql/Makefile",
+                "pkg_without_directory.pkb"));
+
+        assertEquals(Arrays.asList("src/main/plsql/app.pkg_test_me.pkb", "src/main/plsql/PKG_TEST_ME.PKS"), mappable);
+    }
+
+    @Test
+    void configured_pattern_is_used() {
+        FileMappingFilter filter = new FileMappingFilter(".*/\\w+/(\\w+)/(\\w+)\\.\\w{3}");
+
+        List<String> mappable = filter.filter(Arrays.asList(
+                "scripts/sources/app/packages/PKG_TEST_ME.pks",
+                "scripts/sources/PKG_TEST_ME.pks"));
+
+        assertEquals(Arrays.asList("scripts/sources/app/packages/PKG_TEST_ME.pks"), mappable);
+    }
+
+    @Test
+    void top_level_alternation_is_searched_everywhere() {
+        FileMappingFilter filter = new FileMappingFilter(".*/(\\w+)\\.pkb|(\\w+)\\.pks");
+
+        List<String> mappable = filter.filter(Arrays.asList("a/b.pkb", "a/b.pks", "a/b.sql"));
+
+        assertEquals(Arrays.asList("a/b.pkb", "a/b.pks"), mappable);
+    }
+
+    @Test
+    void large_file_lists_bind_the_mappable_files_only() {
+        FileMappingFilter filter = new FileMappingFilter(null);
+        FileObjectMapper mapper = new FileObjectMapper(null, null, null, null, null, null);
+        // Every fifth generated file is not a PL/SQL source.
+        List<String> paths = generatePaths(50_000);
+
+        List<String> mappable = filter.filter(paths);
+
+        assertEquals(40_000, mappable.size());
+        assertEquals(describe(mapper.mapAll(paths)), describe(mapper.mapAll(mappable)));
+    }
+
+    @Test
+    void large_file_lists_are_filtered_within_time_budget() {
+        FileMappingFilter filter = new FileMappingFilter(null);
+        for (int size : new int[]{10_000, 50_000, 100_000}) {
+            List<String> paths = generatePaths(size);
+
+            long start = System.nanoTime();
+            List<String> mappable = filter.filter(paths);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals(size / 5 * 4, mappable.size());
+            // A generous budget for slow build machines, the filter takes a few milliseconds per 10k files.
+            assertTrue(elapsedMillis < 2_000, format("%d files filtered in %d ms", size, elapsedMillis));
+        }
+    }
+
+    @Test
+    void list_is_not_copied_when_every_file_is_mappable() {
+        FileMappingFilter filter = new FileMappingFilter(null);
+        List<String> paths = Arrays.asList("src/main/plsql/app.pkg_a.pkb", "src/main/plsql/app.pkg_b.pks");
+
+        assertSame(paths, filter.filter(paths));
+    }
+
+    private static List<String> generatePaths(int size) {
+        List<String> paths = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (i % 5 == 4) {
+                paths.add(format("src/main/plsql/schema_%d/docs/readme_%d.md", i % 10, i));
+            } else {
+                paths.add(format("src/main/plsql/schema_%d/packages/app.pkg_%d.pkb", i % 10, i));
+            }
+        }
+        return paths;
+    }
+
+    private static List<String> describe(List<FileMapping> mappings) {
+        return mappings.stream()
+                .map(mapping -> String.join(" ", mapping.getFilePath(), mapping.getQualifiedName(),
+                        mapping.getObjectType()))
+                .collect(Collectors.toList());
+    }
+}
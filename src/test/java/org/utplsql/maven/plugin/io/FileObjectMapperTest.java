@@ -0,0 +1,76 @@
+package org.utplsql.maven.plugin.io;
+
+import org.junit.jupiter.api.Test;
+import org.utplsql.maven.plugin.model.CustomTypeMapping;
+import org.utplsql.maven.plugin.model.FileMapping;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FileObjectMapperTest {
+
+    @Test
+    void default_mapping() {
+        FileObjectMapper mapper = new FileObjectMapper(null, null, null, null, null, null);
+
+        FileMapping body = mapper.map("scripts/sources/app.pkg_test_me.pkb");
+        assertEquals("APP", body.getObjectOwner());
+        assertEquals("PKG_TEST_ME", body.getObjectName());
+        assertEquals("PACKAGE BODY", body.getObjectType());
+
+        FileMapping spec = mapper.map("scripts/sources/PKG_TEST_ME.pks");
+        assertNull(spec.getObjectOwner());
+        assertEquals("PKG_TEST_ME", spec.getQualifiedName());
+        assertEquals("PACKAGE", spec.getObjectType());
+    }
+
+    @Test
+    void object_owner_is_used_when_not_in_path() {
+        FileObjectMapper mapper = new FileObjectMapper("code_owner", null, null, null, null, null);
+
+        assertEquals("CODE_OWNER.TO_TEST_ME", mapper.map("scripts/sources/to_test_me.sql").getQualifiedName());
+        assertEquals("APP.TO_TEST_ME", mapper.map("scripts/sources/app.to_test_me.sql").getQualifiedName());
+    }
+
+    @Test
+    void custom_regex_and_type_mapping() {
+        CustomTypeMapping typeMapping = new CustomTypeMapping();
+        typeMapping.setType("package body");
+        typeMapping.setCustomMapping("package_bodies");
+
+        FileObjectMapper mapper = new FileObjectMapper(null, ".*/(\\w+)/(\\w+)/(\\w+)\\..{3}", 1, 3, 2,
+                Collections.singletonList(typeMapping));
+
+        FileMapping mapping = mapper.map("scripts/sources/app/package_bodies/PKG_TEST_ME.pkb");
+        assertEquals("APP.PKG_TEST_ME", mapping.getQualifiedName());
+        assertEquals("PACKAGE BODY", mapping.getObjectType());
+
+        assertNull(mapper.map("scripts/sources/app/packages/PKG_TEST_ME.pks").getObjectType());
+    }
+
+    @Test
+    void missing_subexpression_is_null() {
+        FileObjectMapper mapper = new FileObjectMapper(null, ".*/(\\w+)\\.\\w{3}", 9, 1, 4, null);
+
+        FileMapping mapping = mapper.map("srcs/foo.sql");
+        assertNull(mapping.getObjectOwner());
+        assertEquals("FOO", mapping.getObjectName());
+        assertNull(mapping.getObjectType());
+    }
+
+    @Test
+    void unmatched_paths_are_left_out() {
+        FileObjectMapper mapper = new FileObjectMapper(null, null, null, null, null, null);
+
+        List<FileMapping> mappings = mapper.mapAll(Arrays.asList(
+                "src/main/plsql/a.pkb", "src/main/plsql/README.md", "src/main/plsql/b.pks"));
+
+        assertEquals(2, mappings.size());
+        assertEquals("src/main/plsql/a.pkb", mappings.get(0).getFilePath());
+        assertEquals("src/main/plsql/b.pks", mappings.get(1).getFilePath());
+    }
+}
@@ -0,0 +1,101 @@
+package org.utplsql.maven.plugin.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FixtureReaderTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void csv_rows_are_read_with_quotes_and_nulls() throws IOException {
+        File file = write("app.customers.csv", "id,name,comment\n"
+                + "1,\"Smith, John\",\n"
+                + "2,\"Say \"\"hi\"\"\",\"two\nlines\"\n"
+                + "\n"
+                + "3,,\"\"\n");
+
+        try (FixtureReader reader = FixtureReader.open(file)) {
+            assertEquals(Arrays.asList("id", "name", "comment"), reader.getColumns());
+            assertArrayEquals(new Object[]{"1", "Smith, John", null}, reader.next());
+            assertArrayEquals(new Object[]{"2", "Say \"hi\"", "two\nlines"}, reader.next());
+            assertArrayEquals(new Object[]{"3", null, ""}, reader.next());
+            assertNull(reader.next());
+        }
+        assertEquals("app.customers", FixtureReader.tableName(file));
+    }
+
+    @Test
+    void csv_rows_with_another_number_of_fields_are_rejected() throws IOException {
+        File file = write("orders.csv", "id,amount\n1\n");
+
+        try (FixtureReader reader = FixtureReader.open(file)) {
+            IOException e = assertThrows(IOException.class, reader::next);
+            assertTrue(e.getMessage().contains("orders.csv:2: 1 fields, expected 2"));
+        }
+    }
+
+    @Test
+    void json_lines_are_read_by_the_keys_of_the_first_object() throws IOException {
+        File file = write("orders.jsonl", "{\"id\": 1, \"amount\": 12.50, \"paid\": true, \"note\": \"a\\\"b\\u00e9\"}\n"
+                + "{\"amount\": -3e2, \"id\": 2, \"note\": null}\n");
+
+        try (FixtureReader reader = FixtureReader.open(file)) {
+            assertEquals(Arrays.asList("id", "amount", "paid", "note"), reader.getColumns());
+            assertArrayEquals(new Object[]{new BigDecimal("1"), new BigDecimal("12.50"), Boolean.TRUE, "a\"bé"},
+                    reader.next());
+            assertArrayEquals(new Object[]{new BigDecimal("2"), new BigDecimal("-3e2"), null, null}, reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void json_lines_with_unknown_keys_or_nested_values_are_rejected() throws IOException {
+        File unknown = write("unknown.jsonl", "{\"id\": 1}\n{\"id\": 2, \"name\": \"x\"}\n");
+        try (FixtureReader reader = FixtureReader.open(unknown)) {
+            reader.next();
+            assertThrows(IOException.class, reader::next);
+        }
+
+        assertThrows(IOException.class, () -> FixtureReader.open(write("nested.jsonl", "{\"id\": [1, 2]}\n")));
+        assertThrows(IOException.class, () -> FixtureReader.open(write("empty.csv", "")));
+    }
+
+    @Test
+    void only_csv_and_json_lines_files_are_fixtures() throws IOException {
+        assertTrue(FixtureReader.isFixture(new File("customers.CSV")));
+        assertTrue(FixtureReader.isFixture(new File("customers.jsonl")));
+        assertFalse(FixtureReader.isFixture(new File("customers.sql")));
+
+        File script = write("customers.sql", "insert into customers values (1);\n");
+        IOException e = assertThrows(IOException.class, () -> FixtureReader.open(script));
+        assertTrue(e.getMessage().startsWith("Unsupported fixture file"), e.getMessage());
+    }
+
+    @Test
+    void table_name_keeps_the_owner() {
+        assertEquals("hr.employees", FixtureReader.tableName(new File("data/hr.employees.jsonl")));
+        assertEquals("employees", FixtureReader.tableName(new File("employees.CSV")));
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = new File(tempDir, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
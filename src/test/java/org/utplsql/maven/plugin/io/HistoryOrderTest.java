@@ -0,0 +1,75 @@
+package org.utplsql.maven.plugin.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryOrderTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void failed_then_changed_then_fastest_suites_first() throws IOException {
+        TestHistory history = TestHistory.load(new File(tempDir, "history.tsv"));
+        record(history, "app.slow.a", "PPPP", 5000L);
+        record(history, "app.fast.a", "PPPP", 10L);
+        record(history, "app.medium.a", "PPPP", 500L);
+        record(history, "app.failed_long_ago.a", "FPPP", 20L);
+        record(history, "app.failed_before.a", "PPFP", 900L);
+        record(history, "app.failed_last.a", "PPPF", 1000L);
+        record(history, "app.failed_last.b", "PPPP", 1000L);
+
+        HistoryOrder order = new HistoryOrder(history);
+
+        assertEquals(Arrays.asList("APP.FAILED_LAST", "app.failed_before", "app.slow", "app.new", "app.fast",
+                        "app.failed_long_ago", "app.medium"),
+                order.order(Arrays.asList("app.new", "app.slow", "app.fast", "app.medium", "app.failed_long_ago",
+                        "app.failed_before", "APP.FAILED_LAST"), Collections.singleton("app.slow")));
+        assertTrue(order.failedRecently("app.failed_last"));
+        assertFalse(order.failedRecently("app.failed_long_ago"));
+        assertEquals(2000L, order.getDuration("app.failed_last"));
+        assertEquals(0L, order.getDuration("app.new"));
+    }
+
+    @Test
+    void latest_failures_first_then_ties_by_name() throws IOException {
+        TestHistory history = TestHistory.load(new File(tempDir, "history.tsv"));
+        record(history, "app.two_runs_ago.a", "FPP", 10L);
+        record(history, "app.last_run.a", "PPF", 900L);
+        record(history, "app.b_same.a", "PPP", 50L);
+        record(history, "app.a_same.a", "PPP", 50L);
+        record(history, "no_suite", "FFF", 10L);
+
+        HistoryOrder order = new HistoryOrder(history);
+
+        assertEquals(Arrays.asList("app.last_run", "app.two_runs_ago", "app.a_same", "app.b_same"),
+                order.order(Arrays.asList("app.b_same", "app.a_same", "app.two_runs_ago", "app.last_run"),
+                        Collections.emptySet()));
+        assertFalse(order.failedRecently("no_suite"));
+    }
+
+    @Test
+    void tested_object_is_named_after_the_test_package() {
+        assertEquals("pkg_a", HistoryOrder.testedObject("TEST_PKG_A"));
+        assertEquals("pkg_a", HistoryOrder.testedObject("ut_pkg_a"));
+        assertEquals("pkg_a", HistoryOrder.testedObject("pkg_a_tests"));
+        assertEquals("pkg", HistoryOrder.testedObject("test_pkg"));
+        assertEquals("test_", HistoryOrder.testedObject("test_"));
+        assertEquals("pkg_a", HistoryOrder.testedObject("pkg_a"));
+    }
+
+    private static void record(TestHistory history, String test, String outcomes, long duration) {
+        for (char outcome : outcomes.toCharArray()) {
+            history.record(test, outcome, duration);
+        }
+    }
+}
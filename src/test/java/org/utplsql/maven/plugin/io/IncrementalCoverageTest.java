@@ -0,0 +1,92 @@
+package org.utplsql.maven.plugin.io;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalCoverageTest {
+
+    private static final List<String> SOURCES = Arrays.asList("src/a.pkb", "src/b.pkb");
+    private static final List<String> TESTS = Collections.singletonList("test/a_test.pkb");
+
+    @TempDir
+    File baseDir;
+
+    @Test
+    void only_changed_sources_are_measured_and_the_report_is_completed() throws IOException {
+        write("src/a.pkb", "a");
+        write("src/b.pkb", "b");
+        write("test/a_test.pkb", "t");
+        File buildDir = new File(baseDir, "target");
+        File report = new File(buildDir, "coverage.xml");
+
+        IncrementalCoverage first = plan(buildDir, report, "config");
+        assertFalse(first.isIncremental());
+        write("target/coverage.xml", coverage("src/a.pkb", "src/b.pkb"));
+        first.complete();
+
+        write("src/b.pkb", "b changed");
+        IncrementalCoverage second = plan(buildDir, report, "config");
+        assertEquals(Collections.singletonList("src/b.pkb"), second.getChangedSources());
+        write("target/coverage.xml", coverage("src/b.pkb"));
+        second.complete();
+
+        String merged = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+        assertTrue(merged.contains("path=\"src/a.pkb\""));
+        assertTrue(merged.contains("path=\"src/b.pkb\""));
+
+        IncrementalCoverage third = plan(buildDir, report, "config");
+        assertTrue(third.isUnchanged());
+        assertTrue(report.delete());
+        third.complete();
+        assertTrue(report.isFile());
+    }
+
+    @Test
+    void test_or_configuration_changes_measure_everything() throws IOException {
+        write("src/a.pkb", "a");
+        write("src/b.pkb", "b");
+        write("test/a_test.pkb", "t");
+        File buildDir = new File(baseDir, "target");
+        File report = new File(buildDir, "coverage.xml");
+        write("target/coverage.xml", coverage("src/a.pkb", "src/b.pkb"));
+        plan(buildDir, report, "config").complete();
+
+        assertFalse(plan(buildDir, report, "other config").isIncremental());
+
+        write("test/a_test.pkb", "t changed");
+        assertFalse(plan(buildDir, report, "config").isIncremental());
+    }
+
+    private IncrementalCoverage plan(File buildDir, File report, String configuration) throws IOException {
+        return IncrementalCoverage.plan(baseDir, buildDir, SOURCES, TESTS, configuration, null,
+                Collections.singletonList(report), new SystemStreamLog());
+    }
+
+    private void write(String path, String content) throws IOException {
+        File file = new File(baseDir, path);
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String coverage(String... paths) {
+        StringBuilder xml = new StringBuilder("<coverage version=\"1\">");
+        for (String path : paths) {
+            xml.append("<file path=\"").append(path).append("\"><lineToCover lineNumber=\"1\" covered=\"true\"/></file>");
+        }
+        return xml.append("</coverage>").toString();
+    }
+}
@@ -0,0 +1,71 @@
+package org.utplsql.maven.plugin.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ModuleReportSplitterTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void file_elements_go_to_the_report_of_their_module() throws IOException {
+        File report = new File(tempDir, "coverage.xml");
+        Files.write(report.toPath(), Arrays.asList("<coverage version=\"1\">",
+                "<file path=\"core/src/main/plsql/a.pkb\">", "<lineToCover lineNumber=\"1\" covered=\"true\"/>",
+                "</file>",
+                "<file path=\"core/api/src/main/plsql/b.pkb\">", "<lineToCover lineNumber=\"2\" covered=\"false\"/>",
+                "</file>",
+                "<file path=\"other/c.pkb\">", "<lineToCover lineNumber=\"3\" covered=\"true\"/>", "</file>",
+                "</coverage>"), StandardCharsets.UTF_8);
+        Map<String, File> modules = new LinkedHashMap<>();
+        modules.put("core/", new File(tempDir, "core/coverage.xml"));
+        modules.put("core/api/", new File(tempDir, "core/api/coverage.xml"));
+        modules.put("empty/", new File(tempDir, "empty/coverage.xml"));
+
+        Map<String, Integer> counts = ModuleReportSplitter.split(report, modules);
+
+        assertEquals(1, counts.get("core/"));
+        assertEquals(1, counts.get("core/api/"));
+        assertEquals(0, counts.get("empty/"));
+        assertEquals("<coverage version=\"1\">\n<file path=\"src/main/plsql/a.pkb\">\n"
+                        + "<lineToCover lineNumber=\"1\" covered=\"true\"/>\n</file>\n</coverage>",
+                read(modules.get("core/")));
+        assertEquals("<coverage version=\"1\">\n<file path=\"src/main/plsql/b.pkb\">\n"
+                        + "<lineToCover lineNumber=\"2\" covered=\"false\"/>\n</file>\n</coverage>",
+                read(modules.get("core/api/")));
+        assertEquals("<coverage version=\"1\">\n</coverage>", read(modules.get("empty/")));
+    }
+
+    @Test
+    void test_executions_are_split_like_coverage() throws IOException {
+        File report = new File(tempDir, "tests.xml");
+        Files.write(report.toPath(), Arrays.asList("<testExecutions version=\"1\">",
+                "<file path=\"a/src/test/plsql/test_a.pkb\">", "<testCase name=\"t1\" duration=\"5\" >",
+                "<failure message=\"expected\"/>", "</testCase>", "</file>", "</testExecutions>"),
+                StandardCharsets.UTF_8);
+        Map<String, File> modules = new LinkedHashMap<>();
+        modules.put("a/", new File(tempDir, "a/tests.xml"));
+
+        ModuleReportSplitter.split(report, modules);
+
+        assertEquals("<testExecutions version=\"1\">\n<file path=\"src/test/plsql/test_a.pkb\">\n"
+                        + "<testCase name=\"t1\" duration=\"5\" >\n<failure message=\"expected\"/>\n</testCase>\n"
+                        + "</file>\n</testExecutions>",
+                read(modules.get("a/")));
+    }
+
+    private static String read(File file) throws IOException {
+        return String.join("\n", Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+    }
+}
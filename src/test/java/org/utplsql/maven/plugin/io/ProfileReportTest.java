@@ -0,0 +1,52 @@
+package org.utplsql.maven.plugin.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.utplsql.maven.plugin.model.ProfileEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProfileReportTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void top_by_self_and_total_time() throws IOException {
+        File file = new File(tempDir, ProfileReport.FILE_NAME);
+        ProfileReport.write(file, "DBMS_HPROF", "calls", Arrays.asList(
+                new ProfileEntry("APP", "PKG", "FAST", 10, 1_000, 50_000),
+                new ProfileEntry("APP", "PKG", "SLOW", 2, 40_000, 40_000),
+                new ProfileEntry("APP", "PROC", null, 1, 500, 500)));
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertTrue(lines.get(0).startsWith("PL/SQL profile collected with DBMS_HPROF: 3 entries"));
+
+        int self = lines.indexOf("Top 3 by self time");
+        int total = lines.indexOf("Top 3 by total time");
+        assertTrue(lines.get(self + 2).endsWith("APP.PKG.SLOW"));
+        assertTrue(lines.get(total + 2).endsWith("APP.PKG.FAST"));
+        assertTrue(lines.get(total + 4).endsWith("APP.PROC"));
+        assertEquals("        40.000         40.000            2  APP.PKG.SLOW", lines.get(self + 2));
+    }
+
+    @Test
+    void counts_are_titled_by_the_profiler() throws IOException {
+        File file = new File(tempDir, ProfileReport.FILE_NAME);
+        ProfileReport.write(file, "DBMS_PROFILER", "line executions",
+                Arrays.asList(new ProfileEntry("APP", "PKG", null, 1200, 3_000, 3_000)));
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        int self = lines.indexOf("Top 1 by self time");
+        assertEquals("       self ms       total ms line executions  subprogram", lines.get(self + 1));
+        assertEquals("         3.000          3.000            1200  APP.PKG", lines.get(self + 2));
+    }
+}
@@ -0,0 +1,66 @@
+package org.utplsql.maven.plugin.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.utplsql.api.reporter.DefaultReporter;
+import org.utplsql.maven.plugin.model.ReporterParameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportManifestTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void reporters_are_read_as_written() throws IOException {
+        ReporterParameter junit = new ReporterParameter();
+        junit.setName("UT_JUNIT_REPORTER");
+        junit.setFileOutput("junit-report.xml");
+        junit.setConsoleOutput(true);
+        ReporterParameter coverage = new ReporterParameter();
+        coverage.setName("UT_COVERAGE_SONAR_REPORTER");
+        coverage.setFileOutput("coverage.xml");
+        coverage.setSplitBy("size");
+        coverage.setSplitSize(10);
+
+        File file = new File(tempDir, ReportManifest.FILE_NAME);
+        ReportManifest.write(file, Arrays.asList(
+                new ReporterAndReporterParameter(new DefaultReporter("UT_JUNIT_REPORTER", null), junit),
+                new ReporterAndReporterParameter(new DefaultReporter("UT_COVERAGE_SONAR_REPORTER", null), coverage)));
+        List<ReportManifest.Entry> entries = ReportManifest.read(file);
+
+        assertEquals(2, entries.size());
+        assertEquals("UT_JUNIT_REPORTER", entries.get(0).getReporterParameter().getName());
+        assertEquals("junit-report.xml", entries.get(0).getReporterParameter().getFileOutput());
+        assertTrue(entries.get(0).getReporterParameter().isConsoleOutput());
+        assertFalse(entries.get(0).getReporterParameter().isSplit());
+        assertEquals("size", entries.get(1).getReporterParameter().getSplitBy());
+        assertEquals(10, entries.get(1).getReporterParameter().getSplitSize());
+        assertFalse(entries.get(1).getReporterParameter().isConsoleOutput());
+    }
+
+    @Test
+    void missing_manifest_has_no_reporters() throws IOException {
+        assertEquals(Collections.emptyList(), ReportManifest.read(new File(tempDir, ReportManifest.FILE_NAME)));
+    }
+
+    @Test
+    void malformed_manifest_is_rejected() throws IOException {
+        File file = new File(tempDir, "manifest.tsv");
+        Files.write(file.toPath(), Collections.singletonList("id\tUT_JUNIT_REPORTER"), StandardCharsets.UTF_8);
+
+        assertThrows(IOException.class, () -> ReportManifest.read(file));
+    }
+}
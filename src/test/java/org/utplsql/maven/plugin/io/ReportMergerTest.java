@@ -0,0 +1,153 @@
+package org.utplsql.maven.plugin.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportMergerTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void junit_reports_are_appended_and_totals_added() throws IOException {
+        File smoke = write("smoke.xml", "<?xml version=\"1.0\"?>\n<testsuites tests=\"2\" failures=\"0\" time=\".5\">\n"
+                + "<testsuite name=\"a\" tests=\"2\"/>\n</testsuites>");
+        File rest = write("rest.xml", "<?xml version=\"1.0\"?>\n<testsuites tests=\"3\" failures=\"1\" time=\"1.25\">\n"
+                + "<testsuite name=\"b\" tests=\"3\"/>\n</testsuites>");
+        File output = new File(tempDir, "junit.xml");
+
+        ReportMerger.merge("UT_JUNIT_REPORTER", Arrays.asList(smoke, rest), output);
+
+        String merged = read(output);
+        assertTrue(merged.contains("tests=\"5\""), merged);
+        assertTrue(merged.contains("failures=\"1\""), merged);
+        assertTrue(merged.contains("time=\"1.75\""), merged);
+        assertTrue(merged.indexOf("name=\"a\"") < merged.indexOf("name=\"b\""), merged);
+    }
+
+    @Test
+    void sonar_test_files_of_the_same_path_are_merged() throws IOException {
+        File smoke = write("smoke.xml", "<testExecutions version=\"1\"><file path=\"app.pkg\">"
+                + "<testCase name=\"a\" duration=\"1\"/></file></testExecutions>");
+        File rest = write("rest.xml", "<testExecutions version=\"1\"><file path=\"app.pkg\">"
+                + "<testCase name=\"b\" duration=\"1\"/></file><file path=\"app.other\"/></testExecutions>");
+        File output = new File(tempDir, "sonar.xml");
+
+        ReportMerger.merge("UT_SONAR_TEST_REPORTER", Arrays.asList(smoke, rest), output);
+
+        String merged = read(output);
+        assertEquals(merged.indexOf("app.pkg"), merged.lastIndexOf("app.pkg"), merged);
+        assertTrue(merged.contains("name=\"b\""), merged);
+        assertTrue(merged.contains("app.other"), merged);
+    }
+
+    @Test
+    void sonar_coverage_lines_are_covered_by_any_report() throws IOException {
+        File smoke = write("smoke.xml", "<coverage version=\"1\">\n<file path=\"src/a.pkb\">\n"
+                + "<lineToCover lineNumber=\"2\" covered=\"true\"/>\n<lineToCover lineNumber=\"3\" covered=\"false\"/>\n"
+                + "</file>\n</coverage>");
+        File rest = write("rest.xml", "<coverage version=\"1\">\n<file path=\"src/a.pkb\">\n"
+                + "<lineToCover lineNumber=\"1\" covered=\"true\"/>\n<lineToCover lineNumber=\"2\" covered=\"false\"/>\n"
+                + "<lineToCover lineNumber=\"3\" covered=\"true\"/>\n</file>\n<file path=\"src/b.pkb\">\n"
+                + "<lineToCover lineNumber=\"1\" covered=\"false\"/>\n</file>\n</coverage>");
+        File output = new File(tempDir, "coverage.xml");
+
+        ReportMerger.merge("UT_COVERAGE_SONAR_REPORTER", Arrays.asList(smoke, rest), output);
+
+        assertEquals(String.join("\n", "<coverage version=\"1\">", "<file path=\"src/a.pkb\">",
+                "<lineToCover lineNumber=\"1\" covered=\"true\"/>", "<lineToCover lineNumber=\"2\" covered=\"true\"/>",
+                "<lineToCover lineNumber=\"3\" covered=\"true\"/>", "</file>", "<file path=\"src/b.pkb\">",
+                "<lineToCover lineNumber=\"1\" covered=\"false\"/>", "</file>", "</coverage>", ""),
+                read(output).replace(System.lineSeparator(), "\n"));
+    }
+
+    @Test
+    void sonar_coverage_files_in_another_order_are_merged() throws IOException {
+        File first = write("first.xml", "<coverage version=\"1\"><file path=\"a\">"
+                + "<lineToCover lineNumber=\"1\" covered=\"false\"/></file><file path=\"b\">"
+                + "<lineToCover lineNumber=\"1\" covered=\"false\"/></file></coverage>");
+        File second = write("second.xml", "<coverage version=\"1\"><file path=\"b\">"
+                + "<lineToCover lineNumber=\"1\" covered=\"true\"/></file><file path=\"a\">"
+                + "<lineToCover lineNumber=\"1\" covered=\"true\"/></file></coverage>");
+        File output = new File(tempDir, "coverage.xml");
+
+        ReportMerger.merge("UT_COVERAGE_SONAR_REPORTER", Arrays.asList(first, second), output);
+
+        String merged = read(output);
+        assertTrue(merged.indexOf("path=\"a\"") < merged.indexOf("path=\"b\""), merged);
+        assertFalse(merged.contains("covered=\"false\""), merged);
+    }
+
+    @Test
+    void empty_reports_are_left_out() throws IOException {
+        File empty = write("empty.xml", "");
+        File rest = write("rest.xml", "<?xml version=\"1.0\"?>\n<testsuites tests=\"3\">\n"
+                + "<testsuite name=\"b\" tests=\"3\"/>\n</testsuites>");
+        File output = new File(tempDir, "junit.xml");
+        File emptyOutput = new File(tempDir, "nothing.xml");
+
+        ReportMerger.merge("UT_JUNIT_REPORTER", Arrays.asList(empty, rest), output);
+        ReportMerger.merge("UT_JUNIT_REPORTER", Arrays.asList(empty, empty), emptyOutput);
+
+        String merged = read(output);
+        assertTrue(merged.contains("tests=\"3\""), merged);
+        assertTrue(merged.contains("name=\"b\""), merged);
+        assertEquals(0, emptyOutput.length());
+    }
+
+    @Test
+    void sonar_test_files_of_three_reports_keep_the_run_order() throws IOException {
+        File first = write("first.xml", "<testExecutions version=\"1\"><file path=\"x\">"
+                + "<testCase name=\"1\" duration=\"1\"/></file></testExecutions>");
+        File second = write("second.xml", "<testExecutions version=\"1\"><file path=\"y\">"
+                + "<testCase name=\"2\" duration=\"1\"/></file><file path=\"x\">"
+                + "<testCase name=\"3\" duration=\"1\"/></file></testExecutions>");
+        File third = write("third.xml", "<testExecutions version=\"1\"><file path=\"x\">"
+                + "<testCase name=\"4\" duration=\"1\"/></file></testExecutions>");
+        File output = new File(tempDir, "sonar.xml");
+
+        ReportMerger.merge("UT_SONAR_TEST_REPORTER", Arrays.asList(first, second, third), output);
+
+        String merged = read(output);
+        assertEquals(merged.indexOf("path=\"x\""), merged.lastIndexOf("path=\"x\""), merged);
+        assertTrue(merged.indexOf("name=\"1\"") < merged.indexOf("name=\"3\""), merged);
+        assertTrue(merged.indexOf("name=\"3\"") < merged.indexOf("name=\"4\""), merged);
+        assertTrue(merged.indexOf("name=\"4\"") < merged.indexOf("path=\"y\""), merged);
+    }
+
+    @Test
+    void text_reports_are_concatenated_and_html_coverage_is_not_merged() throws IOException {
+        File smoke = write("smoke.txt", "smoke\n");
+        File rest = write("rest.txt", "rest\n");
+        File documentation = new File(tempDir, "documentation.txt");
+        File html = new File(tempDir, "coverage.html");
+
+        ReportMerger.merge("UT_DOCUMENTATION_REPORTER", Arrays.asList(smoke, rest), documentation);
+
+        assertEquals("smoke\nrest\n", read(documentation));
+        assertFalse(ReportMerger.isMergeable("ut_coverage_html_reporter"));
+        assertThrows(IOException.class,
+                () -> ReportMerger.merge("UT_COVERAGE_HTML_REPORTER", Arrays.asList(smoke, rest), html));
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = new File(tempDir, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
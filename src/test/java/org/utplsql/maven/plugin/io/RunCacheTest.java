@@ -0,0 +1,59 @@
+package org.utplsql.maven.plugin.io;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunCacheTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void reports_are_restored_for_the_same_fingerprint() throws IOException {
+        File report = write("target/junit.xml", "<testsuites/>");
+        RunCache cache = new RunCache(new File(tempDir, "target/utplsql/run-cache"));
+        cache.store("abc", Collections.singletonList(report));
+
+        assertTrue(report.delete());
+        assertNull(cache.restore("other", new SystemStreamLog()));
+        assertNotNull(cache.restore("abc", new SystemStreamLog()));
+        assertEquals("<testsuites/>", new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8));
+
+        cache.invalidate();
+        assertNull(cache.restore("abc", new SystemStreamLog()));
+    }
+
+    @Test
+    void fingerprint_changes_with_files_and_configuration() throws IOException {
+        write("src/a.pkb", "a");
+        List<String> paths = Collections.singletonList("src/a.pkb");
+        String fingerprint = RunCache.fingerprint(tempDir, paths, "config");
+
+        assertEquals(fingerprint, RunCache.fingerprint(tempDir, paths, "config"));
+        assertNotEquals(fingerprint, RunCache.fingerprint(tempDir, paths, "other config"));
+        write("src/a.pkb", "changed");
+        assertNotEquals(fingerprint, RunCache.fingerprint(tempDir, paths, "config"));
+    }
+
+    private File write(String path, String content) throws IOException {
+        File file = new File(tempDir, path);
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
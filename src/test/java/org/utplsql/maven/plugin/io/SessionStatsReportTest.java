@@ -0,0 +1,56 @@
+package org.utplsql.maven.plugin.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.utplsql.maven.plugin.db.SessionStats;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionStatsReportTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void delta_between_snapshots() {
+        SessionStats delta = snapshot(150, 1000, 64).since(snapshot(100, 400, 32));
+
+        assertEquals(50, delta.get(SessionStats.CPU));
+        assertEquals(600, delta.get(SessionStats.LOGICAL_READS));
+        assertEquals(64, delta.get(SessionStats.PGA_MAX));
+        assertEquals(2, delta.getWaits().get("db file sequential read").getCount());
+    }
+
+    @Test
+    void summary_and_metrics_file() throws IOException {
+        SessionStats run = snapshot(250, 5000, 2 * 1024 * 1024);
+        assertTrue(SessionStatsReport.summarize(run).startsWith("CPU 2.50 s, logical reads 5000,"));
+        assertTrue(SessionStatsReport.summarize(run).endsWith("PGA max 2 MB, top waits: db file sequential read 0.00 s (4)"));
+
+        File file = new File(tempDir, SessionStatsReport.FILE_NAME);
+        SessionStatsReport.write(file, run, Collections.singletonMap("app.test_pkg", run));
+        String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+
+        assertTrue(json.contains("\"session logical reads\": 5000"));
+        assertTrue(json.contains("{\"name\": \"app.test_pkg\", \"stats\": {\"statistics\""));
+        assertTrue(json.contains("\"db file sequential read\": {\"count\": 4, \"micros\": 120}"));
+    }
+
+    private static SessionStats snapshot(long cpu, long logicalReads, long pga) {
+        Map<String, Long> statistics = new HashMap<>();
+        statistics.put(SessionStats.CPU, cpu);
+        statistics.put(SessionStats.LOGICAL_READS, logicalReads);
+        statistics.put(SessionStats.PGA_MAX, pga);
+        return SessionStats.of(statistics, Collections.singletonMap("db file sequential read",
+                new SessionStats.Wait(cpu > 200 ? 4 : cpu > 120 ? 3 : 1, 120)));
+    }
+}
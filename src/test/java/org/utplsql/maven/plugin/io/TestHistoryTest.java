@@ -0,0 +1,57 @@
+package org.utplsql.maven.plugin.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestHistoryTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void history_is_saved_and_loaded() throws IOException {
+        File file = new File(tempDir, "utplsql/test-history.tsv");
+        TestHistory history = TestHistory.load(file);
+        history.record("app.t.ok", TestHistory.PASSED, 12L);
+        history.record("app.t.ok", TestHistory.PASSED, null);
+        history.save();
+
+        TestHistory loaded = TestHistory.load(file);
+        assertEquals("PP", loaded.getOutcomes("app.t.ok"));
+        assertEquals(Long.valueOf(12), loaded.getDuration("app.t.ok"));
+    }
+
+    @Test
+    void flaky_tests() throws IOException {
+        TestHistory history = TestHistory.load(new File(tempDir, "history.tsv"));
+        for (char outcome : "PPFFFP".toCharArray()) {
+            history.record("app.t.stable", outcome, 1L);
+        }
+        for (char outcome : "PFPF".toCharArray()) {
+            history.record("app.t.flipping", outcome, 1L);
+        }
+        history.record("app.t.rerun", TestHistory.PASSED_ON_RERUN, 1L);
+
+        assertFalse(history.isFlaky("app.t.stable"));
+        assertTrue(history.isFlaky("app.t.flipping"));
+        assertTrue(history.isFlaky("app.t.rerun"));
+        assertFalse(history.isFlaky("app.t.unknown"));
+    }
+
+    @Test
+    void failure_manifest() throws IOException {
+        File file = new File(tempDir, FailureManifest.FILE_NAME);
+        assertTrue(FailureManifest.read(file).isEmpty());
+
+        FailureManifest.write(file, Arrays.asList("app.t.a", "app.t.b"));
+        assertEquals(Arrays.asList("app.t.a", "app.t.b"), FailureManifest.read(file));
+    }
+}
@@ -0,0 +1,60 @@
+package org.utplsql.maven.plugin.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.BitSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class GitDiffTest {
+
+    @TempDir
+    File repository;
+
+    @Test
+    void changed_lines_of_modified_and_untracked_files() throws IOException {
+        assumeTrue(gitAvailable());
+        GitDiff.git(repository, "init", "-q");
+        write("src/a.pkb", "line 1\n-- comment\nline 3\nline 4\n");
+        GitDiff.git(repository, "add", ".");
+        GitDiff.git(repository, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "base");
+
+        write("src/a.pkb", "line 1\nline 3 changed\nline 4\nline 5\n");
+        write("src/b.pkb", "new 1\nnew 2\n");
+        Map<String, BitSet> changed = GitDiff.changedLines(repository, "HEAD");
+
+        assertEquals(lines(2, 4), changed.get("src/a.pkb"));
+        assertEquals(lines(1, 2), changed.get("src/b.pkb"));
+    }
+
+    private static BitSet lines(int... numbers) {
+        BitSet lines = new BitSet();
+        for (int number : numbers) {
+            lines.set(number);
+        }
+        return lines;
+    }
+
+    private void write(String path, String content) throws IOException {
+        File file = new File(repository, path);
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean gitAvailable() {
+        try {
+            GitDiff.git(new File("."), "--version");
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
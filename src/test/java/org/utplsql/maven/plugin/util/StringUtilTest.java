@@ -2,12 +2,14 @@ package org.utplsql.maven.plugin.util;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.utplsql.maven.plugin.util.StringUtil.isBlank;
 import static org.utplsql.maven.plugin.util.StringUtil.isEmpty;
 import static org.utplsql.maven.plugin.util.StringUtil.isNotBlank;
 import static org.utplsql.maven.plugin.util.StringUtil.isNotEmpty;
+import static org.utplsql.maven.plugin.util.StringUtil.toJsonString;
 
 class StringUtilTest {
 
@@ -70,4 +72,9 @@ class StringUtilTest {
     void isNotBlank_with_empty() {
         assertFalse(isNotBlank(""));
     }
+
+    @Test
+    void toJsonString_escapes_quotes_backslashes_and_control_characters() {
+        assertEquals("\"a\\\"b\\\\c\\u000a\"", toJsonString("a\"b\\c\n"));
+    }
 }